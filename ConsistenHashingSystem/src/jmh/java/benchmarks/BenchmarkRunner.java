@@ -0,0 +1,48 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes the results as JSON for regression tracking.
+ * Accepts the usual JMH command line, for example a benchmark regex or {@code -p servers=100}; results go to
+ * {@code jmh-results.json} unless {@code -rff} names another file.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * The default JSON results file.
+     */
+    private static final String DEFAULT_RESULTS = "jmh-results.json";
+
+    /**
+     * Prevents instantiation.
+     */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the selected benchmarks.
+     *
+     * @param args JMH command line options.
+     * @throws CommandLineOptionException if the options cannot be parsed.
+     * @throws RunnerException            if a benchmark fails.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult().orElse(DEFAULT_RESULTS))
+                .build();
+        new Runner(options).run();
+    }
+}
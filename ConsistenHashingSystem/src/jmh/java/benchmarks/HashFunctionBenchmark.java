@@ -0,0 +1,78 @@
+package benchmarks;
+
+import hashing.HashFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of hashing one key with each {@link HashFunction} at several key lengths.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HashFunctionBenchmark {
+
+    /**
+     * The hash function under test.
+     */
+    @Param({"SHA256", "XXHASH64", "MURMUR3"})
+    public String algorithm;
+
+    /**
+     * The length of each key in characters.
+     */
+    @Param({"8", "32", "128"})
+    public int keyLength;
+
+    /**
+     * The hash function built from {@link #algorithm}.
+     */
+    private HashFunction hashFunction;
+
+    /**
+     * The pool of keys cycled through, so the benchmark does not hash one constant.
+     */
+    private String[] keys;
+
+    /**
+     * The index of the next key.
+     */
+    private int next;
+
+    /**
+     * Builds the hash function and the key pool.
+     */
+    @Setup
+    public void setUp() {
+        hashFunction = Workloads.hashFunction(algorithm);
+        keys = Workloads.keys(1024, keyLength);
+    }
+
+    /**
+     * Hashes the next key.
+     *
+     * @return The hash, consumed by JMH.
+     */
+    @Benchmark
+    public long hash() {
+        String key = keys[next++ & (keys.length - 1)];
+        return hashFunction.hash(key);
+    }
+}
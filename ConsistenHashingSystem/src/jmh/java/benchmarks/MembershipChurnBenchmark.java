@@ -0,0 +1,111 @@
+package benchmarks;
+
+import hashing.XxHash64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ring.RingAlgorithm;
+import system.ConsistentHashingSystem;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookups while membership keeps changing: seven threads locate keys while one thread repeatedly removes
+ * the oldest server and adds a new one. JMH reports the throughput of both sides of the group.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class MembershipChurnBenchmark {
+
+    /**
+     * The placement strategy under test.
+     */
+    @Param({"HASH_RING", "COPY_ON_WRITE_HASH_RING", "JUMP", "MAGLEV"})
+    public RingAlgorithm algorithm;
+
+    /**
+     * The system shared by the group.
+     */
+    private ConsistentHashingSystem system;
+
+    /**
+     * The live server IDs, oldest first; only touched by the churn thread.
+     */
+    private Deque<Integer> live;
+
+    /**
+     * The keys cycled through.
+     */
+    private String[] keys;
+
+    /**
+     * Builds a 50-server system with 100 virtual nodes per server.
+     */
+    @Setup
+    public void setUp() {
+        system = new ConsistentHashingSystem(algorithm.create(new XxHash64()));
+        system.setVirtualNodesPerServer(100);
+        live = new ArrayDeque<>();
+        for (int i = 0; i < 50; i++) live.add(system.addServer());
+        keys = Workloads.keys(1 << 14, 16);
+    }
+
+    /**
+     * Each lookup thread's position in the key pool.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        /**
+         * The index of the next key.
+         */
+        int next;
+    }
+
+    /**
+     * Locates one key while membership changes.
+     *
+     * @param cursor The thread's key cursor.
+     * @return The server ID, consumed by JMH.
+     */
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(7)
+    public int lookup(Cursor cursor) {
+        return system.locate(keys[cursor.next++ & (keys.length - 1)]);
+    }
+
+    /**
+     * Replaces the oldest server with a new one.
+     *
+     * @return The new server's ID, consumed by JMH.
+     */
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public int replaceServer() {
+        system.removeServer(live.poll());
+        int id = system.addServer();
+        live.add(id);
+        return id;
+    }
+}
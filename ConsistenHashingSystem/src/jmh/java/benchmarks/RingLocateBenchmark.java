@@ -0,0 +1,109 @@
+package benchmarks;
+
+import domain.Server;
+import hashing.XxHash64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ring.HashRing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single ring lookup across ring sizes and both lookup structures.
+ * Keys are hashed in setup, so {@link #locateServer()} isolates the ring search from hashing; {@link #locate()} is
+ * the full key-to-virtual-node path.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RingLocateBenchmark {
+
+    /**
+     * The number of servers on the ring.
+     */
+    @Param({"10", "100", "1000"})
+    public int servers;
+
+    /**
+     * The number of virtual nodes per server.
+     */
+    @Param({"10", "100", "500"})
+    public int virtualNodes;
+
+    /**
+     * The ring's lookup structure.
+     */
+    @Param({"SKIP_LIST", "COPY_ON_WRITE"})
+    public HashRing.Mode mode;
+
+    /**
+     * The ring under test.
+     */
+    private HashRing ring;
+
+    /**
+     * The keys cycled through.
+     */
+    private String[] keys;
+
+    /**
+     * The hashes of {@link #keys}.
+     */
+    private long[] hashes;
+
+    /**
+     * The index of the next key.
+     */
+    private int next;
+
+    /**
+     * Builds the ring in one step and hashes the key pool.
+     */
+    @Setup
+    public void setUp() {
+        ring = new HashRing(new XxHash64(), mode);
+        List<Server> members = new ArrayList<>(servers);
+        for (int id = 0; id < servers; id++) members.add(new Server(id));
+        ring.rebuild(members, server -> virtualNodes);
+        keys = Workloads.keys(1 << 14, 16);
+        hashes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) hashes[i] = ring.hash(keys[i]);
+    }
+
+    /**
+     * Hashes a key and finds its virtual node.
+     *
+     * @return The virtual node, consumed by JMH.
+     */
+    @Benchmark
+    public Object locate() {
+        return ring.locate(keys[next++ & (keys.length - 1)]);
+    }
+
+    /**
+     * Finds the owning server of an already hashed key.
+     *
+     * @return The server ID, consumed by JMH.
+     */
+    @Benchmark
+    public int locateServer() {
+        return ring.locateServer(hashes[next++ & (hashes.length - 1)]);
+    }
+}
@@ -0,0 +1,191 @@
+package benchmarks;
+
+import cache.ShardedCache;
+import hashing.XxHash64;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import system.ConsistentHashingSystem;
+import workload.KeyPool;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ShardedCache} read-through requests under Zipf load on 1, 4 and 16 threads sharing one cache, with
+ * the cache sized at a fraction of the working set. Hits and misses are reported next to the throughput as auxiliary
+ * event counters, so the hit ratio of each run can be read off the results.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedCacheBenchmark {
+
+    /**
+     * The cache shared by every benchmark thread.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedCache {
+
+        /**
+         * The cache size as a fraction of the working set.
+         */
+        @Param({"0.1", "0.5"})
+        public double capacity;
+
+        /**
+         * The skew of the key popularity.
+         */
+        @Param({"0.99"})
+        public double zipfExponent;
+
+        /**
+         * The cache under test.
+         */
+        ShardedCache cache;
+
+        /**
+         * The keys requested.
+         */
+        KeyPool keys;
+
+        /**
+         * The value stored on a miss.
+         */
+        final byte[] value = new byte[100];
+
+        /**
+         * Builds a 10-server cache over 100,000 keys.
+         */
+        @Setup
+        public void setUp() {
+            keys = KeyPool.zipf(100_000, zipfExponent);
+            ConsistentHashingSystem system = new ConsistentHashingSystem(new XxHash64());
+            system.setVirtualNodesPerServer(100);
+            system.setRequestTracker(null);
+            for (int i = 0; i < 10; i++) system.addServer();
+            long workingSet = 100_000L * (value.length + 16 + 64);
+            cache = new ShardedCache(system, (long) (workingSet * capacity / 10));
+        }
+
+        /**
+         * Stops the cache.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            cache.close();
+        }
+    }
+
+    /**
+     * Each thread's random stream and its hit and miss counts, which JMH sums over threads and reports per iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Draws {
+
+        /**
+         * The gets that found their key.
+         */
+        public long hits;
+
+        /**
+         * The gets that did not.
+         */
+        public long misses;
+
+        /**
+         * The stream keys are drawn with.
+         */
+        SplittableRandom random;
+
+        /**
+         * Seeds each thread differently so threads do not request in lockstep.
+         */
+        @Setup
+        public void setUp() {
+            random = new SplittableRandom(Thread.currentThread().threadId());
+        }
+
+        /**
+         * Starts each iteration's counts from zero, since JMH does not reset auxiliary counters itself.
+         */
+        @Setup(Level.Iteration)
+        public void resetCounters() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    /**
+     * Makes one read-through request on a single thread.
+     *
+     * @param shared The shared cache.
+     * @param draws  The thread's random stream.
+     * @return The value, consumed by JMH.
+     */
+    @Benchmark
+    @Threads(1)
+    public byte[] threads1(SharedCache shared, Draws draws) {
+        return readThrough(shared, draws);
+    }
+
+    /**
+     * Makes one read-through request on each of 4 threads.
+     *
+     * @param shared The shared cache.
+     * @param draws  The thread's random stream.
+     * @return The value, consumed by JMH.
+     */
+    @Benchmark
+    @Threads(4)
+    public byte[] threads4(SharedCache shared, Draws draws) {
+        return readThrough(shared, draws);
+    }
+
+    /**
+     * Makes one read-through request on each of 16 threads.
+     *
+     * @param shared The shared cache.
+     * @param draws  The thread's random stream.
+     * @return The value, consumed by JMH.
+     */
+    @Benchmark
+    @Threads(16)
+    public byte[] threads16(SharedCache shared, Draws draws) {
+        return readThrough(shared, draws);
+    }
+
+    /**
+     * Gets a key drawn from the pool, storing it on a miss, and counts the hit or miss.
+     */
+    private static byte[] readThrough(SharedCache shared, Draws draws) {
+        String key = shared.keys.next(draws.random);
+        byte[] value = shared.cache.get(key);
+        if (value != null) {
+            draws.hits++;
+        } else {
+            draws.misses++;
+            value = shared.value;
+            shared.cache.put(key, value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,168 @@
+package benchmarks;
+
+import analytics.HotKeyDetector;
+import hashing.XxHash64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import system.ConsistentHashingSystem;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ConsistentHashingSystem#locate(String)} end to end, with the request tracker and hot key detector
+ * switched on or off, at 1, 4, 16 and 64 threads sharing one system. Load and latency accounting always run, since
+ * routing and bounded loads depend on them.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SystemLocateBenchmark {
+
+    /**
+     * The system shared by every benchmark thread.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedSystem {
+
+        /**
+         * Whether request tracking and hot key detection are on.
+         */
+        @Param({"true", "false"})
+        public boolean analytics;
+
+        /**
+         * The system under test.
+         */
+        ConsistentHashingSystem system;
+
+        /**
+         * The keys cycled through.
+         */
+        String[] keys;
+
+        /**
+         * Builds a 10-server system with 100 virtual nodes per server.
+         */
+        @Setup
+        public void setUp() {
+            system = new ConsistentHashingSystem(new XxHash64());
+            system.setVirtualNodesPerServer(100);
+            for (int i = 0; i < 10; i++) system.addServer();
+            if (!analytics) {
+                system.setRequestTracker(null);
+                system.setHotKeyDetector(new HotKeyDetector() {
+                    @Override
+                    public void track(String key, long keyHash) {
+                    }
+
+                    @Override
+                    public List<String> topHotKeys(int k) {
+                        return List.of();
+                    }
+
+                    @Override
+                    public long estimate(String key, long keyHash) {
+                        return 0;
+                    }
+                });
+            }
+            keys = Workloads.keys(1 << 14, 16);
+        }
+    }
+
+    /**
+     * Each thread's position in the key pool.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        /**
+         * The index of the next key.
+         */
+        int next;
+
+        /**
+         * Starts each thread at a different key so threads do not move in lockstep.
+         */
+        @Setup
+        public void setUp() {
+            next = (int) Thread.currentThread().threadId() * 7919;
+        }
+    }
+
+    /**
+     * Locates one key on a single thread.
+     *
+     * @param shared The shared system.
+     * @param cursor The thread's key cursor.
+     * @return The server ID, consumed by JMH.
+     */
+    @Benchmark
+    @Threads(1)
+    public int threads1(SharedSystem shared, Cursor cursor) {
+        return locate(shared, cursor);
+    }
+
+    /**
+     * Locates one key on each of 4 threads.
+     *
+     * @param shared The shared system.
+     * @param cursor The thread's key cursor.
+     * @return The server ID, consumed by JMH.
+     */
+    @Benchmark
+    @Threads(4)
+    public int threads4(SharedSystem shared, Cursor cursor) {
+        return locate(shared, cursor);
+    }
+
+    /**
+     * Locates one key on each of 16 threads.
+     *
+     * @param shared The shared system.
+     * @param cursor The thread's key cursor.
+     * @return The server ID, consumed by JMH.
+     */
+    @Benchmark
+    @Threads(16)
+    public int threads16(SharedSystem shared, Cursor cursor) {
+        return locate(shared, cursor);
+    }
+
+    /**
+     * Locates one key on each of 64 threads.
+     *
+     * @param shared The shared system.
+     * @param cursor The thread's key cursor.
+     * @return The server ID, consumed by JMH.
+     */
+    @Benchmark
+    @Threads(64)
+    public int threads64(SharedSystem shared, Cursor cursor) {
+        return locate(shared, cursor);
+    }
+
+    /**
+     * Locates the cursor's next key.
+     */
+    private static int locate(SharedSystem shared, Cursor cursor) {
+        String[] keys = shared.keys;
+        return shared.system.locate(keys[cursor.next++ & (keys.length - 1)]);
+    }
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import hashing.HashFunction;
+import hashing.Murmur3Hash;
+import hashing.SHA256Hash;
+import hashing.XxHash64;
+
+import java.util.SplittableRandom;
+
+/**
+ * Shared fixtures for the benchmarks: hash functions by name and pregenerated key pools.
+ * Keys are built once in setup so no benchmark measures string concatenation.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+final class Workloads {
+
+    /**
+     * Prevents instantiation.
+     */
+    private Workloads() {
+    }
+
+    /**
+     * Creates a hash function from its benchmark parameter name.
+     *
+     * @param algorithm One of {@code SHA256}, {@code XXHASH64} or {@code MURMUR3}.
+     * @return The hash function.
+     * @throws IllegalArgumentException if the name is unknown.
+     */
+    static HashFunction hashFunction(String algorithm) {
+        return switch (algorithm) {
+            case "SHA256" -> new SHA256Hash();
+            case "XXHASH64" -> new XxHash64();
+            case "MURMUR3" -> new Murmur3Hash();
+            default -> throw new IllegalArgumentException("Unknown hash function: " + algorithm);
+        };
+    }
+
+    /**
+     * Generates a pool of distinct alphanumeric keys, each prefixed with its index and padded to a fixed length.
+     *
+     * @param count  The number of keys, a power of two so callers can cycle with a mask.
+     * @param length The length of each key.
+     * @return The keys.
+     */
+    static String[] keys(int count, int length) {
+        SplittableRandom random = new SplittableRandom(42);
+        String alphabet = "abcdefghijklmnopqrstuvwxyz0123456789";
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder key = new StringBuilder(length).append(i).append(':');
+            while (key.length() < length) key.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            keys[i] = key.toString();
+        }
+        return keys;
+    }
+}
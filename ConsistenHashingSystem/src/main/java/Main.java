@@ -1,5 +1,20 @@
+import analytics.RingBalance;
+import cache.CacheSimulation;
+import hashing.SHA256Hash;
+import membership.MembershipSimulation;
+import metrics.MetricsServer;
+import ring.Placement;
+import ring.RingAlgorithm;
+import ring.RingSnapshot;
+import routing.HotKeySplitter;
 import system.ConsistentHashingSystem;
-import java.util.Random;
+import system.VirtualNodeRebalancer;
+import workload.KeyPool;
+import workload.LoadDriver;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * This file contains the main entry point for a simulation of the consistent hashing system.
@@ -12,59 +27,210 @@ import java.util.Random;
 /**
  * The main method to run the consistent hashing simulation.
  */
-void main() {
+void main() throws IOException, InterruptedException {
 
     /* ================= SIMULATION CONFIG ================= */
 
     final int SERVERS = 10;
     final int VIRTUAL_NODES_PER_SERVER = 100;
-    final long TOTAL_REQUESTS = 10_000_000;
-    final int HOT_KEY_RATIO = 20;
-    final int MAX_VERBOSE_LINES = 100;
+    final int[] VIRTUAL_NODE_SWEEP = {10, 50, 100, 200, 500, 1000};
+    final RingAlgorithm RING_ALGORITHM = RingAlgorithm.COPY_ON_WRITE_HASH_RING;
+    final boolean BOUNDED_LOADS = false;
+    final double BOUNDED_LOAD_EPSILON = 0.25;
+    final int ROUTE_CACHE_CAPACITY = 4096;
+    final boolean HOT_KEY_SPLITTING = true;
+    final int HOT_KEY_REPLICAS = 3;
+    final HotKeySplitter.Strategy HOT_KEY_STRATEGY = HotKeySplitter.Strategy.LEAST_LOADED;
+    final double HOT_KEY_PROMOTION_RATE = 20_000; // requests per second
+    final Duration STATS_WINDOW = Duration.ofSeconds(5); // null keeps only cumulative statistics
+    final int STATS_WINDOW_BUCKETS = 10;
+    final int METRICS_PORT = 9400; // 0 picks a free port, -1 disables the endpoint
+    final int MEMBERSHIP_ROUTERS = 5; // 0 skips the multi-router membership sync
+    final int MEMBERSHIP_CHANGES = 500;
+    final int CACHE_KEYS = 100_000; // 0 skips the sharded cache benchmark
+    final double REBALANCE_TARGET = 0.02; // load coefficient of variation; 0 skips adaptive vnode rebalancing
+    final double REBALANCE_BUDGET = 0.01; // fraction of ring tokens one step may add or drop
+
+    /* ================= WORKLOAD CONFIG ================= */
 
-    boolean VERBOSE = TOTAL_REQUESTS <= MAX_VERBOSE_LINES;
+    final int WORKERS = Runtime.getRuntime().availableProcessors();
+    final boolean VIRTUAL_THREADS = true;
+    final int KEY_POOL_SIZE = 100_000;
+    final KeyPool.Distribution KEY_DISTRIBUTION = KeyPool.Distribution.ZIPF;
+    final double ZIPF_EXPONENT = 0.99;
+    final double HOT_KEY_FRACTION = 0.01;
+    final double HOT_TRAFFIC_FRACTION = 0.5;
+    final double TARGET_RATE = 0; // requests per second; 0 runs closed-loop
+    final long TOTAL_REQUESTS = 10_000_000;
+    final Duration DURATION = Duration.ofSeconds(6);
+    final Duration REPORT_INTERVAL = Duration.ofSeconds(1);
 
     printHeader("CONSISTENT HASHING SIMULATION");
 
-    ConsistentHashingSystem system = new ConsistentHashingSystem();
+    ConsistentHashingSystem system = new ConsistentHashingSystem(RING_ALGORITHM.create(new SHA256Hash()));
     system.setVirtualNodesPerServer(VIRTUAL_NODES_PER_SERVER);
+    if (BOUNDED_LOADS) system.enableBoundedLoad(BOUNDED_LOAD_EPSILON);
+    if (ROUTE_CACHE_CAPACITY > 0) system.enableRouteCache(ROUTE_CACHE_CAPACITY);
+    if (STATS_WINDOW != null) system.enableWindowedStats(STATS_WINDOW, STATS_WINDOW_BUCKETS);
+    if (HOT_KEY_SPLITTING) system.enableHotKeySplitting(HOT_KEY_REPLICAS, HOT_KEY_STRATEGY, HOT_KEY_PROMOTION_RATE);
+
+    MetricsServer metrics = METRICS_PORT >= 0 ? new MetricsServer(system, new InetSocketAddress(METRICS_PORT)) : null;
+    if (metrics != null) System.out.println("Metrics: http://localhost:" + metrics.address().getPort() + MetricsServer.PATH);
 
     step("Adding Servers");
     for (int i = 0; i < SERVERS; i++) system.addServer();
 
-    if (VERBOSE) system.visualizeRing();
-
-    step("Routing Requests");
+    if (SERVERS <= 5) system.visualizeRing();
 
-    Random random = new Random();
+    step("Ring Balance (analytical, no requests routed)");
+    System.out.println("Current ring: " + system.ringBalance());
+    RingBalance.print(RING_ALGORITHM, new SHA256Hash(), SERVERS, VIRTUAL_NODE_SWEEP);
 
-    for (int i = 1; i <= TOTAL_REQUESTS; i++) {
-        String key = (i % HOT_KEY_RATIO == 0) ? "HOT_KEY" : "user-" + random.nextInt(1_000);
+    KeyPool keys = switch (KEY_DISTRIBUTION) {
+        case UNIFORM -> KeyPool.uniform(KEY_POOL_SIZE);
+        case ZIPF -> KeyPool.zipf(KEY_POOL_SIZE, ZIPF_EXPONENT);
+        case HOT_SPOT -> KeyPool.hotSpot(KEY_POOL_SIZE, HOT_KEY_FRACTION, HOT_TRAFFIC_FRACTION);
+    };
 
-        long start = System.nanoTime();
-        int server = system.locate(key);
-        long latency = System.nanoTime() - start;
+    step("Routing Requests (" + keys + ", " + WORKERS + (VIRTUAL_THREADS ? " virtual" : " platform") + " workers)");
 
-        if (VERBOSE) {
-            System.out.printf("REQ-%05d | key=%-10s | server=%-3d | latency=%6.3f ms%n", i, key, server, latency / 1_000_000.0);
-        }
-    }
+    LoadDriver driver = new LoadDriver(system, keys);
+    driver.setWorkers(WORKERS);
+    driver.setVirtualThreads(VIRTUAL_THREADS);
+    driver.setTargetRate(TARGET_RATE);
+    driver.setRequestLimit(TOTAL_REQUESTS);
+    driver.setDuration(DURATION);
+    driver.setReportInterval(REPORT_INTERVAL);
+    driver.addMembershipChange(DURATION.dividedBy(3), "added server " + SERVERS, s -> s.addServer());
+    driver.addMembershipChange(DURATION.multipliedBy(2).dividedBy(3), "doubled weight of server 1", s -> s.updateWeight(1, 2));
+    printRun(driver.run());
 
     step("Final Stats");
     system.displayStats();
 
     step("Removing Server 0 & Re-testing");
+    Placement beforeRemoval = system.placement();
     system.removeServer(0);
-
-    for (int i = 0; i < TOTAL_REQUESTS / 10; i++) {
-        system.locate("post-removal-" + i);
+    if (beforeRemoval instanceof RingSnapshot) {
+        System.out.println("Migration plan: " + system.migrationPlanSince(beforeRemoval));
     }
 
+    driver = new LoadDriver(system, keys);
+    driver.setWorkers(WORKERS);
+    driver.setVirtualThreads(VIRTUAL_THREADS);
+    driver.setTargetRate(TARGET_RATE);
+    driver.setRequestLimit(TOTAL_REQUESTS / 10);
+    driver.setDuration(DURATION.dividedBy(3));
+    driver.setReportInterval(REPORT_INTERVAL);
+    printRun(driver.run());
+
     system.displayStats();
 
+    step("Batch Routing Throughput");
+    measureBatchThroughput(system, 1_000_000);
+
+    if (REBALANCE_TARGET > 0 && system.placement() instanceof RingSnapshot) {
+        step("Adaptive Vnode Rebalancing (uniform keys, target imbalance " + REBALANCE_TARGET + ")");
+        KeyPool uniformKeys = KeyPool.uniform(KEY_POOL_SIZE);
+        demonstrateRebalancing(RING_ALGORITHM, SERVERS, VIRTUAL_NODES_PER_SERVER, uniformKeys, WORKERS, REBALANCE_TARGET, REBALANCE_BUDGET);
+    }
+
+    if (CACHE_KEYS > 0) {
+        step("Sharded Cache (read-through, zipf(s=" + ZIPF_EXPONENT + "))");
+        CacheSimulation.run(SERVERS, CACHE_KEYS, ZIPF_EXPONENT);
+    }
+
+    if (MEMBERSHIP_ROUTERS > 0) {
+        step("Membership Sync (" + MEMBERSHIP_ROUTERS + " routers on localhost)");
+        MembershipSimulation.run(MEMBERSHIP_ROUTERS, MEMBERSHIP_CHANGES);
+    }
+
+    if (metrics != null) metrics.close();
     printFooter("SIMULATION COMPLETE");
 }
 
+/**
+ * Routes the same pre-generated keys one at a time, as a sequential batch and as a parallel batch,
+ * and prints the throughput of each.
+ * @param system The system to route through.
+ * @param keyCount The number of keys per run.
+ */
+void measureBatchThroughput(ConsistentHashingSystem system, int keyCount) {
+    String[] keys = new String[keyCount];
+    for (int i = 0; i < keyCount; i++) keys[i] = "batch-" + i;
+    int[] out = new int[keyCount];
+
+    long start = System.nanoTime();
+    for (int i = 0; i < keyCount; i++) out[i] = system.locate(keys[i]);
+    printThroughput("Single-key locate", keyCount, System.nanoTime() - start);
+
+    try (ForkJoinPool singleThread = new ForkJoinPool(1)) {
+        start = System.nanoTime();
+        system.locateAll(keys, out, singleThread);
+        printThroughput("Batch locateAll (1 thread)", keyCount, System.nanoTime() - start);
+    }
+
+    start = System.nanoTime();
+    system.locateAll(keys, out, ForkJoinPool.commonPool());
+    printThroughput("Batch locateAll (common pool x" + ForkJoinPool.getCommonPoolParallelism() + ")", keyCount, System.nanoTime() - start);
+}
+
+/**
+ * Routes uniform traffic through a fresh system while a rebalancer steps once per second, so the per-interval
+ * standard deviation printed by the load driver shows the imbalance left by token placement shrinking.
+ * @param algorithm The ring algorithm, which must have virtual nodes.
+ * @param servers The number of servers.
+ * @param virtualNodes The virtual nodes per server.
+ * @param keys The keys to route.
+ * @param workers The number of worker threads.
+ * @param target The imbalance to converge on.
+ * @param budget The fraction of ring tokens one step may change.
+ */
+void demonstrateRebalancing(RingAlgorithm algorithm, int servers, int virtualNodes, KeyPool keys, int workers,
+                            double target, double budget) throws InterruptedException {
+    final Duration STEP_INTERVAL = Duration.ofSeconds(1);
+
+    ConsistentHashingSystem system = new ConsistentHashingSystem(algorithm.create(new SHA256Hash()));
+    system.setVirtualNodesPerServer(virtualNodes);
+    system.setRequestTracker(null);
+    // The window matches the step interval so each step sees only traffic routed since the previous one.
+    system.enableWindowedStats(STEP_INTERVAL, 10);
+    for (int i = 0; i < servers; i++) system.addServer();
+    System.out.println("Before: " + system.ringBalance());
+
+    try (VirtualNodeRebalancer rebalancer = new VirtualNodeRebalancer(system, STEP_INTERVAL)) {
+        rebalancer.setTargetImbalance(target);
+        rebalancer.setDisruptionBudget(budget);
+        LoadDriver driver = new LoadDriver(system, keys);
+        driver.setWorkers(workers);
+        driver.setDuration(Duration.ofSeconds(8));
+        driver.setReportInterval(STEP_INTERVAL);
+        driver.run();
+        System.out.println("After:  " + system.ringBalance() + ", ring size " + system.ringSize());
+        System.out.println("Rebalancer: " + rebalancer);
+    }
+}
+
+/**
+ * Prints the totals of a load driver run.
+ * @param result The result of the run.
+ */
+void printRun(LoadDriver.Result result) {
+    System.out.printf("%nRouted %d requests in %.2fs (%.0f req/s)%n", result.requests(), result.elapsed().toNanos() / 1e9, result.throughput());
+    System.out.println("Response time: " + result.responseTime());
+    System.out.println("Service time:  " + result.serviceTime());
+}
+
+/**
+ * Prints a throughput line.
+ * @param label The name of the run.
+ * @param keys The number of keys routed.
+ * @param elapsedNs The time taken in nanoseconds.
+ */
+void printThroughput(String label, long keys, long elapsedNs) {
+    System.out.printf("%-32s %8.2f M keys/s%n", label, keys / (elapsedNs / 1_000.0));
+}
+
 /* ================= PRINT HELPERS ================= */
 
 /**
@@ -0,0 +1,153 @@
+package analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free Count-Min Sketch over 64-bit key hashes.
+ * <p>
+ * A {@code depth x width} grid of counters gives frequency estimates that never undercount and overcount by at most
+ * {@code epsilon * N} with probability {@code 1 - delta}, where {@code epsilon = e / width},
+ * {@code delta = e^-depth} and N is the number of updates. Memory is fixed at {@code depth * width} longs.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class CountMinSketch {
+
+    /**
+     * The number of counters per row, a power of two.
+     */
+    private final int width;
+    /**
+     * The number of rows, each indexed by an independent hash.
+     */
+    private final int depth;
+    /**
+     * The counters, row after row.
+     */
+    private final AtomicLongArray counters;
+    /**
+     * The number of updates, used for the error bound.
+     */
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Constructs a new CountMinSketch.
+     *
+     * @param width The number of counters per row, rounded up to a power of two.
+     * @param depth The number of rows.
+     * @throws IllegalArgumentException if width or depth is not positive.
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) throw new IllegalArgumentException("width and depth must be positive");
+        int w = 1;
+        while (w < width) w <<= 1;
+        this.width = w;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(w * depth);
+    }
+
+    /**
+     * Counts one occurrence of a key and returns its new estimate.
+     *
+     * @param keyHash The hash of the key.
+     * @return The estimated count after the update.
+     */
+    public long add(long keyHash) {
+        return add(keyHash, 1);
+    }
+
+    /**
+     * Counts several occurrences of a key at once and returns its new estimate.
+     *
+     * @param keyHash The hash of the key.
+     * @param count   The number of occurrences, at least one.
+     * @return The estimated count after the update.
+     */
+    public long add(long keyHash, long count) {
+        total.add(count);
+        long h = mix(keyHash);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((h1 + row * h2) & (width - 1));
+            estimate = Math.min(estimate, counters.addAndGet(index, count));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the estimated count of a key.
+     *
+     * @param keyHash The hash of the key.
+     * @return The estimated count, never below the true count.
+     */
+    public long estimate(long keyHash) {
+        long h = mix(keyHash);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + ((h1 + row * h2) & (width - 1))));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the number of updates.
+     *
+     * @return The total count.
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the relative error bound {@code epsilon = e / width}.
+     *
+     * @return The epsilon.
+     */
+    public double epsilon() {
+        return Math.E / width;
+    }
+
+    /**
+     * Returns the probability {@code 1 - e^-depth} that an estimate is within the error bound.
+     *
+     * @return The confidence.
+     */
+    public double confidence() {
+        return 1 - Math.exp(-depth);
+    }
+
+    /**
+     * Returns the current absolute error bound {@code epsilon * N}.
+     *
+     * @return The largest expected overcount of any estimate.
+     */
+    public long errorBound() {
+        return (long) Math.ceil(epsilon() * total());
+    }
+
+    /**
+     * Zeroes every counter and the update count, so the sketch can be reused for a new period.
+     */
+    void clear() {
+        for (int i = 0; i < counters.length(); i++) counters.set(i, 0);
+        total.reset();
+    }
+
+    /**
+     * Scrambles a key hash so row indexes do not depend on ring position.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
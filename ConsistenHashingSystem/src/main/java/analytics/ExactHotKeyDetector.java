@@ -0,0 +1,55 @@
+package analytics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A hot key detector that counts every distinct key exactly.
+ * Memory grows with the number of distinct keys and every query sorts all of them, so this suits small key spaces.
+ *
+ * @author Aadarsh Pandey
+ * @since 10th Feb 2026
+ */
+public class ExactHotKeyDetector implements HotKeyDetector {
+    /**
+     * A map to store the frequency of each key.
+     */
+    private final ConcurrentHashMap<String, AtomicInteger> freq = new ConcurrentHashMap<>();
+
+    /**
+     * Tracks the access of a key.
+     *
+     * @param key     The key to track.
+     * @param keyHash Ignored; keys are counted by value.
+     */
+    @Override
+    public void track(String key, long keyHash) {
+        freq.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Returns the top k hot keys.
+     *
+     * @param k The number of hot keys to return.
+     * @return A list of the top k hot keys.
+     */
+    @Override
+    public List<String> topHotKeys(int k) {
+        return freq.entrySet().stream().sorted((a, b) -> b.getValue().get() - a.getValue().get()).limit(k).map(Map.Entry::getKey).toList();
+    }
+
+    /**
+     * Returns the exact number of accesses of a key.
+     *
+     * @param key     The key.
+     * @param keyHash Ignored; keys are counted by value.
+     * @return The count.
+     */
+    @Override
+    public long estimate(String key, long keyHash) {
+        AtomicInteger count = freq.get(key);
+        return count == null ? 0 : count.get();
+    }
+}
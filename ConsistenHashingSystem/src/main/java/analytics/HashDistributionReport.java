@@ -0,0 +1,118 @@
+package analytics;
+
+import domain.Server;
+import domain.VirtualNode;
+import hashing.HashFunction;
+import hashing.Murmur3Hash;
+import hashing.SHA256Hash;
+import hashing.XxHash64;
+import ring.HashRing;
+import ring.RingAlgorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A utility class that compares hash functions on speed, raw bucket uniformity and the ring balance they produce.
+ * A faster hash is only a win if it places virtual nodes and keys at least as evenly as SHA-256 does.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class HashDistributionReport {
+
+    /**
+     * The number of buckets used for the chi-square uniformity test.
+     */
+    private static final int BUCKETS = 1024;
+
+    /**
+     * Accumulates hash results so the timing loop cannot be optimized away.
+     */
+    private static volatile long sink;
+
+    /**
+     * Runs the report for the built-in hash functions.
+     *
+     * @param args Optional overrides: servers, virtual nodes per server, keys.
+     */
+    public static void main(String[] args) {
+        int servers = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int virtualNodes = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int keys = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        print(servers, virtualNodes, keys, new SHA256Hash(), new XxHash64(), new Murmur3Hash());
+    }
+
+    /**
+     * Prints the report for the given hash functions to the console.
+     *
+     * @param servers       The number of servers on the test ring.
+     * @param virtualNodes  The number of virtual nodes per server.
+     * @param keys          The number of keys to hash.
+     * @param hashFunctions The hash functions to compare.
+     */
+    public static void print(int servers, int virtualNodes, int keys, HashFunction... hashFunctions) {
+        String[] sample = new String[keys];
+        for (int i = 0; i < keys; i++) sample[i] = "user-" + i;
+
+        System.out.println("\n--- HASH DISTRIBUTION REPORT ---");
+        System.out.printf("servers=%d, vnodes/server=%d, keys=%d, buckets=%d%n", servers, virtualNodes, keys, BUCKETS);
+        System.out.printf("%-14s %10s %12s %12s %12s %12s%n", "Hash", "ns/hash", "Chi-square", "Load CV", "Max/Mean", "Owned CV");
+        List<Server> members = new ArrayList<>(servers);
+        for (int s = 0; s < servers; s++) members.add(new Server(s));
+
+        for (HashFunction hashFunction : hashFunctions) {
+            double nsPerHash = nsPerHash(hashFunction, sample);
+            double chiSquare = chiSquare(hashFunction, sample);
+
+            RunningStatistics load = RunningStatistics.of(ringLoad(hashFunction, servers, virtualNodes, sample));
+            RingBalance balance = RingBalance.simulate(RingAlgorithm.COPY_ON_WRITE_HASH_RING, hashFunction, members, virtualNodes);
+
+            System.out.printf("%-14s %10.1f %12.1f %12.4f %12.4f %12.4f%n", hashFunction.getClass().getSimpleName(), nsPerHash, chiSquare,
+                    load.coefficientOfVariation(), load.max() / load.mean(), balance.coefficientOfVariation());
+        }
+        System.out.printf("Chi-square expectation for a uniform hash: %d +/- %.1f%n", BUCKETS - 1, Math.sqrt(2.0 * (BUCKETS - 1)));
+    }
+
+    /**
+     * Measures the average time to hash one key after a warm-up pass.
+     */
+    private static double nsPerHash(HashFunction hashFunction, String[] sample) {
+        long acc = 0;
+        for (String key : sample) acc += hashFunction.hash(key);
+        long start = System.nanoTime();
+        for (String key : sample) acc += hashFunction.hash(key);
+        long elapsed = System.nanoTime() - start;
+        sink = acc;
+        return (double) elapsed / sample.length;
+    }
+
+    /**
+     * Computes the chi-square statistic of the key hashes over equal-width buckets of the hash space.
+     */
+    private static double chiSquare(HashFunction hashFunction, String[] sample) {
+        int shift = 63 - Integer.numberOfTrailingZeros(BUCKETS);
+        long[] counts = new long[BUCKETS];
+        for (String key : sample) counts[(int) (hashFunction.hash(key) >>> shift)]++;
+
+        double expected = (double) sample.length / BUCKETS;
+        double chiSquare = 0;
+        for (long count : counts) chiSquare += (count - expected) * (count - expected) / expected;
+        return chiSquare;
+    }
+
+    /**
+     * Routes every key through a freshly built ring and returns the number of keys per server.
+     */
+    private static long[] ringLoad(HashFunction hashFunction, int servers, int virtualNodes, String[] sample) {
+        HashRing ring = new HashRing(hashFunction);
+        for (int s = 0; s < servers; s++) {
+            Server server = new Server(s);
+            for (int v = 0; v < virtualNodes; v++) ring.addVirtualNode(new VirtualNode(server, s + "_" + v));
+        }
+
+        long[] counts = new long[servers];
+        for (String key : sample) counts[ring.locate(key).server().id()]++;
+        return counts;
+    }
+}
@@ -1,38 +1,37 @@
 package analytics;
 
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * A utility class to detect hot keys (frequently accessed keys).
+ * Detects hot keys (frequently accessed keys).
  *
  * @author Aadarsh Pandey
  * @since 10th Feb 2026
  */
-public class HotKeyDetector {
-    /**
-     * A map to store the frequency of each key.
-     */
-    private final ConcurrentHashMap<String, AtomicInteger> freq = new ConcurrentHashMap<>();
+public interface HotKeyDetector {
 
     /**
      * Tracks the access of a key.
      *
-     * @param key The key to track.
+     * @param key     The key to track.
+     * @param keyHash The hash of the key, so implementations do not need to hash it again.
      */
-    public void track(String key) {
-        freq.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
-    }
+    void track(String key, long keyHash);
 
     /**
-     * Returns the top k hot keys.
+     * Returns the top k hot keys, most frequent first.
      *
      * @param k The number of hot keys to return.
      * @return A list of the top k hot keys.
      */
-    public List<String> topHotKeys(int k) {
-        return freq.entrySet().stream().sorted((a, b) -> b.getValue().get() - a.getValue().get()).limit(k).map(Map.Entry::getKey).toList();
-    }
-}
\ No newline at end of file
+    List<String> topHotKeys(int k);
+
+    /**
+     * Returns the number of tracked accesses of a key.
+     *
+     * @param key     The key.
+     * @param keyHash The hash of the key.
+     * @return The count, exact or an overestimate depending on the detector.
+     */
+    long estimate(String key, long keyHash);
+}
@@ -0,0 +1,289 @@
+package analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, log-linear latency histogram in the style of HdrHistogram.
+ * <p>
+ * Values below 64 ns get exact buckets; above that every power of two is split into 32 linear sub-buckets, which
+ * bounds the relative error of any reported percentile to about 3%. Values below 2^37 ns (about 137 seconds) are
+ * bucketed and larger values land in the last bucket, so the footprint is fixed regardless of how many values are
+ * recorded. Writers are spread over stripes chosen by thread ID so concurrent threads rarely touch the same counters;
+ * stripes are merged when a snapshot is taken.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of linear sub-buckets in each power-of-two range.
+     */
+    private static final int SUB_BUCKETS = 32;
+    /**
+     * The largest exponent shift that still gets its own buckets.
+     */
+    private static final int MAX_SHIFT = 31;
+    /**
+     * The number of value buckets.
+     */
+    static final int BUCKETS = 2 * SUB_BUCKETS + MAX_SHIFT * SUB_BUCKETS;
+    /**
+     * The slot after the buckets holding the number of recorded values.
+     */
+    private static final int COUNT = BUCKETS;
+    /**
+     * The slot holding the sum of recorded values.
+     */
+    private static final int SUM = BUCKETS + 1;
+    /**
+     * The slot holding the largest recorded value.
+     */
+    private static final int MAX = BUCKETS + 2;
+
+    /**
+     * The per-stripe counters: value buckets followed by count, sum and max.
+     */
+    private final AtomicLongArray[] stripes;
+
+    /**
+     * Constructs a new LatencyHistogram with one stripe per two available processors, rounded up to a power of two.
+     */
+    public LatencyHistogram() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Constructs a new LatencyHistogram.
+     *
+     * @param stripes The number of stripes, rounded up to a power of two.
+     */
+    public LatencyHistogram(int stripes) {
+        int n = 1;
+        while (n < stripes) n <<= 1;
+        this.stripes = new AtomicLongArray[n];
+        for (int i = 0; i < n; i++) this.stripes[i] = new AtomicLongArray(BUCKETS + 3);
+    }
+
+    /**
+     * Records a value into the calling thread's stripe.
+     *
+     * @param valueNs The value in nanoseconds; negative values are recorded as zero.
+     */
+    public void record(long valueNs) {
+        record(valueNs, 1);
+    }
+
+    /**
+     * Records the same value several times, as when a batch reports its amortized per-request latency.
+     *
+     * @param valueNs The value in nanoseconds; negative values are recorded as zero.
+     * @param count   The number of times to record it.
+     */
+    public void record(long valueNs, long count) {
+        long value = Math.max(0, valueNs);
+        AtomicLongArray stripe = stripes[stripeIndex()];
+        stripe.getAndAdd(bucketIndex(value), count);
+        stripe.getAndAdd(COUNT, count);
+        stripe.getAndAdd(SUM, value * count);
+        long max = stripe.get(MAX);
+        while (value > max && !stripe.compareAndSet(MAX, max, value)) {
+            max = stripe.get(MAX);
+        }
+    }
+
+    /**
+     * Merges every stripe into an immutable snapshot.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) counts[i] += stripe.get(i);
+            count += stripe.get(COUNT);
+            sum += stripe.get(SUM);
+            max = Math.max(max, stripe.get(MAX));
+        }
+        return new Snapshot(counts, count, sum, max);
+    }
+
+    /**
+     * Zeroes every stripe so the histogram can be reused, as windowed trackers do for each new period.
+     */
+    void clear() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < stripe.length(); i++) stripe.set(i, 0);
+        }
+    }
+
+    /**
+     * Returns the bucket a value falls into.
+     *
+     * @param value The non-negative value.
+     * @return The bucket index.
+     */
+    static int bucketIndex(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - 5;
+        if (shift > MAX_SHIFT) return BUCKETS - 1;
+        return 2 * SUB_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Returns the largest value that falls into a bucket.
+     *
+     * @param index The bucket index.
+     * @return The bucket's upper bound.
+     */
+    static long highestValue(int index) {
+        if (index < 2 * SUB_BUCKETS) return index;
+        int shift = (index - 2 * SUB_BUCKETS) / SUB_BUCKETS + 1;
+        long sub = (index - 2 * SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Picks the stripe for the calling thread.
+     */
+    private int stripeIndex() {
+        long id = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (id >>> 32) & (stripes.length - 1);
+    }
+
+    /**
+     * An immutable, merged view of a histogram.
+     */
+    public static final class Snapshot {
+
+        /**
+         * A snapshot with no recorded values.
+         */
+        public static final Snapshot EMPTY = new Snapshot(new long[BUCKETS], 0, 0, 0);
+
+        /**
+         * The number of values in each bucket.
+         */
+        private final long[] counts;
+        /**
+         * The number of recorded values.
+         */
+        private final long count;
+        /**
+         * The sum of recorded values.
+         */
+        private final long sum;
+        /**
+         * The largest recorded value.
+         */
+        private final long max;
+
+        /**
+         * Constructs a new Snapshot.
+         */
+        Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Returns the value at a percentile, reported as the upper bound of its bucket and capped at the maximum.
+         *
+         * @param percentile The percentile in {@code [0, 100]}.
+         * @return The value in nanoseconds, or zero if nothing was recorded.
+         */
+        public long percentile(double percentile) {
+            long total = 0;
+            for (long c : counts) total += c;
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestValue(i), max);
+            }
+            return max;
+        }
+
+        /**
+         * Combines this snapshot with another.
+         *
+         * @param other The snapshot to add.
+         * @return A new snapshot holding both sets of values.
+         */
+        public Snapshot merge(Snapshot other) {
+            long[] merged = counts.clone();
+            for (int i = 0; i < merged.length; i++) merged[i] += other.counts[i];
+            return new Snapshot(merged, count + other.count, sum + other.sum, Math.max(max, other.max));
+        }
+
+        /**
+         * Returns the values recorded since an earlier snapshot of the same histogram. The maximum of the interval is
+         * not tracked separately, so it is reported as the upper bound of its highest non-empty bucket.
+         *
+         * @param earlier A snapshot taken before this one.
+         * @return A new snapshot holding only the values recorded in between.
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] interval = new long[counts.length];
+            long intervalMax = 0;
+            for (int i = 0; i < interval.length; i++) {
+                interval[i] = counts[i] - earlier.counts[i];
+                if (interval[i] > 0) intervalMax = Math.min(highestValue(i), max);
+            }
+            return new Snapshot(interval, count - earlier.count, sum - earlier.sum, intervalMax);
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return The count.
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Returns the sum of the recorded values.
+         *
+         * @return The sum in nanoseconds.
+         */
+        public long sum() {
+            return sum;
+        }
+
+        /**
+         * Returns the mean of the recorded values.
+         *
+         * @return The mean in nanoseconds, or zero if nothing was recorded.
+         */
+        public double mean() {
+            return (double) sum / Math.max(1, count);
+        }
+
+        /**
+         * Returns the largest recorded value.
+         *
+         * @return The maximum in nanoseconds.
+         */
+        public long max() {
+            return max;
+        }
+
+        /**
+         * Formats the standard percentiles in microseconds.
+         *
+         * @return A line such as {@code p50=1.2us p90=...}.
+         */
+        @Override
+        public String toString() {
+            return String.format("p50=%.2fus p90=%.2fus p99=%.2fus p99.9=%.2fus max=%.2fus",
+                    percentile(50) / 1_000.0, percentile(90) / 1_000.0, percentile(99) / 1_000.0, percentile(99.9) / 1_000.0, max / 1_000.0);
+        }
+    }
+}
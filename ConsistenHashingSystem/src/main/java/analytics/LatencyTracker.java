@@ -1,22 +1,28 @@
 package analytics;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Arrays;
 
 /**
  * A utility class to track the latency of requests.
+ * Latencies go into fixed-size striped histograms, one for all requests and one per server, so recording does not
+ * contend across threads and percentiles can be reported alongside the average.
  *
  * @author Aadarsh Pandey
  * @since 10th Feb 2026
  */
 public class LatencyTracker {
     /**
-     * The total latency of all requests in nanoseconds.
+     * The number of stripes in each per-server histogram, kept small so many servers stay cheap.
      */
-    private final AtomicLong totalLatency = new AtomicLong();
+    private static final int PER_SERVER_STRIPES = 4;
     /**
-     * The total number of requests.
+     * The histogram of all request latencies.
      */
-    private final AtomicLong count = new AtomicLong();
+    private final LatencyHistogram overall = new LatencyHistogram();
+    /**
+     * The per-server histograms indexed by server ID, grown on demand.
+     */
+    private volatile LatencyHistogram[] perServer = new LatencyHistogram[0];
 
     /**
      * Records the latency of a request.
@@ -24,8 +30,32 @@ public class LatencyTracker {
      * @param latencyNs The latency of the request in nanoseconds.
      */
     public void record(long latencyNs) {
-        totalLatency.addAndGet(latencyNs);
-        count.incrementAndGet();
+        overall.record(latencyNs);
+    }
+
+    /**
+     * Records the latency of a request handled by a server.
+     *
+     * @param serverId  The ID of the server that handled the request.
+     * @param latencyNs The latency of the request in nanoseconds.
+     */
+    public void record(int serverId, long latencyNs) {
+        record(serverId, latencyNs, 1);
+    }
+
+    /**
+     * Records the same latency for several requests handled by a server.
+     *
+     * @param serverId  The ID of the server that handled the requests.
+     * @param latencyNs The latency of each request in nanoseconds.
+     * @param count     The number of requests.
+     */
+    public void record(int serverId, long latencyNs, long count) {
+        overall.record(latencyNs, count);
+        LatencyHistogram[] histograms = perServer;
+        LatencyHistogram histogram = serverId < histograms.length ? histograms[serverId] : null;
+        if (histogram == null) histogram = createServerHistogram(serverId);
+        histogram.record(latencyNs, count);
     }
 
     /**
@@ -34,6 +64,49 @@ public class LatencyTracker {
      * @return The average latency in milliseconds.
      */
     public double averageLatencyMs() {
-        return (totalLatency.get() / 1_000_000.0) / Math.max(1, count.get());
+        return overall.snapshot().mean() / 1_000_000.0;
+    }
+
+    /**
+     * Returns a merged snapshot of all request latencies.
+     *
+     * @return The snapshot.
+     */
+    public LatencyHistogram.Snapshot snapshot() {
+        return overall.snapshot();
+    }
+
+    /**
+     * Returns a merged snapshot of the latencies of requests handled by a server.
+     *
+     * @param serverId The ID of the server.
+     * @return The snapshot, empty if the server has handled no requests.
+     */
+    public LatencyHistogram.Snapshot snapshot(int serverId) {
+        LatencyHistogram[] histograms = perServer;
+        LatencyHistogram histogram = serverId < histograms.length ? histograms[serverId] : null;
+        return histogram == null ? LatencyHistogram.Snapshot.EMPTY : histogram.snapshot();
+    }
+
+    /**
+     * Zeroes every histogram, keeping the per-server ones allocated, so the tracker can be reused for a new period.
+     */
+    void clear() {
+        overall.clear();
+        for (LatencyHistogram histogram : perServer) {
+            if (histogram != null) histogram.clear();
+        }
+    }
+
+    /**
+     * Creates the histogram for a server the first time it records a latency.
+     */
+    private synchronized LatencyHistogram createServerHistogram(int serverId) {
+        LatencyHistogram[] histograms = perServer;
+        if (serverId < histograms.length && histograms[serverId] != null) return histograms[serverId];
+        LatencyHistogram[] next = Arrays.copyOf(histograms, Math.max(serverId + 1, histograms.length));
+        next[serverId] = new LatencyHistogram(PER_SERVER_STRIPES);
+        perServer = next;
+        return next[serverId];
     }
 }
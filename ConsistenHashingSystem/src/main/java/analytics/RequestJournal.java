@@ -0,0 +1,613 @@
+package analytics;
+
+import domain.RequestRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * A durable, segmented, append-only journal of requests.
+ * <p>
+ * Request threads only offer a record to a bounded queue; a single writer thread drains whatever has queued up,
+ * encodes it into one buffer, writes it through a {@link FileChannel} and forces it to disk once per batch, so the
+ * cost of an fsync is shared by every request in the batch (group commit). Journaling is best-effort under overload:
+ * when the queue is full a record is dropped and counted rather than blocking the request, unless
+ * {@link #setAppendTimeout(Duration)} lets appends wait a bounded time for the writer to catch up.
+ * <p>
+ * The journal is a directory of segment files, {@code journal-<index>.log}. The active segment rolls over once it
+ * reaches the segment size, and closed segments are deleted oldest first by the {@link Retention} policy. Each record
+ * carries a CRC32C, so a torn write at the tail of a segment ends replay of that segment instead of yielding garbage.
+ * {@link #read(Path)} streams records back one segment at a time through memory-mapped files, so replaying a day of
+ * traffic never holds more than a record in the heap.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class RequestJournal implements Closeable {
+
+    /**
+     * The default size at which a segment rolls over.
+     */
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+
+    /**
+     * The default number of records that may wait for the writer.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1 << 16;
+
+    /**
+     * The segment file magic, {@code CHRJ}.
+     */
+    private static final int MAGIC = 0x4348524A;
+
+    /**
+     * The segment format version.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the segment header: magic and version.
+     */
+    private static final int HEADER_BYTES = 8;
+
+    /**
+     * The size of a record before its key: key length, checksum, timestamp, latency and server ID.
+     */
+    private static final int RECORD_HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+
+    /**
+     * How long the writer waits for a first record before checking for sync requests and shutdown.
+     */
+    private static final long POLL_MILLIS = 10;
+
+    /**
+     * Which closed segments to keep.
+     *
+     * @param maxBytes The most bytes all segments together may use; older segments are deleted beyond it.
+     * @param maxAge   The oldest a closed segment may be before it is deleted.
+     */
+    public record Retention(long maxBytes, Duration maxAge) {
+
+        /**
+         * Keeps every segment.
+         *
+         * @return The retention policy.
+         */
+        public static Retention keepAll() {
+            return new Retention(Long.MAX_VALUE, Duration.ofMillis(Long.MAX_VALUE));
+        }
+
+        /**
+         * Keeps segments up to a total size.
+         *
+         * @param maxBytes The most bytes all segments together may use.
+         * @return The retention policy.
+         */
+        public static Retention maxBytes(long maxBytes) {
+            return new Retention(maxBytes, Duration.ofMillis(Long.MAX_VALUE));
+        }
+    }
+
+    /**
+     * The directory holding the segments.
+     */
+    private final Path directory;
+
+    /**
+     * The size at which the active segment rolls over.
+     */
+    private final long segmentBytes;
+
+    /**
+     * The policy deciding which closed segments to delete.
+     */
+    private final Retention retention;
+
+    /**
+     * The records waiting for the writer.
+     */
+    private final BlockingQueue<RequestRecord> queue;
+
+    /**
+     * Callers waiting for everything they appended to be on disk.
+     */
+    private final ConcurrentLinkedQueue<CompletableFuture<Void>> syncs = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of records dropped because the queue was full or the journal was closed or failed.
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * The number of records written and forced to disk.
+     */
+    private volatile long written;
+
+    /**
+     * The number of group commits performed.
+     */
+    private volatile long commits;
+
+    /**
+     * How long an append waits for room in a full queue before dropping its record, in nanoseconds; 0 drops at once.
+     */
+    private volatile long appendTimeoutNanos;
+
+    /**
+     * Whether the journal still accepts records.
+     */
+    private volatile boolean open = true;
+
+    /**
+     * The first failure of the writer, reported to later syncs and on close.
+     */
+    private volatile IOException failure;
+
+    /**
+     * The writer thread.
+     */
+    private final Thread writer;
+
+    /**
+     * The encoding buffer, owned by the writer thread.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+
+    /**
+     * The active segment, owned by the writer thread.
+     */
+    private FileChannel segment;
+
+    /**
+     * The index of the active segment, owned by the writer thread.
+     */
+    private long segmentIndex;
+
+    /**
+     * Opens a journal with the default segment size and queue capacity, keeping every segment.
+     *
+     * @param directory The directory to write segments to; created if missing.
+     * @throws IOException if the directory or the first segment cannot be created.
+     */
+    public RequestJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES, Retention.keepAll(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Opens a journal. Existing segments are kept and new records go to a fresh segment after them.
+     *
+     * @param directory     The directory to write segments to; created if missing.
+     * @param segmentBytes  The size at which a segment rolls over.
+     * @param retention     The policy deciding which closed segments to delete.
+     * @param queueCapacity The number of records that may wait for the writer before new ones are dropped.
+     * @throws IOException              if the directory or the first segment cannot be created.
+     * @throws IllegalArgumentException if the segment size or queue capacity is not positive.
+     */
+    public RequestJournal(Path directory, long segmentBytes, Retention retention, int queueCapacity) throws IOException {
+        if (segmentBytes <= HEADER_BYTES) throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.retention = retention;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        List<Path> existing = segments(directory);
+        this.segmentIndex = existing.isEmpty() ? 0 : indexOf(existing.getLast()) + 1;
+        openSegment();
+        applyRetention();
+
+        this.writer = Thread.ofPlatform().name("request-journal-writer").daemon().unstarted(this::runWriter);
+        this.writer.start();
+    }
+
+    /**
+     * Sets how long an append may wait for the writer when the queue is full. Waiting applies backpressure to the
+     * routing threads instead of losing records, for callers that need every request journaled; the bound keeps a
+     * stalled disk from stalling routing indefinitely.
+     *
+     * @param timeout The longest an append waits, or {@link Duration#ZERO} to drop at once, the default.
+     * @throws IllegalArgumentException if the timeout is negative.
+     */
+    public void setAppendTimeout(Duration timeout) {
+        if (timeout.isNegative()) throw new IllegalArgumentException("Append timeout must not be negative: " + timeout);
+        this.appendTimeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Queues a request for the journal, waiting up to the append timeout if the queue is full. A journal that is
+     * closed, or whose writer failed, drops the record instead of throwing, so journaling never fails the request
+     * being journaled.
+     *
+     * @param requestKey The key of the request.
+     * @param serverId   The ID of the server that handled the request.
+     * @param latencyNs  The latency of the request in nanoseconds.
+     * @param timestamp  The wall-clock time of the request in milliseconds.
+     * @return {@code true} if the record was queued, {@code false} if it was dropped because the queue stayed full or
+     *         the journal is closed or failed.
+     */
+    public boolean append(String requestKey, int serverId, long latencyNs, long timestamp) {
+        if (open) {
+            RequestRecord record = new RequestRecord(requestKey, serverId, latencyNs, timestamp);
+            if (queue.offer(record)) return true;
+            long timeout = appendTimeoutNanos;
+            if (timeout > 0 && offer(record, timeout)) return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * Waits up to a timeout for room in the queue, giving up early if the writer stops.
+     */
+    private boolean offer(RequestRecord record, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        try {
+            for (long left = timeoutNanos; left > 0 && open; left = deadline - System.nanoTime()) {
+                if (queue.offer(record, Math.min(left, TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS)), TimeUnit.NANOSECONDS)) return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Waits until every record appended by this thread before the call is written and forced to disk.
+     * Concurrent callers share one fsync.
+     *
+     * @throws IOException if the writer failed.
+     */
+    public void sync() throws IOException {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        syncs.add(done);
+        while (true) {
+            try {
+                done.get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                // A sync queued just as the writer exited would otherwise wait forever.
+                if (!writer.isAlive()) failPendingSyncs();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the request journal", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of records written to disk.
+     *
+     * @return The written count.
+     */
+    public long written() {
+        return written;
+    }
+
+    /**
+     * Returns the number of records dropped because the writer fell behind, or because they were appended after the
+     * journal was closed or failed.
+     *
+     * @return The dropped count.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of records queued and not yet written.
+     *
+     * @return The backlog.
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the error that stopped the writer. Records appended after it are dropped.
+     *
+     * @return The failure, or {@code null} if the writer has not failed.
+     */
+    public IOException failure() {
+        return failure;
+    }
+
+    /**
+     * Returns the number of group commits, each one write and one fsync of a batch.
+     *
+     * @return The commit count.
+     */
+    public long commits() {
+        return commits;
+    }
+
+    /**
+     * Stops accepting records, writes everything queued, forces it to disk and closes the active segment. Closing a
+     * journal whose writer failed reports that failure.
+     *
+     * @throws IOException if the writer failed.
+     */
+    @Override
+    public void close() throws IOException {
+        open = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the request journal", e);
+        }
+        if (failure != null) throw failure;
+    }
+
+    @Override
+    public String toString() {
+        return "written=" + written + ", dropped=" + dropped() + ", pending=" + pending() + ", commits=" + commits
+                + (failure != null ? ", failed: " + failure : "");
+    }
+
+    /**
+     * Streams the records of a journal directory in the order they were written, one segment at a time.
+     *
+     * @param directory The journal directory.
+     * @return An iterator over the records.
+     * @throws IOException if the directory cannot be listed.
+     */
+    public static Iterator<RequestRecord> read(Path directory) throws IOException {
+        return new Reader(segments(directory));
+    }
+
+    /* ================= WRITER ================= */
+
+    /**
+     * Drains the queue in batches until the journal is closed and empty.
+     */
+    private void runWriter() {
+        List<RequestRecord> batch = new ArrayList<>();
+        List<CompletableFuture<Void>> waiting = new ArrayList<>();
+        try {
+            while (open || !queue.isEmpty() || !syncs.isEmpty()) {
+                RequestRecord first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                // Sync requests are taken before the drain, so every record their callers appended is in this batch.
+                for (CompletableFuture<Void> sync; (sync = syncs.poll()) != null; ) waiting.add(sync);
+                if (first != null) batch.add(first);
+                queue.drainTo(batch);
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                    batch.clear();
+                }
+                for (CompletableFuture<Void> sync : waiting) sync.complete(null);
+                waiting.clear();
+            }
+            segment.close();
+        } catch (IOException e) {
+            failure = e;
+            open = false;
+            // The batch being written and everything still queued will never reach disk.
+            dropped.add(batch.size());
+            while (queue.poll() != null) dropped.increment();
+            for (CompletableFuture<Void> sync : waiting) sync.completeExceptionally(e);
+            failPendingSyncs();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fails every queued sync request with the writer's failure, or as closed if the writer stopped normally.
+     */
+    private void failPendingSyncs() {
+        IOException cause = failure;
+        for (CompletableFuture<Void> sync; (sync = syncs.poll()) != null; ) {
+            if (cause != null) sync.completeExceptionally(cause);
+            else sync.complete(null);
+        }
+    }
+
+    /**
+     * Encodes and writes a batch, rolling segments as they fill, then forces the active segment once.
+     */
+    private void writeBatch(List<RequestRecord> batch) throws IOException {
+        CRC32C crc = new CRC32C();
+        buffer.clear();
+        for (RequestRecord record : batch) {
+            byte[] key = record.requestKey().getBytes(StandardCharsets.UTF_8);
+            int size = RECORD_HEADER_BYTES + key.length;
+            if (segment.position() + buffer.position() + size > segmentBytes && segment.position() + buffer.position() > HEADER_BYTES) {
+                flushBuffer();
+                segment.force(false);
+                segment.close();
+                segmentIndex++;
+                openSegment();
+                applyRetention();
+            }
+            if (buffer.remaining() < size) {
+                flushBuffer();
+                if (buffer.capacity() < size) buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(size) << 1);
+            }
+            int start = buffer.position();
+            buffer.putInt(key.length).putInt(0)
+                    .putLong(record.timestamp()).putLong(record.latencyNs()).putInt(record.serverId()).put(key);
+            crc.reset();
+            crc.update(buffer.slice(start + 8, size - 8));
+            buffer.putInt(start + 4, (int) crc.getValue());
+        }
+        flushBuffer();
+        segment.force(false);
+        written += batch.size();
+        commits++;
+    }
+
+    /**
+     * Writes the encoding buffer to the active segment and clears it.
+     */
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) segment.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Creates the segment at the current index and writes its header.
+     */
+    private void openSegment() throws IOException {
+        segment = FileChannel.open(directory.resolve(String.format("journal-%020d.log", segmentIndex)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) segment.write(header);
+    }
+
+    /**
+     * Deletes closed segments, oldest first, that are too old or push the journal over its size budget.
+     */
+    private void applyRetention() throws IOException {
+        List<Path> closed = segments(directory);
+        closed.removeLast();
+        long total = segment.size();
+        for (Path path : closed) total += Files.size(path);
+        long now = System.currentTimeMillis();
+        long maxAge = retention.maxAge().toMillis();
+        for (Path path : closed) {
+            boolean expired = now - Files.getLastModifiedTime(path).toMillis() > maxAge;
+            if (!expired && total <= retention.maxBytes()) break;
+            total -= Files.size(path);
+            Files.delete(path);
+        }
+    }
+
+    /* ================= SEGMENTS ================= */
+
+    /**
+     * Lists the segment files of a directory in index order.
+     */
+    private static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files.filter(p -> p.getFileName().toString().matches("journal-\\d{20}\\.log")).sorted().toList());
+        }
+    }
+
+    /**
+     * Returns the index of a segment file.
+     */
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name, "journal-".length(), name.length() - ".log".length(), 10);
+    }
+
+    /**
+     * Streams records segment by segment through memory-mapped files.
+     */
+    private static final class Reader implements Iterator<RequestRecord> {
+
+        /**
+         * The segments not yet opened.
+         */
+        private final Deque<Path> remaining;
+
+        /**
+         * The mapped segment being read, or {@code null} before the first one.
+         */
+        private MappedByteBuffer current;
+
+        /**
+         * The next record, or {@code null} if it has not been decoded yet.
+         */
+        private RequestRecord next;
+
+        /**
+         * The checksum used to verify each record.
+         */
+        private final CRC32C crc = new CRC32C();
+
+        /**
+         * Constructs a new Reader.
+         *
+         * @param segments The segments in index order.
+         */
+        private Reader(List<Path> segments) {
+            this.remaining = new ArrayDeque<>(segments);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (current != null && (next = decode(current)) != null) return true;
+                if (remaining.isEmpty()) return false;
+                current = map(remaining.poll());
+            }
+            return true;
+        }
+
+        @Override
+        public RequestRecord next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            RequestRecord record = next;
+            next = null;
+            return record;
+        }
+
+        /**
+         * Maps a segment and skips its header, or returns {@code null} for a segment that is empty or not a journal.
+         */
+        private static MappedByteBuffer map(Path path) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (mapped.limit() < HEADER_BYTES || mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) return null;
+                mapped.position(HEADER_BYTES);
+                return mapped;
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Decodes the next record of a segment, or returns {@code null} at its end or at a torn or corrupt record.
+         */
+        private RequestRecord decode(ByteBuffer segment) {
+            if (segment.remaining() < RECORD_HEADER_BYTES) return null;
+            int start = segment.position();
+            int keyLength = segment.getInt(start);
+            int size = RECORD_HEADER_BYTES + keyLength;
+            if (keyLength < 0 || segment.remaining() < size) return null;
+            crc.reset();
+            crc.update(segment.slice(start + 8, size - 8));
+            if ((int) crc.getValue() != segment.getInt(start + 4)) return null;
+
+            long timestamp = segment.getLong(start + 8);
+            long latencyNs = segment.getLong(start + 16);
+            int serverId = segment.getInt(start + 24);
+            byte[] key = new byte[keyLength];
+            segment.get(start + RECORD_HEADER_BYTES, key);
+            segment.position(start + size);
+            return new RequestRecord(new String(key, StandardCharsets.UTF_8), serverId, latencyNs, timestamp);
+        }
+    }
+}
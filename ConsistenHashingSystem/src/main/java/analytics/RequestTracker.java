@@ -1,39 +1,274 @@
 package analytics;
 
-import domain.RequestRecord;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * A utility class to track the history of requests.
+ * A utility class to track a bounded, sampled history of requests.
+ * <p>
+ * Records live in a fixed-capacity ring buffer of preallocated primitive columns (key hash, server ID, latency and
+ * timestamp), so recording never allocates and memory does not grow with traffic. Requests are kept either every Nth
+ * (the buffer then holds the most recent samples) or by reservoir sampling (a uniform sample of all requests seen).
+ * Each slot carries a sequence stamp so concurrent writers claim slots without locks and replay skips torn records.
+ * <p>
+ * No counter is written by every routing thread on every request. Each thread counts down to its next sample in a
+ * thread-local. Every-Nth samples take their sequence numbers from a block of {@value #BLOCK} the thread claims at a
+ * time, so the shared counter is written once per block and each thread fills its own run of adjacent slots; replay is
+ * therefore oldest first to within a block per thread. Reservoir sampling draws the number of requests to skip before
+ * its next sample, touching the shared count only when it takes one.
  *
  * @author Aadarsh Pandey
  * @since 10th Feb 2026
  */
 public class RequestTracker {
+
+    /**
+     * The default number of records kept.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * How requests are chosen for the log.
+     */
+    public enum Sampling {
+        /**
+         * Keeps every Nth request of each routing thread, overwriting the oldest samples when the buffer is full.
+         */
+        EVERY_NTH,
+        /**
+         * Keeps a uniform random sample of all requests seen (Vitter's Algorithm R).
+         */
+        RESERVOIR
+    }
+
+    /**
+     * A callback that receives recorded requests during replay.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Receives one recorded request.
+         *
+         * @param keyHash   The hash of the request key.
+         * @param serverId  The ID of the server that handled the request.
+         * @param latencyNs The latency of the request in nanoseconds.
+         * @param timestamp The wall-clock time of the request in milliseconds.
+         */
+        void visit(long keyHash, int serverId, long latencyNs, long timestamp);
+    }
+
+    /**
+     * The slot stamp of a record that is being written.
+     */
+    private static final long WRITING = -1;
+    /**
+     * The number of every-Nth sequence numbers a thread claims at a time.
+     */
+    private static final int BLOCK = 16;
+
+    /**
+     * The sampling strategy.
+     */
+    private final Sampling sampling;
+    /**
+     * The sampling interval for {@link Sampling#EVERY_NTH}.
+     */
+    private final int sampleEvery;
+    /**
+     * The number of slots, a power of two.
+     */
+    private final int capacity;
+    /**
+     * The column of key hashes.
+     */
+    private final long[] keyHashes;
+    /**
+     * The column of server IDs.
+     */
+    private final int[] serverIds;
+    /**
+     * The column of latencies in nanoseconds.
+     */
+    private final long[] latencies;
+    /**
+     * The column of timestamps in milliseconds.
+     */
+    private final long[] timestamps;
+    /**
+     * The sequence number plus one of the record in each slot; zero when empty, {@link #WRITING} while being written.
+     */
+    private final AtomicLongArray stamps;
+    /**
+     * The every-Nth sequence numbers claimed by threads so far, in blocks.
+     */
+    private final AtomicLong claimed = new AtomicLong();
+    /**
+     * The number of requests the reservoir has accounted for; threads add the requests they skipped when they sample.
+     */
+    private final AtomicLong reservoirSeen = new AtomicLong();
+    /**
+     * The number of requests offered to the tracker.
+     */
+    private final LongAdder seen = new LongAdder();
+    /**
+     * Each thread's sampling state: the requests left to skip before its next sample, the requests skipped but not yet
+     * added to {@link #reservoirSeen}, and the next and end of its claimed block of every-Nth sequence numbers.
+     */
+    private final ThreadLocal<long[]> local = ThreadLocal.withInitial(() -> new long[4]);
+
     /**
-     * A queue to store the history of requests.
+     * Constructs a new RequestTracker that keeps the most recent {@link #DEFAULT_CAPACITY} requests.
      */
-    private final Queue<RequestRecord> history = new ConcurrentLinkedQueue<>();
+    public RequestTracker() {
+        this(DEFAULT_CAPACITY, Sampling.EVERY_NTH, 1);
+    }
 
     /**
-     * Records a request.
+     * Constructs a new RequestTracker.
      *
-     * @param record The request to record.
+     * @param capacity    The number of records to keep, rounded up to a power of two.
+     * @param sampling    The sampling strategy.
+     * @param sampleEvery The sampling interval for {@link Sampling#EVERY_NTH}; ignored for reservoir sampling.
+     * @throws IllegalArgumentException if the capacity or interval is not positive.
      */
-    public void record(RequestRecord record) {
-        history.add(record);
+    public RequestTracker(int capacity, Sampling sampling, int sampleEvery) {
+        if (capacity <= 0 || capacity > 1 << 30) throw new IllegalArgumentException("capacity must be in (0, 2^30]: " + capacity);
+        if (sampleEvery <= 0) throw new IllegalArgumentException("sampleEvery must be positive: " + sampleEvery);
+        this.sampling = sampling;
+        this.sampleEvery = sampleEvery;
+        int slots = 1;
+        while (slots < capacity) slots <<= 1;
+        this.capacity = slots;
+        this.keyHashes = new long[this.capacity];
+        this.serverIds = new int[this.capacity];
+        this.latencies = new long[this.capacity];
+        this.timestamps = new long[this.capacity];
+        this.stamps = new AtomicLongArray(this.capacity);
+    }
+
+    /**
+     * Records a request if the sampling strategy selects it. Never allocates.
+     *
+     * @param keyHash   The hash of the request key.
+     * @param serverId  The ID of the server that handled the request.
+     * @param latencyNs The latency of the request in nanoseconds.
+     */
+    public void record(long keyHash, int serverId, long latencyNs) {
+        seen.increment();
+        long[] state = local.get();
+        if (state[0] > 0) {
+            state[0]--;
+            state[1]++;
+            return;
+        }
+        long sequence;
+        int slot;
+        if (sampling == Sampling.EVERY_NTH) {
+            state[0] = sampleEvery - 1;
+            if (state[2] == state[3]) {
+                int block = Math.min(BLOCK, capacity);
+                state[2] = claimed.getAndAdd(block);
+                state[3] = state[2] + block;
+            }
+            sequence = state[2]++;
+            slot = (int) (sequence & (capacity - 1));
+        } else {
+            sequence = reservoirSeen.addAndGet(state[1] + 1) - 1;
+            state[1] = 0;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            slot = sequence < capacity ? (int) sequence : random.nextInt(capacity);
+            state[0] = skip(sequence + 1, random);
+        }
+
+        long stamp = sequence + 1;
+        long previous = stamps.get(slot);
+        if (previous == WRITING || previous > stamp || !stamps.compareAndSet(slot, previous, WRITING)) return;
+        keyHashes[slot] = keyHash;
+        serverIds[slot] = serverId;
+        latencies[slot] = latencyNs;
+        timestamps[slot] = System.currentTimeMillis();
+        stamps.setRelease(slot, stamp);
+    }
+
+    /**
+     * Streams the recorded requests to a visitor without copying the buffer.
+     * Every-Nth logs are replayed oldest first, to within a block per thread; reservoir samples are replayed in slot
+     * order.
+     * Records overwritten while the replay is running are skipped.
+     *
+     * @param visitor The visitor that receives each record.
+     */
+    public void replay(Visitor visitor) {
+        if (sampling == Sampling.RESERVOIR) {
+            for (int slot = 0; slot < capacity; slot++) {
+                long stamp = stamps.getAcquire(slot);
+                if (stamp > 0) visitIfStable(slot, stamp, visitor);
+            }
+            return;
+        }
+
+        // Sequence numbers claimed but not yet used by their thread have no record and are skipped.
+        long end = claimed.get();
+        for (long sequence = Math.max(0, end - capacity); sequence < end; sequence++) {
+            int slot = (int) (sequence & (capacity - 1));
+            if (stamps.getAcquire(slot) == sequence + 1) visitIfStable(slot, sequence + 1, visitor);
+        }
     }
 
     /**
-     * Returns a list of all recorded requests.
+     * Returns the number of requests offered to the tracker, sampled or not.
      *
-     * @return A list of all recorded requests.
+     * @return The number of requests seen.
+     */
+    public long seen() {
+        return seen.sum();
+    }
+
+    /**
+     * Returns the number of records currently held.
+     *
+     * @return The number of records.
+     */
+    public int size() {
+        int size = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            if (stamps.get(slot) > 0) size++;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of records held.
+     *
+     * @return The capacity.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Draws how many requests to skip before the next reservoir sample, once {@code seen} requests are accounted for.
+     * Algorithm R keeps request n with probability capacity / (n + 1); the gap to the next kept request is drawn from
+     * the geometric distribution at the current probability, which is close while the gap is short next to n.
+     */
+    private long skip(long seen, ThreadLocalRandom random) {
+        if (seen < capacity) return 0;
+        double keep = (double) capacity / (seen + 1);
+        return (long) (Math.log(1 - random.nextDouble()) / Math.log1p(-keep));
+    }
+
+    /**
+     * Reads a slot and passes it to the visitor only if no writer touched it during the read.
      */
-    public List<RequestRecord> replay() {
-        return new ArrayList<>(history);
+    private void visitIfStable(int slot, long stamp, Visitor visitor) {
+        long keyHash = keyHashes[slot];
+        int serverId = serverIds[slot];
+        long latencyNs = latencies[slot];
+        long timestamp = timestamps[slot];
+        VarHandle.acquireFence();
+        if (stamps.get(slot) == stamp) visitor.visit(keyHash, serverId, latencyNs, timestamp);
     }
-}
\ No newline at end of file
+}
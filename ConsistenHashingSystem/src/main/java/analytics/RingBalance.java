@@ -0,0 +1,202 @@
+package analytics;
+
+import domain.Server;
+import hashing.HashFunction;
+import hashing.SHA256Hash;
+import ring.Placement;
+import ring.Ring;
+import ring.RingAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The balance of a placement judged analytically, from the exact fraction of the hash space each server owns rather
+ * than from the load of simulated requests.
+ * <p>
+ * Each server's ownership is compared with its share of the total weight, so a ratio of 1.0 means it owns exactly its
+ * capacity-proportional share of keys. Because the fractions come straight from the ring tokens in O(positions), a
+ * candidate virtual node count can be evaluated in milliseconds without routing a single request, and the result is
+ * the expected load under uniform keys with none of the sampling noise of a simulation.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class RingBalance {
+
+    /**
+     * The server IDs in ascending order.
+     */
+    private final int[] serverIds;
+    /**
+     * The fraction of the hash space each server owns.
+     */
+    private final double[] ownership;
+    /**
+     * Each server's ownership relative to its share of the total weight.
+     */
+    private final double[] fairShareRatios;
+    /**
+     * The summary of the fair share ratios.
+     */
+    private final RunningStatistics statistics;
+
+    /**
+     * Constructs a new RingBalance.
+     */
+    private RingBalance(int[] serverIds, double[] ownership, double[] fairShareRatios) {
+        this.serverIds = serverIds;
+        this.ownership = ownership;
+        this.fairShareRatios = fairShareRatios;
+        this.statistics = RunningStatistics.of(fairShareRatios);
+    }
+
+    /**
+     * Measures the balance of a placement.
+     *
+     * @param placement The placement.
+     * @param servers   The servers on it, for their weights.
+     * @return The balance.
+     */
+    public static RingBalance of(Placement placement, Collection<Server> servers) {
+        Map<Integer, Double> owned = placement.ownership();
+        Server[] members = servers.stream().sorted(Comparator.comparingInt(Server::id)).toArray(Server[]::new);
+        long totalWeight = 0;
+        for (Server server : members) totalWeight += server.weight();
+
+        int[] serverIds = new int[members.length];
+        double[] ownership = new double[members.length];
+        double[] ratios = new double[members.length];
+        for (int i = 0; i < members.length; i++) {
+            serverIds[i] = members[i].id();
+            ownership[i] = owned.getOrDefault(members[i].id(), 0.0);
+            ratios[i] = ownership[i] / ((double) members[i].weight() / totalWeight);
+        }
+        return new RingBalance(serverIds, ownership, ratios);
+    }
+
+    /**
+     * Builds a ring off to the side and measures its balance, without routing any keys.
+     *
+     * @param algorithm             The ring algorithm.
+     * @param hashFunction          The hash function.
+     * @param servers               The servers.
+     * @param virtualNodesPerWeight The virtual nodes per unit of weight.
+     * @return The balance.
+     */
+    public static RingBalance simulate(RingAlgorithm algorithm, HashFunction hashFunction, Collection<Server> servers, int virtualNodesPerWeight) {
+        Ring ring = algorithm.create(hashFunction);
+        ring.rebuild(servers, server -> virtualNodesPerWeight * server.weight());
+        return of(ring.placement(), servers);
+    }
+
+    /**
+     * Prints the balance of a ring of unit-weight servers for a range of virtual node counts.
+     *
+     * @param args Optional overrides: servers, then virtual node counts to try.
+     */
+    public static void main(String[] args) {
+        int servers = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int[] counts = args.length > 1 ? new int[args.length - 1] : new int[]{1, 10, 50, 100, 200, 500, 1000};
+        for (int i = 1; i < args.length; i++) counts[i - 1] = Integer.parseInt(args[i]);
+        print(RingAlgorithm.COPY_ON_WRITE_HASH_RING, new SHA256Hash(), servers, counts);
+    }
+
+    /**
+     * Prints the balance of a ring of unit-weight servers for each virtual node count.
+     *
+     * @param algorithm    The ring algorithm.
+     * @param hashFunction The hash function.
+     * @param servers      The number of servers.
+     * @param virtualNodes The virtual node counts to try.
+     */
+    public static void print(RingAlgorithm algorithm, HashFunction hashFunction, int servers, int... virtualNodes) {
+        List<Server> members = new ArrayList<>(servers);
+        for (int i = 0; i < servers; i++) members.add(new Server(i));
+
+        System.out.println("\n--- RING BALANCE (ANALYTICAL) ---");
+        System.out.printf("%s, %s, servers=%d%n", algorithm, hashFunction.id(), servers);
+        System.out.printf("%10s %10s %10s %10s %10s%n", "vnodes", "CV", "min", "max", "ms");
+        for (int count : virtualNodes) {
+            long start = System.nanoTime();
+            RingBalance balance = simulate(algorithm, hashFunction, members, count);
+            double ms = (System.nanoTime() - start) / 1e6;
+            System.out.printf("%10d %10.4f %9.3fx %9.3fx %10.2f%n", count, balance.coefficientOfVariation(), balance.minRatio(), balance.peakRatio(), ms);
+        }
+    }
+
+    /**
+     * Returns the fraction of the hash space a server owns.
+     *
+     * @param serverId The ID of the server.
+     * @return The fraction, or zero for an unknown server.
+     */
+    public double ownership(int serverId) {
+        int i = indexOf(serverId);
+        return i < 0 ? 0 : ownership[i];
+    }
+
+    /**
+     * Returns a server's ownership relative to its share of the total weight.
+     *
+     * @param serverId The ID of the server.
+     * @return The ratio, 1.0 for an exactly fair share, or zero for an unknown server.
+     */
+    public double fairShareRatio(int serverId) {
+        int i = indexOf(serverId);
+        return i < 0 ? 0 : fairShareRatios[i];
+    }
+
+    /**
+     * Returns the spread of the fair share ratios, the analytical counterpart of the load standard deviation.
+     *
+     * @return The coefficient of variation.
+     */
+    public double coefficientOfVariation() {
+        return statistics.coefficientOfVariation();
+    }
+
+    /**
+     * Returns the fair share ratio of the server that owns the most relative to its weight.
+     *
+     * @return The largest ratio.
+     */
+    public double peakRatio() {
+        return statistics.max();
+    }
+
+    /**
+     * Returns the fair share ratio of the server that owns the least relative to its weight.
+     *
+     * @return The smallest ratio.
+     */
+    public double minRatio() {
+        return statistics.min();
+    }
+
+    /**
+     * Returns the number of servers measured.
+     *
+     * @return The server count.
+     */
+    public int servers() {
+        return serverIds.length;
+    }
+
+    /**
+     * Finds a server's index by binary search over the sorted IDs.
+     */
+    private int indexOf(int serverId) {
+        int i = Arrays.binarySearch(serverIds, serverId);
+        return i < 0 ? -1 : i;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("servers=%d, ownership cv=%.4f, min=%.3fx, max=%.3fx fair share", serverIds.length, coefficientOfVariation(), minRatio(), peakRatio());
+    }
+}
@@ -0,0 +1,158 @@
+package analytics;
+
+/**
+ * One-pass summary statistics over a stream of values, using Welford's update for the mean and variance.
+ * <p>
+ * Welford's method stays numerically stable where the textbook sum-of-squares formula cancels catastrophically, and
+ * it needs no second pass, so primitive arrays are summarized without boxing or buffering. Two summaries of disjoint
+ * streams can be {@link #merge(RunningStatistics) merged} with Chan's parallel update. Instances are not thread-safe.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class RunningStatistics {
+
+    /**
+     * The number of values seen.
+     */
+    private long count;
+    /**
+     * The running mean.
+     */
+    private double mean;
+    /**
+     * The running sum of squared deviations from the mean.
+     */
+    private double squaredDeviations;
+    /**
+     * The smallest value seen.
+     */
+    private double min = Double.POSITIVE_INFINITY;
+    /**
+     * The largest value seen.
+     */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Summarizes an array of values.
+     *
+     * @param values The values.
+     * @return The summary.
+     */
+    public static RunningStatistics of(long[] values) {
+        RunningStatistics stats = new RunningStatistics();
+        for (long value : values) stats.add(value);
+        return stats;
+    }
+
+    /**
+     * Summarizes an array of values.
+     *
+     * @param values The values.
+     * @return The summary.
+     */
+    public static RunningStatistics of(double[] values) {
+        RunningStatistics stats = new RunningStatistics();
+        for (double value : values) stats.add(value);
+        return stats;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value The value.
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (value - mean);
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Adds every value of another summary, as if they had been added to this one.
+     *
+     * @param other The summary of a disjoint stream.
+     */
+    public void merge(RunningStatistics other) {
+        if (other.count == 0) return;
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        squaredDeviations += other.squaredDeviations + delta * delta * ((double) count * other.count / total);
+        mean += delta * other.count / total;
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return The count.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the mean.
+     *
+     * @return The mean, or zero if there are no values.
+     */
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * Returns the population variance.
+     *
+     * @return The variance, or zero if there are no values.
+     */
+    public double variance() {
+        return count == 0 ? 0 : squaredDeviations / count;
+    }
+
+    /**
+     * Returns the population standard deviation.
+     *
+     * @return The standard deviation, or zero if there are no values.
+     */
+    public double stdDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    /**
+     * Returns the standard deviation relative to the mean, which compares spread across scales.
+     *
+     * @return The coefficient of variation, or zero if the mean is zero.
+     */
+    public double coefficientOfVariation() {
+        return mean == 0 ? 0 : stdDeviation() / Math.abs(mean);
+    }
+
+    /**
+     * Returns the smallest value.
+     *
+     * @return The minimum, or zero if there are no values.
+     */
+    public double min() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * Returns the largest value.
+     *
+     * @return The maximum, or zero if there are no values.
+     */
+    public double max() {
+        return count == 0 ? 0 : max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d, mean=%.4f, std dev=%.4f, cv=%.4f, min=%.4f, max=%.4f",
+                count, mean(), stdDeviation(), coefficientOfVariation(), min(), max());
+    }
+}
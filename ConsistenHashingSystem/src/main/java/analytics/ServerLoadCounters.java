@@ -0,0 +1,199 @@
+package analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-server request counters with {@link java.util.concurrent.atomic.LongAdder} semantics, indexed by server ID.
+ * <p>
+ * Each thread increments the cells of its own stripe, chosen by thread ID, so threads routing to the same server do
+ * not fight over one cache line. A stripe stores servers in fixed chunks of {@value #CHUNK} counters padded on both
+ * sides, so growing to more servers only adds chunks and never copies (or loses) live counts. Reads sum the stripes,
+ * and counters are {@code long}, so they do not overflow.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class ServerLoadCounters {
+
+    /**
+     * The number of server counters per chunk.
+     */
+    private static final int CHUNK = 64;
+    /**
+     * The number of padding longs on each side of a chunk or the total cells, one cache line.
+     */
+    private static final int PAD = 8;
+    /**
+     * The cell of a stripe's totals holding the load of the servers still holding a counter.
+     */
+    private static final int CURRENT = PAD;
+    /**
+     * The cell of a stripe's totals holding every increment ever made, which {@link #reset(int)} leaves alone.
+     */
+    private static final int CUMULATIVE = PAD + 1;
+
+    /**
+     * The chunks of every stripe, indexed by stripe then chunk. Replaced, never mutated in place, when growing.
+     */
+    private volatile AtomicLongArray[][] chunks;
+    /**
+     * The per-stripe running totals: the current load and the cumulative load.
+     */
+    private final AtomicLongArray[] totals;
+
+    /**
+     * Constructs new counters with one stripe per available processor, rounded up to a power of two.
+     */
+    public ServerLoadCounters() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs new counters.
+     *
+     * @param stripes The number of stripes, rounded up to a power of two.
+     */
+    public ServerLoadCounters(int stripes) {
+        int n = 1;
+        while (n < stripes) n <<= 1;
+        this.chunks = new AtomicLongArray[n][0];
+        this.totals = new AtomicLongArray[n];
+        for (int i = 0; i < n; i++) totals[i] = new AtomicLongArray(2 * PAD + 2);
+    }
+
+    /**
+     * Makes sure a server ID has a counter. Must be called before the server can receive requests.
+     *
+     * @param serverId The server ID.
+     */
+    public synchronized void ensureCapacity(int serverId) {
+        AtomicLongArray[][] current = chunks;
+        int needed = serverId / CHUNK + 1;
+        if (current[0].length >= needed) return;
+        AtomicLongArray[][] grown = new AtomicLongArray[current.length][];
+        for (int s = 0; s < current.length; s++) {
+            grown[s] = Arrays.copyOf(current[s], needed);
+            for (int c = current[s].length; c < needed; c++) grown[s][c] = new AtomicLongArray(CHUNK + 2 * PAD);
+        }
+        chunks = grown;
+    }
+
+    /**
+     * Counts one request for a server.
+     *
+     * @param serverId The server ID.
+     */
+    public void increment(int serverId) {
+        int stripe = stripeIndex();
+        chunks[stripe][serverId / CHUNK].getAndIncrement(PAD + serverId % CHUNK);
+        totals[stripe].getAndIncrement(CURRENT);
+        totals[stripe].getAndIncrement(CUMULATIVE);
+    }
+
+    /**
+     * Counts a batch of requests for a server.
+     *
+     * @param serverId The server ID.
+     * @param count    The number of requests.
+     */
+    public void add(int serverId, long count) {
+        int stripe = stripeIndex();
+        chunks[stripe][serverId / CHUNK].getAndAdd(PAD + serverId % CHUNK, count);
+        totals[stripe].getAndAdd(CURRENT, count);
+        totals[stripe].getAndAdd(CUMULATIVE, count);
+    }
+
+    /**
+     * Returns the number of requests counted for a server.
+     *
+     * @param serverId The server ID.
+     * @return The load, or zero for an unknown server.
+     */
+    public long get(int serverId) {
+        AtomicLongArray[][] current = chunks;
+        int chunk = serverId / CHUNK;
+        if (serverId < 0 || chunk >= current[0].length) return 0;
+        long sum = 0;
+        for (AtomicLongArray[] stripe : current) sum += stripe[chunk].get(PAD + serverId % CHUNK);
+        return sum;
+    }
+
+    /**
+     * Returns the number of requests counted for all servers still holding a counter.
+     *
+     * @return The total load.
+     */
+    public long total() {
+        long sum = 0;
+        for (AtomicLongArray total : totals) sum += total.get(CURRENT);
+        return sum;
+    }
+
+    /**
+     * Returns the number of requests ever counted, including those of servers whose counter was since reset. Never
+     * decreases, so it can be exported as a counter.
+     *
+     * @return The cumulative load.
+     */
+    public long cumulativeTotal() {
+        long sum = 0;
+        for (AtomicLongArray total : totals) sum += total.get(CUMULATIVE);
+        return sum;
+    }
+
+    /**
+     * Clears a server's counter, removing its load from the total.
+     *
+     * @param serverId The server ID.
+     */
+    public void reset(int serverId) {
+        AtomicLongArray[][] current = chunks;
+        int chunk = serverId / CHUNK;
+        if (serverId < 0 || chunk >= current[0].length) return;
+        for (int s = 0; s < current.length; s++) {
+            long cleared = current[s][chunk].getAndSet(PAD + serverId % CHUNK, 0);
+            totals[s].getAndAdd(CURRENT, -cleared);
+        }
+    }
+
+    /**
+     * Zeroes every counter and both totals, keeping the counters allocated, so they can be reused for a new period.
+     * Unlike {@link #reset(int)} this also clears the cumulative total.
+     */
+    void clear() {
+        for (AtomicLongArray[] stripe : chunks) {
+            for (AtomicLongArray chunk : stripe) {
+                for (int i = PAD; i < PAD + CHUNK; i++) chunk.set(i, 0);
+            }
+        }
+        for (AtomicLongArray total : totals) {
+            total.set(CURRENT, 0);
+            total.set(CUMULATIVE, 0);
+        }
+    }
+
+    /**
+     * Copies every counter into a primitive array indexed by server ID.
+     *
+     * @return The loads; servers that never held a counter read as zero.
+     */
+    public long[] snapshot() {
+        AtomicLongArray[][] current = chunks;
+        long[] loads = new long[current[0].length * CHUNK];
+        for (AtomicLongArray[] stripe : current) {
+            for (int c = 0; c < stripe.length; c++) {
+                for (int i = 0; i < CHUNK; i++) loads[c * CHUNK + i] += stripe[c].get(PAD + i);
+            }
+        }
+        return loads;
+    }
+
+    /**
+     * Picks the stripe for the calling thread.
+     */
+    private int stripeIndex() {
+        long id = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (id >>> 32) & (totals.length - 1);
+    }
+}
@@ -0,0 +1,337 @@
+package analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A fixed-memory hot key detector that combines a Count-Min Sketch with Space-Saving top-K tables.
+ * <p>
+ * Accesses update the sketch without locking. Only keys whose estimate beats the smallest monitored count of their
+ * stripe try to enter that stripe's Space-Saving table, and they take its lock with {@code tryLock}: when another
+ * thread holds it the update is skipped, since a genuinely hot key will be seen again immediately. Memory is bounded
+ * by the sketch plus {@code capacity} monitored keys, and {@link #topHotKeys(int)} merges those few entries instead of
+ * sorting every key ever seen.
+ * <p>
+ * A hot key would otherwise make every routing thread increment the same {@code depth} sketch cells and try the same
+ * table lock on every access. Once a key's estimate reaches {@value #BATCH_FROM}, each thread counts its accesses in a
+ * small thread-local batch and only adds them to the sketch, and offers the key to its table, every
+ * {@value #BATCH}th access, so shared cells are written once per batch. The estimate of such a key can therefore trail
+ * its true count by up to {@code BATCH - 1} accesses per routing thread; keys below {@value #BATCH_FROM} are counted
+ * immediately.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class SketchHotKeyDetector implements HotKeyDetector {
+
+    /**
+     * A heavy hitter with its estimated count.
+     *
+     * @param key      The key.
+     * @param count    The estimated number of accesses, never below the true count less the accesses still batched.
+     * @param maxError The most the estimate can exceed the true count, with the sketch's confidence.
+     */
+    public record HotKey(String key, long count, long maxError) {
+    }
+
+    /**
+     * The estimate from which a thread batches a key's accesses instead of adding each to the sketch.
+     */
+    private static final long BATCH_FROM = 256;
+    /**
+     * The number of accesses of a hot key a thread counts before adding them to the sketch.
+     */
+    private static final int BATCH = 16;
+    /**
+     * The number of hot keys each thread batches at once, a power of two.
+     */
+    private static final int BATCH_SLOTS = 8;
+
+    /**
+     * The frequency sketch shared by all stripes.
+     */
+    private final CountMinSketch sketch;
+    /**
+     * The Space-Saving tables, selected by key hash.
+     */
+    private final Stripe[] stripes;
+    /**
+     * Each thread's batch of hot key accesses not yet added to the sketch.
+     */
+    private final ThreadLocal<Batch> batches = ThreadLocal.withInitial(Batch::new);
+    /**
+     * Incremented by {@link #clear()}, so batches from an earlier period are discarded instead of flushed.
+     */
+    private volatile int generation;
+
+    /**
+     * Constructs a new SketchHotKeyDetector that monitors 128 keys over a 4 x 65536 sketch.
+     */
+    public SketchHotKeyDetector() {
+        this(128, 1 << 16, 4);
+    }
+
+    /**
+     * Constructs a new SketchHotKeyDetector.
+     *
+     * @param capacity The number of keys monitored across all stripes.
+     * @param width    The number of sketch counters per row.
+     * @param depth    The number of sketch rows.
+     * @throws IllegalArgumentException if any argument is not positive.
+     */
+    public SketchHotKeyDetector(int capacity, int width, int depth) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.sketch = new CountMinSketch(width, depth);
+        int stripeCount = 1;
+        while (stripeCount < Math.min(Runtime.getRuntime().availableProcessors(), capacity)) stripeCount <<= 1;
+        if (stripeCount > capacity) stripeCount >>= 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe((capacity + stripeCount - 1) / stripeCount);
+        }
+    }
+
+    /**
+     * Tracks the access of a key.
+     *
+     * @param key     The key to track.
+     * @param keyHash The hash of the key.
+     */
+    @Override
+    public void track(String key, long keyHash) {
+        Batch batch = batches.get();
+        int current = generation;
+        if (batch.generation != current) batch.reset(current);
+        int slot = (int) (keyHash ^ (keyHash >>> 32)) & (BATCH_SLOTS - 1);
+        if (batch.pending[slot] >= 0 && batch.hashes[slot] == keyHash) {
+            if (++batch.pending[slot] < BATCH) return;
+            long estimate = sketch.add(keyHash, batch.pending[slot]);
+            batch.pending[slot] = 0;
+            offer(key, keyHash, estimate);
+            return;
+        }
+        long estimate = sketch.add(keyHash);
+        offer(key, keyHash, estimate);
+        if (estimate >= BATCH_FROM) {
+            // The key displaced from the slot hands its counted accesses to the sketch before it goes.
+            if (batch.pending[slot] > 0) sketch.add(batch.hashes[slot], batch.pending[slot]);
+            batch.hashes[slot] = keyHash;
+            batch.pending[slot] = 0;
+        }
+    }
+
+    /**
+     * Offers a key to its stripe's Space-Saving table if its estimate beats the table's smallest count.
+     */
+    private void offer(String key, long keyHash, long estimate) {
+        Stripe stripe = stripes[(int) (keyHash ^ (keyHash >>> 32)) & (stripes.length - 1)];
+        if (estimate > stripe.threshold && stripe.lock.tryLock()) {
+            try {
+                stripe.offer(key, keyHash, estimate);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the top k hot keys.
+     *
+     * @param k The number of hot keys to return, at most the monitored capacity.
+     * @return A list of the top k hot keys.
+     */
+    @Override
+    public List<String> topHotKeys(int k) {
+        return heavyHitters(k).stream().map(HotKey::key).toList();
+    }
+
+    /**
+     * Returns the top k hot keys with their estimated counts and error bound.
+     *
+     * @param k The number of hot keys to return, at most the monitored capacity.
+     * @return The heavy hitters, most frequent first.
+     */
+    public List<HotKey> heavyHitters(int k) {
+        long maxError = sketch.errorBound();
+        List<HotKey> candidates = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (int i = 0; i < stripe.size; i++) {
+                    candidates.add(new HotKey(stripe.keys[i], sketch.estimate(stripe.hashes[i]), maxError));
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        candidates.sort((a, b) -> Long.compare(b.count(), a.count()));
+        return candidates.size() > k ? List.copyOf(candidates.subList(0, k)) : candidates;
+    }
+
+    /**
+     * Visits every monitored key with its hash, one stripe at a time.
+     *
+     * @param action Receives each key and its hash.
+     */
+    void forEachMonitored(ObjLongConsumer<String> action) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (int i = 0; i < stripe.size; i++) action.accept(stripe.keys[i], stripe.hashes[i]);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated number of accesses of a key.
+     *
+     * @param keyHash The hash of the key.
+     * @return The estimate, never below the true count less the accesses still batched by routing threads.
+     */
+    public long estimate(long keyHash) {
+        return sketch.estimate(keyHash);
+    }
+
+    /**
+     * Returns the estimated number of accesses of a key.
+     *
+     * @param key     Ignored; keys are counted by hash.
+     * @param keyHash The hash of the key.
+     * @return The estimate, never below the true count less the accesses still batched by routing threads.
+     */
+    @Override
+    public long estimate(String key, long keyHash) {
+        return sketch.estimate(keyHash);
+    }
+
+    /**
+     * Returns the underlying sketch, for its error bounds.
+     *
+     * @return The sketch.
+     */
+    public CountMinSketch sketch() {
+        return sketch;
+    }
+
+    /**
+     * Forgets every key and zeroes the sketch, so the detector can be reused for a new period.
+     */
+    void clear() {
+        generation++;
+        sketch.clear();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Arrays.fill(stripe.keys, null);
+                stripe.size = 0;
+                stripe.threshold = 0;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * One thread's hot keys and the accesses it has counted for each but not yet added to the sketch.
+     */
+    private static final class Batch {
+        /**
+         * The hash of the key in each slot.
+         */
+        private final long[] hashes = new long[BATCH_SLOTS];
+        /**
+         * The accesses counted for each slot's key, or -1 for an empty slot.
+         */
+        private final int[] pending = new int[BATCH_SLOTS];
+        /**
+         * The detector generation the counts belong to.
+         */
+        private int generation = -1;
+
+        /**
+         * Empties every slot, discarding counts from an earlier generation.
+         */
+        private void reset(int generation) {
+            Arrays.fill(pending, -1);
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * One Space-Saving table of monitored keys.
+     */
+    private static final class Stripe {
+        /**
+         * The lock guarding the table.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+        /**
+         * The monitored keys.
+         */
+        private final String[] keys;
+        /**
+         * The hash of each monitored key.
+         */
+        private final long[] hashes;
+        /**
+         * The last known estimate of each monitored key.
+         */
+        private final long[] counts;
+        /**
+         * The number of monitored keys.
+         */
+        private int size;
+        /**
+         * The estimate a key must exceed to enter the table; zero until the table is full.
+         */
+        private volatile long threshold;
+
+        /**
+         * Constructs an empty table.
+         */
+        private Stripe(int capacity) {
+            this.keys = new String[capacity];
+            this.hashes = new long[capacity];
+            this.counts = new long[capacity];
+        }
+
+        /**
+         * Updates a monitored key or replaces the smallest entry with it. Must be called while holding the lock.
+         */
+        private void offer(String key, long keyHash, long estimate) {
+            int min = -1;
+            for (int i = 0; i < size; i++) {
+                if (hashes[i] == keyHash && keys[i].equals(key)) {
+                    counts[i] = estimate;
+                    refreshThreshold();
+                    return;
+                }
+                if (min < 0 || counts[i] < counts[min]) min = i;
+            }
+            if (size < keys.length) {
+                min = size++;
+            } else if (estimate <= counts[min]) {
+                return;
+            }
+            keys[min] = key;
+            hashes[min] = keyHash;
+            counts[min] = estimate;
+            refreshThreshold();
+        }
+
+        /**
+         * Recomputes the entry threshold after a change.
+         */
+        private void refreshThreshold() {
+            if (size < keys.length) return;
+            long min = Long.MAX_VALUE;
+            for (long count : counts) min = Math.min(min, count);
+            threshold = min;
+        }
+    }
+}
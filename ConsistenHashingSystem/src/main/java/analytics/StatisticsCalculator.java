@@ -11,14 +11,34 @@ import java.util.Collection;
 public class StatisticsCalculator {
 
     /**
-     * Calculates the standard deviation of a collection of values.
+     * Calculates the standard deviation of a collection of values in one pass.
      *
      * @param values The collection of values.
      * @return The standard deviation of the values.
      */
     public static double stdDeviation(Collection<Integer> values) {
-        double mean = values.stream().mapToInt(i -> i).average().orElse(0);
-        double variance = values.stream().mapToDouble(v -> Math.pow(v - mean, 2)).average().orElse(0);
-        return Math.sqrt(variance);
+        RunningStatistics stats = new RunningStatistics();
+        for (int value : values) stats.add(value);
+        return stats.stdDeviation();
+    }
+
+    /**
+     * Calculates the standard deviation of an array of values in one pass.
+     *
+     * @param values The values.
+     * @return The standard deviation of the values.
+     */
+    public static double stdDeviation(long[] values) {
+        return RunningStatistics.of(values).stdDeviation();
+    }
+
+    /**
+     * Calculates the standard deviation of an array of values in one pass.
+     *
+     * @param values The values.
+     * @return The standard deviation of the values.
+     */
+    public static double stdDeviation(double[] values) {
+        return RunningStatistics.of(values).stdDeviation();
     }
 }
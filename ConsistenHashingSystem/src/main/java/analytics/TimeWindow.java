@@ -0,0 +1,175 @@
+package analytics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A sliding window of time split into a ring of equally long buckets, the shared machinery of the windowed trackers.
+ * <p>
+ * The buckets are allocated once, up front, and reused lap after lap. Each is tagged with the index of the period it
+ * covers, counted from construction. A writer computes the current index from the clock and, if its slot's bucket is
+ * still tagged with an earlier lap, claims it with a single compare-and-set, clears it and tags it with the new index;
+ * a thread that loses the race waits the few microseconds the clearing takes and then uses the same bucket, so
+ * rotating never allocates. Readers visit the buckets whose index falls inside the window and skip the rest, so expiry
+ * needs no background thread and no lock. A thread that stalls for a whole lap between fetching a bucket and writing
+ * to it writes into whatever period the bucket covers by then, so those few updates are counted late or dropped by
+ * the clearing, which is the price of not locking.
+ *
+ * @param <B> The bucket type.
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+final class TimeWindow<B extends TimeWindow.Bucket> {
+
+    /**
+     * The index a bucket carries while it is being cleared for a new period.
+     */
+    private static final long CLEARING = Long.MIN_VALUE;
+    /**
+     * The index a bucket carries before its first period, far outside any window.
+     */
+    private static final long UNUSED = Long.MIN_VALUE + 1;
+
+    /**
+     * The base class of the buckets, carrying the index of the period they cover.
+     */
+    abstract static class Bucket {
+        /**
+         * The index of the period the bucket covers, or {@link #UNUSED} or {@link #CLEARING}.
+         */
+        final AtomicLong index = new AtomicLong(UNUSED);
+
+        /**
+         * Empties the bucket for its next period. Called by the one thread that claimed it, while other writers wait.
+         */
+        abstract void clear();
+    }
+
+    /**
+     * The buckets, indexed by period modulo their number.
+     */
+    private final B[] slots;
+    /**
+     * The length of each bucket's period in nanoseconds.
+     */
+    private final long bucketNanos;
+    /**
+     * The time periods are counted from.
+     */
+    private final long origin = System.nanoTime();
+
+    /**
+     * Constructs a new TimeWindow.
+     *
+     * @param length  The length of the window.
+     * @param buckets The number of buckets the window is split into; more buckets expire old data more smoothly.
+     * @param factory Creates an empty bucket; called once per bucket, here.
+     * @throws IllegalArgumentException if the window is shorter than one nanosecond per bucket or there are no buckets.
+     */
+    @SuppressWarnings("unchecked")
+    TimeWindow(Duration length, int buckets, Supplier<B> factory) {
+        if (buckets <= 0) throw new IllegalArgumentException("buckets must be positive: " + buckets);
+        if (length.toNanos() < buckets) throw new IllegalArgumentException("window too short: " + length);
+        this.slots = (B[]) new Bucket[buckets];
+        for (int i = 0; i < buckets; i++) slots[i] = factory.get();
+        this.bucketNanos = length.toNanos() / buckets;
+    }
+
+    /**
+     * Returns the bucket of the current period, clearing it first if it still covers an earlier lap.
+     *
+     * @return The current bucket.
+     */
+    B current() {
+        long index = index(System.nanoTime());
+        B bucket = slots[(int) (index % slots.length)];
+        long covered = bucket.index.get();
+        while (covered != index) {
+            if (covered > index) return bucket; // This thread stalled past its period; see the class comment.
+            if (covered != CLEARING && bucket.index.compareAndSet(covered, CLEARING)) {
+                bucket.clear();
+                bucket.index.set(index);
+                return bucket;
+            }
+            Thread.onSpinWait();
+            covered = bucket.index.get();
+        }
+        return bucket;
+    }
+
+    /**
+     * Returns the index of the current period, the end of the window {@link #live(int, long)} checks buckets against.
+     *
+     * @return The period index.
+     */
+    long currentIndex() {
+        return index(System.nanoTime());
+    }
+
+    /**
+     * Returns the bucket in a slot if it lies inside the window ending at a period. Readers loop over the slots from
+     * zero to {@link #buckets()} with this, so a read allocates nothing. Buckets are read while they are still being
+     * written, so the sums a reader builds are a moment's view rather than an atomic snapshot.
+     *
+     * @param slot  The slot, from zero to the number of buckets.
+     * @param index The period the window ends at, from {@link #currentIndex()}.
+     * @return The bucket, or {@code null} if it is expired, unused or being cleared.
+     */
+    B live(int slot, long index) {
+        B bucket = slots[slot];
+        long covered = bucket.index.get();
+        return covered > index - slots.length && covered <= index ? bucket : null;
+    }
+
+    /**
+     * Visits every bucket inside the window, the current one included, for reads that are not on a hot path.
+     *
+     * @param action Receives each live bucket.
+     */
+    void forEach(Consumer<? super B> action) {
+        long index = currentIndex();
+        for (int i = 0; i < slots.length; i++) {
+            B bucket = live(i, index);
+            if (bucket != null) action.accept(bucket);
+        }
+    }
+
+    /**
+     * Returns the length of time the live buckets actually cover: the full buckets plus the elapsed part of the
+     * current one, or less shortly after construction. Divide counts by it to get rates.
+     *
+     * @return The covered span, never zero.
+     */
+    Duration span() {
+        long elapsed = System.nanoTime() - origin;
+        long covered = Math.min(elapsed, (slots.length - 1) * bucketNanos + elapsed % bucketNanos);
+        return Duration.ofNanos(Math.max(1, covered));
+    }
+
+    /**
+     * Returns the nominal length of the window.
+     *
+     * @return The window length.
+     */
+    Duration length() {
+        return Duration.ofNanos(bucketNanos * slots.length);
+    }
+
+    /**
+     * Returns the number of buckets.
+     *
+     * @return The bucket count.
+     */
+    int buckets() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the period index of a time.
+     */
+    private long index(long nanoTime) {
+        return (nanoTime - origin) / bucketNanos;
+    }
+}
@@ -0,0 +1,202 @@
+package analytics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A hot key detector that finds the heavy hitters of the last few seconds rather than of all time.
+ * <p>
+ * The window is a ring of small {@link SketchHotKeyDetector}s, one per period, rotated lock-free by
+ * {@link TimeWindow}. Tracking a key touches only the current bucket, exactly as the cumulative detector does, so
+ * {@code locate} never blocks. Reads take the union of the keys each live bucket monitors and sum their estimates
+ * across buckets, so a key that was hot a minute ago but has cooled off drops out as its buckets expire. Each bucket's
+ * estimate overcounts by at most its own error bound, so a windowed estimate overcounts by at most their sum. Every
+ * bucket's sketch is allocated up front and cleared when the bucket is reused, and estimates loop over the buckets
+ * directly, so neither tracking nor hot key splitting allocates.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class WindowedHotKeyDetector implements HotKeyDetector {
+
+    /**
+     * The buckets of the window.
+     */
+    private final TimeWindow<Bucket> window;
+    /**
+     * The number of sketch rows per bucket, for the confidence of the combined estimate.
+     */
+    private final int depth;
+
+    /**
+     * Constructs a new WindowedHotKeyDetector whose buckets each monitor 128 keys over a 4 x 16384 sketch.
+     *
+     * @param length  The length of the window.
+     * @param buckets The number of buckets the window is split into.
+     * @throws IllegalArgumentException if the window is shorter than one nanosecond per bucket or there are no buckets.
+     */
+    public WindowedHotKeyDetector(Duration length, int buckets) {
+        this(length, buckets, 128, 1 << 14, 4);
+    }
+
+    /**
+     * Constructs a new WindowedHotKeyDetector.
+     *
+     * @param length   The length of the window.
+     * @param buckets  The number of buckets the window is split into.
+     * @param capacity The number of keys each bucket monitors.
+     * @param width    The number of sketch counters per row in each bucket.
+     * @param depth    The number of sketch rows in each bucket.
+     * @throws IllegalArgumentException if the window is too short or any size is not positive.
+     */
+    public WindowedHotKeyDetector(Duration length, int buckets, int capacity, int width, int depth) {
+        if (capacity <= 0 || width <= 0 || depth <= 0) throw new IllegalArgumentException("capacity, width and depth must be positive");
+        this.window = new TimeWindow<>(length, buckets, () -> new Bucket(new SketchHotKeyDetector(capacity, width, depth)));
+        this.depth = depth;
+    }
+
+    /**
+     * Tracks the access of a key in the current bucket.
+     *
+     * @param key     The key to track.
+     * @param keyHash The hash of the key.
+     */
+    @Override
+    public void track(String key, long keyHash) {
+        window.current().detector.track(key, keyHash);
+    }
+
+    /**
+     * Returns the top k hot keys within the window.
+     *
+     * @param k The number of hot keys to return.
+     * @return A list of the top k hot keys.
+     */
+    @Override
+    public List<String> topHotKeys(int k) {
+        return heavyHitters(k).stream().map(SketchHotKeyDetector.HotKey::key).toList();
+    }
+
+    /**
+     * Returns the top k hot keys within the window with their estimated counts and error bound.
+     *
+     * @param k The number of hot keys to return.
+     * @return The heavy hitters, most frequent first.
+     */
+    public List<SketchHotKeyDetector.HotKey> heavyHitters(int k) {
+        List<Bucket> live = liveBuckets();
+        Map<String, Long> candidates = new HashMap<>();
+        long maxError = 0;
+        for (Bucket bucket : live) {
+            bucket.detector.forEachMonitored(candidates::put);
+            maxError += bucket.detector.sketch().errorBound();
+        }
+        List<SketchHotKeyDetector.HotKey> hotKeys = new ArrayList<>(candidates.size());
+        for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+            long count = 0;
+            for (Bucket bucket : live) count += bucket.detector.estimate(candidate.getValue());
+            hotKeys.add(new SketchHotKeyDetector.HotKey(candidate.getKey(), count, maxError));
+        }
+        hotKeys.sort((a, b) -> Long.compare(b.count(), a.count()));
+        return hotKeys.size() > k ? List.copyOf(hotKeys.subList(0, k)) : hotKeys;
+    }
+
+    /**
+     * Returns the estimated number of accesses of a key within the window.
+     *
+     * @param key     Ignored; keys are counted by hash.
+     * @param keyHash The hash of the key.
+     * @return The estimate, never below the true count.
+     */
+    @Override
+    public long estimate(String key, long keyHash) {
+        long index = window.currentIndex();
+        long sum = 0;
+        for (int i = 0; i < window.buckets(); i++) {
+            Bucket bucket = window.live(i, index);
+            if (bucket != null) sum += bucket.detector.estimate(keyHash);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the estimated request rate of a key.
+     *
+     * @param key     Ignored; keys are counted by hash.
+     * @param keyHash The hash of the key.
+     * @return The requests per second over the covered span of the window.
+     */
+    public double rate(String key, long keyHash) {
+        return estimate(key, keyHash) / (window.span().toNanos() / 1e9);
+    }
+
+    /**
+     * Returns the most a windowed estimate can exceed the true count, the sum of the live buckets' bounds.
+     *
+     * @return The absolute error bound.
+     */
+    public long errorBound() {
+        long index = window.currentIndex();
+        long sum = 0;
+        for (int i = 0; i < window.buckets(); i++) {
+            Bucket bucket = window.live(i, index);
+            if (bucket != null) sum += bucket.detector.sketch().errorBound();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the probability that every bucket's estimate is within its bound, by the union bound over the buckets.
+     *
+     * @return The confidence of {@link #errorBound()}.
+     */
+    public double confidence() {
+        return Math.max(0, 1 - window.buckets() * Math.exp(-depth));
+    }
+
+    /**
+     * Returns the nominal length of the window.
+     *
+     * @return The window length.
+     */
+    public Duration length() {
+        return window.length();
+    }
+
+    /**
+     * Collects the live buckets so every candidate is estimated over the same set.
+     */
+    private List<Bucket> liveBuckets() {
+        List<Bucket> live = new ArrayList<>(window.buckets());
+        window.forEach(live::add);
+        return live;
+    }
+
+    /**
+     * The sketch of one period.
+     */
+    private static final class Bucket extends TimeWindow.Bucket {
+        /**
+         * The detector counting the period's accesses.
+         */
+        private final SketchHotKeyDetector detector;
+
+        /**
+         * Constructs a new Bucket.
+         */
+        private Bucket(SketchHotKeyDetector detector) {
+            this.detector = detector;
+        }
+
+        /**
+         * Forgets the period's keys and counts.
+         */
+        @Override
+        void clear() {
+            detector.clear();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package analytics;
+
+import java.time.Duration;
+
+/**
+ * A latency tracker that only remembers the last few seconds.
+ * <p>
+ * The window is a ring of {@link LatencyTracker}s, one per period, rotated lock-free by {@link TimeWindow}. Recording
+ * touches only the current bucket's striped histograms, and a snapshot merges the live buckets, so percentiles follow
+ * the recent latency instead of being diluted by hours of history. Every bucket's histograms are allocated up front and
+ * zeroed when the bucket is reused, so rotating never allocates on the recording thread.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class WindowedLatencyTracker {
+
+    /**
+     * The buckets of the window.
+     */
+    private final TimeWindow<Bucket> window;
+
+    /**
+     * Constructs a new WindowedLatencyTracker.
+     *
+     * @param length  The length of the window.
+     * @param buckets The number of buckets the window is split into.
+     * @throws IllegalArgumentException if the window is shorter than one nanosecond per bucket or there are no buckets.
+     */
+    public WindowedLatencyTracker(Duration length, int buckets) {
+        this.window = new TimeWindow<>(length, buckets, Bucket::new);
+    }
+
+    /**
+     * Records the latency of a request.
+     *
+     * @param latencyNs The latency of the request in nanoseconds.
+     */
+    public void record(long latencyNs) {
+        window.current().latencies.record(latencyNs);
+    }
+
+    /**
+     * Records the latency of a request handled by a server.
+     *
+     * @param serverId  The ID of the server that handled the request.
+     * @param latencyNs The latency of the request in nanoseconds.
+     */
+    public void record(int serverId, long latencyNs) {
+        window.current().latencies.record(serverId, latencyNs);
+    }
+
+    /**
+     * Records the same latency for several requests handled by a server.
+     *
+     * @param serverId  The ID of the server that handled the requests.
+     * @param latencyNs The latency of each request in nanoseconds.
+     * @param count     The number of requests.
+     */
+    public void record(int serverId, long latencyNs, long count) {
+        window.current().latencies.record(serverId, latencyNs, count);
+    }
+
+    /**
+     * Returns a merged snapshot of the latencies recorded within the window.
+     *
+     * @return The snapshot.
+     */
+    public LatencyHistogram.Snapshot snapshot() {
+        LatencyHistogram.Snapshot[] merged = {LatencyHistogram.Snapshot.EMPTY};
+        window.forEach(bucket -> merged[0] = merged[0].merge(bucket.latencies.snapshot()));
+        return merged[0];
+    }
+
+    /**
+     * Returns a merged snapshot of the latencies of requests handled by a server within the window.
+     *
+     * @param serverId The ID of the server.
+     * @return The snapshot, empty if the server has handled no recent requests.
+     */
+    public LatencyHistogram.Snapshot snapshot(int serverId) {
+        LatencyHistogram.Snapshot[] merged = {LatencyHistogram.Snapshot.EMPTY};
+        window.forEach(bucket -> merged[0] = merged[0].merge(bucket.latencies.snapshot(serverId)));
+        return merged[0];
+    }
+
+    /**
+     * Returns the nominal length of the window.
+     *
+     * @return The window length.
+     */
+    public Duration length() {
+        return window.length();
+    }
+
+    /**
+     * The latencies of one period.
+     */
+    private static final class Bucket extends TimeWindow.Bucket {
+        /**
+         * The latencies recorded in the period.
+         */
+        private final LatencyTracker latencies = new LatencyTracker();
+
+        /**
+         * Zeroes the latencies, keeping the histograms allocated.
+         */
+        @Override
+        void clear() {
+            latencies.clear();
+        }
+    }
+}
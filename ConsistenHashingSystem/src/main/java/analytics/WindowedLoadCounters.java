@@ -0,0 +1,184 @@
+package analytics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-server request counters that only remember the last few seconds.
+ * <p>
+ * The window is a ring of {@link ServerLoadCounters}, one per period, rotated lock-free by {@link TimeWindow}. Counting
+ * a request touches only the current bucket, and reads sum the live ones, so a count never grows without bound and
+ * always describes recent traffic. A bucket grows its counters the first time it sees a server ID beyond its capacity,
+ * and a bucket reused for a new period grows to the largest capacity seen so far, so that slow path runs about once
+ * per server. Reads loop over the buckets directly and allocate nothing, since bounded-load routing reads on every
+ * request.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class WindowedLoadCounters {
+
+    /**
+     * The buckets of the window.
+     */
+    private final TimeWindow<Bucket> window;
+    /**
+     * The largest server ID any bucket has grown to hold, used to size new buckets.
+     */
+    private final AtomicInteger maxServerId = new AtomicInteger(-1);
+
+    /**
+     * Constructs new counters.
+     *
+     * @param length  The length of the window.
+     * @param buckets The number of buckets the window is split into.
+     * @throws IllegalArgumentException if the window is shorter than one nanosecond per bucket or there are no buckets.
+     */
+    public WindowedLoadCounters(Duration length, int buckets) {
+        this.window = new TimeWindow<>(length, buckets, Bucket::new);
+    }
+
+    /**
+     * Counts one request for a server.
+     *
+     * @param serverId The server ID.
+     */
+    public void increment(int serverId) {
+        bucketFor(serverId).counters.increment(serverId);
+    }
+
+    /**
+     * Counts a batch of requests for a server.
+     *
+     * @param serverId The server ID.
+     * @param count    The number of requests.
+     */
+    public void add(int serverId, long count) {
+        bucketFor(serverId).counters.add(serverId, count);
+    }
+
+    /**
+     * Returns the number of requests counted for a server within the window.
+     *
+     * @param serverId The server ID.
+     * @return The recent load, or zero for an unknown server.
+     */
+    public long get(int serverId) {
+        long index = window.currentIndex();
+        long sum = 0;
+        for (int i = 0; i < window.buckets(); i++) {
+            Bucket bucket = window.live(i, index);
+            if (bucket != null) sum += bucket.counters.get(serverId);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of requests counted for all servers within the window.
+     *
+     * @return The recent total load.
+     */
+    public long total() {
+        long index = window.currentIndex();
+        long sum = 0;
+        for (int i = 0; i < window.buckets(); i++) {
+            Bucket bucket = window.live(i, index);
+            if (bucket != null) sum += bucket.counters.total();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns a server's recent request rate.
+     *
+     * @param serverId The server ID.
+     * @return The requests per second over the covered span of the window.
+     */
+    public double rate(int serverId) {
+        return get(serverId) / (window.span().toNanos() / 1e9);
+    }
+
+    /**
+     * Clears a server's counters in every live bucket, for example when it leaves.
+     *
+     * @param serverId The server ID.
+     */
+    public void reset(int serverId) {
+        window.forEach(bucket -> bucket.counters.reset(serverId));
+    }
+
+    /**
+     * Sums the live buckets into a primitive array indexed by server ID.
+     *
+     * @return The recent loads; servers without a counter read as zero.
+     */
+    public long[] snapshot() {
+        long[] loads = new long[maxServerId.get() + 1];
+        window.forEach(bucket -> {
+            long[] counts = bucket.counters.snapshot();
+            for (int i = 0; i < Math.min(counts.length, loads.length); i++) loads[i] += counts[i];
+        });
+        return loads;
+    }
+
+    /**
+     * Returns the nominal length of the window.
+     *
+     * @return The window length.
+     */
+    public Duration length() {
+        return window.length();
+    }
+
+    /**
+     * Returns the length of time the counts actually cover, shorter than the window right after construction.
+     *
+     * @return The covered span.
+     */
+    public Duration span() {
+        return window.span();
+    }
+
+    /**
+     * Returns the current bucket, grown to hold a server ID if needed.
+     */
+    private Bucket bucketFor(int serverId) {
+        Bucket bucket = window.current();
+        if (serverId > bucket.capacity) bucket.grow(serverId);
+        return bucket;
+    }
+
+    /**
+     * The counters of one period.
+     */
+    private final class Bucket extends TimeWindow.Bucket {
+        /**
+         * The counters.
+         */
+        private final ServerLoadCounters counters = new ServerLoadCounters();
+        /**
+         * The largest server ID the counters hold.
+         */
+        private volatile int capacity = -1;
+
+        /**
+         * Zeroes the counters and grows them to hold every server seen so far.
+         */
+        @Override
+        void clear() {
+            counters.clear();
+            int max = maxServerId.get();
+            if (max > capacity) grow(max);
+        }
+
+        /**
+         * Grows the counters to hold a server ID.
+         */
+        private synchronized void grow(int serverId) {
+            if (serverId <= capacity) return;
+            counters.ensureCapacity(serverId);
+            capacity = serverId;
+            maxServerId.accumulateAndGet(serverId, Math::max);
+        }
+    }
+}
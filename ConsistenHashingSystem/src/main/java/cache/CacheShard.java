@@ -0,0 +1,509 @@
+package cache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongPredicate;
+
+/**
+ * The slice of a {@link ShardedCache} owned by one server: a byte-capped key-value store with CLOCK eviction.
+ * <p>
+ * Entries live in parallel primitive-indexed arrays (key, hash, value and a CLOCK reference bit per slot) found through
+ * an open-addressing index of slot numbers, so the store holds no per-entry node objects and the garbage collector
+ * sees a handful of large arrays. Deletion shifts later probes back instead of leaving tombstones. When a put would
+ * exceed the byte cap, the CLOCK hand sweeps the slots, clearing reference bits and evicting the first entry not used
+ * since the last sweep, which approximates LRU without reordering anything on a hit.
+ * <p>
+ * Reads are optimistic: a get probes without locking and only retries under the read lock if a write slipped in, so
+ * hits scale across threads. A hit sets the reference bit with a plain write; losing one to a race only makes that
+ * entry slightly more likely to be evicted. Writes take the write lock. Values are stored by reference and must not be
+ * modified after they are put.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class CacheShard {
+
+    /**
+     * The bytes charged per entry on top of its key and value, for the slot arrays, index and object headers.
+     */
+    static final int ENTRY_OVERHEAD = 64;
+    /**
+     * The number of slots a shard starts with.
+     */
+    private static final int INITIAL_SLOTS = 1024;
+
+    /**
+     * A key and value taken out of a shard, with the key's ring hash.
+     *
+     * @param key   The key.
+     * @param hash  The ring hash of the key.
+     * @param value The value.
+     */
+    public record Entry(String key, long hash, byte[] value) {
+    }
+
+    /**
+     * Guards every write and validates optimistic reads.
+     */
+    private final StampedLock lock = new StampedLock();
+    /**
+     * The arrays, replaced as a whole when the shard grows so an optimistic reader always sees one consistent set.
+     */
+    private volatile Storage storage = new Storage(INITIAL_SLOTS);
+    /**
+     * The bytes the shard may hold.
+     */
+    private volatile long maxBytes;
+    /**
+     * The bytes charged for the current entries.
+     */
+    private long usedBytes;
+    /**
+     * The number of entries.
+     */
+    private int size;
+    /**
+     * The number of slots ever used, below which free slots are found on the free list.
+     */
+    private int highWater;
+    /**
+     * The free slots below the high water mark.
+     */
+    private int[] freeSlots = new int[16];
+    /**
+     * The number of free slots on the list.
+     */
+    private int freeCount;
+    /**
+     * The slot the CLOCK hand examines next.
+     */
+    private int hand;
+
+    /**
+     * The number of gets that found their key.
+     */
+    private final LongAdder hits = new LongAdder();
+    /**
+     * The number of gets that did not.
+     */
+    private final LongAdder misses = new LongAdder();
+    /**
+     * The number of entries evicted to make room.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a new empty CacheShard.
+     *
+     * @param maxBytes The bytes the shard may hold, counting keys, values and a fixed per-entry overhead.
+     * @throws IllegalArgumentException if the cap is not positive.
+     */
+    public CacheShard(long maxBytes) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Looks up a key without counting a hit or miss, for internal probes such as read repair.
+     *
+     * @param key  The key.
+     * @param hash The ring hash of the key.
+     * @return The value, or {@code null} if absent.
+     */
+    byte[] peek(String key, long hash) {
+        long stamp = lock.tryOptimisticRead();
+        Storage s = storage;
+        int slot = s.find(key, hash);
+        byte[] value = slot < 0 ? null : s.values[slot];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                s = storage;
+                slot = s.find(key, hash);
+                value = slot < 0 ? null : s.values[slot];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (value != null) s.referenced[slot] = 1;
+        return value;
+    }
+
+    /**
+     * Looks up a key, marking it recently used.
+     *
+     * @param key  The key.
+     * @param hash The ring hash of the key.
+     * @return The value, or {@code null} if absent.
+     */
+    public byte[] get(String key, long hash) {
+        byte[] value = peek(key, hash);
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    /**
+     * Stores a value, evicting entries until it fits.
+     *
+     * @param key   The key.
+     * @param hash  The ring hash of the key.
+     * @param value The value.
+     * @return Whether the value was stored; {@code false} if it alone exceeds the byte cap.
+     */
+    public boolean put(String key, long hash, byte[] value) {
+        return put(key, hash, value, true);
+    }
+
+    /**
+     * Stores a value unless the key is already present, so a migrated copy never overwrites a newer write.
+     *
+     * @param key   The key.
+     * @param hash  The ring hash of the key.
+     * @param value The value.
+     * @return Whether the value was stored.
+     */
+    public boolean putIfAbsent(String key, long hash, byte[] value) {
+        return put(key, hash, value, false);
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key  The key.
+     * @param hash The ring hash of the key.
+     * @return The removed value, or {@code null} if absent.
+     */
+    public byte[] remove(String key, long hash) {
+        long stamp = lock.writeLock();
+        try {
+            int index = storage.indexOf(key, hash);
+            if (index < 0) return null;
+            int slot = storage.index[index] - 1;
+            byte[] value = storage.values[slot];
+            delete(index);
+            return value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes up to {@code count} slots' worth of entries whose hash matches, starting at a slot, and hands them out.
+     * Used to migrate a shard in small steps without holding the lock for long.
+     *
+     * @param fromSlot The first slot to examine.
+     * @param count    The number of slots to examine.
+     * @param moves    Selects the hashes to take out.
+     * @param out      Receives the removed entries.
+     * @return The slot to continue from, or {@code -1} once every slot has been examined.
+     */
+    public int extract(int fromSlot, int count, LongPredicate moves, List<Entry> out) {
+        long stamp = lock.writeLock();
+        try {
+            Storage s = storage;
+            int end = Math.min(highWater, fromSlot + count);
+            for (int slot = fromSlot; slot < end; slot++) {
+                String key = s.keys[slot];
+                if (key == null || !moves.test(s.hashes[slot])) continue;
+                out.add(new Entry(key, s.hashes[slot], s.values[slot]));
+                delete(s.indexOf(key, s.hashes[slot]));
+            }
+            return end >= highWater ? -1 : end;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Changes the byte cap, evicting entries at once if it shrank.
+     *
+     * @param maxBytes The new cap.
+     * @throws IllegalArgumentException if the cap is not positive.
+     */
+    public void setMaxBytes(long maxBytes) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        long stamp = lock.writeLock();
+        try {
+            this.maxBytes = maxBytes;
+            while (usedBytes > maxBytes && size > 0) evictOne();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return The size.
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the bytes charged for the current entries.
+     *
+     * @return The used bytes, at most {@link #maxBytes()}.
+     */
+    public long usedBytes() {
+        long stamp = lock.readLock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the byte cap.
+     *
+     * @return The cap.
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the number of gets that found their key.
+     *
+     * @return The hit count.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of gets that did not find their key.
+     *
+     * @return The miss count.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted to make room.
+     *
+     * @return The eviction count.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        long hitCount = hits();
+        long total = hitCount + misses();
+        return String.format("entries=%d, used=%d/%d bytes, hit rate=%.2f%%, evictions=%d",
+                size(), usedBytes(), maxBytes, total == 0 ? 0 : 100.0 * hitCount / total, evictions());
+    }
+
+    /**
+     * Stores or replaces a value under the write lock.
+     */
+    private boolean put(String key, long hash, byte[] value, boolean replace) {
+        long charge = charge(key, value);
+        if (charge > maxBytes) return false;
+        long stamp = lock.writeLock();
+        try {
+            int index = storage.indexOf(key, hash);
+            if (index >= 0) {
+                if (!replace) return false;
+                int slot = storage.index[index] - 1;
+                usedBytes += charge - charge(key, storage.values[slot]);
+                storage.values[slot] = value;
+                storage.referenced[slot] = 1;
+            } else {
+                usedBytes += charge;
+                size++;
+                int slot = allocateSlot();
+                Storage s = storage;
+                s.keys[slot] = key;
+                s.hashes[slot] = hash;
+                s.values[slot] = value;
+                // Starting referenced keeps the hand from evicting the entry that is being made room for.
+                s.referenced[slot] = 1;
+                s.insert(slot, hash);
+            }
+            while (usedBytes > maxBytes) evictOne();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Takes a free slot, growing the storage if every slot is in use. Must be called under the write lock.
+     */
+    private int allocateSlot() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+        if (highWater == storage.keys.length) storage = storage.grow();
+        return highWater++;
+    }
+
+    /**
+     * Advances the CLOCK hand to the first entry not referenced since the last sweep and evicts it. Must be called
+     * under the write lock with at least one entry present.
+     */
+    private void evictOne() {
+        Storage s = storage;
+        while (true) {
+            if (hand >= highWater) hand = 0;
+            int slot = hand++;
+            if (s.keys[slot] == null) continue;
+            if (s.referenced[slot] != 0) {
+                s.referenced[slot] = 0;
+                continue;
+            }
+            delete(s.indexOf(s.keys[slot], s.hashes[slot]));
+            evictions.increment();
+            return;
+        }
+    }
+
+    /**
+     * Deletes the entry an index position points to and returns its slot to the free list. Must be called under the
+     * write lock.
+     */
+    private void delete(int index) {
+        Storage s = storage;
+        int slot = s.index[index] - 1;
+        usedBytes -= charge(s.keys[slot], s.values[slot]);
+        size--;
+        s.keys[slot] = null;
+        s.values[slot] = null;
+        s.removeAt(index);
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Returns the bytes charged for an entry.
+     */
+    private static long charge(String key, byte[] value) {
+        return (long) key.length() + value.length + ENTRY_OVERHEAD;
+    }
+
+    /**
+     * The slot arrays and the index over them.
+     */
+    private static final class Storage {
+        /**
+         * The key of each slot, {@code null} if free.
+         */
+        private final String[] keys;
+        /**
+         * The ring hash of each slot's key.
+         */
+        private final long[] hashes;
+        /**
+         * The value of each slot.
+         */
+        private final byte[][] values;
+        /**
+         * The CLOCK reference bit of each slot.
+         */
+        private final byte[] referenced;
+        /**
+         * The open-addressing index: one plus a slot number, or zero for an empty position. Twice the slot count, so
+         * it is at most half full.
+         */
+        private final int[] index;
+
+        /**
+         * Constructs empty storage.
+         */
+        private Storage(int slots) {
+            this.keys = new String[slots];
+            this.hashes = new long[slots];
+            this.values = new byte[slots][];
+            this.referenced = new byte[slots];
+            this.index = new int[slots * 2];
+        }
+
+        /**
+         * Copies every slot into storage twice the size and rebuilds the index.
+         */
+        private Storage grow() {
+            Storage grown = new Storage(keys.length * 2);
+            System.arraycopy(keys, 0, grown.keys, 0, keys.length);
+            System.arraycopy(hashes, 0, grown.hashes, 0, hashes.length);
+            System.arraycopy(values, 0, grown.values, 0, values.length);
+            System.arraycopy(referenced, 0, grown.referenced, 0, referenced.length);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != null) grown.insert(slot, hashes[slot]);
+            }
+            return grown;
+        }
+
+        /**
+         * Finds a key's slot. Safe to call without the lock: every probe stays in bounds and ends within one pass.
+         */
+        private int find(String key, long hash) {
+            int mask = index.length - 1;
+            for (int i = home(hash, mask), probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                int slot = index[i] - 1;
+                if (slot < 0) return -1;
+                if (hashes[slot] == hash && key.equals(keys[slot])) return slot;
+            }
+            return -1;
+        }
+
+        /**
+         * Finds a key's position in the index. Must be called under a lock.
+         */
+        private int indexOf(String key, long hash) {
+            int mask = index.length - 1;
+            for (int i = home(hash, mask); ; i = (i + 1) & mask) {
+                int slot = index[i] - 1;
+                if (slot < 0) return -1;
+                if (hashes[slot] == hash && key.equals(keys[slot])) return i;
+            }
+        }
+
+        /**
+         * Adds a slot to the index. Must be called under the write lock.
+         */
+        private void insert(int slot, long hash) {
+            int mask = index.length - 1;
+            int i = home(hash, mask);
+            while (index[i] != 0) i = (i + 1) & mask;
+            index[i] = slot + 1;
+        }
+
+        /**
+         * Clears an index position and shifts back any later entry of the same probe run that could no longer be
+         * reached, so lookups never need tombstones. Must be called under the write lock.
+         */
+        private void removeAt(int position) {
+            int mask = index.length - 1;
+            int hole = position;
+            index[hole] = 0;
+            for (int i = (hole + 1) & mask; index[i] != 0; i = (i + 1) & mask) {
+                int home = home(hashes[index[i] - 1], mask);
+                // The entry stays if its home lies cyclically after the hole and no later than its position.
+                boolean reachable = hole <= i ? (hole < home && home <= i) : (hole < home || home <= i);
+                if (reachable) continue;
+                index[hole] = index[i];
+                index[i] = 0;
+                hole = i;
+            }
+        }
+
+        /**
+         * Returns the index position a hash probes first, mixing the bits since ring hashes are not uniform in the
+         * low bits of every hash function.
+         */
+        private static int home(long hash, int mask) {
+            long h = hash * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package cache;
+
+import hashing.XxHash64;
+import system.ConsistentHashingSystem;
+import workload.KeyPool;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmarks a {@link ShardedCache} under Zipf load and shows what a membership change costs it.
+ * <p>
+ * Every request is read-through: a get, and on a miss a put of the value, as an application in front of a slower store
+ * would do. The run has three parts. The hit ratio sweep sizes the cache at a range of fractions of the working set
+ * and reports the hit ratio under Zipf and under uniform load, where it can be no better than the fraction cached.
+ * The throughput run drives one shared cache from every core. The migration run adds and then removes a server under
+ * load and reports the hit ratio and migration progress at a fixed interval, so the dip and recovery are visible.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class CacheSimulation {
+
+    /**
+     * The size of every value.
+     */
+    private static final int VALUE_BYTES = 100;
+    /**
+     * The virtual nodes per unit of weight.
+     */
+    private static final int VIRTUAL_NODES = 100;
+    /**
+     * The requests made before the hit ratio is measured, so it is not dominated by cold misses.
+     */
+    private static final int WARMUP_REQUESTS = 500_000;
+    /**
+     * The requests the hit ratio is measured over.
+     */
+    private static final int MEASURED_REQUESTS = 1_000_000;
+    /**
+     * The cache sizes of the hit ratio sweep, as fractions of the working set.
+     */
+    private static final double[] CAPACITY_SWEEP = {0.01, 0.05, 0.10, 0.25, 0.50};
+    /**
+     * The cache size of the throughput and migration runs, as a fraction of the working set.
+     */
+    private static final double CAPACITY = 0.25;
+    /**
+     * How long the throughput run lasts.
+     */
+    private static final Duration THROUGHPUT_DURATION = Duration.ofSeconds(2);
+    /**
+     * How often the migration run reports.
+     */
+    private static final Duration REPORT_INTERVAL = Duration.ofMillis(250);
+    /**
+     * The number of intervals the migration run lasts.
+     */
+    private static final int MIGRATION_INTERVALS = 14;
+    /**
+     * The entries migrated per second, slow enough that read repair has work to do.
+     */
+    private static final double MIGRATION_RATE = 50_000;
+
+    /**
+     * The value every request stores; values are never modified, so one array serves them all.
+     */
+    private final byte[] value = new byte[VALUE_BYTES];
+    /**
+     * The keys requested.
+     */
+    private final KeyPool keys;
+    /**
+     * The number of servers the cache is sharded across.
+     */
+    private final int servers;
+    /**
+     * The bytes the whole key pool would take in the cache.
+     */
+    private final long workingSetBytes;
+
+    /**
+     * Constructs a new CacheSimulation.
+     */
+    private CacheSimulation(int servers, int keyCount, double zipfExponent) {
+        this.servers = servers;
+        this.keys = KeyPool.zipf(keyCount, zipfExponent);
+        long bytes = 0;
+        for (int i = 0; i < keyCount; i++) bytes += keys.key(i).length() + VALUE_BYTES + CacheShard.ENTRY_OVERHEAD;
+        this.workingSetBytes = bytes;
+    }
+
+    /**
+     * Runs the simulation.
+     *
+     * @param args Optional overrides: the number of servers, the number of keys, then the Zipf exponent.
+     * @throws InterruptedException if interrupted while waiting for the workers.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        run(args.length > 0 ? Integer.parseInt(args[0]) : 10,
+                args.length > 1 ? Integer.parseInt(args[1]) : 100_000,
+                args.length > 2 ? Double.parseDouble(args[2]) : 0.99);
+    }
+
+    /**
+     * Runs the hit ratio sweep, the throughput run and the migration run, and prints their results.
+     *
+     * @param servers      The number of servers, at least two so one can be removed.
+     * @param keyCount     The number of distinct keys.
+     * @param zipfExponent The skew of the key popularity.
+     * @throws InterruptedException     if interrupted while waiting for the workers.
+     * @throws IllegalArgumentException if there are fewer than two servers or no keys.
+     */
+    public static void run(int servers, int keyCount, double zipfExponent) throws InterruptedException {
+        if (servers < 2) throw new IllegalArgumentException("Need at least two servers: " + servers);
+        CacheSimulation simulation = new CacheSimulation(servers, keyCount, zipfExponent);
+        System.out.println("\n--- SHARDED CACHE ---");
+        System.out.printf("%d servers, %s over %d keys, %d-byte values, working set %.1f MB%n",
+                servers, simulation.keys, keyCount, VALUE_BYTES, simulation.workingSetBytes / 1e6);
+        simulation.hitRatioSweep();
+        simulation.throughput();
+        simulation.migration();
+    }
+
+    /**
+     * Measures the hit ratio at each cache size under the Zipf pool and under a uniform pool of the same keys.
+     */
+    private void hitRatioSweep() {
+        KeyPool uniform = KeyPool.uniform(keys.size());
+        System.out.printf("%n%-10s %14s %14s %12s%n", "capacity", "zipf hits", "uniform hits", "evictions");
+        for (double fraction : CAPACITY_SWEEP) {
+            try (ShardedCache zipfCache = newCache(fraction); ShardedCache uniformCache = newCache(fraction)) {
+                double zipfRatio = measureHitRatio(zipfCache, keys);
+                double uniformRatio = measureHitRatio(uniformCache, uniform);
+                System.out.printf("%9.0f%% %13.2f%% %13.2f%% %12d%n", fraction * 100, zipfRatio * 100, uniformRatio * 100, zipfCache.evictions());
+            }
+        }
+    }
+
+    /**
+     * Warms a cache up and returns its hit ratio over the measured requests.
+     */
+    private double measureHitRatio(ShardedCache cache, KeyPool pool) {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < WARMUP_REQUESTS; i++) readThrough(cache, pool.next(random));
+        long hits = cache.hits();
+        long misses = cache.misses();
+        for (int i = 0; i < MEASURED_REQUESTS; i++) readThrough(cache, pool.next(random));
+        long measuredHits = cache.hits() - hits;
+        return (double) measuredHits / (measuredHits + cache.misses() - misses);
+    }
+
+    /**
+     * Drives one cache from a worker per core and prints the request rate.
+     */
+    private void throughput() throws InterruptedException {
+        int workers = Runtime.getRuntime().availableProcessors();
+        try (ShardedCache cache = newCache(CAPACITY)) {
+            Workers load = new Workers(cache, workers);
+            long start = System.nanoTime();
+            Thread.sleep(THROUGHPUT_DURATION.toMillis());
+            long requests = load.stop();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%nThroughput: %,.0f read-through requests/s on %d threads (%.0f%% capacity, hit ratio %.2f%%)%n",
+                    requests / seconds, workers, CAPACITY * 100, cache.hitRatio() * 100);
+        }
+    }
+
+    /**
+     * Adds and then removes a server under load, reporting the hit ratio and migration progress at every interval.
+     */
+    private void migration() throws InterruptedException {
+        int workers = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        try (ShardedCache cache = newCache(CAPACITY)) {
+            cache.setMigrationRate(MIGRATION_RATE);
+            SplittableRandom random = new SplittableRandom(7);
+            for (int i = 0; i < WARMUP_REQUESTS; i++) readThrough(cache, keys.next(random));
+
+            System.out.printf("%nMigration under load (%d threads, at most %,.0f keys/s):%n", workers, MIGRATION_RATE);
+            System.out.printf("%-8s %12s %10s %10s %12s %8s  %s%n", "time", "requests/s", "hits", "migrated", "read repairs", "pending", "event");
+            Workers load = new Workers(cache, workers);
+            long requests = 0;
+            long hits = cache.hits();
+            long misses = cache.misses();
+            for (int interval = 1; interval <= MIGRATION_INTERVALS; interval++) {
+                String event = "";
+                if (interval == 3) event = "added server " + cache.addServer(1);
+                if (interval == 8) {
+                    cache.removeServer(0);
+                    event = "removed server 0";
+                }
+                Thread.sleep(REPORT_INTERVAL.toMillis());
+                long nowRequests = load.requests();
+                long nowHits = cache.hits();
+                long nowMisses = cache.misses();
+                long lookups = nowHits - hits + nowMisses - misses;
+                System.out.printf("%6.2fs %12.0f %9.2f%% %10d %12d %8d  %s%n",
+                        interval * REPORT_INTERVAL.toMillis() / 1e3, (nowRequests - requests) / (REPORT_INTERVAL.toNanos() / 1e9),
+                        lookups == 0 ? 0 : 100.0 * (nowHits - hits) / lookups, cache.migratedKeys(), cache.readRepairs(),
+                        cache.pendingMigrations(), event);
+                requests = nowRequests;
+                hits = nowHits;
+                misses = nowMisses;
+            }
+            load.stop();
+            System.out.println("Cache: " + cache);
+        }
+    }
+
+    /**
+     * Builds a system of equal servers and a cache over it sized at a fraction of the working set.
+     */
+    private ShardedCache newCache(double fraction) {
+        ConsistentHashingSystem system = new ConsistentHashingSystem(new XxHash64());
+        system.setVirtualNodesPerServer(VIRTUAL_NODES);
+        system.setRequestTracker(null);
+        for (int i = 0; i < servers; i++) system.addServer();
+        return new ShardedCache(system, Math.max(1, (long) (workingSetBytes * fraction / servers)));
+    }
+
+    /**
+     * Gets a key, storing it on a miss.
+     */
+    private void readThrough(ShardedCache cache, String key) {
+        if (cache.get(key) == null) cache.put(key, value);
+    }
+
+    /**
+     * Worker threads making read-through requests until stopped.
+     */
+    private final class Workers {
+        /**
+         * The running threads.
+         */
+        private final List<Thread> threads = new ArrayList<>();
+        /**
+         * The requests made so far.
+         */
+        private final LongAdder requests = new LongAdder();
+        /**
+         * Set to make the workers finish.
+         */
+        private volatile boolean stopped;
+
+        /**
+         * Starts the workers, each with its own random stream.
+         */
+        private Workers(ShardedCache cache, int count) {
+            for (int i = 0; i < count; i++) {
+                SplittableRandom random = new SplittableRandom(1000 + i);
+                threads.add(Thread.ofPlatform().daemon(true).name("cache-worker-" + i).start(() -> {
+                    while (!stopped) {
+                        for (int n = 0; n < 256; n++) readThrough(cache, keys.next(random));
+                        requests.add(256);
+                    }
+                }));
+            }
+        }
+
+        /**
+         * Returns the requests made so far.
+         */
+        private long requests() {
+            return requests.sum();
+        }
+
+        /**
+         * Stops the workers and waits for them.
+         *
+         * @return The requests made in total.
+         */
+        private long stop() throws InterruptedException {
+            stopped = true;
+            for (Thread thread : threads) thread.join();
+            return requests.sum();
+        }
+    }
+}
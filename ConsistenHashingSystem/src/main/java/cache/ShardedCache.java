@@ -0,0 +1,509 @@
+package cache;
+
+import domain.Server;
+import ring.MigrationPlan;
+import ring.Placement;
+import ring.RingSnapshot;
+import system.ConsistentHashingSystem;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An in-process key-value cache sharded across the servers of a {@link ConsistentHashingSystem}, one
+ * {@link CacheShard} per server with a byte cap in proportion to the server's weight.
+ * <p>
+ * Every get, put and remove hashes its key once and finds its owner with one ring lookup through
+ * {@link ConsistentHashingSystem#locateOwner(String, long)}, so cache traffic shows up in the system's load, latency
+ * and hot key statistics, charged to the server whose shard holds the value. Bounded loads and hot key splitting are
+ * bypassed: they would serve a key from a server that does not hold it, or scatter copies that go stale on the next
+ * write.
+ * <p>
+ * Membership changes made through the cache diff the ring before and after the change and hand the resulting
+ * {@link MigrationPlan} to a background thread, which walks only the shards that lose ranges and moves only the
+ * entries whose hashes fall in them, at a throttled rate so migration does not starve the request path. Until a plan
+ * is done, a miss at the new owner looks in the old owner's shard and moves the entry on the spot, so hot keys are
+ * repaired by the first read rather than waiting for the sweep. Migrated entries are added only if absent, so they
+ * never overwrite a newer write, and a put or remove also drops any copy still waiting at the old owner. A remove
+ * that races with the sweep picking up the same key can be undone by the sweep, which a cache tolerates.
+ * <p>
+ * Migration plans need a token ring; jump hashing and Maglev place keys without ranges and are rejected.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class ShardedCache implements Closeable {
+
+    /**
+     * The number of slots a migration examines under one shard lock.
+     */
+    private static final int MIGRATION_BATCH = 256;
+
+    /**
+     * The system that routes every request and owns the membership.
+     */
+    private final ConsistentHashingSystem system;
+    /**
+     * The bytes each shard may hold per unit of its server's weight.
+     */
+    private final long bytesPerWeight;
+    /**
+     * The shard of each server, kept after a server is removed until its entries have been migrated.
+     */
+    private final ConcurrentHashMap<Integer, CacheShard> shards = new ConcurrentHashMap<>();
+    /**
+     * The migrations not yet finished, oldest first; replaced as a whole so the request path reads it without locking.
+     */
+    private volatile List<Migration> migrations = List.of();
+    /**
+     * Serializes membership changes so each plan diffs exactly one change.
+     */
+    private final Object membershipLock = new Object();
+    /**
+     * Runs the migrations one at a time in the order they were planned.
+     */
+    private final ExecutorService migrator = Executors.newSingleThreadExecutor(Thread.ofPlatform().daemon(true).name("cache-migration").factory());
+    /**
+     * The most entries migrated per second.
+     */
+    private volatile double migrationRate = 200_000;
+
+    /**
+     * The number of gets that found their key, read repairs included.
+     */
+    private final LongAdder hits = new LongAdder();
+    /**
+     * The number of gets that did not.
+     */
+    private final LongAdder misses = new LongAdder();
+    /**
+     * The number of entries moved by background migration.
+     */
+    private final LongAdder migratedKeys = new LongAdder();
+    /**
+     * The number of entries moved by a get before the migration reached them.
+     */
+    private final LongAdder readRepairs = new LongAdder();
+
+    /**
+     * Constructs a new ShardedCache with a shard for every server the system already has.
+     *
+     * @param system         The system to route through. Later membership changes should be made through the cache so
+     *                       the affected entries are migrated.
+     * @param bytesPerWeight The bytes each shard may hold per unit of its server's weight.
+     * @throws IllegalArgumentException if the byte budget is not positive or the system does not use a token ring.
+     */
+    public ShardedCache(ConsistentHashingSystem system, long bytesPerWeight) {
+        if (bytesPerWeight <= 0) throw new IllegalArgumentException("bytesPerWeight must be positive: " + bytesPerWeight);
+        if (!(system.placement() instanceof RingSnapshot)) {
+            throw new IllegalArgumentException("A sharded cache needs a token ring to plan migrations");
+        }
+        this.system = system;
+        this.bytesPerWeight = bytesPerWeight;
+        for (Server server : system.servers()) shards.put(server.id(), new CacheShard(bytesPerWeight * server.weight()));
+    }
+
+    /**
+     * Sets how fast background migration moves entries.
+     *
+     * @param keysPerSecond The most entries moved per second.
+     * @throws IllegalArgumentException if the rate is not positive.
+     */
+    public void setMigrationRate(double keysPerSecond) {
+        if (!(keysPerSecond > 0)) throw new IllegalArgumentException("Migration rate must be positive: " + keysPerSecond);
+        this.migrationRate = keysPerSecond;
+    }
+
+    /* ================= REQUESTS ================= */
+
+    /**
+     * Looks up a key in its owner's shard, repairing it from the previous owner if a migration has not moved it yet.
+     *
+     * @param key The key.
+     * @return The value, or {@code null} if the key is not cached.
+     */
+    public byte[] get(String key) {
+        long hash = system.hash(key);
+        int owner = system.locateOwner(key, hash);
+        CacheShard shard = shardFor(owner);
+        byte[] value = shard.get(key, hash);
+        if (value == null && !migrations.isEmpty()) value = repair(key, hash, owner, shard);
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    /**
+     * Stores a value in its owner's shard, evicting that shard's least recently used entries until it fits.
+     *
+     * @param key   The key.
+     * @param value The value, which must not be modified afterward.
+     * @return Whether the value was stored; {@code false} if it alone exceeds the shard's byte cap.
+     */
+    public boolean put(String key, byte[] value) {
+        long hash = system.hash(key);
+        int owner = system.locateOwner(key, hash);
+        boolean stored = shardFor(owner).put(key, hash, value);
+        dropStale(key, hash, owner);
+        return stored;
+    }
+
+    /**
+     * Removes a key from its owner's shard and from any previous owner still waiting to migrate it.
+     *
+     * @param key The key.
+     * @return The removed value, or {@code null} if the key was not cached.
+     */
+    public byte[] remove(String key) {
+        long hash = system.hash(key);
+        int owner = system.locateOwner(key, hash);
+        byte[] value = shardFor(owner).remove(key, hash);
+        byte[] stale = dropStale(key, hash, owner);
+        return value != null ? value : stale;
+    }
+
+    /* ================= MEMBERSHIP ================= */
+
+    /**
+     * Adds a server with an empty shard and starts migrating the ranges it takes over.
+     *
+     * @param weight The relative capacity of the server.
+     * @return The ID of the new server.
+     * @throws IllegalArgumentException if the weight is not positive.
+     */
+    public int addServer(int weight) {
+        synchronized (membershipLock) {
+            Placement before = system.placement();
+            int serverId = system.addServer(weight);
+            shards.computeIfAbsent(serverId, id -> new CacheShard(bytesPerWeight * weight));
+            schedule(system.migrationPlanSince(before));
+            return serverId;
+        }
+    }
+
+    /**
+     * Changes a server's weight, resizing its shard and migrating the ranges it gains or loses.
+     *
+     * @param serverId The ID of the server.
+     * @param weight   The new relative capacity of the server.
+     * @throws IllegalArgumentException if the server is unknown or the weight is not positive.
+     */
+    public void updateWeight(int serverId, int weight) {
+        synchronized (membershipLock) {
+            Placement before = system.placement();
+            system.updateWeight(serverId, weight);
+            shardFor(serverId).setMaxBytes(bytesPerWeight * weight);
+            schedule(system.migrationPlanSince(before));
+        }
+    }
+
+    /**
+     * Removes a server and migrates its entries to the servers that take over its ranges. Its shard keeps serving read
+     * repairs until the migration is done and is dropped afterward.
+     *
+     * @param serverId The ID of the server.
+     */
+    public void removeServer(int serverId) {
+        synchronized (membershipLock) {
+            Placement before = system.placement();
+            system.removeServer(serverId);
+            schedule(system.migrationPlanSince(before));
+        }
+    }
+
+    /**
+     * Waits for every migration planned so far to finish.
+     *
+     * @param timeout The longest to wait.
+     * @return Whether they all finished in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitMigrations(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Migration migration : migrations) {
+            if (!migration.done.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Stops background migration. Entries not yet migrated stay reachable through read repair.
+     */
+    @Override
+    public void close() {
+        migrator.shutdownNow();
+    }
+
+    /* ================= STATS ================= */
+
+    /**
+     * Returns a server's shard.
+     *
+     * @param serverId The ID of the server.
+     * @return The shard, or {@code null} if the server has none.
+     */
+    public CacheShard shard(int serverId) {
+        return shards.get(serverId);
+    }
+
+    /**
+     * Returns the number of cached entries across all shards.
+     *
+     * @return The size.
+     */
+    public long size() {
+        return shards.values().stream().mapToLong(CacheShard::size).sum();
+    }
+
+    /**
+     * Returns the bytes charged for the cached entries across all shards.
+     *
+     * @return The used bytes.
+     */
+    public long usedBytes() {
+        return shards.values().stream().mapToLong(CacheShard::usedBytes).sum();
+    }
+
+    /**
+     * Returns the byte caps of all shards added up.
+     *
+     * @return The capacity in bytes.
+     */
+    public long maxBytes() {
+        return shards.values().stream().mapToLong(CacheShard::maxBytes).sum();
+    }
+
+    /**
+     * Returns the number of gets that found their key.
+     *
+     * @return The hit count.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of gets that did not find their key.
+     *
+     * @return The miss count.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of gets that found their key.
+     *
+     * @return The hit ratio, or zero before the first get.
+     */
+    public double hitRatio() {
+        long hitCount = hits();
+        long total = hitCount + misses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns the number of entries evicted across all shards.
+     *
+     * @return The eviction count.
+     */
+    public long evictions() {
+        return shards.values().stream().mapToLong(CacheShard::evictions).sum();
+    }
+
+    /**
+     * Returns the number of entries moved by background migration.
+     *
+     * @return The migrated count.
+     */
+    public long migratedKeys() {
+        return migratedKeys.sum();
+    }
+
+    /**
+     * Returns the number of entries moved by a get before background migration reached them.
+     *
+     * @return The read repair count.
+     */
+    public long readRepairs() {
+        return readRepairs.sum();
+    }
+
+    /**
+     * Returns the number of migrations not yet finished.
+     *
+     * @return The pending count.
+     */
+    public int pendingMigrations() {
+        return migrations.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("shards=%d, entries=%d, used=%.1f/%.1f MB, hit ratio=%.2f%%, evictions=%d, migrated=%d, read repairs=%d, pending migrations=%d",
+                shards.size(), size(), usedBytes() / 1e6, maxBytes() / 1e6, 100 * hitRatio(), evictions(),
+                migratedKeys(), readRepairs(), pendingMigrations());
+    }
+
+    /* ================= INTERNAL ================= */
+
+    /**
+     * Returns a server's shard, creating it if the server joined without going through the cache.
+     */
+    private CacheShard shardFor(int serverId) {
+        CacheShard shard = shards.get(serverId);
+        return shard != null ? shard : shards.computeIfAbsent(serverId, id -> new CacheShard(bytesPerWeight * weightOf(id)));
+    }
+
+    /**
+     * Returns a server's weight, or one if the server is unknown.
+     */
+    private int weightOf(int serverId) {
+        return system.servers().stream().filter(server -> server.id() == serverId).mapToInt(Server::weight).findFirst().orElse(1);
+    }
+
+    /**
+     * Looks for a missed key at the owners it had before the pending migrations and moves it to its current owner.
+     */
+    private byte[] repair(String key, long hash, int owner, CacheShard shard) {
+        for (Migration migration : migrations) {
+            int source = migration.plan.source(hash);
+            if (source < 0 || source == owner) continue;
+            CacheShard previous = shards.get(source);
+            if (previous == null || previous.peek(key, hash) == null) continue;
+            byte[] value = previous.remove(key, hash);
+            if (value == null) continue;
+            readRepairs.increment();
+            if (shard.putIfAbsent(key, hash, value)) return value;
+            byte[] current = shard.peek(key, hash);
+            return current != null ? current : value;
+        }
+        return null;
+    }
+
+    /**
+     * Removes any copy of a key left at an owner it had before the pending migrations.
+     *
+     * @return The last copy removed, or {@code null} if there was none.
+     */
+    private byte[] dropStale(String key, long hash, int owner) {
+        byte[] stale = null;
+        for (Migration migration : migrations) {
+            int source = migration.plan.source(hash);
+            if (source < 0 || source == owner) continue;
+            CacheShard previous = shards.get(source);
+            byte[] value = previous == null ? null : previous.remove(key, hash);
+            if (value != null) stale = value;
+        }
+        return stale;
+    }
+
+    /**
+     * Publishes a plan for read repair and queues its migration. Must be called under the membership lock.
+     */
+    private void schedule(MigrationPlan plan) {
+        if (plan.size() == 0) {
+            dropRetiredShards(migrations);
+            return;
+        }
+        Migration migration = new Migration(plan);
+        List<Migration> pending = new ArrayList<>(migrations);
+        pending.add(migration);
+        migrations = List.copyOf(pending);
+        migrator.execute(() -> migrate(migration));
+    }
+
+    /**
+     * Sweeps every shard that loses ranges under a plan, moving the affected entries to their current owners at the
+     * configured rate.
+     */
+    private void migrate(Migration migration) {
+        try {
+            Set<Integer> sources = new LinkedHashSet<>();
+            for (MigrationPlan.RangeMove move : migration.plan.moves()) sources.add(move.fromServer());
+            List<CacheShard.Entry> batch = new ArrayList<>();
+            for (int source : sources) {
+                CacheShard shard = shards.get(source);
+                if (shard == null) continue;
+                for (int slot = 0; slot >= 0 && !Thread.currentThread().isInterrupted(); ) {
+                    batch.clear();
+                    slot = shard.extract(slot, MIGRATION_BATCH, hash -> migration.plan.source(hash) == source, batch);
+                    if (batch.isEmpty()) continue;
+                    Placement placement = system.placement();
+                    for (CacheShard.Entry entry : batch) {
+                        shardFor(placement.serverFor(entry.hash())).putIfAbsent(entry.key(), entry.hash(), entry.value());
+                    }
+                    migratedKeys.add(batch.size());
+                    LockSupport.parkNanos((long) (batch.size() * 1e9 / migrationRate));
+                }
+            }
+        } finally {
+            finish(migration);
+        }
+    }
+
+    /**
+     * Retires a finished migration.
+     */
+    private void finish(Migration migration) {
+        synchronized (membershipLock) {
+            List<Migration> pending = new ArrayList<>(migrations);
+            pending.remove(migration);
+            migrations = List.copyOf(pending);
+            dropRetiredShards(pending);
+        }
+        migration.done.countDown();
+    }
+
+    /**
+     * Drops the shards of removed servers that no pending migration still reads from. Must be called under the
+     * membership lock.
+     */
+    private void dropRetiredShards(List<Migration> pending) {
+        Set<Integer> members = new HashSet<>();
+        for (Server server : system.servers()) members.add(server.id());
+        shards.keySet().removeIf(id -> !members.contains(id) && pending.stream().noneMatch(migration -> migration.readsFrom(id)));
+    }
+
+    /**
+     * A planned migration and whether it has finished.
+     */
+    private static final class Migration {
+        /**
+         * The ranges that changed owner.
+         */
+        private final MigrationPlan plan;
+        /**
+         * Released once every affected entry has been moved.
+         */
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        /**
+         * Constructs a new Migration.
+         */
+        private Migration(MigrationPlan plan) {
+            this.plan = plan;
+        }
+
+        /**
+         * Tells whether the plan moves ranges away from a server.
+         */
+        private boolean readsFrom(int serverId) {
+            for (MigrationPlan.RangeMove move : plan.moves()) {
+                if (move.fromServer() == serverId) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -3,9 +3,28 @@ package domain;
 /**
  * Represents a server in the system.
  *
- * @param id The unique identifier of the server.
+ * @param id     The unique identifier of the server.
+ * @param weight The relative capacity of the server, for example its core count.
  * @author Aadarsh Pandey
  * @since 10th Feb 2026
  */
-public record Server(int id) {
-}
\ No newline at end of file
+public record Server(int id, int weight) {
+
+    /**
+     * Validates the weight.
+     *
+     * @throws IllegalArgumentException if the weight is not positive.
+     */
+    public Server {
+        if (weight <= 0) throw new IllegalArgumentException("Server weight must be positive: " + weight);
+    }
+
+    /**
+     * Constructs a new Server of unit weight.
+     *
+     * @param id The unique identifier of the server.
+     */
+    public Server(int id) {
+        this(id, 1);
+    }
+}
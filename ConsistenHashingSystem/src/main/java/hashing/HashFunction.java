@@ -14,4 +14,14 @@ public interface HashFunction {
      * @return The hashed key.
      */
     long hash(String key);
+
+    /**
+     * Returns a stable identifier of the algorithm and its parameters, recorded in saved rings so a ring is never
+     * restored under a hash function that would place keys differently.
+     *
+     * @return The identifier, by default the simple class name.
+     */
+    default String id() {
+        return getClass().getSimpleName();
+    }
 }
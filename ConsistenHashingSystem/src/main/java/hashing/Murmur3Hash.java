@@ -0,0 +1,129 @@
+package hashing;
+
+/**
+ * An implementation of the HashFunction interface that uses the 128-bit x64 variant of MurmurHash3
+ * and keeps the first 64 bits of the result.
+ * The key is hashed as its UTF-16LE code units read straight from the string, so no byte array is allocated.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class Murmur3Hash implements HashFunction {
+
+    /**
+     * The mixing constants from the MurmurHash3 specification.
+     */
+    private static final long C1 = 0x87C37B91114253D5L;
+    private static final long C2 = 0x4CF5AD432745937FL;
+
+    /**
+     * The seed mixed into every hash.
+     */
+    private final long seed;
+
+    /**
+     * Constructs a new Murmur3Hash with a zero seed.
+     */
+    public Murmur3Hash() {
+        this(0);
+    }
+
+    /**
+     * Constructs a new Murmur3Hash.
+     *
+     * @param seed The seed mixed into every hash.
+     */
+    public Murmur3Hash(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public String id() {
+        return "murmur3:" + seed;
+    }
+
+    /**
+     * Hashes a key using the MurmurHash3 x64 128-bit algorithm.
+     *
+     * @param key The key to hash.
+     * @return The low 64 bits of the hash as a non-negative long.
+     */
+    @Override
+    public long hash(String key) {
+        int n = key.length();
+        long h1 = seed;
+        long h2 = seed;
+        int i = 0;
+
+        for (; i + 8 <= n; i += 8) {
+            h1 ^= mixK1(lane(key, i, 4));
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52DCE729;
+
+            h2 ^= mixK2(lane(key, i + 4, 4));
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495AB5;
+        }
+
+        int tail = n - i;
+        if (tail > 4) {
+            h2 ^= mixK2(lane(key, i + 4, tail - 4));
+        }
+        if (tail > 0) {
+            h1 ^= mixK1(lane(key, i, Math.min(tail, 4)));
+        }
+
+        long length = (long) n * 2;
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        return h1 & Long.MAX_VALUE;
+    }
+
+    /**
+     * Reads up to four chars starting at an offset as a little-endian 64-bit lane.
+     */
+    private static long lane(String key, int offset, int chars) {
+        long k = 0;
+        for (int j = 0; j < chars; j++) {
+            k |= (long) key.charAt(offset + j) << (16 * j);
+        }
+        return k;
+    }
+
+    /**
+     * Scrambles a block destined for the first half of the state.
+     */
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    /**
+     * Scrambles a block destined for the second half of the state.
+     */
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    /**
+     * Finalization mix that forces all bits of a hash block to avalanche.
+     */
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
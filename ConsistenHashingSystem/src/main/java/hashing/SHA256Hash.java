@@ -1,16 +1,31 @@
 package hashing;
 
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /**
  * An implementation of the HashFunction interface that uses the SHA-256 algorithm.
+ * Each thread keeps its own digest and scratch buffers, so hashing a key never looks up the
+ * provider again and only allocates when a key is longer than any key the thread has seen before.
  *
  * @author Aadarsh Pandey
  * @since 10th Feb 2026
  */
 public class SHA256Hash implements HashFunction {
+
+    /**
+     * The per-thread digest state.
+     */
+    private static final ThreadLocal<DigestState> STATE = ThreadLocal.withInitial(DigestState::new);
+
+    @Override
+    public String id() {
+        return "sha256";
+    }
+
     /**
      * Hashes a key using the SHA-256 algorithm.
+     * The key is encoded as UTF-8 and the first 8 bytes of the digest are returned as a non-negative long.
      *
      * @param key The key to hash.
      * @return The hashed key.
@@ -18,16 +33,85 @@ public class SHA256Hash implements HashFunction {
      */
     @Override
     public long hash(String key) {
+        DigestState state = STATE.get();
+        int length = state.encode(key);
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] bytes = md.digest(key.getBytes());
-            long h = 0;
-            for (int i = 0; i < 8; i++) {
-                h = (h << 8) | (bytes[i] & 0xff);
-            }
-            return h & Long.MAX_VALUE;
+            state.digest.update(state.input, 0, length);
+            state.digest.digest(state.output, 0, state.output.length);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+        byte[] bytes = state.output;
+        long h = 0;
+        for (int i = 0; i < 8; i++) {
+            h = (h << 8) | (bytes[i] & 0xff);
+        }
+        return h & Long.MAX_VALUE;
+    }
+
+    /**
+     * A thread-confined digest together with its reusable input and output buffers.
+     */
+    private static final class DigestState {
+        /**
+         * The cached SHA-256 digest.
+         */
+        private final MessageDigest digest;
+        /**
+         * The buffer that receives the digest.
+         */
+        private final byte[] output = new byte[32];
+        /**
+         * The buffer that holds the UTF-8 encoded key.
+         */
+        private byte[] input = new byte[64];
+
+        /**
+         * Creates the digest state for the current thread.
+         *
+         * @throws RuntimeException if the SHA-256 algorithm is not available.
+         */
+        private DigestState() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * Encodes a key as UTF-8 into the input buffer, growing it if needed.
+         *
+         * @param key The key to encode.
+         * @return The number of bytes written.
+         */
+        private int encode(String key) {
+            int n = key.length();
+            if (input.length < n * 3) input = new byte[Math.max(n * 3, input.length * 2)];
+            byte[] buf = input;
+            int pos = 0;
+            for (int i = 0; i < n; i++) {
+                char c = key.charAt(i);
+                if (c < 0x80) {
+                    buf[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    buf[pos++] = (byte) (0xC0 | (c >> 6));
+                    buf[pos++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(key.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, key.charAt(++i));
+                    buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    buf[pos++] = (byte) '?';
+                } else {
+                    buf[pos++] = (byte) (0xE0 | (c >> 12));
+                    buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            return pos;
+        }
     }
 }
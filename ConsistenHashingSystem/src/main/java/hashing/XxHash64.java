@@ -0,0 +1,136 @@
+package hashing;
+
+/**
+ * An implementation of the HashFunction interface that uses the xxHash64 algorithm.
+ * The key is hashed as its UTF-16LE code units read straight from the string, so no byte array is allocated.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class XxHash64 implements HashFunction {
+
+    /**
+     * The prime constants from the xxHash64 specification.
+     */
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+
+    /**
+     * The seed mixed into every hash.
+     */
+    private final long seed;
+
+    /**
+     * Constructs a new XxHash64 with a zero seed.
+     */
+    public XxHash64() {
+        this(0);
+    }
+
+    /**
+     * Constructs a new XxHash64.
+     *
+     * @param seed The seed mixed into every hash.
+     */
+    public XxHash64(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public String id() {
+        return "xxhash64:" + seed;
+    }
+
+    /**
+     * Hashes a key using the xxHash64 algorithm.
+     *
+     * @param key The key to hash.
+     * @return The hashed key as a non-negative long.
+     */
+    @Override
+    public long hash(String key) {
+        int n = key.length();
+        int i = 0;
+        long h;
+
+        if (n >= 16) {
+            long v1 = seed + P1 + P2;
+            long v2 = seed + P2;
+            long v3 = seed;
+            long v4 = seed - P1;
+            int limit = n - 16;
+            do {
+                v1 = round(v1, lane(key, i));
+                v2 = round(v2, lane(key, i + 4));
+                v3 = round(v3, lane(key, i + 8));
+                v4 = round(v4, lane(key, i + 12));
+                i += 16;
+            } while (i <= limit);
+
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = merge(h, v1);
+            h = merge(h, v2);
+            h = merge(h, v3);
+            h = merge(h, v4);
+        } else {
+            h = seed + P5;
+        }
+
+        h += (long) n * 2;
+
+        for (; i + 4 <= n; i += 4) {
+            h ^= round(0, lane(key, i));
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+        }
+        if (i + 2 <= n) {
+            long word = (key.charAt(i) | ((long) key.charAt(i + 1) << 16)) & 0xFFFFFFFFL;
+            h ^= word * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+            i += 2;
+        }
+        if (i < n) {
+            char c = key.charAt(i);
+            h ^= (c & 0xFF) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+            h ^= ((c >>> 8) & 0xFF) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+        }
+
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h & Long.MAX_VALUE;
+    }
+
+    /**
+     * Reads four chars starting at an offset as a little-endian 64-bit lane.
+     */
+    private static long lane(String key, int offset) {
+        return key.charAt(offset)
+                | ((long) key.charAt(offset + 1) << 16)
+                | ((long) key.charAt(offset + 2) << 32)
+                | ((long) key.charAt(offset + 3) << 48);
+    }
+
+    /**
+     * Folds a lane into an accumulator.
+     */
+    private static long round(long acc, long lane) {
+        acc += lane * P2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * P1;
+    }
+
+    /**
+     * Merges a finished accumulator into the running hash.
+     */
+    private static long merge(long h, long v) {
+        h ^= round(0, v);
+        return h * P1 + P4;
+    }
+}
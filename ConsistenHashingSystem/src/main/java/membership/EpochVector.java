@@ -0,0 +1,126 @@
+package membership;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The number of changes a node has applied from every origin, the summary nodes compare to find out what the other
+ * is missing.
+ * <p>
+ * Two vectors are equal when both nodes have seen the same changes; one is before the other when it has seen a subset;
+ * otherwise they are concurrent and each holds changes the other lacks. Instances are immutable.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class EpochVector {
+
+    /**
+     * How two vectors relate.
+     */
+    public enum Relation {
+        /**
+         * Both have seen exactly the same changes.
+         */
+        EQUAL,
+        /**
+         * This vector has seen a strict subset of the other's changes.
+         */
+        BEFORE,
+        /**
+         * This vector has seen a strict superset of the other's changes.
+         */
+        AFTER,
+        /**
+         * Each has seen changes the other has not.
+         */
+        CONCURRENT
+    }
+
+    /**
+     * The empty vector of a node that has seen no changes.
+     */
+    public static final EpochVector EMPTY = new EpochVector(Map.of());
+
+    /**
+     * The highest sequence number seen from each origin.
+     */
+    private final Map<Long, Long> sequences;
+
+    /**
+     * Constructs a new EpochVector.
+     *
+     * @param sequences The highest sequence number seen from each origin; copied.
+     */
+    public EpochVector(Map<Long, Long> sequences) {
+        this.sequences = Map.copyOf(sequences);
+    }
+
+    /**
+     * Returns the number of changes seen from an origin.
+     *
+     * @param origin The origin.
+     * @return The highest sequence number seen, or zero.
+     */
+    public long get(long origin) {
+        return sequences.getOrDefault(origin, 0L);
+    }
+
+    /**
+     * Returns the origins with at least one change.
+     *
+     * @return An immutable set of the origins.
+     */
+    public Set<Long> origins() {
+        return sequences.keySet();
+    }
+
+    /**
+     * Compares this vector with another, origin by origin.
+     *
+     * @param other The other vector.
+     * @return How this vector relates to the other.
+     */
+    public Relation compare(EpochVector other) {
+        boolean ahead = false;
+        boolean behind = false;
+        Map<Long, Long> union = new HashMap<>(sequences);
+        other.sequences.forEach((origin, sequence) -> union.merge(origin, sequence, Math::max));
+        for (Long origin : union.keySet()) {
+            long mine = get(origin);
+            long theirs = other.get(origin);
+            if (mine > theirs) ahead = true;
+            if (mine < theirs) behind = true;
+        }
+        if (ahead && behind) return Relation.CONCURRENT;
+        if (ahead) return Relation.AFTER;
+        return behind ? Relation.BEFORE : Relation.EQUAL;
+    }
+
+    /**
+     * Returns the number of origins.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return sequences.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof EpochVector other && sequences.equals(other.sequences);
+    }
+
+    @Override
+    public int hashCode() {
+        return sequences.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("{");
+        sequences.forEach((origin, sequence) -> text.append(text.length() > 1 ? ", " : "").append(String.format("%016x", origin)).append('=').append(sequence));
+        return text.append('}').toString();
+    }
+}
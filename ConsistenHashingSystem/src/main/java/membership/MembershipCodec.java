@@ -0,0 +1,298 @@
+package membership;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The binary wire format of the membership protocol.
+ * <p>
+ * Every frame is a 4-byte big-endian length followed by a type byte and the payload. Counts, sequence numbers,
+ * versions, server IDs and weights are unsigned LEB128 varints, so most take one or two bytes; only origins, which are
+ * random, are written as fixed 8-byte longs. A run of deltas from one origin is written once with its first sequence
+ * number, the rest being implied, so a single change costs about 20 bytes on the wire including the frame header.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+final class MembershipCodec {
+
+    /**
+     * A frame carrying the sender's epoch vector and state checksum.
+     */
+    static final byte DIGEST = 1;
+    /**
+     * A frame carrying membership deltas.
+     */
+    static final byte DELTAS = 2;
+    /**
+     * A frame carrying the sender's whole membership, sent only when deltas cannot bring the receiver up to date.
+     */
+    static final byte FULL_STATE = 3;
+    /**
+     * The largest frame accepted, guarding against corrupt length prefixes.
+     */
+    static final int MAX_FRAME = 16 * 1024 * 1024;
+    /**
+     * The number of bytes before the payload: the length prefix and the type.
+     */
+    private static final int HEADER = 5;
+
+    /**
+     * A decoded digest.
+     *
+     * @param vector   The sender's epoch vector.
+     * @param checksum The checksum of the sender's membership.
+     * @param reply    Whether the sender wants the receiver's digest back.
+     */
+    record Digest(EpochVector vector, long checksum, boolean reply) {
+    }
+
+    /**
+     * A decoded full state.
+     *
+     * @param vector  The sender's epoch vector.
+     * @param entries Every server the sender knows, removed ones included.
+     */
+    record FullState(EpochVector vector, List<MembershipNode.Entry> entries) {
+    }
+
+    /**
+     * Not instantiable.
+     */
+    private MembershipCodec() {
+    }
+
+    /**
+     * Encodes a digest frame.
+     *
+     * @param vector   The epoch vector.
+     * @param checksum The checksum of the membership.
+     * @param reply    Whether the receiver should send its own digest back.
+     * @return The frame, ready to write.
+     */
+    static ByteBuffer digest(EpochVector vector, long checksum, boolean reply) {
+        Writer out = new Writer(DIGEST, 16 + 12 * vector.size());
+        out.putByte(reply ? 1 : 0);
+        out.putLong(checksum);
+        putVector(out, vector);
+        return out.frame();
+    }
+
+    /**
+     * Encodes a deltas frame, grouping consecutive deltas of the same origin.
+     *
+     * @param deltas The deltas; within an origin they must be in sequence order without gaps.
+     * @return The frame, ready to write.
+     */
+    static ByteBuffer deltas(List<MembershipDelta> deltas) {
+        Writer out = new Writer(DELTAS, 8 * deltas.size() + 16);
+        List<List<MembershipDelta>> runs = new ArrayList<>();
+        for (MembershipDelta delta : deltas) {
+            List<MembershipDelta> run = runs.isEmpty() ? null : runs.getLast();
+            if (run == null || run.getLast().origin() != delta.origin() || run.getLast().sequence() + 1 != delta.sequence()) {
+                run = new ArrayList<>();
+                runs.add(run);
+            }
+            run.add(delta);
+        }
+        out.putVarLong(runs.size());
+        for (List<MembershipDelta> run : runs) {
+            out.putLong(run.getFirst().origin());
+            out.putVarLong(run.getFirst().sequence());
+            out.putVarLong(run.size());
+            for (MembershipDelta delta : run) {
+                out.putVarLong(delta.version());
+                out.putByte(delta.kind().ordinal());
+                out.putVarLong(delta.serverId());
+                if (delta.kind() != MembershipDelta.Kind.REMOVED) out.putVarLong(delta.weight());
+            }
+        }
+        return out.frame();
+    }
+
+    /**
+     * Encodes a full state frame.
+     *
+     * @param vector  The epoch vector the state reflects.
+     * @param entries Every known server, removed ones included so removals are not undone.
+     * @return The frame, ready to write.
+     */
+    static ByteBuffer fullState(EpochVector vector, Collection<MembershipNode.Entry> entries) {
+        Writer out = new Writer(FULL_STATE, 12 * vector.size() + 16 * entries.size() + 16);
+        putVector(out, vector);
+        out.putVarLong(entries.size());
+        for (MembershipNode.Entry entry : entries) {
+            out.putVarLong(entry.serverId());
+            out.putVarLong(entry.weight());
+            out.putVarLong(entry.version());
+            out.putLong(entry.origin());
+            out.putByte(entry.removed() ? 1 : 0);
+        }
+        return out.frame();
+    }
+
+    /**
+     * Decodes the payload of a digest frame.
+     *
+     * @param in The payload, positioned after the type byte.
+     * @return The digest.
+     */
+    static Digest readDigest(ByteBuffer in) {
+        boolean reply = in.get() != 0;
+        long checksum = in.getLong();
+        return new Digest(readVector(in), checksum, reply);
+    }
+
+    /**
+     * Decodes the payload of a deltas frame.
+     *
+     * @param in The payload, positioned after the type byte.
+     * @return The deltas in the order they were written.
+     * @throws IllegalArgumentException if a delta kind is unknown.
+     */
+    static List<MembershipDelta> readDeltas(ByteBuffer in) {
+        MembershipDelta.Kind[] kinds = MembershipDelta.Kind.values();
+        List<MembershipDelta> deltas = new ArrayList<>();
+        for (long runs = getVarLong(in); runs > 0; runs--) {
+            long origin = in.getLong();
+            long sequence = getVarLong(in);
+            for (long count = getVarLong(in); count > 0; count--, sequence++) {
+                long version = getVarLong(in);
+                int kind = in.get();
+                if (kind < 0 || kind >= kinds.length) throw new IllegalArgumentException("Unknown delta kind: " + kind);
+                int serverId = Math.toIntExact(getVarLong(in));
+                int weight = kinds[kind] == MembershipDelta.Kind.REMOVED ? 0 : Math.toIntExact(getVarLong(in));
+                deltas.add(new MembershipDelta(origin, sequence, version, kinds[kind], serverId, weight));
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Decodes the payload of a full state frame.
+     *
+     * @param in The payload, positioned after the type byte.
+     * @return The full state.
+     */
+    static FullState readFullState(ByteBuffer in) {
+        EpochVector vector = readVector(in);
+        long count = getVarLong(in);
+        List<MembershipNode.Entry> entries = new ArrayList<>((int) Math.min(count, 1 << 16));
+        for (long i = 0; i < count; i++) {
+            int serverId = Math.toIntExact(getVarLong(in));
+            int weight = Math.toIntExact(getVarLong(in));
+            long version = getVarLong(in);
+            long origin = in.getLong();
+            boolean removed = in.get() != 0;
+            entries.add(new MembershipNode.Entry(serverId, weight, version, origin, removed));
+        }
+        return new FullState(vector, entries);
+    }
+
+    /**
+     * Writes an epoch vector as a count followed by origin and sequence pairs.
+     */
+    private static void putVector(Writer out, EpochVector vector) {
+        out.putVarLong(vector.size());
+        for (long origin : vector.origins()) {
+            out.putLong(origin);
+            out.putVarLong(vector.get(origin));
+        }
+    }
+
+    /**
+     * Reads an epoch vector written by {@link #putVector(Writer, EpochVector)}.
+     */
+    private static EpochVector readVector(ByteBuffer in) {
+        long count = getVarLong(in);
+        Map<Long, Long> sequences = new HashMap<>();
+        for (long i = 0; i < count; i++) sequences.put(in.getLong(), getVarLong(in));
+        return new EpochVector(sequences);
+    }
+
+    /**
+     * Reads an unsigned LEB128 varint.
+     *
+     * @throws IllegalArgumentException if the varint is longer than a long.
+     */
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    /**
+     * A growable byte array that a frame is written into, with room left at the front for the header.
+     */
+    private static final class Writer {
+        /**
+         * The frame bytes, header first.
+         */
+        private byte[] bytes;
+        /**
+         * The number of bytes written, header included.
+         */
+        private int size = HEADER;
+
+        /**
+         * Constructs a new Writer for a frame type.
+         */
+        private Writer(byte type, int expectedPayload) {
+            this.bytes = new byte[HEADER + Math.max(16, expectedPayload)];
+            bytes[4] = type;
+        }
+
+        /**
+         * Appends one byte.
+         */
+        private void putByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        /**
+         * Appends a big-endian long.
+         */
+        private void putLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) bytes[size++] = (byte) (value >>> shift);
+        }
+
+        /**
+         * Appends an unsigned LEB128 varint.
+         */
+        private void putVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        /**
+         * Fills in the length prefix and wraps the frame.
+         */
+        private ByteBuffer frame() {
+            ByteBuffer frame = ByteBuffer.wrap(bytes, 0, size);
+            frame.putInt(0, size - 4);
+            return frame.asReadOnlyBuffer();
+        }
+
+        /**
+         * Grows the array to fit more bytes.
+         */
+        private void ensure(int more) {
+            if (size + more > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + more));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package membership;
+
+/**
+ * One membership change, as created by the node it originated at and exchanged between nodes.
+ * <p>
+ * The sequence number orders the changes of one origin, so a node can tell exactly which of them it is missing. The
+ * version is a Lamport clock shared by all origins; when two changes touch the same server, the one with the higher
+ * version wins, with the origin breaking ties, so every node ends up with the same membership whatever order the
+ * changes arrive in.
+ *
+ * @param origin   The identity of the node incarnation that made the change.
+ * @param sequence The position of the change among its origin's changes, starting at one.
+ * @param version  The Lamport clock of the change.
+ * @param kind     What happened to the server.
+ * @param serverId The ID of the server.
+ * @param weight   The server's new weight, or zero for a removal.
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public record MembershipDelta(long origin, long sequence, long version, Kind kind, int serverId, int weight) {
+
+    /**
+     * What happened to a server.
+     */
+    public enum Kind {
+        /**
+         * The server joined with the given weight.
+         */
+        ADDED,
+        /**
+         * The server left.
+         */
+        REMOVED,
+        /**
+         * The server's weight changed.
+         */
+        REWEIGHTED
+    }
+}
@@ -0,0 +1,702 @@
+package membership;
+
+import domain.Server;
+import system.ConsistentHashingSystem;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the membership of a {@link ConsistentHashingSystem} in agreement with other routers over TCP.
+ * <p>
+ * Every change made through a node becomes a {@link MembershipDelta} stamped with the node's origin, the next
+ * sequence number of that origin and a Lamport version. The node applies it locally and pushes it straight to its
+ * peers. Deltas are idempotent and resolved last-writer-wins per server, so nodes converge whatever order they see
+ * them in. Pushes can be lost, so every node also runs anti-entropy: at each gossip interval it sends a random peer
+ * its {@link EpochVector} and a checksum of its membership, and the peer answers with exactly the deltas the vector
+ * shows to be missing, from a bounded per-origin log. The whole membership is sent only on divergence: when the peer
+ * has already dropped the deltas needed from its log, or when the vectors agree but the checksums do not.
+ * <p>
+ * All sockets are served by one non-blocking selector thread. Membership state is guarded by the node's monitor,
+ * which is held only to apply or encode changes, never across I/O.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class MembershipNode implements Closeable {
+
+    /**
+     * How often a node starts an anti-entropy exchange with a random peer, unless changed.
+     */
+    public static final Duration DEFAULT_GOSSIP_INTERVAL = Duration.ofMillis(200);
+    /**
+     * The number of deltas kept per origin for anti-entropy, unless changed.
+     */
+    public static final int DEFAULT_LOG_CAPACITY = 1024;
+    /**
+     * The initial size of each connection's read buffer.
+     */
+    private static final int READ_BUFFER = 16 * 1024;
+
+    /**
+     * What a node knows about one server: its weight, or that it was removed, and the version that decided it.
+     *
+     * @param serverId The ID of the server.
+     * @param weight   The weight, or zero if removed.
+     * @param version  The Lamport version of the change that set this entry.
+     * @param origin   The origin of that change, breaking ties between equal versions.
+     * @param removed  Whether the server has been removed; kept so a late, older add cannot revive it.
+     */
+    record Entry(int serverId, int weight, long version, long origin, boolean removed) {
+
+        /**
+         * Tells whether this entry supersedes another for the same server.
+         */
+        private boolean newerThan(Entry other) {
+            return version != other.version ? version > other.version : origin > other.origin;
+        }
+    }
+
+    /**
+     * The system whose membership this node maintains.
+     */
+    private final ConsistentHashingSystem system;
+    /**
+     * The identity of this incarnation, random so a restarted node never reuses old sequence numbers.
+     */
+    private final long origin = ThreadLocalRandom.current().nextLong();
+    /**
+     * The selector serving every socket.
+     */
+    private final Selector selector;
+    /**
+     * The socket peers connect to.
+     */
+    private final ServerSocketChannel listener;
+    /**
+     * The selector thread.
+     */
+    private final Thread ioThread;
+    /**
+     * Work handed to the selector thread by other threads.
+     */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    /**
+     * The addresses of the peers this node pushes to and gossips with.
+     */
+    private final List<InetSocketAddress> peers = new CopyOnWriteArrayList<>();
+    /**
+     * The open connection to each peer, touched only by the selector thread.
+     */
+    private final Map<InetSocketAddress, Connection> outbound = new HashMap<>();
+    /**
+     * Every open connection, inbound and outbound, touched only by the selector thread.
+     */
+    private final Set<Connection> connections = new HashSet<>();
+    /**
+     * The time between anti-entropy exchanges in nanoseconds.
+     */
+    private volatile long gossipIntervalNanos = DEFAULT_GOSSIP_INTERVAL.toNanos();
+    /**
+     * The number of deltas kept per origin.
+     */
+    private volatile int logCapacity = DEFAULT_LOG_CAPACITY;
+    /**
+     * Whether the node is running.
+     */
+    private volatile boolean open = true;
+
+    /**
+     * The sequence number of this node's latest change.
+     */
+    private long sequence;
+    /**
+     * The Lamport clock, at least the highest version seen.
+     */
+    private long clock;
+    /**
+     * Every known server, removed ones included, by ID.
+     */
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    /**
+     * The highest sequence number applied from each origin.
+     */
+    private final Map<Long, Long> vector = new HashMap<>();
+    /**
+     * The most recent deltas of each origin, contiguous and ending at the origin's entry in {@link #vector}.
+     */
+    private final Map<Long, ArrayDeque<MembershipDelta>> log = new HashMap<>();
+
+    /**
+     * The number of bytes written to peers.
+     */
+    private final LongAdder bytesSent = new LongAdder();
+    /**
+     * The number of deltas sent to peers, pushed or repaired.
+     */
+    private final LongAdder deltasSent = new LongAdder();
+    /**
+     * The number of full states sent to peers.
+     */
+    private final LongAdder fullSyncsSent = new LongAdder();
+
+    /**
+     * Starts a node that listens for peers and keeps a system's membership in sync with them.
+     *
+     * @param system  The system whose membership to maintain. Change its servers only through this node.
+     * @param address The address to listen on; port zero picks a free port.
+     * @throws IOException if the node cannot bind to the address.
+     */
+    public MembershipNode(ConsistentHashingSystem system, InetSocketAddress address) throws IOException {
+        this.system = system;
+        this.selector = Selector.open();
+        this.listener = ServerSocketChannel.open();
+        listener.bind(address);
+        listener.configureBlocking(false);
+        listener.register(selector, SelectionKey.OP_ACCEPT);
+        this.ioThread = Thread.ofPlatform().daemon(true).name("membership-io-" + address().getPort()).start(this::run);
+    }
+
+    /* ================= CONFIG ================= */
+
+    /**
+     * Adds a peer to push changes to and gossip with. The connection is opened lazily and reopened after failures.
+     *
+     * @param peer The peer's listening address.
+     */
+    public void addPeer(InetSocketAddress peer) {
+        peers.add(peer);
+    }
+
+    /**
+     * Sets how often the node starts an anti-entropy exchange with a random peer.
+     *
+     * @param interval The gossip interval.
+     * @throws IllegalArgumentException if the interval is not positive.
+     */
+    public void setGossipInterval(Duration interval) {
+        if (interval.isNegative() || interval.isZero()) throw new IllegalArgumentException("interval must be positive: " + interval);
+        this.gossipIntervalNanos = interval.toNanos();
+        selector.wakeup();
+    }
+
+    /**
+     * Sets how many deltas are kept per origin. A peer that falls further behind than this is sent the full state.
+     *
+     * @param capacity The number of deltas per origin.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public void setLogCapacity(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.logCapacity = capacity;
+    }
+
+    /* ================= MEMBERSHIP ================= */
+
+    /**
+     * Adds a server on every node.
+     *
+     * @param serverId The ID of the server, agreed across the cluster, for example from the server inventory.
+     * @param weight   The relative capacity of the server.
+     * @throws IllegalArgumentException if the server is already a member or the weight is not positive.
+     */
+    public void addServer(int serverId, int weight) {
+        if (weight <= 0) throw new IllegalArgumentException("Server weight must be positive: " + weight);
+        synchronized (this) {
+            if (isMember(serverId)) throw new IllegalArgumentException("Already a member: " + serverId);
+            change(MembershipDelta.Kind.ADDED, serverId, weight);
+        }
+    }
+
+    /**
+     * Changes a server's weight on every node.
+     *
+     * @param serverId The ID of the server.
+     * @param weight   The new relative capacity of the server.
+     * @throws IllegalArgumentException if the server is not a member or the weight is not positive.
+     */
+    public void updateWeight(int serverId, int weight) {
+        if (weight <= 0) throw new IllegalArgumentException("Server weight must be positive: " + weight);
+        synchronized (this) {
+            if (!isMember(serverId)) throw new IllegalArgumentException("Unknown server: " + serverId);
+            change(MembershipDelta.Kind.REWEIGHTED, serverId, weight);
+        }
+    }
+
+    /**
+     * Removes a server on every node.
+     *
+     * @param serverId The ID of the server.
+     * @throws IllegalArgumentException if the server is not a member.
+     */
+    public synchronized void removeServer(int serverId) {
+        if (!isMember(serverId)) throw new IllegalArgumentException("Unknown server: " + serverId);
+        change(MembershipDelta.Kind.REMOVED, serverId, 0);
+    }
+
+    /**
+     * Returns the changes this node has applied from every origin.
+     *
+     * @return A snapshot of the epoch vector.
+     */
+    public synchronized EpochVector epochVector() {
+        return new EpochVector(vector);
+    }
+
+    /**
+     * Returns an order-independent checksum of the membership, equal on two nodes that agree.
+     *
+     * @return The checksum.
+     */
+    public synchronized long checksum() {
+        long sum = 0;
+        for (Entry entry : entries.values()) {
+            long h = entry.serverId();
+            h = h * 0x9E3779B97F4A7C15L + entry.weight();
+            h = h * 0x9E3779B97F4A7C15L + entry.version();
+            h = h * 0x9E3779B97F4A7C15L + entry.origin();
+            h = h * 0x9E3779B97F4A7C15L + (entry.removed() ? 1 : 0);
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            sum += h;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the address the node is listening on, with the chosen port if port zero was requested.
+     *
+     * @return The bound address.
+     */
+    public InetSocketAddress address() {
+        try {
+            return (InetSocketAddress) listener.getLocalAddress();
+        } catch (IOException e) {
+            throw new IllegalStateException("Membership node is closed", e);
+        }
+    }
+
+    /**
+     * Returns the number of bytes written to peers.
+     *
+     * @return The byte count.
+     */
+    public long bytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * Returns the number of deltas sent to peers, whether pushed or repaired by anti-entropy.
+     *
+     * @return The delta count.
+     */
+    public long deltasSent() {
+        return deltasSent.sum();
+    }
+
+    /**
+     * Returns the number of times this node sent its full state because a peer had diverged.
+     *
+     * @return The full sync count.
+     */
+    public long fullSyncsSent() {
+        return fullSyncsSent.sum();
+    }
+
+    /**
+     * Stops the node and closes every connection. The system keeps its current membership.
+     *
+     * @throws IOException if a socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        open = false;
+        selector.wakeup();
+        try {
+            ioThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Connection connection : List.copyOf(connections)) connection.close();
+        listener.close();
+        selector.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("node %016x at %s, vector=%s, sent %d bytes, %d deltas, %d full syncs",
+                origin, address(), epochVector(), bytesSent(), deltasSent(), fullSyncsSent());
+    }
+
+    /* ================= STATE ================= */
+
+    /**
+     * Tells whether a server is currently a member. Must be called while holding the monitor.
+     */
+    private boolean isMember(int serverId) {
+        Entry entry = entries.get(serverId);
+        return entry != null && !entry.removed();
+    }
+
+    /**
+     * Creates, applies and pushes a local change. Must be called while holding the monitor.
+     */
+    private void change(MembershipDelta.Kind kind, int serverId, int weight) {
+        MembershipDelta delta = new MembershipDelta(origin, ++sequence, ++clock, kind, serverId, weight);
+        apply(delta);
+        ByteBuffer frame = MembershipCodec.deltas(List.of(delta));
+        submit(() -> {
+            for (InetSocketAddress peer : peers) {
+                if (send(peer, frame)) deltasSent.increment();
+            }
+        });
+    }
+
+    /**
+     * Applies a delta if it is the next one from its origin; duplicates and deltas after a gap are dropped and left
+     * to anti-entropy. Must be called while holding the monitor.
+     */
+    private void apply(MembershipDelta delta) {
+        if (delta.sequence() != vector.getOrDefault(delta.origin(), 0L) + 1) return;
+        vector.put(delta.origin(), delta.sequence());
+        ArrayDeque<MembershipDelta> history = log.computeIfAbsent(delta.origin(), o -> new ArrayDeque<>());
+        history.addLast(delta);
+        while (history.size() > logCapacity) history.removeFirst();
+        clock = Math.max(clock, delta.version());
+        merge(new Entry(delta.serverId(), delta.weight(), delta.version(), delta.origin(), delta.kind() == MembershipDelta.Kind.REMOVED));
+    }
+
+    /**
+     * Keeps an entry if it supersedes the known one and mirrors the result into the system. Must be called while
+     * holding the monitor.
+     */
+    private void merge(Entry incoming) {
+        Entry current = entries.get(incoming.serverId());
+        if (current != null && !incoming.newerThan(current)) return;
+        entries.put(incoming.serverId(), incoming);
+        if (!incoming.removed()) {
+            system.putServer(new Server(incoming.serverId(), incoming.weight()));
+        } else if (current != null && !current.removed()) {
+            system.removeServer(incoming.serverId());
+        }
+    }
+
+    /**
+     * Returns the highest sequence number of an origin below which this node has no deltas to send. Must be called
+     * while holding the monitor.
+     */
+    private long floor(long origin) {
+        ArrayDeque<MembershipDelta> history = log.get(origin);
+        return history == null || history.isEmpty() ? vector.getOrDefault(origin, 0L) : history.getFirst().sequence() - 1;
+    }
+
+    /* ================= PROTOCOL ================= */
+
+    /**
+     * Answers a peer's digest with the deltas it is missing, or the full state if it has diverged, and with this
+     * node's own digest if the peer asked for it.
+     */
+    private void onDigest(Connection connection, MembershipCodec.Digest digest) {
+        ByteBuffer answer = null;
+        ByteBuffer reply = null;
+        int deltas = 0;
+        boolean full = false;
+        synchronized (this) {
+            EpochVector mine = new EpochVector(vector);
+            long checksum = checksum();
+            EpochVector.Relation relation = mine.compare(digest.vector());
+            if (relation == EpochVector.Relation.EQUAL) {
+                full = checksum != digest.checksum();
+            } else if (relation != EpochVector.Relation.BEFORE) {
+                List<MembershipDelta> missing = new ArrayList<>();
+                for (long o : mine.origins()) {
+                    long theirs = digest.vector().get(o);
+                    if (mine.get(o) <= theirs) continue;
+                    if (floor(o) > theirs) {
+                        full = true;
+                        break;
+                    }
+                    for (MembershipDelta delta : log.get(o)) {
+                        if (delta.sequence() > theirs) missing.add(delta);
+                    }
+                }
+                if (!full && !missing.isEmpty()) {
+                    answer = MembershipCodec.deltas(missing);
+                    deltas = missing.size();
+                }
+            }
+            if (full) answer = MembershipCodec.fullState(mine, List.copyOf(entries.values()));
+            if (digest.reply()) reply = MembershipCodec.digest(mine, checksum, false);
+        }
+        if (answer != null) connection.send(answer);
+        if (reply != null) connection.send(reply);
+        if (full) fullSyncsSent.increment();
+        deltasSent.add(deltas);
+    }
+
+    /**
+     * Applies deltas from a peer.
+     */
+    private synchronized void onDeltas(List<MembershipDelta> deltas) {
+        for (MembershipDelta delta : deltas) apply(delta);
+    }
+
+    /**
+     * Merges a peer's full state and adopts its vector where it is ahead. The deltas in between were never seen
+     * individually, so this node's log for those origins is dropped and it answers for them with full states too.
+     */
+    private synchronized void onFullState(MembershipCodec.FullState state) {
+        for (Entry entry : state.entries()) {
+            merge(entry);
+            clock = Math.max(clock, entry.version());
+        }
+        for (long o : state.vector().origins()) {
+            long theirs = state.vector().get(o);
+            if (theirs > vector.getOrDefault(o, 0L)) {
+                vector.put(o, theirs);
+                log.remove(o);
+            }
+        }
+    }
+
+    /**
+     * Decodes a frame and dispatches it by type.
+     *
+     * @throws IOException if the frame is malformed.
+     */
+    private void receive(Connection connection, ByteBuffer frame) throws IOException {
+        try {
+            switch (frame.get()) {
+                case MembershipCodec.DIGEST -> onDigest(connection, MembershipCodec.readDigest(frame));
+                case MembershipCodec.DELTAS -> onDeltas(MembershipCodec.readDeltas(frame));
+                case MembershipCodec.FULL_STATE -> onFullState(MembershipCodec.readFullState(frame));
+                default -> throw new IOException("Unknown membership frame type");
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | ArithmeticException e) {
+            throw new IOException("Malformed membership frame", e);
+        }
+    }
+
+    /* ================= I/O ================= */
+
+    /**
+     * The selector loop: serves sockets, runs submitted work and starts an anti-entropy exchange every interval.
+     */
+    private void run() {
+        long nextGossip = System.nanoTime() + gossipIntervalNanos;
+        while (open) {
+            try {
+                long waitMs = Math.max(1, (nextGossip - System.nanoTime()) / 1_000_000);
+                selector.select(this::ready, waitMs);
+            } catch (IOException e) {
+                break;
+            }
+            for (Runnable task; (task = tasks.poll()) != null; ) task.run();
+            if (System.nanoTime() - nextGossip >= 0) {
+                gossip();
+                nextGossip = System.nanoTime() + gossipIntervalNanos;
+            }
+        }
+    }
+
+    /**
+     * Handles one ready key, closing its connection on any socket error.
+     */
+    private void ready(SelectionKey key) {
+        if (key.channel() == listener) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isConnectable()) connection.finishConnect();
+            if (key.isValid() && key.isReadable()) connection.read();
+            if (key.isValid() && key.isWritable()) connection.flush();
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Accepts an inbound connection.
+     */
+    private void accept() {
+        try {
+            SocketChannel channel = listener.accept();
+            if (channel == null) return;
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            new Connection(channel, null, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            // The peer gave up before the connection was set up; it will reconnect.
+        }
+    }
+
+    /**
+     * Sends this node's digest to a random peer, asking for its digest back.
+     */
+    private void gossip() {
+        if (peers.isEmpty()) return;
+        InetSocketAddress peer = peers.get(ThreadLocalRandom.current().nextInt(peers.size()));
+        ByteBuffer frame;
+        synchronized (this) {
+            frame = MembershipCodec.digest(new EpochVector(vector), checksum(), true);
+        }
+        send(peer, frame);
+    }
+
+    /**
+     * Sends a frame to a peer, connecting first if needed. Runs on the selector thread.
+     *
+     * @return Whether the frame was queued on a connection.
+     */
+    private boolean send(InetSocketAddress peer, ByteBuffer frame) {
+        Connection connection = outbound.get(peer);
+        if (connection == null) {
+            try {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                boolean connected = channel.connect(peer);
+                connection = new Connection(channel, peer, connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT);
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        connection.send(frame);
+        return true;
+    }
+
+    /**
+     * Runs work on the selector thread.
+     */
+    private void submit(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * One TCP connection to a peer, inbound or outbound, used only by the selector thread.
+     */
+    private final class Connection {
+        /**
+         * The socket.
+         */
+        private final SocketChannel channel;
+        /**
+         * The socket's registration with the selector.
+         */
+        private final SelectionKey key;
+        /**
+         * The peer's listening address for an outbound connection, or {@code null} for an inbound one.
+         */
+        private final InetSocketAddress peer;
+        /**
+         * The frames waiting to be written.
+         */
+        private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+        /**
+         * The bytes read but not yet decoded.
+         */
+        private ByteBuffer in = ByteBuffer.allocate(READ_BUFFER);
+
+        /**
+         * Registers a new connection with the selector.
+         */
+        private Connection(SocketChannel channel, InetSocketAddress peer, int interest) throws IOException {
+            this.channel = channel;
+            this.peer = peer;
+            this.key = channel.register(selector, interest, this);
+            connections.add(this);
+            if (peer != null) outbound.put(peer, this);
+        }
+
+        /**
+         * Queues a frame and writes as much as the socket takes.
+         */
+        private void send(ByteBuffer frame) {
+            pending.add(frame.duplicate());
+            if (!channel.isConnected()) return;
+            try {
+                flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        /**
+         * Completes a non-blocking connect and writes any queued frames.
+         */
+        private void finishConnect() throws IOException {
+            if (channel.finishConnect()) flush();
+        }
+
+        /**
+         * Writes queued frames until the socket is full, then waits for it to drain.
+         */
+        private void flush() throws IOException {
+            while (!pending.isEmpty()) {
+                ByteBuffer head = pending.peek();
+                bytesSent.add(channel.write(head));
+                if (head.hasRemaining()) break;
+                pending.poll();
+            }
+            key.interestOps(pending.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+
+        /**
+         * Reads what the socket has and decodes every complete frame, growing the buffer for large ones.
+         */
+        private void read() throws IOException {
+            if (channel.read(in) < 0) throw new EOFException();
+            in.flip();
+            while (in.remaining() >= 4) {
+                int length = in.getInt(in.position());
+                if (length <= 0 || length > MembershipCodec.MAX_FRAME) throw new IOException("Bad membership frame length: " + length);
+                if (in.remaining() < 4 + length) break;
+                ByteBuffer frame = in.slice(in.position() + 4, length);
+                in.position(in.position() + 4 + length);
+                receive(this, frame);
+            }
+            in.compact();
+            if (!in.hasRemaining()) in = ByteBuffer.allocate(in.capacity() * 2).put(in.flip());
+        }
+
+        /**
+         * Closes the socket and forgets the connection, so the next send to the peer reconnects.
+         */
+        private void close() {
+            key.cancel();
+            connections.remove(this);
+            if (peer != null && outbound.get(peer) == this) outbound.remove(peer);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already broken; nothing more to release.
+            }
+        }
+    }
+}
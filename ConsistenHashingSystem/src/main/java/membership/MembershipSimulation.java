@@ -0,0 +1,244 @@
+package membership;
+
+import domain.Server;
+import system.ConsistentHashingSystem;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Runs several membership nodes on localhost, drives membership churn through random nodes and checks that every
+ * router converges on the same ring.
+ * <p>
+ * The run has three phases: one node bootstraps the servers, then every node makes concurrent random changes, and
+ * finally a router joins late after its peers have trimmed their delta logs, which forces the one full-state transfer
+ * of the run. After each phase it waits until all epoch vectors, checksums and server lists agree, then reports how
+ * long that took and what went over the wire. Finally every router routes the same keys to confirm they agree.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class MembershipSimulation {
+
+    /**
+     * The number of servers bootstrapped before the churn.
+     */
+    private static final int INITIAL_SERVERS = 10;
+    /**
+     * The virtual nodes per unit of weight on every router.
+     */
+    private static final int VIRTUAL_NODES = 100;
+    /**
+     * The anti-entropy interval, short so the simulation finishes quickly.
+     */
+    private static final Duration GOSSIP_INTERVAL = Duration.ofMillis(50);
+    /**
+     * The deltas kept per origin, small enough that the late joiner cannot be repaired from the log.
+     */
+    private static final int LOG_CAPACITY = 64;
+    /**
+     * How long to wait for a phase to converge.
+     */
+    private static final Duration CONVERGENCE_TIMEOUT = Duration.ofSeconds(10);
+    /**
+     * The number of keys routed to check that the routers agree.
+     */
+    private static final int ROUTING_CHECK_KEYS = 100_000;
+
+    /**
+     * The running routers.
+     */
+    private final List<MembershipNode> nodes = new ArrayList<>();
+    /**
+     * The system behind each router, at the same index.
+     */
+    private final List<ConsistentHashingSystem> systems = new ArrayList<>();
+    /**
+     * Picks the nodes and changes of the churn.
+     */
+    private final Random random = new Random(42);
+    /**
+     * The next unused server ID.
+     */
+    private int nextServerId;
+
+    /**
+     * Not instantiable from outside; use {@link #run(int, int)}.
+     */
+    private MembershipSimulation() {
+    }
+
+    /**
+     * Runs the simulation.
+     *
+     * @param args Optional overrides: the number of routers, then the number of churn changes.
+     * @throws IOException          if a router cannot listen on localhost.
+     * @throws InterruptedException if interrupted while waiting for convergence.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        run(args.length > 0 ? Integer.parseInt(args[0]) : 5, args.length > 1 ? Integer.parseInt(args[1]) : 500);
+    }
+
+    /**
+     * Runs the three phases on a cluster of routers and prints what each cost.
+     *
+     * @param routers The number of routers started at the beginning, at least two.
+     * @param changes The number of membership changes made during the churn phase.
+     * @throws IOException              if a router cannot listen on localhost.
+     * @throws InterruptedException     if interrupted while waiting for convergence.
+     * @throws IllegalStateException    if a phase does not converge in time.
+     * @throws IllegalArgumentException if fewer than two routers are asked for.
+     */
+    public static void run(int routers, int changes) throws IOException, InterruptedException {
+        if (routers < 2) throw new IllegalArgumentException("Need at least two routers: " + routers);
+        MembershipSimulation simulation = new MembershipSimulation();
+        try {
+            simulation.execute(routers, changes);
+        } finally {
+            for (MembershipNode node : simulation.nodes) node.close();
+        }
+    }
+
+    /**
+     * Runs the phases.
+     */
+    private void execute(int routers, int changes) throws IOException, InterruptedException {
+        System.out.println("\n--- MEMBERSHIP SYNC ---");
+        System.out.printf("routers=%d, gossip every %d ms, log capacity %d deltas per origin%n", routers, GOSSIP_INTERVAL.toMillis(), LOG_CAPACITY);
+        System.out.printf("%-22s %8s %10s %10s %10s %8s%n", "phase", "changes", "converged", "bytes", "deltas", "full");
+        for (int i = 0; i < routers; i++) join();
+
+        phase("bootstrap", INITIAL_SERVERS, () -> {
+            for (int i = 0; i < INITIAL_SERVERS; i++) nodes.getFirst().addServer(nextServerId++, 1);
+        });
+        phase("concurrent churn", changes, () -> churn(changes));
+
+        MembershipNode late = join();
+        phase("late joiner", 0, () -> {
+        });
+        System.out.println("Late joiner: " + late);
+
+        int agreeing = routingAgreement();
+        System.out.printf("Routing agreement: %d of %d keys routed identically by all %d routers (%d servers)%n",
+                agreeing, ROUTING_CHECK_KEYS, nodes.size(), systems.getFirst().servers().size());
+    }
+
+    /**
+     * Starts a router, connecting it with every running router in both directions.
+     */
+    private MembershipNode join() throws IOException {
+        ConsistentHashingSystem system = new ConsistentHashingSystem();
+        system.setVirtualNodesPerServer(VIRTUAL_NODES);
+        system.setRequestTracker(null);
+        MembershipNode node = new MembershipNode(system, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        node.setGossipInterval(GOSSIP_INTERVAL);
+        node.setLogCapacity(LOG_CAPACITY);
+        for (MembershipNode peer : nodes) {
+            node.addPeer(peer.address());
+            peer.addPeer(node.address());
+        }
+        nodes.add(node);
+        systems.add(system);
+        return node;
+    }
+
+    /**
+     * Makes random changes through random routers, each judged against that router's own, possibly stale, view.
+     */
+    private void churn(int changes) {
+        for (int made = 0; made < changes; ) {
+            int index = random.nextInt(nodes.size());
+            MembershipNode node = nodes.get(index);
+            List<Server> members = systems.get(index).servers();
+            try {
+                int action = members.size() < INITIAL_SERVERS / 2 ? 0 : random.nextInt(3);
+                switch (action) {
+                    case 0 -> node.addServer(nextServerId++, 1 + random.nextInt(4));
+                    case 1 -> node.removeServer(members.get(random.nextInt(members.size())).id());
+                    default -> node.updateWeight(members.get(random.nextInt(members.size())).id(), 1 + random.nextInt(4));
+                }
+                made++;
+            } catch (IllegalArgumentException e) {
+                // The router's view moved on between reading its servers and changing one; pick again.
+            }
+        }
+    }
+
+    /**
+     * Runs a phase, waits for every router to agree and prints the time and traffic it took.
+     */
+    private void phase(String name, int changes, Runnable action) throws InterruptedException {
+        long bytes = bytesSent();
+        long deltas = deltasSent();
+        long fullSyncs = fullSyncsSent();
+        long start = System.nanoTime();
+        action.run();
+        long deadline = start + CONVERGENCE_TIMEOUT.toNanos();
+        while (!converged()) {
+            if (System.nanoTime() > deadline) throw new IllegalStateException("Routers did not converge after phase " + name);
+            Thread.sleep(5);
+        }
+        double ms = (System.nanoTime() - start) / 1e6;
+        System.out.printf("%-22s %8d %8.0fms %10d %10d %8d%n", name, changes, ms, bytesSent() - bytes, deltasSent() - deltas, fullSyncsSent() - fullSyncs);
+    }
+
+    /**
+     * Tells whether every router has applied the same changes and holds the same servers.
+     */
+    private boolean converged() {
+        EpochVector vector = nodes.getFirst().epochVector();
+        long checksum = nodes.getFirst().checksum();
+        List<Server> servers = systems.getFirst().servers();
+        for (int i = 1; i < nodes.size(); i++) {
+            if (!nodes.get(i).epochVector().equals(vector) || nodes.get(i).checksum() != checksum) return false;
+            if (!systems.get(i).servers().equals(servers)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Counts the keys that every router sends to the same server.
+     */
+    private int routingAgreement() {
+        int[] owner = new int[1];
+        int[] other = new int[1];
+        int agreeing = 0;
+        for (int k = 0; k < ROUTING_CHECK_KEYS; k++) {
+            String key = "key-" + k;
+            systems.getFirst().locateN(key, 1, owner);
+            boolean same = true;
+            for (int i = 1; i < systems.size() && same; i++) {
+                systems.get(i).locateN(key, 1, other);
+                same = other[0] == owner[0];
+            }
+            if (same) agreeing++;
+        }
+        return agreeing;
+    }
+
+    /**
+     * Sums the bytes every router has written.
+     */
+    private long bytesSent() {
+        return nodes.stream().mapToLong(MembershipNode::bytesSent).sum();
+    }
+
+    /**
+     * Sums the deltas every router has sent.
+     */
+    private long deltasSent() {
+        return nodes.stream().mapToLong(MembershipNode::deltasSent).sum();
+    }
+
+    /**
+     * Sums the full states every router has sent.
+     */
+    private long fullSyncsSent() {
+        return nodes.stream().mapToLong(MembershipNode::fullSyncsSent).sum();
+    }
+}
@@ -0,0 +1,104 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import system.ConsistentHashingSystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the {@link PrometheusExporter} output of a system at {@code /metrics} from the JDK's embedded HTTP server.
+ * Requests are handled on a single daemon thread, so concurrent scrapes queue instead of competing with routing
+ * threads for CPU.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class MetricsServer implements Closeable {
+
+    /**
+     * The path metrics are served at.
+     */
+    public static final String PATH = "/metrics";
+    /**
+     * The content type of the Prometheus text exposition format.
+     */
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * The exporter that renders each scrape.
+     */
+    private final PrometheusExporter exporter;
+    /**
+     * The HTTP server.
+     */
+    private final HttpServer server;
+    /**
+     * The thread that handles requests.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Starts serving the metrics of a system.
+     *
+     * @param system  The system to report on.
+     * @param address The address to listen on; port zero picks a free port.
+     * @throws IOException if the server cannot bind to the address.
+     */
+    public MetricsServer(ConsistentHashingSystem system, InetSocketAddress address) throws IOException {
+        this.exporter = new PrometheusExporter(system);
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().daemon(true).name("metrics-http").factory());
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Answers a scrape, or rejects anything other than GET and HEAD.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (method.equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            byte[] body = exporter.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Returns the address the server is listening on, with the chosen port if port zero was requested.
+     *
+     * @return The bound address.
+     */
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stops the server, letting an in-flight scrape finish.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+}
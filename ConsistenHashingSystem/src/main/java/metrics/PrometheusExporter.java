@@ -0,0 +1,286 @@
+package metrics;
+
+import analytics.HotKeyDetector;
+import analytics.LatencyHistogram;
+import analytics.LatencyTracker;
+import analytics.RequestJournal;
+import analytics.SketchHotKeyDetector;
+import analytics.WindowedHotKeyDetector;
+import analytics.WindowedLatencyTracker;
+import analytics.WindowedLoadCounters;
+import domain.Server;
+import ring.Placement;
+import routing.HotKeySplitter;
+import routing.RouteCache;
+import system.ConsistentHashingSystem;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the statistics of a {@link ConsistentHashingSystem} in the Prometheus text exposition format.
+ * <p>
+ * A scrape only reads: load counters and latency histograms are summed from their stripes, the placement and ring
+ * epoch are read together and re-read if a membership change slipped in between, and the hot keys are copied from the
+ * detector, which {@code locate} only ever try-locks. Routing threads are therefore never blocked by a scrape. The
+ * ownership fractions cost O(positions) to compute and are cached until the placement changes, so a scrape is cheap
+ * enough to run every second.
+ * <p>
+ * Hot keys are labelled by rank and by the hex hash of the key, so raw keys, which may hold user data, do not end up
+ * in the monitoring system unless {@link #setExposeHotKeys(boolean)} asks for them.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class PrometheusExporter {
+
+    /**
+     * The quantiles reported for latency summaries.
+     */
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    /**
+     * The number of hot keys reported.
+     */
+    private static final int HOT_KEYS = 10;
+    /**
+     * How many times to re-read the placement if the ring changes while it is being read.
+     */
+    private static final int CONSISTENT_READ_ATTEMPTS = 3;
+
+    /**
+     * The system to report on.
+     */
+    private final ConsistentHashingSystem system;
+    /**
+     * The buffer the exposition is rendered into, reused across scrapes.
+     */
+    private final StringBuilder text = new StringBuilder(16 * 1024);
+    /**
+     * The placement the cached ownership fractions were computed from.
+     */
+    private Placement ownershipPlacement;
+    /**
+     * The cached ownership fractions.
+     */
+    private Map<Integer, Double> ownership = Map.of();
+    /**
+     * Whether hot keys are labelled with the raw key as well as its hash.
+     */
+    private volatile boolean exposeHotKeys;
+
+    /**
+     * Constructs a new PrometheusExporter.
+     *
+     * @param system The system to report on.
+     */
+    public PrometheusExporter(ConsistentHashingSystem system) {
+        this.system = system;
+    }
+
+    /**
+     * Sets whether hot key samples carry the raw key in a {@code key} label, in addition to its hash. Off by default,
+     * since keys may hold user data and every distinct key is a new series.
+     *
+     * @param exposeHotKeys {@code true} to label hot keys with the raw key.
+     */
+    public void setExposeHotKeys(boolean exposeHotKeys) {
+        this.exposeHotKeys = exposeHotKeys;
+    }
+
+    /**
+     * Renders the current statistics. Scrapes are serialized with each other but never with routing.
+     *
+     * @return The exposition text.
+     */
+    public synchronized String scrape() {
+        long start = System.nanoTime();
+        text.setLength(0);
+
+        long epoch = system.ringEpoch();
+        Placement placement = system.placement();
+        for (int attempt = 1; attempt < CONSISTENT_READ_ATTEMPTS && epoch != system.ringEpoch(); attempt++) {
+            epoch = system.ringEpoch();
+            placement = system.placement();
+        }
+        if (placement != ownershipPlacement) {
+            ownership = placement.ownership();
+            ownershipPlacement = placement;
+        }
+        List<Server> servers = system.servers();
+
+        header("chs_ring_epoch", "gauge", "Ring version, incremented after every membership change.");
+        sample("chs_ring_epoch", null, null, epoch);
+        header("chs_ring_positions", "gauge", "Positions on the ring: virtual nodes, buckets or table slots.");
+        sample("chs_ring_positions", null, null, system.ringSize());
+        header("chs_ring_servers", "gauge", "Servers in the system.");
+        sample("chs_ring_servers", null, null, servers.size());
+
+        long[] loads = new long[servers.size()];
+        long totalLoad = 0;
+        long totalWeight = 0;
+        for (int i = 0; i < loads.length; i++) {
+            loads[i] = system.load(servers.get(i).id());
+            totalLoad += loads[i];
+            totalWeight += servers.get(i).weight();
+        }
+        header("chs_requests_total", "counter", "Requests routed, including those to servers since removed.");
+        sample("chs_requests_total", null, null, system.requestsRouted());
+        header("chs_server_requests_total", "counter", "Requests routed to a server since it joined.");
+        for (int i = 0; i < loads.length; i++) sample("chs_server_requests_total", servers.get(i), null, loads[i]);
+        header("chs_server_weight", "gauge", "Relative capacity of a server.");
+        for (Server server : servers) sample("chs_server_weight", server, null, server.weight());
+        header("chs_server_virtual_nodes", "gauge", "Virtual nodes of a server, including any rebalancing adjustment.");
+        for (Server server : servers) sample("chs_server_virtual_nodes", server, null, system.virtualNodes(server.id()));
+        header("chs_server_ownership_ratio", "gauge", "Exact fraction of the hash space a server owns.");
+        for (Server server : servers) sample("chs_server_ownership_ratio", server, null, ownership.getOrDefault(server.id(), 0.0));
+
+        // 1.0 means a server carries exactly its capacity-proportional share of the load.
+        header("chs_server_load_ratio", "gauge", "Load of a server relative to its fair share by weight.");
+        double peak = 0;
+        for (int i = 0; i < loads.length; i++) {
+            Server server = servers.get(i);
+            double ratio = totalLoad == 0 ? 0 : ((double) loads[i] / server.weight()) / ((double) totalLoad / totalWeight);
+            peak = Math.max(peak, ratio);
+            sample("chs_server_load_ratio", server, null, ratio);
+        }
+        header("chs_load_peak_ratio", "gauge", "Load of the busiest server relative to its fair share by weight.");
+        sample("chs_load_peak_ratio", null, null, peak);
+
+        LatencyTracker latency = system.latencyTracker();
+        header("chs_locate_latency_seconds", "summary", "Time to route a request.");
+        summary("chs_locate_latency_seconds", null, latency.snapshot());
+        header("chs_server_locate_latency_seconds", "summary", "Time to route a request, by the server it was routed to.");
+        for (Server server : servers) summary("chs_server_locate_latency_seconds", server, latency.snapshot(server.id()));
+
+        WindowedLoadCounters recentLoad = system.recentLoad();
+        WindowedLatencyTracker recentLatency = system.recentLatency();
+        if (recentLoad != null && recentLatency != null) {
+            header("chs_window_seconds", "gauge", "Span of time the windowed metrics cover.");
+            sample("chs_window_seconds", null, null, recentLoad.span().toNanos() / 1e9);
+            header("chs_server_window_requests", "gauge", "Requests routed to a server within the window.");
+            for (Server server : servers) sample("chs_server_window_requests", server, null, recentLoad.get(server.id()));
+            header("chs_window_locate_latency_seconds", "summary", "Time to route a request, within the window.");
+            summary("chs_window_locate_latency_seconds", null, recentLatency.snapshot());
+        }
+
+        HotKeyDetector detector = system.hotKeyDetector();
+        if (detector instanceof SketchHotKeyDetector sketch) {
+            hotKeys(sketch.heavyHitters(HOT_KEYS), sketch.sketch().errorBound());
+        } else if (detector instanceof WindowedHotKeyDetector windowed) {
+            hotKeys(windowed.heavyHitters(HOT_KEYS), windowed.errorBound());
+        } else {
+            header("chs_hot_key_info", "gauge", "The hottest keys, by rank.");
+            List<String> hotKeys = detector.topHotKeys(HOT_KEYS);
+            for (int i = 0; i < hotKeys.size(); i++) hotKeySample("chs_hot_key_info", i + 1, hotKeys.get(i), 1);
+        }
+
+        HotKeySplitter splitter = system.hotKeySplitter();
+        if (splitter != null) {
+            header("chs_hot_keys_split", "gauge", "Keys currently spread across several servers.");
+            sample("chs_hot_keys_split", null, null, splitter.promotedKeys().size());
+            header("chs_hot_key_promotions_total", "counter", "Keys that started being split.");
+            sample("chs_hot_key_promotions_total", null, null, splitter.promotions());
+            header("chs_hot_key_demotions_total", "counter", "Split keys that cooled off and went back to one server.");
+            sample("chs_hot_key_demotions_total", null, null, splitter.demotions());
+        }
+
+        RouteCache cache = system.routeCache();
+        if (cache != null) {
+            header("chs_route_cache_hits_total", "counter", "Lookups answered by the route cache.");
+            sample("chs_route_cache_hits_total", null, null, cache.hits());
+            header("chs_route_cache_misses_total", "counter", "Lookups that fell through the route cache to the ring.");
+            sample("chs_route_cache_misses_total", null, null, cache.misses());
+            header("chs_route_cache_capacity", "gauge", "Entries the route cache can hold.");
+            sample("chs_route_cache_capacity", null, null, cache.capacity());
+        }
+
+        RequestJournal journal = system.requestJournal();
+        if (journal != null) {
+            header("chs_journal_records_written_total", "counter", "Requests written and forced to disk by the journal.");
+            sample("chs_journal_records_written_total", null, null, journal.written());
+            header("chs_journal_records_dropped_total", "counter", "Requests the journal dropped because it was overloaded, closed or failed.");
+            sample("chs_journal_records_dropped_total", null, null, journal.dropped());
+            header("chs_journal_pending_records", "gauge", "Requests queued for the journal writer.");
+            sample("chs_journal_pending_records", null, null, journal.pending());
+            header("chs_journal_failed", "gauge", "1 if the journal writer has stopped on an I/O error.");
+            sample("chs_journal_failed", null, null, journal.failure() != null ? 1 : 0);
+        }
+
+        header("chs_scrape_duration_seconds", "gauge", "Time taken to render this scrape.");
+        sample("chs_scrape_duration_seconds", null, null, (System.nanoTime() - start) / 1e9);
+        return text.toString();
+    }
+
+    /**
+     * Writes the HELP and TYPE lines of a metric family.
+     */
+    private void header(String name, String type, String help) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Writes one sample, labelled by server and quantile where given.
+     */
+    private void sample(String name, Server server, String quantile, double value) {
+        text.append(name);
+        if (server != null || quantile != null) {
+            text.append('{');
+            if (server != null) text.append("server=\"").append(server.id()).append('"');
+            if (server != null && quantile != null) text.append(',');
+            if (quantile != null) text.append("quantile=\"").append(quantile).append('"');
+            text.append('}');
+        }
+        text.append(' ');
+        if (value == (long) value) text.append((long) value);
+        else text.append(value);
+        text.append('\n');
+    }
+
+    /**
+     * Writes the quantiles, sum and count of a latency snapshot in seconds.
+     */
+    private void summary(String name, Server server, LatencyHistogram.Snapshot snapshot) {
+        for (double quantile : QUANTILES) {
+            sample(name, server, Double.toString(quantile), snapshot.percentile(quantile * 100) / 1e9);
+        }
+        sample(name + "_sum", server, null, snapshot.sum() / 1e9);
+        sample(name + "_count", server, null, snapshot.count());
+    }
+
+    /**
+     * Writes the estimated requests of the hottest keys and the error bound of the estimates.
+     */
+    private void hotKeys(List<SketchHotKeyDetector.HotKey> hotKeys, long errorBound) {
+        header("chs_hot_key_requests", "gauge", "Estimated requests for the hottest keys, by rank.");
+        for (int i = 0; i < hotKeys.size(); i++) {
+            hotKeySample("chs_hot_key_requests", i + 1, hotKeys.get(i).key(), hotKeys.get(i).count());
+        }
+        header("chs_hot_key_error_bound", "gauge", "Largest overestimate of a hot key's requests, with high confidence.");
+        sample("chs_hot_key_error_bound", null, null, errorBound);
+    }
+
+    /**
+     * Writes one hot key sample labelled by rank and key hash, and by the escaped key if hot keys are exposed.
+     */
+    private void hotKeySample(String name, int rank, String key, long value) {
+        text.append(name).append("{rank=\"").append(rank).append("\",key_hash=\"");
+        String hash = Long.toHexString(system.hash(key));
+        for (int i = hash.length(); i < 16; i++) text.append('0');
+        text.append(hash).append('"');
+        if (exposeHotKeys) {
+            text.append(",key=\"");
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                switch (c) {
+                    case '\\' -> text.append("\\\\");
+                    case '"' -> text.append("\\\"");
+                    case '\n' -> text.append("\\n");
+                    default -> text.append(c);
+                }
+            }
+            text.append('"');
+        }
+        text.append("} ").append(value).append('\n');
+    }
+}
@@ -1,46 +1,277 @@
 package ring;
 
+import domain.Server;
 import domain.VirtualNode;
 import hashing.HashFunction;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntPredicate;
+import java.util.function.ToIntFunction;
 
 /**
  * Represents a hash ring.
+ * <p>
+ * In {@link Mode#SKIP_LIST} mode lookups go straight to the sorted map. In {@link Mode#COPY_ON_WRITE} mode every
+ * membership change publishes a new immutable {@link RingSnapshot} through a single volatile reference, and lookups
+ * binary search its primitive arrays instead.
+ * <p>
+ * Writers are serialized on the ring. Each server's tokens are indexed so removing a server touches only its own
+ * virtual nodes, and a full rebuild is assembled off to the side and swapped in, so lookups never see a partial ring.
  *
  * @author Aadarsh Pandey
  * @since 10th Feb 2026
  */
-public class HashRing {
+public class HashRing implements Ring {
 
     /**
-     * The underlying map that stores the virtual nodes in the ring.
+     * The lookup structure used by a ring.
      */
-    private final ConcurrentSkipListMap<Long, VirtualNode> ring = new ConcurrentSkipListMap<>();
+    public enum Mode {
+        /**
+         * Lookups search the concurrent skip-list directly.
+         */
+        SKIP_LIST,
+        /**
+         * Lookups search an immutable array snapshot that is rebuilt and swapped on every membership change.
+         */
+        COPY_ON_WRITE
+    }
+
+    /**
+     * The underlying map that stores the virtual nodes in the ring. Replaced as a whole on rebuild.
+     */
+    private volatile ConcurrentSkipListMap<Long, VirtualNode> ring = new ConcurrentSkipListMap<>();
+    /**
+     * The tokens of each server's virtual nodes, guarded by this ring's lock.
+     */
+    private Map<Integer, long[]> tokensByServer = new HashMap<>();
     /**
      * The hash function used to hash the keys.
      */
     private final HashFunction hashFunction;
+    /**
+     * The lookup structure used by this ring.
+     */
+    private final Mode mode;
+    /**
+     * The latest array snapshot. Copy-on-write mode keeps it current on every write; skip-list mode drops it on every
+     * write and rebuilds it on demand for placements and preference lists.
+     */
+    private volatile RingSnapshot published = RingSnapshot.EMPTY;
+    /**
+     * The membership epoch, incremented under the ring lock after each write is published.
+     */
+    private volatile long epoch;
+    /**
+     * The virtual nodes per unit of weight recorded in the file this ring was loaded from, or 0 if none was.
+     */
+    private int savedVirtualNodesPerWeight;
 
     /**
-     * Constructs a new HashRing.
+     * Constructs a new HashRing that looks up keys in the skip-list.
      *
      * @param hashFunction The hash function to use.
      */
     public HashRing(HashFunction hashFunction) {
+        this(hashFunction, Mode.SKIP_LIST);
+    }
+
+    /**
+     * Constructs a new HashRing.
+     *
+     * @param hashFunction The hash function to use.
+     * @param mode         The lookup structure to use.
+     */
+    public HashRing(HashFunction hashFunction, Mode mode) {
         this.hashFunction = hashFunction;
+        this.mode = mode;
+    }
+
+    /**
+     * Restores a ring saved with {@link #save(Path)}. The file is memory-mapped and checksummed, and the ring is rebuilt
+     * from its stored tokens, so a restart costs a page-in and a linear pass instead of rehashing every virtual node.
+     *
+     * @param path         The saved ring.
+     * @param hashFunction The hash function to route keys with; must be the one the ring was saved with.
+     * @param mode         The lookup structure to use.
+     * @return The restored ring, at the saved epoch.
+     * @throws IOException              if the file cannot be read or is corrupt.
+     * @throws IllegalArgumentException if the ring was saved with a different hash function.
+     */
+    public static HashRing load(Path path, HashFunction hashFunction, Mode mode) throws IOException {
+        RingSnapshotFile.Contents contents = RingSnapshotFile.read(path);
+        if (!contents.hashFunctionId().equals(hashFunction.id())) {
+            throw new IllegalArgumentException("Ring was saved with " + contents.hashFunctionId() + ", not " + hashFunction.id());
+        }
+
+        HashRing loaded = new HashRing(hashFunction, mode);
+        long[] tokens = contents.tokens();
+        VirtualNode[] nodes = contents.nodes();
+        for (int i = 0; i < tokens.length; i++) {
+            loaded.ring.put(tokens[i], nodes[i]);
+        }
+
+        Server[] servers = contents.servers();
+        Map<Integer, long[]> index = new HashMap<>(servers.length * 2);
+        Map<Integer, boolean[]> present = new HashMap<>(servers.length * 2);
+        for (int k = 0; k < servers.length; k++) {
+            index.put(servers[k].id(), new long[contents.virtualNodes()[k]]);
+            present.put(servers[k].id(), new boolean[contents.virtualNodes()[k]]);
+        }
+        for (int i = 0; i < tokens.length; i++) {
+            long[] serverTokens = index.get(contents.serverIds()[i]);
+            int vnode = contents.vnodeIndexes()[i];
+            if (vnode < serverTokens.length) {
+                serverTokens[vnode] = tokens[i];
+                present.get(contents.serverIds()[i])[vnode] = true;
+            }
+        }
+        // Only virtual nodes that lost a token collision are missing from the positions; they are the only ones rehashed.
+        for (Server server : servers) {
+            long[] serverTokens = index.get(server.id());
+            boolean[] found = present.get(server.id());
+            for (int vnode = 0; vnode < serverTokens.length; vnode++) {
+                if (!found[vnode]) serverTokens[vnode] = hashFunction.hash(server.id() + "_" + vnode);
+            }
+        }
+
+        loaded.tokensByServer = index;
+        loaded.published = mode == Mode.COPY_ON_WRITE ? new RingSnapshot(tokens, contents.serverIds(), nodes) : null;
+        loaded.epoch = contents.epoch();
+        loaded.savedVirtualNodesPerWeight = contents.perWeight();
+        return loaded;
+    }
+
+    /**
+     * Returns the virtual nodes per unit of weight recorded in the file this ring was loaded from.
+     *
+     * @return The recorded count, or 0 if the ring was not loaded or the file did not record it.
+     */
+    public int savedVirtualNodesPerWeight() {
+        return savedVirtualNodesPerWeight;
+    }
+
+    /**
+     * Saves the ring without recording how many virtual nodes each unit of weight was given.
+     *
+     * @param path The file to write.
+     * @throws IOException           if the file cannot be written.
+     * @throws IllegalStateException if a virtual node is not named {@code <serverId>_<index>}.
+     * @see #save(Path, int)
+     */
+    public void save(Path path) throws IOException {
+        save(path, 0);
+    }
+
+    /**
+     * Saves the ring in a compact, versioned binary format: tokens, server IDs and weights, the hash function ID,
+     * the epoch, the virtual nodes per unit of weight and a checksum. The file is written aside and atomically moved
+     * into place.
+     *
+     * @param path                  The file to write.
+     * @param virtualNodesPerWeight The virtual nodes each unit of weight was given, returned by
+     *                              {@link #savedVirtualNodesPerWeight()} after a load, or 0 to leave it unrecorded.
+     * @throws IOException           if the file cannot be written.
+     * @throws IllegalStateException if a virtual node is not named {@code <serverId>_<index>}.
+     */
+    public synchronized void save(Path path, int virtualNodesPerWeight) throws IOException {
+        RingSnapshot snapshot = RingSnapshot.of(ring);
+        int size = snapshot.size();
+        long[] tokens = new long[size];
+        int[] serverIds = new int[size];
+        VirtualNode[] nodes = new VirtualNode[size];
+        int[] vnodeIndexes = new int[size];
+        Map<Integer, Server> servers = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            VirtualNode node = snapshot.node(i);
+            tokens[i] = snapshot.token(i);
+            serverIds[i] = snapshot.serverId(i);
+            nodes[i] = node;
+            vnodeIndexes[i] = vnodeIndex(node);
+            servers.putIfAbsent(serverIds[i], node.server());
+        }
+        Server[] members = servers.values().toArray(new Server[0]);
+        int[] virtualNodes = new int[members.length];
+        for (int k = 0; k < members.length; k++) {
+            virtualNodes[k] = tokensByServer.getOrDefault(members[k].id(), new long[0]).length;
+        }
+        RingSnapshotFile.write(path, new RingSnapshotFile.Contents(hashFunction.id(), epoch, virtualNodesPerWeight, members, virtualNodes, tokens, serverIds, nodes, vnodeIndexes));
+    }
+
+    /**
+     * Adds a server to the ring with virtual nodes named {@code <serverId>_<index>}.
+     *
+     * @param server       The server to add.
+     * @param virtualNodes The number of virtual nodes to give the server.
+     */
+    @Override
+    public void addServer(Server server, int virtualNodes) {
+        addVirtualNodes(virtualNodes(server, 0, virtualNodes));
     }
 
     /**
      * Adds a virtual node to the ring.
+     * In copy-on-write mode each call publishes a new snapshot; prefer {@link #addVirtualNodes(Collection)} for bulk adds.
      *
      * @param node The virtual node to add.
      */
     public void addVirtualNode(VirtualNode node) {
-        ring.put(hashFunction.hash(node.name()), node);
+        addVirtualNodes(List.of(node));
+    }
+
+    /**
+     * Adds a batch of virtual nodes to the ring, publishing a single snapshot in copy-on-write mode.
+     *
+     * @param nodes The virtual nodes to add.
+     */
+    public synchronized void addVirtualNodes(Collection<VirtualNode> nodes) {
+        long[] tokens = new long[nodes.size()];
+        VirtualNode[] added = nodes.toArray(new VirtualNode[0]);
+
+        // Grow each server's token array once for the whole batch, then fill in the new tokens.
+        Map<Integer, Integer> fresh = new HashMap<>();
+        for (VirtualNode node : added) fresh.merge(node.server().id(), 1, Integer::sum);
+        Map<Integer, Integer> filled = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : fresh.entrySet()) {
+            long[] owned = tokensByServer.getOrDefault(entry.getKey(), new long[0]);
+            filled.put(entry.getKey(), owned.length);
+            tokensByServer.put(entry.getKey(), Arrays.copyOf(owned, owned.length + entry.getValue()));
+        }
+
+        for (int i = 0; i < added.length; i++) {
+            int serverId = added[i].server().id();
+            tokens[i] = hashFunction.hash(added[i].name());
+            ring.put(tokens[i], added[i]);
+            tokensByServer.get(serverId)[filled.merge(serverId, 1, Integer::sum) - 1] = tokens[i];
+        }
+        if (mode == Mode.COPY_ON_WRITE) {
+            published = published.merge(tokens, added);
+        } else {
+            published = null;
+        }
+        epoch++;
+    }
+
+    /**
+     * Hashes a request key onto the ring's key space.
+     *
+     * @param requestKey The key of the request.
+     * @return The hash used for placement.
+     */
+    @Override
+    public long hash(String requestKey) {
+        return hashFunction.hash(requestKey);
     }
 
     /**
@@ -49,26 +280,202 @@ public class HashRing {
      * @param requestKey The key of the request.
      * @return The virtual node that should handle the request.
      */
+    @Override
     public VirtualNode locate(String requestKey) {
         long hash = hashFunction.hash(requestKey);
-        Map.Entry<Long, VirtualNode> entry = ring.ceilingEntry(hash);
-        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+        if (mode == Mode.COPY_ON_WRITE) {
+            RingSnapshot snapshot = published;
+            return snapshot.node(snapshot.indexOf(hash));
+        }
+        NavigableMap<Long, VirtualNode> current = ring;
+        Map.Entry<Long, VirtualNode> entry = current.ceilingEntry(hash);
+        return entry != null ? entry.getValue() : current.firstEntry().getValue();
+    }
+
+    /**
+     * Locates the server that owns a hash without touching the virtual node objects in copy-on-write mode.
+     *
+     * @param hash The hash of the request key.
+     * @return The ID of the server that should handle the request.
+     */
+    @Override
+    public int locateServer(long hash) {
+        if (mode == Mode.COPY_ON_WRITE) {
+            return published.serverFor(hash);
+        }
+        NavigableMap<Long, VirtualNode> current = ring;
+        Map.Entry<Long, VirtualNode> entry = current.ceilingEntry(hash);
+        return (entry != null ? entry.getValue() : current.firstEntry().getValue()).server().id();
     }
 
     /**
-     * Removes a server from the ring.
+     * Locates the first server clockwise from a hash that the filter accepts.
+     *
+     * @param hash   The hash of the request key.
+     * @param accept The filter a server must pass to take the request.
+     * @return The ID of the first accepted server, or the owner if no server is accepted.
+     */
+    @Override
+    public int locateServer(long hash, IntPredicate accept) {
+        if (mode == Mode.COPY_ON_WRITE) {
+            return published.serverFor(hash, accept);
+        }
+        NavigableMap<Long, VirtualNode> current = ring;
+        int owner = -1;
+        for (NavigableMap<Long, VirtualNode> part : List.of(current.tailMap(hash, true), current.headMap(hash, false))) {
+            for (VirtualNode node : part.values()) {
+                int serverId = node.server().id();
+                if (owner < 0) owner = serverId;
+                if (accept.test(serverId)) return serverId;
+            }
+        }
+        if (owner < 0) throw new IllegalStateException("Hash ring is empty");
+        return owner;
+    }
+
+    /**
+     * Removes a server from the ring, touching only that server's own virtual nodes.
      *
      * @param serverId The ID of the server to remove.
      */
-    public void removeServer(int serverId) {
-        ring.entrySet().removeIf(e -> e.getValue().server().id() == serverId);
+    @Override
+    public synchronized void removeServer(int serverId) {
+        long[] tokens = tokensByServer.remove(serverId);
+        if (tokens == null) return;
+        for (long token : tokens) {
+            VirtualNode node = ring.get(token);
+            if (node != null && node.server().id() == serverId) ring.remove(token, node);
+        }
+        if (mode == Mode.COPY_ON_WRITE) {
+            published = published.without(serverId);
+        } else {
+            published = null;
+        }
+        epoch++;
+    }
+
+    /**
+     * Replaces a server's record and resizes its virtual nodes in place. Virtual nodes are named by index, so growing
+     * adds {@code <serverId>_<n>} onward and shrinking drops the highest indices; the rest keep their tokens.
+     *
+     * @param server       The updated server.
+     * @param virtualNodes The new number of virtual nodes.
+     */
+    @Override
+    public synchronized void updateServer(Server server, int virtualNodes) {
+        int serverId = server.id();
+        long[] tokens = tokensByServer.getOrDefault(serverId, new long[0]);
+        int keep = Math.min(tokens.length, virtualNodes);
+        for (int i = keep; i < tokens.length; i++) {
+            VirtualNode node = ring.get(tokens[i]);
+            if (node != null && node.server().id() == serverId) ring.remove(tokens[i], node);
+        }
+
+        long[] resized = Arrays.copyOf(tokens, virtualNodes);
+        List<VirtualNode> owned = new ArrayList<>(virtualNodes);
+        long[] ownedTokens = new long[virtualNodes];
+        for (int i = 0; i < virtualNodes; i++) {
+            VirtualNode node;
+            if (i < keep) {
+                VirtualNode current = ring.get(tokens[i]);
+                if (current == null || current.server().id() != serverId) continue;
+                node = new VirtualNode(server, current.name());
+            } else {
+                node = new VirtualNode(server, serverId + "_" + i);
+                resized[i] = hashFunction.hash(node.name());
+            }
+            ring.put(resized[i], node);
+            ownedTokens[owned.size()] = resized[i];
+            owned.add(node);
+        }
+        tokensByServer.put(serverId, resized);
+        if (mode == Mode.COPY_ON_WRITE) {
+            published = published.without(serverId).merge(Arrays.copyOf(ownedTokens, owned.size()), owned.toArray(new VirtualNode[0]));
+        } else {
+            published = null;
+        }
+        epoch++;
+    }
+
+    /**
+     * Replaces the whole membership at once. The new ring is built off to the side and published in a single step,
+     * so concurrent lookups see either the old ring or the new one, never an empty or partial ring.
+     *
+     * @param servers      The servers to place, in order.
+     * @param virtualNodes The number of virtual nodes for each server.
+     */
+    @Override
+    public synchronized void rebuild(Collection<Server> servers, ToIntFunction<Server> virtualNodes) {
+        ConcurrentSkipListMap<Long, VirtualNode> next = new ConcurrentSkipListMap<>();
+        Map<Integer, long[]> index = new HashMap<>();
+        for (Server server : servers) {
+            int count = virtualNodes.applyAsInt(server);
+            long[] tokens = new long[count];
+            int i = 0;
+            for (VirtualNode node : virtualNodes(server, 0, count)) {
+                tokens[i] = hashFunction.hash(node.name());
+                next.put(tokens[i++], node);
+            }
+            index.put(server.id(), tokens);
+        }
+        RingSnapshot snapshot = mode == Mode.COPY_ON_WRITE ? RingSnapshot.of(next) : null;
+        tokensByServer = index;
+        ring = next;
+        published = snapshot;
+        epoch++;
     }
 
     /**
      * Clears the ring.
      */
-    public void clear() {
-        ring.clear();
+    @Override
+    public synchronized void clear() {
+        tokensByServer = new HashMap<>();
+        ring = new ConcurrentSkipListMap<>();
+        published = RingSnapshot.EMPTY;
+        epoch++;
+    }
+
+    /**
+     * Returns the number of virtual nodes in the ring.
+     *
+     * @return The number of virtual nodes.
+     */
+    @Override
+    public int size() {
+        return ring.size();
+    }
+
+    /**
+     * Returns the membership epoch.
+     *
+     * @return The current epoch.
+     */
+    @Override
+    public long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Returns the servers that currently own positions, ordered by ID.
+     *
+     * @return The servers.
+     */
+    public List<Server> servers() {
+        Map<Integer, Server> servers = new TreeMap<>();
+        for (VirtualNode node : ring.values()) servers.putIfAbsent(node.server().id(), node.server());
+        return List.copyOf(servers.values());
+    }
+
+    /**
+     * Returns the number of virtual nodes a server has been given.
+     *
+     * @param serverId The ID of the server.
+     * @return The number of virtual nodes, or {@code 0} if the server is not on the ring.
+     */
+    public synchronized int virtualNodes(int serverId) {
+        long[] tokens = tokensByServer.get(serverId);
+        return tokens == null ? 0 : tokens.length;
     }
 
     /**
@@ -79,4 +486,89 @@ public class HashRing {
     public NavigableMap<Long, VirtualNode> snapshot() {
         return Collections.unmodifiableNavigableMap(ring);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns an immutable array snapshot of the ring.
+     * In copy-on-write mode this is the published snapshot; otherwise it is built from the skip-list on first use after
+     * a write and reused until the next one.
+     *
+     * @return The array snapshot.
+     */
+    public RingSnapshot arraySnapshot() {
+        RingSnapshot snapshot = published;
+        return snapshot != null ? snapshot : buildSnapshot();
+    }
+
+    /**
+     * Locates the preference list of a hash through the array snapshot's successor table, in either mode.
+     *
+     * @param hash The hash of the request key.
+     * @param n    The number of distinct servers wanted.
+     * @param out  Receives the server IDs, owner first.
+     * @return The number of servers written.
+     */
+    @Override
+    public int locateN(long hash, int n, int[] out) {
+        return arraySnapshot().serversFor(hash, n, out);
+    }
+
+    /**
+     * Returns the array snapshot as an immutable placement.
+     *
+     * @return The placement.
+     */
+    @Override
+    public Placement placement() {
+        return arraySnapshot();
+    }
+
+    /**
+     * Returns the lookup structure used by this ring.
+     *
+     * @return The mode.
+     */
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * Builds the skip-list mode snapshot under the ring lock, so a concurrent write cannot leave a stale one behind.
+     */
+    private synchronized RingSnapshot buildSnapshot() {
+        RingSnapshot snapshot = published;
+        if (snapshot == null) {
+            snapshot = RingSnapshot.of(ring);
+            published = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Creates a range of a server's virtual nodes, named {@code <serverId>_<index>}.
+     */
+    private static List<VirtualNode> virtualNodes(Server server, int from, int to) {
+        List<VirtualNode> nodes = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            nodes.add(new VirtualNode(server, server.id() + "_" + i));
+        }
+        return nodes;
+    }
+
+    /**
+     * Returns the index of a virtual node named {@code <serverId>_<index>}.
+     *
+     * @throws IllegalStateException if the node does not follow that convention.
+     */
+    private static int vnodeIndex(VirtualNode node) {
+        String prefix = node.server().id() + "_";
+        String name = node.name();
+        if (name.startsWith(prefix)) {
+            try {
+                return Integer.parseInt(name, prefix.length(), name.length(), 10);
+            } catch (NumberFormatException ignored) {
+                // Fall through to the error below.
+            }
+        }
+        throw new IllegalStateException("Cannot save virtual node " + name + "; names must be <serverId>_<index>");
+    }
+}
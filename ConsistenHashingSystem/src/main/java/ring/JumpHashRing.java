@@ -0,0 +1,296 @@
+package ring;
+
+import domain.Server;
+import domain.VirtualNode;
+import hashing.HashFunction;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * A ring that places keys with Jump Consistent Hash (Lamping and Veach).
+ * Servers occupy numbered buckets and a key's bucket is computed in O(log n) time with no lookup table and no virtual
+ * nodes, so memory is O(servers). Appending a server moves only the keys that now belong to it; removing any server
+ * other than the last moves the last bucket's server into the vacated slot, which also remaps that server's keys.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class JumpHashRing implements Ring {
+
+    /**
+     * The hash function used to hash the keys.
+     */
+    private final HashFunction hashFunction;
+
+    /**
+     * The current bucket assignment, replaced as a whole on every membership change.
+     */
+    private volatile Buckets buckets = new Buckets(new int[0], new VirtualNode[0]);
+
+    /**
+     * The membership epoch, incremented under the ring lock after each new assignment is published.
+     */
+    private volatile long epoch;
+
+    /**
+     * Constructs a new JumpHashRing.
+     *
+     * @param hashFunction The hash function to use.
+     */
+    public JumpHashRing(HashFunction hashFunction) {
+        this.hashFunction = hashFunction;
+    }
+
+    /**
+     * Appends a server as the next bucket.
+     *
+     * @param server       The server to add.
+     * @param virtualNodes Ignored; every server owns exactly one bucket.
+     */
+    @Override
+    public synchronized void addServer(Server server, int virtualNodes) {
+        Buckets current = buckets;
+        int n = current.serverIds.length;
+        int[] serverIds = Arrays.copyOf(current.serverIds, n + 1);
+        VirtualNode[] nodes = Arrays.copyOf(current.nodes, n + 1);
+        serverIds[n] = server.id();
+        nodes[n] = new VirtualNode(server, "bucket_" + n);
+        buckets = new Buckets(serverIds, nodes);
+        epoch++;
+    }
+
+    /**
+     * Removes a server, filling its bucket with the server from the last bucket.
+     *
+     * @param serverId The ID of the server to remove.
+     */
+    @Override
+    public synchronized void removeServer(int serverId) {
+        Buckets current = buckets;
+        int n = current.serverIds.length;
+        int index = -1;
+        for (int i = 0; i < n; i++) {
+            if (current.serverIds[i] == serverId) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) return;
+
+        int[] serverIds = Arrays.copyOf(current.serverIds, n - 1);
+        VirtualNode[] nodes = Arrays.copyOf(current.nodes, n - 1);
+        if (index < n - 1) {
+            serverIds[index] = current.serverIds[n - 1];
+            nodes[index] = new VirtualNode(current.nodes[n - 1].server(), "bucket_" + index);
+        }
+        buckets = new Buckets(serverIds, nodes);
+        epoch++;
+    }
+
+    /**
+     * Replaces a server's record in its bucket. Jump hashing gives every bucket an equal share, so weights are ignored.
+     *
+     * @param server       The updated server.
+     * @param virtualNodes Ignored; every server owns exactly one bucket.
+     */
+    @Override
+    public synchronized void updateServer(Server server, int virtualNodes) {
+        Buckets current = buckets;
+        for (int i = 0; i < current.serverIds.length; i++) {
+            if (current.serverIds[i] != server.id()) continue;
+            VirtualNode[] nodes = current.nodes.clone();
+            nodes[i] = new VirtualNode(server, nodes[i].name());
+            buckets = new Buckets(current.serverIds, nodes);
+            epoch++;
+            return;
+        }
+    }
+
+    /**
+     * Hashes a request key onto the ring's key space.
+     *
+     * @param requestKey The key of the request.
+     * @return The hash used for placement.
+     */
+    @Override
+    public long hash(String requestKey) {
+        return hashFunction.hash(requestKey);
+    }
+
+    /**
+     * Locates the bucket's virtual node for a given request key.
+     *
+     * @param requestKey The key of the request.
+     * @return The virtual node that should handle the request.
+     * @throws IllegalStateException if the ring is empty.
+     */
+    @Override
+    public VirtualNode locate(String requestKey) {
+        Buckets current = buckets;
+        return current.nodes[bucket(hashFunction.hash(requestKey), current.serverIds.length)];
+    }
+
+    /**
+     * Locates the server that owns a hash.
+     *
+     * @param hash The hash of the request key.
+     * @return The ID of the server that should handle the request.
+     * @throws IllegalStateException if the ring is empty.
+     */
+    @Override
+    public int locateServer(long hash) {
+        return buckets.serverFor(hash);
+    }
+
+    /**
+     * Locates the first server from a hash's bucket onward, in bucket order, that the filter accepts.
+     *
+     * @param hash   The hash of the request key.
+     * @param accept The filter a server must pass to take the request.
+     * @return The ID of the first accepted server, or the owner if no server is accepted.
+     * @throws IllegalStateException if the ring is empty.
+     */
+    @Override
+    public int locateServer(long hash, IntPredicate accept) {
+        return buckets.serverFor(hash, accept);
+    }
+
+    /**
+     * Returns the membership epoch.
+     *
+     * @return The current epoch.
+     */
+    @Override
+    public long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Returns the current bucket assignment as an immutable placement.
+     *
+     * @return The placement.
+     */
+    @Override
+    public Placement placement() {
+        return buckets;
+    }
+
+    /**
+     * Replaces the whole membership, assigning buckets in the given order.
+     *
+     * @param servers      The servers to place, in bucket order.
+     * @param virtualNodes Ignored; every server owns exactly one bucket.
+     */
+    @Override
+    public synchronized void rebuild(Collection<Server> servers, ToIntFunction<Server> virtualNodes) {
+        int[] serverIds = new int[servers.size()];
+        VirtualNode[] nodes = new VirtualNode[servers.size()];
+        int i = 0;
+        for (Server server : servers) {
+            serverIds[i] = server.id();
+            nodes[i] = new VirtualNode(server, "bucket_" + i);
+            i++;
+        }
+        buckets = new Buckets(serverIds, nodes);
+        epoch++;
+    }
+
+    /**
+     * Removes every server from the ring.
+     */
+    @Override
+    public synchronized void clear() {
+        buckets = new Buckets(new int[0], new VirtualNode[0]);
+        epoch++;
+    }
+
+    /**
+     * Returns the number of buckets.
+     *
+     * @return The number of buckets.
+     */
+    @Override
+    public int size() {
+        return buckets.serverIds.length;
+    }
+
+    @Override
+    public String toString() {
+        return "JumpHashRing[buckets=" + Arrays.toString(buckets.serverIds) + "]";
+    }
+
+    /**
+     * Computes the Jump Consistent Hash bucket of a key.
+     *
+     * @param key     The hashed key.
+     * @param buckets The number of buckets.
+     * @return The bucket in {@code [0, buckets)}.
+     * @throws IllegalStateException if there are no buckets.
+     */
+    static int bucket(long key, int buckets) {
+        if (buckets == 0) throw new IllegalStateException("Hash ring is empty");
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    /**
+     * The immutable bucket-to-server assignment.
+     *
+     * @param serverIds The server ID owning each bucket.
+     * @param nodes     The virtual node representing each bucket.
+     */
+    private record Buckets(int[] serverIds, VirtualNode[] nodes) implements Placement {
+
+        @Override
+        public int serverFor(long hash) {
+            return serverIds[bucket(hash, serverIds.length)];
+        }
+
+        @Override
+        public int serverFor(long hash, IntPredicate accept) {
+            int n = serverIds.length;
+            int start = bucket(hash, n);
+            for (int i = start, step = 0; step < n; step++) {
+                if (accept.test(serverIds[i])) return serverIds[i];
+                if (++i == n) i = 0;
+            }
+            return serverIds[start];
+        }
+
+        @Override
+        public int serversFor(long hash, int n, int[] out) {
+            if (n < 0 || out.length < n) throw new IllegalArgumentException("Cannot write " + n + " servers into " + out.length + " slots");
+            if (n == 0) return 0;
+            int size = serverIds.length;
+            int count = Math.min(n, size);
+            // Every bucket belongs to a different server, so the next buckets in order are already distinct.
+            for (int i = bucket(hash, size), k = 0; k < count; k++) {
+                out[k] = serverIds[i];
+                if (++i == size) i = 0;
+            }
+            return count;
+        }
+
+        /**
+         * Returns an equal share for every server, since jump hashing spreads keys uniformly over its buckets.
+         */
+        @Override
+        public Map<Integer, Double> ownership() {
+            TreeMap<Integer, Double> fractions = new TreeMap<>();
+            for (int serverId : serverIds) fractions.put(serverId, 1.0 / serverIds.length);
+            return Collections.unmodifiableSortedMap(fractions);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package ring;
+
+import domain.Server;
+import domain.VirtualNode;
+import hashing.HashFunction;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * A ring that places keys with Maglev hashing (Eisenbud et al.).
+ * Every server walks its own permutation of a fixed-size prime lookup table and the servers take turns claiming slots
+ * until the table is full, each claiming as many slots per turn as its weight. A lookup is a single array index, and
+ * every server's share of slots is almost exactly proportional to its weight. Weights that add up to more slots than
+ * the table has are scaled down to fit, so every server keeps at least one slot. Membership changes rebuild the table
+ * off to the side and publish it atomically.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class MaglevRing implements Ring {
+
+    /**
+     * The default lookup table size, a prime large enough for a few hundred servers.
+     */
+    public static final int DEFAULT_TABLE_SIZE = 65_537;
+
+    /**
+     * The hash function used to hash the keys and the server permutations.
+     */
+    private final HashFunction hashFunction;
+
+    /**
+     * The prime number of slots in the lookup table.
+     */
+    private final int tableSize;
+
+    /**
+     * The current members ordered by ID, guarded by this ring's lock.
+     */
+    private final TreeMap<Integer, Server> members = new TreeMap<>();
+
+    /**
+     * The current lookup table, replaced as a whole on every membership change.
+     */
+    private volatile Table table = Table.EMPTY;
+
+    /**
+     * The membership epoch, incremented under the ring lock after each new table is published.
+     */
+    private volatile long epoch;
+
+    /**
+     * Constructs a new MaglevRing with the default table size.
+     *
+     * @param hashFunction The hash function to use.
+     */
+    public MaglevRing(HashFunction hashFunction) {
+        this(hashFunction, DEFAULT_TABLE_SIZE);
+    }
+
+    /**
+     * Constructs a new MaglevRing.
+     *
+     * @param hashFunction The hash function to use.
+     * @param tableSize    The number of slots in the lookup table.
+     * @throws IllegalArgumentException if the table size is not prime.
+     */
+    public MaglevRing(HashFunction hashFunction, int tableSize) {
+        if (tableSize < 2 || !BigInteger.valueOf(tableSize).isProbablePrime(30)) {
+            throw new IllegalArgumentException("Maglev table size must be prime: " + tableSize);
+        }
+        this.hashFunction = hashFunction;
+        this.tableSize = tableSize;
+    }
+
+    /**
+     * Adds a server and rebuilds the lookup table.
+     *
+     * @param server       The server to add.
+     * @param virtualNodes Ignored; servers claim table slots in proportion to their weight.
+     * @throws IllegalStateException if the table has fewer slots than servers.
+     */
+    @Override
+    public synchronized void addServer(Server server, int virtualNodes) {
+        if (members.size() >= tableSize) throw new IllegalStateException("Maglev table is smaller than the server count");
+        members.put(server.id(), server);
+        publish();
+    }
+
+    /**
+     * Replaces a server's record and rebuilds the lookup table with its new weight.
+     *
+     * @param server       The updated server.
+     * @param virtualNodes Ignored; servers claim table slots in proportion to their weight.
+     */
+    @Override
+    public synchronized void updateServer(Server server, int virtualNodes) {
+        if (members.replace(server.id(), server) != null) publish();
+    }
+
+    /**
+     * Removes a server and rebuilds the lookup table.
+     *
+     * @param serverId The ID of the server to remove.
+     */
+    @Override
+    public synchronized void removeServer(int serverId) {
+        if (members.remove(serverId) != null) publish();
+    }
+
+    /**
+     * Hashes a request key onto the ring's key space.
+     *
+     * @param requestKey The key of the request.
+     * @return The hash used for placement.
+     */
+    @Override
+    public long hash(String requestKey) {
+        return hashFunction.hash(requestKey);
+    }
+
+    /**
+     * Locates the virtual node for a given request key.
+     *
+     * @param requestKey The key of the request.
+     * @return The virtual node that should handle the request.
+     * @throws IllegalStateException if the ring is empty.
+     */
+    @Override
+    public VirtualNode locate(String requestKey) {
+        Table current = table;
+        return current.nodes[current.slot(hashFunction.hash(requestKey))];
+    }
+
+    /**
+     * Locates the server that owns a hash.
+     *
+     * @param hash The hash of the request key.
+     * @return The ID of the server that should handle the request.
+     * @throws IllegalStateException if the ring is empty.
+     */
+    @Override
+    public int locateServer(long hash) {
+        return table.serverFor(hash);
+    }
+
+    /**
+     * Locates the first server from a hash's slot onward, in table order, that the filter accepts.
+     *
+     * @param hash   The hash of the request key.
+     * @param accept The filter a server must pass to take the request.
+     * @return The ID of the first accepted server, or the owner if no server is accepted.
+     * @throws IllegalStateException if the ring is empty.
+     */
+    @Override
+    public int locateServer(long hash, IntPredicate accept) {
+        return table.serverFor(hash, accept);
+    }
+
+    /**
+     * Returns the membership epoch.
+     *
+     * @return The current epoch.
+     */
+    @Override
+    public long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Returns the current lookup table as an immutable placement.
+     *
+     * @return The placement.
+     */
+    @Override
+    public Placement placement() {
+        return table;
+    }
+
+    /**
+     * Replaces the whole membership and publishes one lookup table for it.
+     *
+     * @param servers      The servers to place.
+     * @param virtualNodes Ignored; servers claim table slots in proportion to their weight.
+     * @throws IllegalStateException if the table has fewer slots than servers.
+     */
+    @Override
+    public synchronized void rebuild(Collection<Server> servers, ToIntFunction<Server> virtualNodes) {
+        if (servers.size() > tableSize) throw new IllegalStateException("Maglev table is smaller than the server count");
+        members.clear();
+        for (Server server : servers) members.put(server.id(), server);
+        publish();
+    }
+
+    /**
+     * Removes every server from the ring.
+     */
+    @Override
+    public synchronized void clear() {
+        members.clear();
+        table = Table.EMPTY;
+        epoch++;
+    }
+
+    /**
+     * Returns the number of slots in the lookup table.
+     *
+     * @return The table size.
+     */
+    @Override
+    public int size() {
+        return tableSize;
+    }
+
+    @Override
+    public String toString() {
+        return "MaglevRing[tableSize=" + tableSize + ", servers=" + table.serverIds.length + "]";
+    }
+
+    /**
+     * Rebuilds the lookup table from the current members and publishes it. Must be called while holding the ring lock.
+     */
+    private void publish() {
+        int n = members.size();
+        if (n == 0) {
+            table = Table.EMPTY;
+            epoch++;
+            return;
+        }
+
+        int[] serverIds = new int[n];
+        VirtualNode[] nodes = new VirtualNode[n];
+        long[] offset = new long[n];
+        long[] skip = new long[n];
+        int[] weight = new int[n];
+        long totalWeight = 0;
+        int i = 0;
+        for (Server server : members.values()) {
+            serverIds[i] = server.id();
+            nodes[i] = new VirtualNode(server, "maglev_" + server.id());
+            offset[i] = hashFunction.hash("maglev-offset-" + server.id()) % tableSize;
+            skip[i] = hashFunction.hash("maglev-skip-" + server.id()) % (tableSize - 1) + 1;
+            weight[i] = server.weight();
+            totalWeight += weight[i];
+            i++;
+        }
+        if (totalWeight > tableSize) scaleToFit(weight, totalWeight);
+
+        int[] entry = new int[tableSize];
+        Arrays.fill(entry, -1);
+        long[] next = new long[n];
+        int filled = 0;
+        while (true) {
+            for (i = 0; i < n; i++) {
+                for (int turn = 0; turn < weight[i]; turn++) {
+                    int slot = (int) ((offset[i] + next[i] * skip[i]) % tableSize);
+                    while (entry[slot] >= 0) {
+                        next[i]++;
+                        slot = (int) ((offset[i] + next[i] * skip[i]) % tableSize);
+                    }
+                    entry[slot] = i;
+                    next[i]++;
+                    if (++filled == tableSize) {
+                        table = new Table(entry, serverIds, nodes);
+                        epoch++;
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Scales weights down so they add up to at most the table size, keeping every weight at least one. The first turn
+     * would otherwise fill the table before the last servers claim anything. Must be called with fewer servers than
+     * slots.
+     */
+    private void scaleToFit(int[] weight, long totalWeight) {
+        // Scaling to the slots left after one per server leaves room to round every weight up to one.
+        long budget = tableSize - weight.length;
+        for (int i = 0; i < weight.length; i++) weight[i] = (int) Math.max(1, weight[i] * budget / totalWeight);
+    }
+
+    /**
+     * The immutable lookup table.
+     *
+     * @param entry     The member index owning each slot.
+     * @param serverIds The server ID of each member.
+     * @param nodes     The virtual node representing each member.
+     */
+    private record Table(int[] entry, int[] serverIds, VirtualNode[] nodes) implements Placement {
+
+        /**
+         * The table of a ring with no servers.
+         */
+        private static final Table EMPTY = new Table(new int[0], new int[0], new VirtualNode[0]);
+
+        /**
+         * Returns the member index that owns a hash.
+         *
+         * @throws IllegalStateException if the table is empty.
+         */
+        private int slot(long hash) {
+            if (entry.length == 0) throw new IllegalStateException("Hash ring is empty");
+            return entry[(int) (hash % entry.length)];
+        }
+
+        @Override
+        public int serverFor(long hash) {
+            return serverIds[slot(hash)];
+        }
+
+        @Override
+        public int serverFor(long hash, IntPredicate accept) {
+            if (entry.length == 0) throw new IllegalStateException("Hash ring is empty");
+            int start = (int) (hash % entry.length);
+            // Only the last rejected member is remembered, so routing never allocates; a member met again is re-tested.
+            int rejected = -1;
+            for (int slot = start, step = 0; step < entry.length; step++) {
+                int member = entry[slot];
+                if (member != rejected) {
+                    if (accept.test(serverIds[member])) return serverIds[member];
+                    rejected = member;
+                }
+                if (++slot == entry.length) slot = 0;
+            }
+            return serverIds[entry[start]];
+        }
+
+        @Override
+        public int serversFor(long hash, int n, int[] out) {
+            if (n < 0 || out.length < n) throw new IllegalArgumentException("Cannot write " + n + " servers into " + out.length + " slots");
+            if (n == 0) return 0;
+            out[0] = serverIds[slot(hash)];
+            int start = (int) (hash % entry.length);
+            int wanted = Math.min(n, serverIds.length);
+            int count = 1;
+            // Permutations interleave members across the table, so distinct servers turn up within a few slots. The
+            // scan stops after one pass, so a member owning no slot cannot stall it.
+            int slot = start;
+            for (int step = 1; step < entry.length && count < wanted; step++) {
+                if (++slot == entry.length) slot = 0;
+                int serverId = serverIds[entry[slot]];
+                boolean seen = false;
+                for (int k = 0; k < count && !seen; k++) seen = out[k] == serverId;
+                if (!seen) out[count++] = serverId;
+            }
+            return count;
+        }
+
+        /**
+         * Returns each server's share of the lookup table's slots, since every slot receives an equal share of hashes.
+         */
+        @Override
+        public Map<Integer, Double> ownership() {
+            int[] slots = new int[serverIds.length];
+            for (int member : entry) slots[member]++;
+            TreeMap<Integer, Double> fractions = new TreeMap<>();
+            for (int i = 0; i < serverIds.length; i++) fractions.put(serverIds[i], (double) slots[i] / entry.length);
+            return Collections.unmodifiableSortedMap(fractions);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package ring;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The hash ranges that change owner between two ring snapshots.
+ * <p>
+ * A token owns the hashes from just after the previous token up to and including itself, and the first token also
+ * owns the wrap-around range past the last token. Diffing two snapshots therefore only needs one merge pass over
+ * their sorted tokens, and yields a short list of inclusive {@code [rangeStart, rangeEnd]} moves that tooling can act
+ * on without rehashing every stored key.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class MigrationPlan {
+
+    /**
+     * The largest hash on the ring's non-negative key space.
+     */
+    private static final long MAX_HASH = Long.MAX_VALUE;
+
+    /**
+     * The plan with no moves.
+     */
+    public static final MigrationPlan EMPTY = new MigrationPlan(new long[0], new long[0], new int[0], new int[0]);
+
+    /**
+     * The first hash of each moved range, in ascending order.
+     */
+    private final long[] starts;
+
+    /**
+     * The last hash of each moved range, inclusive.
+     */
+    private final long[] ends;
+
+    /**
+     * The server that owned each range before the change.
+     */
+    private final int[] fromServers;
+
+    /**
+     * The server that owns each range after the change.
+     */
+    private final int[] toServers;
+
+    /**
+     * One contiguous range of hashes that moves from one server to another.
+     *
+     * @param rangeStart The first hash of the range.
+     * @param rangeEnd   The last hash of the range, inclusive.
+     * @param fromServer The server that owned the range before the change.
+     * @param toServer   The server that owns the range after the change.
+     */
+    public record RangeMove(long rangeStart, long rangeEnd, int fromServer, int toServer) {
+    }
+
+    /**
+     * A key whose owner changes.
+     *
+     * @param key        The key.
+     * @param fromServer The server that owned the key before the change.
+     * @param toServer   The server that owns the key after the change.
+     */
+    public record KeyMove(String key, int fromServer, int toServer) {
+    }
+
+    /**
+     * Constructs a new MigrationPlan. The arrays are owned by the plan and must not be modified afterward.
+     */
+    private MigrationPlan(long[] starts, long[] ends, int[] fromServers, int[] toServers) {
+        this.starts = starts;
+        this.ends = ends;
+        this.fromServers = fromServers;
+        this.toServers = toServers;
+    }
+
+    /**
+     * Diffs two ring snapshots in a single merge pass over their tokens.
+     * If either snapshot is empty there is nothing to move from or nowhere to move to, and the plan is empty.
+     *
+     * @param before The ring before the membership change.
+     * @param after  The ring after the membership change.
+     * @return The moved ranges, with adjacent ranges of the same move coalesced.
+     */
+    public static MigrationPlan between(RingSnapshot before, RingSnapshot after) {
+        int n = before.size();
+        int m = after.size();
+        if (n == 0 || m == 0) return EMPTY;
+
+        int capacity = n + m + 1;
+        long[] starts = new long[capacity];
+        long[] ends = new long[capacity];
+        int[] from = new int[capacity];
+        int[] to = new int[capacity];
+        int count = 0;
+
+        int i = 0;
+        int j = 0;
+        long start = 0;
+        while (true) {
+            // The segment ends at the next token of either ring; past the last token both rings wrap to index 0.
+            long end;
+            if (i < n && (j >= m || before.token(i) <= after.token(j))) {
+                end = before.token(i);
+            } else if (j < m) {
+                end = after.token(j);
+            } else {
+                end = MAX_HASH;
+            }
+            int owner = i < n ? before.serverId(i) : before.serverId(0);
+            int next = j < m ? after.serverId(j) : after.serverId(0);
+            if (owner != next) {
+                if (count > 0 && ends[count - 1] == start - 1 && from[count - 1] == owner && to[count - 1] == next) {
+                    ends[count - 1] = end;
+                } else {
+                    starts[count] = start;
+                    ends[count] = end;
+                    from[count] = owner;
+                    to[count] = next;
+                    count++;
+                }
+            }
+            if (end == MAX_HASH) break;
+            start = end + 1;
+            while (i < n && before.token(i) <= end) i++;
+            while (j < m && after.token(j) <= end) j++;
+        }
+        return new MigrationPlan(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count), Arrays.copyOf(from, count), Arrays.copyOf(to, count));
+    }
+
+    /**
+     * Returns the moved ranges in ascending hash order.
+     *
+     * @return An unmodifiable list view of the moves.
+     */
+    public List<RangeMove> moves() {
+        return new AbstractList<>() {
+            @Override
+            public RangeMove get(int index) {
+                return new RangeMove(starts[index], ends[index], fromServers[index], toServers[index]);
+            }
+
+            @Override
+            public int size() {
+                return starts.length;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of moved ranges.
+     *
+     * @return The number of moves.
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Returns the fraction of the key space that changes owner.
+     *
+     * @return The moved fraction, between 0 and 1.
+     */
+    public double movedFraction() {
+        double moved = 0;
+        for (int k = 0; k < starts.length; k++) {
+            moved += (double) (ends[k] - starts[k]) + 1;
+        }
+        return moved / ((double) MAX_HASH + 1);
+    }
+
+    /**
+     * Returns the server a hash moves to.
+     *
+     * @param hash The hash of a key.
+     * @return The new owner, or {@code -1} if the hash does not move.
+     */
+    public int destination(long hash) {
+        int k = rangeOf(hash);
+        return k < 0 ? -1 : toServers[k];
+    }
+
+    /**
+     * Returns the server a hash moves away from.
+     *
+     * @param hash The hash of a key.
+     * @return The old owner, or {@code -1} if the hash does not move.
+     */
+    public int source(long hash) {
+        int k = rangeOf(hash);
+        return k < 0 ? -1 : fromServers[k];
+    }
+
+    /**
+     * Streams out only the keys that must move, classifying them in parallel.
+     * Each key costs one hash and one binary search over the moved ranges, not a lookup in either ring.
+     *
+     * @param keys   The keys currently stored.
+     * @param hasher The function that places a key on the ring, normally the ring's own hash.
+     * @return A parallel stream of the keys that change owner.
+     */
+    public Stream<KeyMove> movedKeys(Iterator<String> keys, ToLongFunction<String> hasher) {
+        if (starts.length == 0) return Stream.empty();
+        Spliterator<String> source = Spliterators.spliteratorUnknownSize(keys, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(source, true)
+                .<KeyMove>mapMulti((key, sink) -> {
+                    int k = rangeOf(hasher.applyAsLong(key));
+                    if (k >= 0) sink.accept(new KeyMove(key, fromServers[k], toServers[k]));
+                });
+    }
+
+    /**
+     * Returns the index of the moved range containing a hash, or {@code -1} if none does.
+     */
+    private int rangeOf(long hash) {
+        int low = 0;
+        int high = starts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] > hash) high = mid - 1;
+            else if (ends[mid] < hash) low = mid + 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MigrationPlan{moves=%d, movedFraction=%.4f}", starts.length, movedFraction());
+    }
+}
@@ -0,0 +1,55 @@
+package ring;
+
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * An immutable view of where a ring places hashes at one point in time.
+ * Holding on to a placement lets a caller route many keys against the same membership even while the ring changes.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public interface Placement {
+
+    /**
+     * Returns the ID of the server that owns a hash.
+     *
+     * @param hash The hash of the request key.
+     * @return The owning server ID.
+     * @throws IllegalStateException if the placement has no servers.
+     */
+    int serverFor(long hash);
+
+    /**
+     * Returns the ID of the first server, walking from the owner of a hash, that the filter accepts.
+     *
+     * @param hash   The hash of the request key.
+     * @param accept The filter a server must pass.
+     * @return The accepted server ID, or the owner if no server is accepted.
+     * @throws IllegalStateException if the placement has no servers.
+     */
+    int serverFor(long hash, IntPredicate accept);
+
+    /**
+     * Writes the preference list of a hash: its owner followed by the next distinct servers in placement order.
+     * Implementations do not allocate on this path.
+     *
+     * @param hash The hash of the request key.
+     * @param n    The number of distinct servers wanted.
+     * @param out  Receives the server IDs, owner first.
+     * @return The number of servers written, which is less than {@code n} only if the placement has fewer servers.
+     * @throws IllegalArgumentException if {@code n} is negative or {@code out} is shorter than {@code n}.
+     * @throws IllegalStateException    if the placement has no servers.
+     */
+    int serversFor(long hash, int n, int[] out);
+
+    /**
+     * Returns the exact fraction of the hash space each server owns, computed from the placement itself rather than by
+     * routing sample keys. Hashes are assumed to be spread uniformly over the non-negative longs, which is what the
+     * built-in hash functions produce.
+     *
+     * @return The fractions keyed by server ID in ascending order, summing to one, or an empty map if there are no servers.
+     */
+    Map<Integer, Double> ownership();
+}
@@ -0,0 +1,161 @@
+package ring;
+
+import domain.Server;
+import domain.VirtualNode;
+
+import java.util.Collection;
+import java.util.function.IntPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * A placement strategy that maps request keys onto servers.
+ * Implementations trade memory, lookup cost and disruption on membership change differently.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public interface Ring {
+
+    /**
+     * Adds a server to the ring.
+     *
+     * @param server       The server to add.
+     * @param virtualNodes The number of virtual nodes to give the server; ignored by strategies without virtual nodes.
+     */
+    void addServer(Server server, int virtualNodes);
+
+    /**
+     * Replaces a server's record, for example after a weight change, and resizes its virtual nodes in place.
+     * Existing virtual nodes keep their positions; only the added or dropped ones move keys.
+     *
+     * @param server       The updated server, identified by its ID.
+     * @param virtualNodes The new number of virtual nodes; ignored by strategies without virtual nodes.
+     */
+    void updateServer(Server server, int virtualNodes);
+
+    /**
+     * Removes a server from the ring.
+     *
+     * @param serverId The ID of the server to remove.
+     */
+    void removeServer(int serverId);
+
+    /**
+     * Hashes a request key onto the ring's key space.
+     *
+     * @param requestKey The key of the request.
+     * @return The hash used for placement.
+     */
+    long hash(String requestKey);
+
+    /**
+     * Locates the virtual node for a given request key.
+     *
+     * @param requestKey The key of the request.
+     * @return The virtual node that should handle the request.
+     */
+    VirtualNode locate(String requestKey);
+
+    /**
+     * Locates the server for a given request key.
+     *
+     * @param requestKey The key of the request.
+     * @return The ID of the server that should handle the request.
+     */
+    default int locateServer(String requestKey) {
+        return locateServer(hash(requestKey));
+    }
+
+    /**
+     * Locates the server that owns an already hashed key.
+     *
+     * @param hash The hash returned by {@link #hash(String)}.
+     * @return The ID of the server that should handle the request.
+     */
+    int locateServer(long hash);
+
+    /**
+     * Locates the server for a given request key, walking clockwise from the owning position past every server the
+     * filter rejects. If no server is accepted, the owner is returned.
+     *
+     * @param requestKey The key of the request.
+     * @param accept     The filter a server must pass to take the request.
+     * @return The ID of the first accepted server.
+     */
+    default int locateServer(String requestKey, IntPredicate accept) {
+        return locateServer(hash(requestKey), accept);
+    }
+
+    /**
+     * Locates the first server the filter accepts, walking clockwise from the owner of an already hashed key.
+     *
+     * @param hash   The hash returned by {@link #hash(String)}.
+     * @param accept The filter a server must pass to take the request.
+     * @return The ID of the first accepted server, or the owner if no server is accepted.
+     */
+    int locateServer(long hash, IntPredicate accept);
+
+    /**
+     * Locates the preference list of a key: its owner followed by the next distinct servers clockwise.
+     *
+     * @param requestKey The key of the request.
+     * @param n          The number of distinct servers wanted, for example the replication factor.
+     * @param out        Receives the server IDs, owner first.
+     * @return The number of servers written, which is less than {@code n} only if the ring has fewer servers.
+     * @throws IllegalArgumentException if {@code n} is negative or {@code out} is shorter than {@code n}.
+     * @throws IllegalStateException    if the ring is empty.
+     */
+    default int locateN(String requestKey, int n, int[] out) {
+        return locateN(hash(requestKey), n, out);
+    }
+
+    /**
+     * Locates the preference list of an already hashed key.
+     *
+     * @param hash The hash returned by {@link #hash(String)}.
+     * @param n    The number of distinct servers wanted.
+     * @param out  Receives the server IDs, owner first.
+     * @return The number of servers written.
+     * @throws IllegalArgumentException if {@code n} is negative or {@code out} is shorter than {@code n}.
+     * @throws IllegalStateException    if the ring is empty.
+     */
+    default int locateN(long hash, int n, int[] out) {
+        return placement().serversFor(hash, n, out);
+    }
+
+    /**
+     * Returns the membership epoch. It is incremented after every membership change has been published, so anything
+     * computed after reading an epoch reflects at least that epoch's membership.
+     *
+     * @return The current epoch.
+     */
+    long epoch();
+
+    /**
+     * Returns an immutable view of the current placement.
+     *
+     * @return The placement.
+     */
+    Placement placement();
+
+    /**
+     * Replaces the whole membership at once. The new placement is built off to the side and published in a single
+     * step, so concurrent lookups never observe an empty or partially built ring.
+     *
+     * @param servers      The servers to place, in order.
+     * @param virtualNodes The number of virtual nodes for each server; ignored by strategies without virtual nodes.
+     */
+    void rebuild(Collection<Server> servers, ToIntFunction<Server> virtualNodes);
+
+    /**
+     * Removes every server from the ring.
+     */
+    void clear();
+
+    /**
+     * Returns the number of placement positions in the ring (virtual nodes, buckets or table slots).
+     *
+     * @return The number of positions.
+     */
+    int size();
+}
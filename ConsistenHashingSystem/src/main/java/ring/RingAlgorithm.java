@@ -0,0 +1,43 @@
+package ring;
+
+import hashing.HashFunction;
+
+/**
+ * The placement strategies a consistent hashing system can be built on.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public enum RingAlgorithm {
+    /**
+     * A virtual node ring looked up through a concurrent skip-list.
+     */
+    HASH_RING,
+    /**
+     * A virtual node ring looked up through copy-on-write primitive arrays.
+     */
+    COPY_ON_WRITE_HASH_RING,
+    /**
+     * Jump Consistent Hash: O(servers) memory and no virtual nodes.
+     */
+    JUMP,
+    /**
+     * Maglev hashing: a fixed-size prime lookup table with O(1) lookups.
+     */
+    MAGLEV;
+
+    /**
+     * Creates an empty ring of this algorithm.
+     *
+     * @param hashFunction The hash function the ring should use.
+     * @return The new ring.
+     */
+    public Ring create(HashFunction hashFunction) {
+        return switch (this) {
+            case HASH_RING -> new HashRing(hashFunction, HashRing.Mode.SKIP_LIST);
+            case COPY_ON_WRITE_HASH_RING -> new HashRing(hashFunction, HashRing.Mode.COPY_ON_WRITE);
+            case JUMP -> new JumpHashRing(hashFunction);
+            case MAGLEV -> new MaglevRing(hashFunction);
+        };
+    }
+}
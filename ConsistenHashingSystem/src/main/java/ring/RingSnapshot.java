@@ -0,0 +1,348 @@
+package ring;
+
+import domain.VirtualNode;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * An immutable, array-backed view of the hash ring.
+ * Tokens are kept sorted in a primitive {@code long[]} with a parallel {@code int[]} of server IDs,
+ * so a lookup is a binary search over contiguous memory with no boxing and no allocation.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class RingSnapshot implements Placement {
+
+    /**
+     * The snapshot of a ring with no virtual nodes.
+     */
+    public static final RingSnapshot EMPTY = new RingSnapshot(new long[0], new int[0], new VirtualNode[0]);
+
+    /**
+     * The sorted ring positions of the virtual nodes.
+     */
+    private final long[] tokens;
+
+    /**
+     * The server ID owning the token at the same index.
+     */
+    private final int[] serverIds;
+
+    /**
+     * The virtual node owning the token at the same index.
+     */
+    private final VirtualNode[] nodes;
+
+    /**
+     * The successor table for preference lists, built on first use and widened when a longer list is asked for.
+     */
+    private volatile Successors successors;
+
+    /**
+     * The first {@code width} distinct servers clockwise from every position, stored row by row.
+     *
+     * @param width    The number of servers per row.
+     * @param distinct The number of distinct servers in the snapshot.
+     * @param servers  The rows, {@code width} entries per position.
+     */
+    private record Successors(int width, int distinct, int[] servers) {
+    }
+
+    /**
+     * The fraction of the hash space owned by each server, computed on first use.
+     */
+    private volatile Map<Integer, Double> ownership;
+
+    /**
+     * Constructs a new RingSnapshot. The arrays are owned by the snapshot and must not be modified afterward.
+     *
+     * @param tokens    The sorted ring positions.
+     * @param serverIds The server ID at each position.
+     * @param nodes     The virtual node at each position.
+     */
+    RingSnapshot(long[] tokens, int[] serverIds, VirtualNode[] nodes) {
+        this.tokens = tokens;
+        this.serverIds = serverIds;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Builds a snapshot from a sorted map of ring positions.
+     *
+     * @param ring The ring positions, sorted by token.
+     * @return The snapshot.
+     */
+    static RingSnapshot of(NavigableMap<Long, VirtualNode> ring) {
+        int n = ring.size();
+        long[] tokens = new long[n];
+        int[] serverIds = new int[n];
+        VirtualNode[] nodes = new VirtualNode[n];
+        int i = 0;
+        for (Map.Entry<Long, VirtualNode> e : ring.entrySet()) {
+            if (i == n) break;
+            tokens[i] = e.getKey();
+            nodes[i] = e.getValue();
+            serverIds[i] = e.getValue().server().id();
+            i++;
+        }
+        return i == n ? new RingSnapshot(tokens, serverIds, nodes) : new RingSnapshot(Arrays.copyOf(tokens, i), Arrays.copyOf(serverIds, i), Arrays.copyOf(nodes, i));
+    }
+
+    /**
+     * Returns a new snapshot with virtual nodes added. A token already present is taken over by the added node.
+     *
+     * @param addedTokens The tokens of the added virtual nodes, in any order.
+     * @param addedNodes  The added virtual nodes, matching {@code addedTokens} by index.
+     * @return The merged snapshot.
+     */
+    RingSnapshot merge(long[] addedTokens, VirtualNode[] addedNodes) {
+        int k = addedTokens.length;
+        if (k == 0) return this;
+        Integer[] order = new Integer[k];
+        for (int i = 0; i < k; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(addedTokens[a], addedTokens[b]));
+
+        int n = tokens.length;
+        long[] mergedTokens = new long[n + k];
+        int[] mergedServers = new int[n + k];
+        VirtualNode[] mergedNodes = new VirtualNode[n + k];
+        int i = 0;
+        int j = 0;
+        int m = 0;
+        while (i < n || j < k) {
+            long token;
+            VirtualNode node;
+            if (j == k || (i < n && tokens[i] < addedTokens[order[j]])) {
+                token = tokens[i];
+                node = nodes[i++];
+            } else {
+                token = addedTokens[order[j]];
+                node = addedNodes[order[j++]];
+                if (i < n && tokens[i] == token) i++;
+            }
+            if (m > 0 && mergedTokens[m - 1] == token) m--;
+            mergedTokens[m] = token;
+            mergedServers[m] = node.server().id();
+            mergedNodes[m++] = node;
+        }
+        return m == n + k
+                ? new RingSnapshot(mergedTokens, mergedServers, mergedNodes)
+                : new RingSnapshot(Arrays.copyOf(mergedTokens, m), Arrays.copyOf(mergedServers, m), Arrays.copyOf(mergedNodes, m));
+    }
+
+    /**
+     * Returns a new snapshot without any of a server's virtual nodes.
+     *
+     * @param serverId The ID of the server to drop.
+     * @return The filtered snapshot.
+     */
+    RingSnapshot without(int serverId) {
+        int kept = 0;
+        for (int id : serverIds) if (id != serverId) kept++;
+        if (kept == serverIds.length) return this;
+        long[] keptTokens = new long[kept];
+        int[] keptServers = new int[kept];
+        VirtualNode[] keptNodes = new VirtualNode[kept];
+        int m = 0;
+        for (int i = 0; i < serverIds.length; i++) {
+            if (serverIds[i] == serverId) continue;
+            keptTokens[m] = tokens[i];
+            keptServers[m] = serverIds[i];
+            keptNodes[m++] = nodes[i];
+        }
+        return new RingSnapshot(keptTokens, keptServers, keptNodes);
+    }
+
+    /**
+     * Returns the index of the first token at or after a hash, wrapping around to zero.
+     *
+     * @param hash The hash to look up.
+     * @return The index of the owning position.
+     * @throws IllegalStateException if the snapshot is empty.
+     */
+    public int indexOf(long hash) {
+        int n = tokens.length;
+        if (n == 0) throw new IllegalStateException("Hash ring is empty");
+        int low = 0;
+        int high = n - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long token = tokens[mid];
+            if (token < hash) low = mid + 1;
+            else if (token > hash) high = mid - 1;
+            else return mid;
+        }
+        return low == n ? 0 : low;
+    }
+
+    /**
+     * Returns the ID of the server that owns a hash.
+     *
+     * @param hash The hash to look up.
+     * @return The owning server ID.
+     */
+    @Override
+    public int serverFor(long hash) {
+        return serverIds[indexOf(hash)];
+    }
+
+    /**
+     * Returns the ID of the first server at or clockwise after a hash that the filter accepts.
+     *
+     * @param hash   The hash to look up.
+     * @param accept The filter a server must pass.
+     * @return The accepted server ID, or the owner if no server is accepted.
+     */
+    @Override
+    public int serverFor(long hash, IntPredicate accept) {
+        int start = indexOf(hash);
+        int n = serverIds.length;
+        int rejected = -1;
+        for (int i = start, step = 0; step < n; step++) {
+            int serverId = serverIds[i];
+            if (serverId != rejected) {
+                if (accept.test(serverId)) return serverId;
+                rejected = serverId;
+            }
+            if (++i == n) i = 0;
+        }
+        return serverIds[start];
+    }
+
+    /**
+     * Writes the owner of a hash followed by the next distinct servers clockwise.
+     * Rows come from a precomputed successor table, so clustered virtual nodes of one server never lengthen the walk;
+     * after the table is built for a width, lookups of that width or less are a binary search and an array copy.
+     *
+     * @param hash The hash to look up.
+     * @param n    The number of distinct servers wanted.
+     * @param out  Receives the server IDs, owner first.
+     * @return The number of servers written.
+     * @throws IllegalArgumentException if {@code n} is negative or {@code out} is shorter than {@code n}.
+     * @throws IllegalStateException    if the snapshot is empty.
+     */
+    @Override
+    public int serversFor(long hash, int n, int[] out) {
+        if (n < 0 || out.length < n) throw new IllegalArgumentException("Cannot write " + n + " servers into " + out.length + " slots");
+        if (n == 0) return 0;
+        int index = indexOf(hash);
+        Successors table = successors;
+        if (table == null || (table.width < n && table.width < table.distinct)) table = successors(n);
+        int count = Math.min(n, table.width);
+        System.arraycopy(table.servers, index * table.width, out, 0, count);
+        return count;
+    }
+
+    /**
+     * Builds the successor table at least {@code n} servers wide, or as wide as the number of distinct servers.
+     * Each row is the position's own server followed by the next row without that server, so the table is filled in
+     * one backward pass of O(positions x width) after a single clockwise walk for the first row.
+     */
+    private synchronized Successors successors(int n) {
+        Successors current = successors;
+        if (current != null && (current.width >= n || current.width == current.distinct)) return current;
+
+        int size = serverIds.length;
+        int distinct = (int) Arrays.stream(serverIds).distinct().count();
+        int width = Math.min(Math.max(n, current == null ? 0 : current.width), distinct);
+        int[] table = new int[size * width];
+
+        int filled = 0;
+        for (int i = 0; filled < width; i++) {
+            if (!contains(table, 0, filled, serverIds[i])) table[filled++] = serverIds[i];
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int row = i * width;
+            int next = (i + 1 == size ? 0 : i + 1) * width;
+            table[row] = serverIds[i];
+            filled = 1;
+            for (int k = 0; filled < width; k++) {
+                if (table[next + k] != serverIds[i]) table[row + filled++] = table[next + k];
+            }
+        }
+
+        Successors built = new Successors(width, distinct, table);
+        successors = built;
+        return built;
+    }
+
+    /**
+     * Returns whether a range of an array contains a value.
+     */
+    private static boolean contains(int[] values, int from, int to, int value) {
+        for (int i = from; i < to; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the fraction of the hash space each server owns, summing the arc that ends at each of its positions.
+     * The first position also owns the wrap-around arc above the last token. The result is computed once, in
+     * O(positions), and cached with the snapshot.
+     *
+     * @return The fractions keyed by server ID in ascending order.
+     */
+    @Override
+    public Map<Integer, Double> ownership() {
+        Map<Integer, Double> cached = ownership;
+        if (cached != null) return cached;
+        int n = tokens.length;
+        int maxId = -1;
+        for (int serverId : serverIds) maxId = Math.max(maxId, serverId);
+        double[] arcs = new double[maxId + 1];
+        for (int i = 1; i < n; i++) arcs[serverIds[i]] += tokens[i] - tokens[i - 1];
+        if (n > 0) arcs[serverIds[0]] += (double) tokens[0] + 1.0 + (double) (Long.MAX_VALUE - tokens[n - 1]);
+
+        TreeMap<Integer, Double> fractions = new TreeMap<>();
+        for (int serverId : serverIds) fractions.putIfAbsent(serverId, arcs[serverId] / 0x1p63);
+        cached = Collections.unmodifiableSortedMap(fractions);
+        ownership = cached;
+        return cached;
+    }
+
+    /**
+     * Returns the number of positions in the snapshot.
+     *
+     * @return The number of positions.
+     */
+    public int size() {
+        return tokens.length;
+    }
+
+    /**
+     * Returns the token at an index.
+     *
+     * @param index The index.
+     * @return The token.
+     */
+    public long token(int index) {
+        return tokens[index];
+    }
+
+    /**
+     * Returns the server ID at an index.
+     *
+     * @param index The index.
+     * @return The server ID.
+     */
+    public int serverId(int index) {
+        return serverIds[index];
+    }
+
+    /**
+     * Returns the virtual node at an index.
+     *
+     * @param index The index.
+     * @return The virtual node.
+     */
+    public VirtualNode node(int index) {
+        return nodes[index];
+    }
+}
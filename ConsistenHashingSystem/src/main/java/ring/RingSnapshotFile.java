@@ -0,0 +1,176 @@
+package ring;
+
+import domain.Server;
+import domain.VirtualNode;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * The versioned binary file format of a saved {@link HashRing}.
+ * <pre>
+ * magic        int     'CHRS'
+ * version      int     2
+ * hashId       short length + UTF-8 bytes of {@link hashing.HashFunction#id()}
+ * epoch        long
+ * perWeight    int     virtual nodes per unit of weight, or 0 if not recorded (absent in version 1)
+ * servers      int     count, then per server: id int, weight int, virtual nodes int
+ * positions    int     count, then per position in token order: token long, server id int, virtual node index int
+ * checksum     int     CRC32C of every preceding byte
+ * </pre>
+ * All values are big-endian. Version 1 files, which lack {@code perWeight}, are still read. Virtual node names are not stored; they are rebuilt from the server ID and index, so
+ * only rings whose virtual nodes follow the {@code <serverId>_<index>} convention can be saved.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+final class RingSnapshotFile {
+
+    /**
+     * The file magic, {@code CHRS}.
+     */
+    private static final int MAGIC = 0x43485253;
+
+    /**
+     * The format version written by this class.
+     */
+    private static final int VERSION = 2;
+    /**
+     * The oldest format version this class reads.
+     */
+    private static final int MIN_VERSION = 1;
+
+    /**
+     * The contents of a saved ring.
+     *
+     * @param hashFunctionId The ID of the hash function the tokens were computed with.
+     * @param epoch          The ring epoch when it was saved.
+     * @param perWeight      The virtual nodes per unit of weight the servers were given, or 0 if not recorded.
+     * @param servers        The servers, with their weights.
+     * @param virtualNodes   The number of virtual nodes of each server, matching {@code servers} by index.
+     * @param tokens         The sorted tokens.
+     * @param serverIds      The server ID at each position.
+     * @param nodes          The virtual node at each position.
+     * @param vnodeIndexes   The virtual node index at each position.
+     */
+    record Contents(String hashFunctionId, long epoch, int perWeight, Server[] servers, int[] virtualNodes,
+                    long[] tokens, int[] serverIds, VirtualNode[] nodes, int[] vnodeIndexes) {
+    }
+
+    /**
+     * Prevents instantiation.
+     */
+    private RingSnapshotFile() {
+    }
+
+    /**
+     * Writes a ring to a temporary file next to the target and atomically moves it into place.
+     *
+     * @param path     The file to write.
+     * @param contents The ring contents.
+     * @throws IOException if the file cannot be written.
+     */
+    static void write(Path path, Contents contents) throws IOException {
+        byte[] hashId = contents.hashFunctionId().getBytes(StandardCharsets.UTF_8);
+        int size = 4 + 4 + 2 + hashId.length + 8 + 4
+                + 4 + contents.servers().length * 12
+                + 4 + contents.tokens().length * 16
+                + 4;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        buffer.putShort((short) hashId.length).put(hashId);
+        buffer.putLong(contents.epoch());
+        buffer.putInt(contents.perWeight());
+        buffer.putInt(contents.servers().length);
+        for (int i = 0; i < contents.servers().length; i++) {
+            buffer.putInt(contents.servers()[i].id()).putInt(contents.servers()[i].weight()).putInt(contents.virtualNodes()[i]);
+        }
+        buffer.putInt(contents.tokens().length);
+        for (int i = 0; i < contents.tokens().length; i++) {
+            buffer.putLong(contents.tokens()[i]).putInt(contents.serverIds()[i]).putInt(contents.vnodeIndexes()[i]);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps a saved ring into memory, verifies it and decodes it without hashing anything.
+     *
+     * @param path The file to read.
+     * @return The ring contents.
+     * @throws IOException if the file cannot be read, is not a ring snapshot, has an unsupported version or fails its
+     *                     checksum.
+     */
+    static Contents read(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int end = buffer.limit() - 4;
+        if (end < 26) throw new IOException("Ring snapshot is truncated: " + path);
+        if (buffer.getInt(0) != MAGIC) throw new IOException("Not a ring snapshot: " + path);
+        int version = buffer.getInt(4);
+        if (version < MIN_VERSION || version > VERSION) throw new IOException("Unsupported ring snapshot version " + version + ": " + path);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, end));
+        if ((int) crc.getValue() != buffer.getInt(end)) throw new IOException("Ring snapshot checksum mismatch: " + path);
+
+        try {
+            buffer.position(8);
+            byte[] hashId = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(hashId);
+            long epoch = buffer.getLong();
+            int perWeight = version >= 2 ? buffer.getInt() : 0;
+
+            int serverCount = buffer.getInt();
+            Server[] servers = new Server[serverCount];
+            int[] virtualNodes = new int[serverCount];
+            for (int i = 0; i < serverCount; i++) {
+                servers[i] = new Server(buffer.getInt(), buffer.getInt());
+                virtualNodes[i] = buffer.getInt();
+            }
+            Map<Integer, Server> byId = new HashMap<>(serverCount * 2);
+            for (Server server : servers) byId.put(server.id(), server);
+
+            int positions = buffer.getInt();
+            long[] tokens = new long[positions];
+            int[] serverIds = new int[positions];
+            VirtualNode[] nodes = new VirtualNode[positions];
+            int[] vnodeIndexes = new int[positions];
+            for (int i = 0; i < positions; i++) {
+                tokens[i] = buffer.getLong();
+                serverIds[i] = buffer.getInt();
+                vnodeIndexes[i] = buffer.getInt();
+                Server server = byId.get(serverIds[i]);
+                if (server == null) throw new IOException("Ring snapshot position refers to unknown server " + serverIds[i]);
+                if (i > 0 && tokens[i] <= tokens[i - 1]) throw new IOException("Ring snapshot tokens are not sorted");
+                nodes[i] = new VirtualNode(server, serverIds[i] + "_" + vnodeIndexes[i]);
+            }
+            if (buffer.position() != end) throw new IOException("Ring snapshot has trailing bytes: " + path);
+            return new Contents(new String(hashId, StandardCharsets.UTF_8), epoch, perWeight, servers, virtualNodes, tokens, serverIds, nodes, vnodeIndexes);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Ring snapshot is malformed: " + path, e);
+        }
+    }
+}
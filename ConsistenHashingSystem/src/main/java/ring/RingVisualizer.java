@@ -17,4 +17,18 @@ public class RingVisualizer {
         System.out.println("\n--- HASH RING ---");
         ring.snapshot().forEach((k, v) -> System.out.println(k + " -> " + v.name() + " (Server " + v.server().id() + ")"));
     }
+
+    /**
+     * Prints any ring to the console, listing every position for a hash ring and a summary otherwise.
+     *
+     * @param ring The ring to print.
+     */
+    public static void print(Ring ring) {
+        if (ring instanceof HashRing hashRing) {
+            print(hashRing);
+            return;
+        }
+        System.out.println("\n--- RING ---");
+        System.out.println(ring);
+    }
 }
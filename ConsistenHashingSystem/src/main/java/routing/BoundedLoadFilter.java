@@ -0,0 +1,85 @@
+package routing;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Accepts a server only while its load is below the bounded-load capacity of Mirrokni, Thorup and Zadimoghaddam,
+ * scaled by the server's share of the total weight: {@code ceil((1 + epsilon) * (totalLoad + 1) * weight / totalWeight)}.
+ * A ring walks clockwise past rejected servers, so no server ends up with more than a {@code (1 + epsilon)} multiple
+ * of its fair share of the load; with equal weights this is the average load.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class BoundedLoadFilter implements IntPredicate {
+
+    /**
+     * The load view the capacity is computed from.
+     */
+    private final LoadView loadView;
+
+    /**
+     * The allowed overload factor above the average.
+     */
+    private final double epsilon;
+
+    /**
+     * Constructs a new BoundedLoadFilter.
+     *
+     * @param loadView The load view the capacity is computed from.
+     * @param epsilon  The allowed overload factor above the average.
+     * @throws IllegalArgumentException if epsilon is not positive.
+     */
+    public BoundedLoadFilter(LoadView loadView, double epsilon) {
+        if (!(epsilon > 0)) throw new IllegalArgumentException("epsilon must be positive: " + epsilon);
+        this.loadView = loadView;
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * Tests whether a server still has room for one more request.
+     *
+     * @param serverId The ID of the server.
+     * @return {@code true} if the server is below capacity.
+     */
+    @Override
+    public boolean test(int serverId) {
+        return loadView.load(serverId) < capacity(serverId);
+    }
+
+    /**
+     * Returns the current capacity of a server.
+     *
+     * @param serverId The ID of the server.
+     * @return The maximum load the server may have before requests overflow to the next server.
+     */
+    public long capacity(int serverId) {
+        return capacityFor(loadView.weight(serverId));
+    }
+
+    /**
+     * Returns the current capacity per unit of weight, the capacity of a server of weight one.
+     *
+     * @return The maximum load a server of weight one may have before requests overflow to the next server.
+     */
+    public long capacity() {
+        return capacityFor(1);
+    }
+
+    /**
+     * Returns the current capacity of a server of the given weight.
+     */
+    private long capacityFor(int weight) {
+        long totalWeight = Math.max(1, loadView.totalWeight());
+        return (long) Math.ceil((1 + epsilon) * (loadView.totalLoad() + 1) * weight / totalWeight);
+    }
+
+    /**
+     * Returns the allowed overload factor above the average.
+     *
+     * @return The epsilon.
+     */
+    public double epsilon() {
+        return epsilon;
+    }
+}
@@ -0,0 +1,346 @@
+package routing;
+
+import analytics.HotKeyDetector;
+import analytics.WindowedHotKeyDetector;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Spreads the requests for individual hot keys across several servers instead of letting one owner absorb them.
+ * <p>
+ * A background thread samples the hot key detector at a fixed interval and turns the growth of each candidate's count
+ * into a request rate, or reads the rate straight from a {@link WindowedHotKeyDetector}. A key whose rate reaches the
+ * promotion threshold is promoted: its requests are served by the first {@code replicas} servers of its preference
+ * list, chosen round-robin or in proportion to each replica's weight. A promoted key is demoted once its rate falls
+ * below half the threshold, so a key hovering around the threshold does not flap.
+ * <p>
+ * The promoted keys are published as an immutable map, so routing a key costs a single hash lookup, and nothing when no
+ * key is promoted. Preference lists are recomputed lazily after a membership change.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class HotKeySplitter implements Closeable {
+
+    /**
+     * How a promoted key's requests are spread over its replicas.
+     */
+    public enum Strategy {
+        /**
+         * Each routing thread cycles through the replicas, so no counter is shared between threads.
+         */
+        ROUND_ROBIN,
+        /**
+         * Each request goes to the replica that has served the fewest of the key's requests per unit of weight since
+         * the key was promoted or the ring last changed, so the key's own traffic is split in proportion to capacity.
+         * Lifetime server load is not consulted: a replica with a low all-time count would draw every request of the
+         * key until it caught up.
+         */
+        LEAST_LOADED
+    }
+
+    /**
+     * The rate, as a fraction of the promotion threshold, below which a promoted key is demoted.
+     */
+    private static final double DEMOTION_RATIO = 0.5;
+    /**
+     * The number of top keys examined for promotion on each refresh.
+     */
+    private static final int CANDIDATES = 32;
+
+    /**
+     * Each routing thread's round-robin position.
+     */
+    private static final ThreadLocal<int[]> CURSOR = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * The router that hashes keys and builds preference lists.
+     */
+    private final RequestRouter router;
+    /**
+     * The per-server weights consulted by {@link Strategy#LEAST_LOADED}.
+     */
+    private final LoadView loadView;
+    /**
+     * Supplies the current hot key detector, which may be replaced while splitting is enabled.
+     */
+    private final Supplier<HotKeyDetector> detector;
+    /**
+     * The number of servers a promoted key is spread over.
+     */
+    private final int replicas;
+    /**
+     * How requests are spread over the replicas.
+     */
+    private final Strategy strategy;
+    /**
+     * The request rate per second at which a key is promoted.
+     */
+    private final double promotionRate;
+    /**
+     * The thread that refreshes the promoted keys, or {@code null} if refreshes are driven by the caller.
+     */
+    private final ScheduledExecutorService refresher;
+
+    /**
+     * The promoted keys, replaced as a whole on every change.
+     */
+    private volatile Map<String, Promoted> promoted = Map.of();
+    /**
+     * Each candidate's count at the previous refresh, touched only by the refreshing thread.
+     */
+    private final Map<String, Long> previousCounts = new HashMap<>();
+    /**
+     * The time of the previous refresh, or zero before the first.
+     */
+    private long previousRefresh;
+    /**
+     * The number of keys promoted so far.
+     */
+    private final LongAdder promotions = new LongAdder();
+    /**
+     * The number of keys demoted so far.
+     */
+    private final LongAdder demotions = new LongAdder();
+
+    /**
+     * Constructs a new HotKeySplitter.
+     *
+     * @param router        The router that hashes keys and builds preference lists.
+     * @param loadView      The per-server weights consulted by {@link Strategy#LEAST_LOADED}.
+     * @param detector      Supplies the current hot key detector.
+     * @param replicas      The number of servers a promoted key is spread over, at least two.
+     * @param strategy      How requests are spread over the replicas.
+     * @param promotionRate The requests per second at which a key is promoted.
+     * @param interval      How often to refresh the promoted keys, or {@code null} to refresh only through
+     *                      {@link #refresh()}.
+     * @throws IllegalArgumentException if fewer than two replicas are asked for or the rate is not positive.
+     */
+    public HotKeySplitter(RequestRouter router, LoadView loadView, Supplier<HotKeyDetector> detector,
+                          int replicas, Strategy strategy, double promotionRate, Duration interval) {
+        if (replicas < 2) throw new IllegalArgumentException("A hot key needs at least two replicas: " + replicas);
+        if (!(promotionRate > 0)) throw new IllegalArgumentException("Promotion rate must be positive: " + promotionRate);
+        this.router = router;
+        this.loadView = loadView;
+        this.detector = detector;
+        this.replicas = replicas;
+        this.strategy = strategy;
+        this.promotionRate = promotionRate;
+        if (interval == null) {
+            this.refresher = null;
+        } else {
+            this.refresher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon(true).name("hot-key-splitter").factory());
+            long nanos = interval.toNanos();
+            refresher.scheduleAtFixedRate(this::refresh, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Routes a request, spreading it over the replicas if its key is promoted.
+     *
+     * @param requestKey The key of the request.
+     * @param owner      The server the request would otherwise go to.
+     * @return The server that should handle the request.
+     */
+    public int route(String requestKey, int owner) {
+        Map<String, Promoted> current = promoted;
+        if (current.isEmpty()) return owner;
+        Promoted key = current.get(requestKey);
+        if (key == null) return owner;
+
+        Replicas replicas = key.replicas();
+        int[] servers = replicas.servers;
+        if (strategy == Strategy.ROUND_ROBIN) {
+            int[] cursor = CURSOR.get();
+            return servers[(cursor[0]++ & Integer.MAX_VALUE) % servers.length];
+        }
+        LongAdder[] served = replicas.served;
+        int best = 0;
+        long bestServed = served[0].sum();
+        int bestWeight = loadView.weight(servers[0]);
+        for (int i = 1; i < servers.length; i++) {
+            long count = served[i].sum();
+            int weight = loadView.weight(servers[i]);
+            // Compares served / weight cross-multiplied; a replica that has left the ring has weight zero and loses.
+            if (weight > 0 && (bestWeight == 0 || count * bestWeight < bestServed * weight)) {
+                best = i;
+                bestServed = count;
+                bestWeight = weight;
+            }
+        }
+        served[best].increment();
+        return servers[best];
+    }
+
+    /**
+     * Measures the rate of the hottest keys and of every promoted key since the previous refresh, then promotes and
+     * demotes keys and publishes the new set. Called by the background thread, or by the caller when no interval was
+     * given; concurrent calls are serialized.
+     */
+    public synchronized void refresh() {
+        long now = System.nanoTime();
+        HotKeyDetector current = detector.get();
+        double seconds = (now - previousRefresh) / 1e9;
+        boolean measured = previousRefresh != 0;
+        previousRefresh = now;
+
+        Map<String, Promoted> before = promoted;
+        Set<String> candidates = new HashSet<>(current.topHotKeys(CANDIDATES));
+        candidates.addAll(before.keySet());
+
+        Map<String, Promoted> after = new HashMap<>(before);
+        Map<String, Long> counts = new HashMap<>();
+        for (String key : candidates) {
+            Promoted existing = before.get(key);
+            long keyHash = existing != null ? existing.keyHash : router.hash(key);
+            double rate;
+            if (current instanceof WindowedHotKeyDetector windowed) {
+                // Windowed counts fall as old buckets expire, so their deltas are meaningless; the window gives the rate.
+                rate = windowed.rate(key, keyHash);
+            } else {
+                long count = current.estimate(key, keyHash);
+                counts.put(key, count);
+                Long previous = previousCounts.get(key);
+                // A key seen for the first time, or a detector that was replaced and restarted its counts, has no rate yet.
+                if (!measured || previous == null || count < previous) continue;
+                rate = (count - previous) / seconds;
+            }
+            if (existing == null && rate >= promotionRate) {
+                after.put(key, new Promoted(key, keyHash));
+                promotions.increment();
+            } else if (existing != null && rate < promotionRate * DEMOTION_RATIO) {
+                after.remove(key);
+                demotions.increment();
+            }
+        }
+        previousCounts.clear();
+        previousCounts.putAll(counts);
+        if (!after.equals(before)) promoted = Map.copyOf(after);
+    }
+
+    /**
+     * Returns the keys currently spread across replicas.
+     *
+     * @return An immutable set of the promoted keys.
+     */
+    public Set<String> promotedKeys() {
+        return promoted.keySet();
+    }
+
+    /**
+     * Returns the number of keys promoted so far.
+     *
+     * @return The promotion count.
+     */
+    public long promotions() {
+        return promotions.sum();
+    }
+
+    /**
+     * Returns the number of keys demoted so far.
+     *
+     * @return The demotion count.
+     */
+    public long demotions() {
+        return demotions.sum();
+    }
+
+    /**
+     * Returns the number of servers a promoted key is spread over.
+     *
+     * @return The replica count.
+     */
+    public int replicas() {
+        return replicas;
+    }
+
+    /**
+     * Returns how requests are spread over the replicas.
+     *
+     * @return The strategy.
+     */
+    public Strategy strategy() {
+        return strategy;
+    }
+
+    /**
+     * Stops the background refreshes. Keys promoted so far stay promoted.
+     */
+    @Override
+    public void close() {
+        if (refresher != null) refresher.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "replicas=" + replicas + ", strategy=" + strategy + ", promotion rate=" + promotionRate + "/s, promoted="
+                + List.copyOf(promotedKeys()) + ", promotions=" + promotions() + ", demotions=" + demotions();
+    }
+
+    /**
+     * A promoted key and its replicas, recomputed when the ring's epoch moves on.
+     */
+    private final class Promoted {
+
+        /**
+         * The key.
+         */
+        private final String key;
+        /**
+         * The hash of the key.
+         */
+        private final long keyHash;
+        /**
+         * The replicas and the epoch they were computed at.
+         */
+        private volatile Replicas replicas = new Replicas(-1, new int[0], new LongAdder[0]);
+
+        /**
+         * Constructs a new Promoted.
+         */
+        private Promoted(String key, long keyHash) {
+            this.key = key;
+            this.keyHash = keyHash;
+        }
+
+        /**
+         * Returns the key's replicas for the current epoch, the owner first, with fresh counts after a change.
+         */
+        private Replicas replicas() {
+            Replicas current = replicas;
+            long epoch = router.epoch();
+            if (current.epoch != epoch) {
+                int[] servers = new int[HotKeySplitter.this.replicas];
+                int count = router.routeToServers(key, servers.length, servers);
+                if (count != servers.length) servers = Arrays.copyOf(servers, count);
+                LongAdder[] served = new LongAdder[count];
+                for (int i = 0; i < count; i++) served[i] = new LongAdder();
+                current = new Replicas(epoch, servers, served);
+                replicas = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * The replicas of a promoted key at one epoch.
+     *
+     * @param epoch   The ring epoch the list was computed at.
+     * @param servers The server IDs, the owner first.
+     * @param served  The key's requests each replica has served at this epoch, for {@link Strategy#LEAST_LOADED}.
+     */
+    private record Replicas(long epoch, int[] servers, LongAdder[] served) {
+    }
+}
@@ -0,0 +1,47 @@
+package routing;
+
+/**
+ * A lock-free, read-only view of how much traffic each server has received.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public interface LoadView {
+
+    /**
+     * Returns the load of a server.
+     *
+     * @param serverId The ID of the server.
+     * @return The number of requests routed to the server.
+     */
+    long load(int serverId);
+
+    /**
+     * Returns the combined load of all servers.
+     *
+     * @return The total number of requests routed.
+     */
+    long totalLoad();
+
+    /**
+     * Returns the number of servers sharing the load.
+     *
+     * @return The number of servers.
+     */
+    int serverCount();
+
+    /**
+     * Returns the share of the load a server is meant to take, relative to the others.
+     *
+     * @param serverId The ID of the server.
+     * @return The server's weight, or {@code 0} if it is not a member.
+     */
+    int weight(int serverId);
+
+    /**
+     * Returns the combined weight of all servers.
+     *
+     * @return The total weight.
+     */
+    long totalWeight();
+}
@@ -1,26 +1,47 @@
 package routing;
 
+import analytics.HotKeyDetector;
 import domain.VirtualNode;
-import ring.HashRing;
+import ring.Placement;
+import ring.Ring;
+
+import java.time.Duration;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
 
 /**
- * A class that routes requests to the appropriate virtual node in the hash ring.
+ * A class that routes requests to the appropriate virtual node in the ring.
  *
  * @author Aadarsh Pandey
  * @since 10th Feb 2026
  */
 public class RequestRouter {
     /**
-     * The hash ring.
+     * The ring that places keys on servers.
+     */
+    private final Ring ring;
+
+    /**
+     * The bounded-load filter, or {@code null} when requests always go to the owning server.
+     */
+    private volatile IntPredicate loadFilter;
+
+    /**
+     * The key to server cache, or {@code null} when every request hashes and searches the ring.
      */
-    private final HashRing ring;
+    private volatile RouteCache cache;
+
+    /**
+     * The hot key splitter, or {@code null} when every key goes to a single server.
+     */
+    private volatile HotKeySplitter splitter;
 
     /**
      * Constructs a new RequestRouter.
      *
-     * @param ring The hash ring to use for routing.
+     * @param ring The ring to use for routing.
      */
-    public RequestRouter(HashRing ring) {
+    public RequestRouter(Ring ring) {
         this.ring = ring;
     }
 
@@ -33,4 +54,217 @@ public class RequestRouter {
     public VirtualNode route(String requestKey) {
         return ring.locate(requestKey);
     }
+
+    /**
+     * Routes a request to the ID of the server that should handle it.
+     *
+     * @param requestKey The key of the request.
+     * @return The ID of the server that should handle the request.
+     */
+    public int routeToServer(String requestKey) {
+        RouteCache routeCache = cache;
+        return routeCache == null ? routeToServer(ring.hash(requestKey)) : routeToServer(resolve(requestKey, routeCache));
+    }
+
+    /**
+     * Resolves a key through a route cache, hashing and searching the ring only on a miss.
+     * The epoch is read before the ring is searched, so a route computed during a membership change is stamped with
+     * the older epoch and never served afterward.
+     *
+     * @param requestKey The key of the request.
+     * @param routeCache The cache returned by {@link #cache()}.
+     * @return The key's hash and owning server.
+     */
+    public RouteCache.Route resolve(String requestKey, RouteCache routeCache) {
+        long epoch = ring.epoch();
+        RouteCache.Route route = routeCache.get(requestKey, epoch);
+        if (route != null) return route;
+        long hash = ring.hash(requestKey);
+        return routeCache.put(requestKey, hash, ring.locateServer(hash), epoch);
+    }
+
+    /**
+     * Routes a resolved request, applying bounded-load routing to its cached hash when enabled.
+     *
+     * @param route The route returned by {@link #resolve(String, RouteCache)}.
+     * @return The ID of the server that should handle the request.
+     */
+    public int routeToServer(RouteCache.Route route) {
+        IntPredicate filter = loadFilter;
+        return filter == null ? route.serverId() : ring.locateServer(route.keyHash(), filter);
+    }
+
+    /**
+     * Routes an already hashed request to the ID of the server that should handle it.
+     *
+     * @param hash The hash returned by {@link #hash(String)}.
+     * @return The ID of the server that should handle the request.
+     */
+    public int routeToServer(long hash) {
+        IntPredicate filter = loadFilter;
+        return filter == null ? ring.locateServer(hash) : ring.locateServer(hash, filter);
+    }
+
+    /**
+     * Spreads a request over its key's replicas if the key is promoted by the hot key splitter.
+     *
+     * @param requestKey The key of the request.
+     * @param serverId   The server the request was routed to.
+     * @return The server that should handle the request.
+     */
+    public int split(String requestKey, int serverId) {
+        HotKeySplitter hotKeySplitter = splitter;
+        return hotKeySplitter == null ? serverId : hotKeySplitter.route(requestKey, serverId);
+    }
+
+    /**
+     * Routes a request to its preference list: the owning server followed by the next distinct servers clockwise.
+     * Bounded-load routing does not apply, since replicas must be stable for a key.
+     *
+     * @param requestKey The key of the request.
+     * @param n          The number of distinct servers wanted.
+     * @param out        Receives the server IDs, owner first.
+     * @return The number of servers written.
+     */
+    public int routeToServers(String requestKey, int n, int[] out) {
+        return ring.locateN(requestKey, n, out);
+    }
+
+    /**
+     * Returns an immutable view of the ring's current placement, so a batch can be routed against one membership.
+     *
+     * @return The placement.
+     */
+    public Placement placement() {
+        return ring.placement();
+    }
+
+    /**
+     * Routes a range of already hashed requests against a single placement.
+     * Bounded-load routing, when enabled, sees the load as of the start of the call.
+     *
+     * @param placement The placement to route against.
+     * @param hashes    The hashes returned by {@link #hash(String)}.
+     * @param out       Receives the server ID for each hash at the same index.
+     * @param from      The first index, inclusive.
+     * @param to        The last index, exclusive.
+     */
+    public void routeAll(Placement placement, long[] hashes, int[] out, int from, int to) {
+        IntPredicate filter = loadFilter;
+        if (filter == null) {
+            for (int i = from; i < to; i++) out[i] = placement.serverFor(hashes[i]);
+        } else {
+            for (int i = from; i < to; i++) out[i] = placement.serverFor(hashes[i], filter);
+        }
+    }
+
+    /**
+     * Returns the ring's membership epoch.
+     *
+     * @return The epoch.
+     */
+    public long epoch() {
+        return ring.epoch();
+    }
+
+    /**
+     * Hashes a request key onto the ring's key space.
+     *
+     * @param requestKey The key of the request.
+     * @return The hash used for routing.
+     */
+    public long hash(String requestKey) {
+        return ring.hash(requestKey);
+    }
+
+    /**
+     * Puts a bounded key to server cache in front of the ring.
+     *
+     * @param capacity The number of routes to cache.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public void enableCache(int capacity) {
+        this.cache = new RouteCache(capacity);
+    }
+
+    /**
+     * Removes the route cache.
+     */
+    public void disableCache() {
+        this.cache = null;
+    }
+
+    /**
+     * Returns the route cache.
+     *
+     * @return The cache, or {@code null} if caching is disabled.
+     */
+    public RouteCache cache() {
+        return cache;
+    }
+
+    /**
+     * Enables consistent hashing with bounded loads: a request whose owner is at capacity walks clockwise to the
+     * next server below {@code (1 + epsilon)} times the average load.
+     *
+     * @param loadView The view of per-server load.
+     * @param epsilon  The allowed overload factor above the average.
+     * @throws IllegalArgumentException if epsilon is not positive.
+     */
+    public void enableBoundedLoad(LoadView loadView, double epsilon) {
+        this.loadFilter = new BoundedLoadFilter(loadView, epsilon);
+    }
+
+    /**
+     * Disables bounded-load routing so every request goes to its owning server.
+     */
+    public void disableBoundedLoad() {
+        this.loadFilter = null;
+    }
+
+    /**
+     * Spreads keys whose request rate reaches a threshold across several servers of their preference list, replacing
+     * and stopping any previous splitter.
+     *
+     * @param loadView      The per-server weights consulted by {@link HotKeySplitter.Strategy#LEAST_LOADED}.
+     * @param detector      Supplies the current hot key detector.
+     * @param replicas      The number of servers a hot key is spread over.
+     * @param strategy      How requests are spread over the replicas.
+     * @param promotionRate The requests per second at which a key is split.
+     * @param interval      How often hot keys are re-evaluated.
+     * @throws IllegalArgumentException if fewer than two replicas are asked for or the rate is not positive.
+     */
+    public void enableHotKeySplitting(LoadView loadView, Supplier<HotKeyDetector> detector, int replicas,
+                                      HotKeySplitter.Strategy strategy, double promotionRate, Duration interval) {
+        HotKeySplitter previous = splitter;
+        this.splitter = new HotKeySplitter(this, loadView, detector, replicas, strategy, promotionRate, interval);
+        if (previous != null) previous.close();
+    }
+
+    /**
+     * Stops hot key splitting so every key goes to a single server again.
+     */
+    public void disableHotKeySplitting() {
+        HotKeySplitter previous = splitter;
+        this.splitter = null;
+        if (previous != null) previous.close();
+    }
+
+    /**
+     * Returns the active hot key splitter.
+     *
+     * @return The splitter, or {@code null} if hot key splitting is disabled.
+     */
+    public HotKeySplitter hotKeySplitter() {
+        return splitter;
+    }
+
+    /**
+     * Returns the active bounded-load filter.
+     *
+     * @return The filter, or {@code null} if bounded-load routing is disabled.
+     */
+    public BoundedLoadFilter boundedLoad() {
+        return (BoundedLoadFilter) loadFilter;
+    }
 }
\ No newline at end of file
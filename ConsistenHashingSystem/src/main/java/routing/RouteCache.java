@@ -0,0 +1,190 @@
+package routing;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded key to server cache in front of the ring.
+ * <p>
+ * The cache is 4-way set associative. Each set evicts with CLOCK: a hit sets the entry's reference bit, and the hand
+ * gives referenced entries a second chance before evicting. New entries start unreferenced, so a key seen only once
+ * is the first to go and cannot push out the hot set.
+ * <p>
+ * Every entry is stamped with the ring epoch it was computed under and is only served while the ring is still at that
+ * epoch, so a membership change invalidates the whole cache at once without touching it. Reads never lock or
+ * allocate; entries are immutable, and races between writers only decide which of two valid routes a slot keeps.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class RouteCache {
+
+    /**
+     * The number of entries per set.
+     */
+    private static final int WAYS = 4;
+
+    /**
+     * The entries, {@value #WAYS} consecutive slots per set.
+     */
+    private final Route[] slots;
+
+    /**
+     * The CLOCK reference bit of each slot.
+     */
+    private final byte[] referenced;
+
+    /**
+     * The CLOCK hand of each set.
+     */
+    private final byte[] hands;
+
+    /**
+     * The mask selecting a set from a spread key hash.
+     */
+    private final int setMask;
+
+    /**
+     * The number of lookups served from the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of lookups that had to go to the ring.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * A cached route.
+     *
+     * @param key      The request key.
+     * @param keyHash  The key's hash on the ring.
+     * @param serverId The server that owned the key.
+     * @param epoch    The ring epoch the route was computed under.
+     */
+    public record Route(String key, long keyHash, int serverId, long epoch) {
+    }
+
+    /**
+     * Constructs a new RouteCache.
+     *
+     * @param capacity The number of routes to hold, rounded up to a power of two.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public RouteCache(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        int wanted = (capacity + WAYS - 1) / WAYS;
+        int sets = wanted == 1 ? 1 : Integer.highestOneBit(wanted - 1) << 1;
+        this.slots = new Route[sets * WAYS];
+        this.referenced = new byte[sets * WAYS];
+        this.hands = new byte[sets];
+        this.setMask = sets - 1;
+    }
+
+    /**
+     * Returns the cached route of a key if it was computed under the current epoch.
+     *
+     * @param key   The request key.
+     * @param epoch The current ring epoch.
+     * @return The route, or {@code null} on a miss.
+     */
+    public Route get(String key, long epoch) {
+        int base = set(key) * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            Route route = slots[i];
+            if (route != null && route.epoch == epoch && (route.key == key || route.key.equals(key))) {
+                if (referenced[i] == 0) referenced[i] = 1;
+                hits.increment();
+                return route;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches a route, preferring an empty or stale slot and otherwise evicting with the set's CLOCK hand.
+     *
+     * @param key      The request key.
+     * @param keyHash  The key's hash on the ring.
+     * @param serverId The server that owns the key.
+     * @param epoch    The ring epoch the route was computed under.
+     * @return The cached route.
+     */
+    public Route put(String key, long keyHash, int serverId, long epoch) {
+        Route route = new Route(key, keyHash, serverId, epoch);
+        int set = set(key);
+        int base = set * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            Route current = slots[i];
+            if (current == null || current.epoch != epoch || current.key.equals(key)) {
+                referenced[i] = 0;
+                slots[i] = route;
+                return route;
+            }
+        }
+        int hand = hands[set];
+        // At most one full sweep clears every bit; the bound also holds if readers keep setting them concurrently.
+        for (int step = 0; ; step++) {
+            int slot = base + hand;
+            hand = (hand + 1) & (WAYS - 1);
+            if (referenced[slot] == 0 || step >= WAYS) {
+                hands[set] = (byte) hand;
+                referenced[slot] = 0;
+                slots[slot] = route;
+                return route;
+            }
+            referenced[slot] = 0;
+        }
+    }
+
+    /**
+     * Returns the number of routes the cache can hold.
+     *
+     * @return The capacity.
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the number of lookups served from the cache.
+     *
+     * @return The hit count.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that missed the cache.
+     *
+     * @return The miss count.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups served from the cache.
+     *
+     * @return The hit rate, or {@code 0} before the first lookup.
+     */
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Returns the set a key belongs to.
+     */
+    private int set(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & setMask;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, hit rate=%.2f%%, capacity=%d", hits(), misses(), hitRate() * 100, capacity());
+    }
+}
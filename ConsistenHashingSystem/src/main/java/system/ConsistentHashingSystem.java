@@ -2,18 +2,52 @@ package system;
 
 import analytics.HotKeyDetector;
 import analytics.LatencyTracker;
+import analytics.RequestJournal;
 import analytics.RequestTracker;
+import analytics.RingBalance;
+import analytics.ServerLoadCounters;
+import analytics.SketchHotKeyDetector;
 import analytics.StatisticsCalculator;
+import analytics.WindowedHotKeyDetector;
+import analytics.WindowedLatencyTracker;
+import analytics.WindowedLoadCounters;
 import domain.RequestRecord;
 import domain.Server;
-import domain.VirtualNode;
+import hashing.HashFunction;
 import hashing.SHA256Hash;
 import ring.HashRing;
+import ring.MigrationPlan;
+import ring.Placement;
+import ring.Ring;
+import ring.RingSnapshot;
 import ring.RingVisualizer;
+import routing.BoundedLoadFilter;
+import routing.HotKeySplitter;
+import routing.LoadView;
 import routing.RequestRouter;
+import routing.RouteCache;
 
+import java.io.IOException;
+import java.io.Serial;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a consistent hashing system.
@@ -25,9 +59,24 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class ConsistentHashingSystem {
 
     /**
-     * The hash ring that stores the virtual nodes.
+     * The number of keys hashed, routed and accounted together in one batch.
      */
-    private final HashRing ring;
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * The input size from which {@link #locateAll(String[], int[])} splits work across the common pool.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * How often the hot key splitter re-evaluates which keys to split.
+     */
+    private static final Duration HOT_KEY_REFRESH_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * The ring that places keys on servers.
+     */
+    private final Ring ring;
 
     /**
      * The request router that routes requests to the appropriate virtual node.
@@ -35,14 +84,19 @@ public class ConsistentHashingSystem {
     private final RequestRouter router;
 
     /**
-     * The request tracker that records all incoming requests.
+     * The request tracker that keeps a bounded sample of incoming requests, or {@code null} when tracking is off.
+     */
+    private volatile RequestTracker tracker = new RequestTracker();
+
+    /**
+     * The durable request journal, or {@code null} when requests are not journaled.
      */
-    private final RequestTracker tracker = new RequestTracker();
+    private volatile RequestJournal journal;
 
     /**
      * The hot key detector that identifies frequently accessed keys.
      */
-    private final HotKeyDetector hotKeyDetector = new HotKeyDetector();
+    private volatile HotKeyDetector hotKeyDetector = new SketchHotKeyDetector();
 
     /**
      * The latency tracker that records the latency of each request.
@@ -50,60 +104,344 @@ public class ConsistentHashingSystem {
     private final LatencyTracker latencyTracker = new LatencyTracker();
 
     /**
-     * A map to store the load of each server.
+     * The striped load counter of each server, indexed by server ID.
+     */
+    private final ServerLoadCounters serverLoad = new ServerLoadCounters();
+
+    /**
+     * The per-server load over the recent window, or {@code null} when windowed statistics are off.
      */
-    private final ConcurrentHashMap<Integer, AtomicInteger> serverLoad = new ConcurrentHashMap<>();
+    private volatile WindowedLoadCounters recentLoad;
+
+    /**
+     * The routing latencies over the recent window, or {@code null} when windowed statistics are off.
+     */
+    private volatile WindowedLatencyTracker recentLatency;
 
     /**
      * A map to store the servers in the system.
      */
     private final ConcurrentHashMap<Integer, Server> servers = new ConcurrentHashMap<>();
 
+    /**
+     * The combined weight of the servers, changed only under the membership lock.
+     */
+    private volatile long totalWeight;
+
     /**
      * A counter to generate unique server IDs.
      */
     private final AtomicInteger serverCounter = new AtomicInteger();
 
     /**
-     * The number of virtual nodes per server.
+     * The number of virtual nodes per unit of server weight.
      */
     private volatile int virtualNodesPerServer = 3;
 
     /**
-     * Constructs a new ConsistentHashingSystem.
+     * Per-server corrections to the virtual node count its weight implies, made by {@link #adjustVirtualNodes}.
+     */
+    private final ConcurrentHashMap<Integer, Integer> virtualNodeOffsets = new ConcurrentHashMap<>();
+
+    /**
+     * Serializes membership changes so a rebuild always sees a consistent server set.
+     */
+    private final Object membershipLock = new Object();
+
+    /**
+     * Constructs a new ConsistentHashingSystem that hashes with SHA-256 on a copy-on-write hash ring.
      */
     public ConsistentHashingSystem() {
-        this.ring = new HashRing(new SHA256Hash());
+        this(new SHA256Hash());
+    }
+
+    /**
+     * Constructs a new ConsistentHashingSystem on a copy-on-write hash ring, whose lookups do not allocate.
+     *
+     * @param hashFunction The hash function used to place virtual nodes and route keys.
+     */
+    public ConsistentHashingSystem(HashFunction hashFunction) {
+        this(hashFunction, HashRing.Mode.COPY_ON_WRITE);
+    }
+
+    /**
+     * Constructs a new ConsistentHashingSystem.
+     *
+     * @param hashFunction The hash function used to place virtual nodes and route keys.
+     * @param mode         The lookup structure used by the hash ring.
+     */
+    public ConsistentHashingSystem(HashFunction hashFunction, HashRing.Mode mode) {
+        this(new HashRing(hashFunction, mode));
+    }
+
+    /**
+     * Constructs a new ConsistentHashingSystem on top of an empty ring of any placement strategy.
+     *
+     * @param ring The ring that places keys on servers.
+     */
+    public ConsistentHashingSystem(Ring ring) {
+        this.ring = ring;
         this.router = new RequestRouter(ring);
     }
 
+    /**
+     * Restores a system from a ring saved with {@link #saveRing(Path)}, without rehashing any virtual node.
+     *
+     * @param path         The saved ring.
+     * @param hashFunction The hash function the ring was saved with.
+     * @param mode         The lookup structure to use.
+     * @return The restored system, with its servers, weights, virtual nodes per unit of weight and per-server
+     *         adjustments taken from the file.
+     * @throws IOException              if the file cannot be read or is corrupt.
+     * @throws IllegalArgumentException if the ring was saved with a different hash function.
+     */
+    public static ConsistentHashingSystem restore(Path path, HashFunction hashFunction, HashRing.Mode mode) throws IOException {
+        HashRing ring = HashRing.load(path, hashFunction, mode);
+        ConsistentHashingSystem system = new ConsistentHashingSystem(ring);
+        Map<Integer, Integer> perWeightVotes = new HashMap<>();
+        for (Server server : ring.servers()) {
+            system.serverLoad.ensureCapacity(server.id());
+            system.servers.put(server.id(), server);
+            system.totalWeight += server.weight();
+            system.serverCounter.accumulateAndGet(server.id() + 1, Math::max);
+            perWeightVotes.merge(Math.max(1, ring.virtualNodes(server.id()) / server.weight()), 1, Integer::sum);
+        }
+        int saved = ring.savedVirtualNodesPerWeight();
+        if (saved > 0) {
+            system.virtualNodesPerServer = saved;
+        } else if (!perWeightVotes.isEmpty()) {
+            // Older files do not record the count, so take the one most servers agree on, the smallest on a tie.
+            int votes = 0;
+            for (Map.Entry<Integer, Integer> vote : perWeightVotes.entrySet()) {
+                if (vote.getValue() > votes || vote.getValue() == votes && vote.getKey() < system.virtualNodesPerServer) {
+                    system.virtualNodesPerServer = vote.getKey();
+                    votes = vote.getValue();
+                }
+            }
+        }
+        // Any server whose count is not the nominal one for its weight was adjusted before the save; keep it adjusted.
+        for (Server server : ring.servers()) {
+            int offset = ring.virtualNodes(server.id()) - system.virtualNodesPerServer * server.weight();
+            if (offset != 0) system.virtualNodeOffsets.put(server.id(), offset);
+        }
+        return system;
+    }
+
     /* ================= CONFIG ================= */
 
     /**
-     * Sets the number of virtual nodes per server.
+     * Sets the number of virtual nodes per unit of server weight, rebuilding the ring and discarding any per-server
+     * adjustments.
      *
-     * @param count The number of virtual nodes per server.
+     * @param count The number of virtual nodes per unit of weight.
      * @throws IllegalArgumentException if the count is less than or equal to zero.
      */
     public void setVirtualNodesPerServer(int count) {
         if (count <= 0) throw new IllegalArgumentException();
-        this.virtualNodesPerServer = count;
-        rebuildRing();
+        synchronized (membershipLock) {
+            this.virtualNodesPerServer = count;
+            virtualNodeOffsets.clear();
+            rebuildRing();
+        }
+    }
+
+    /**
+     * Enables consistent hashing with bounded loads. A request whose owning server already holds more than
+     * {@code (1 + epsilon)} times the average load is sent to the next server clockwise that is under capacity.
+     *
+     * @param epsilon The allowed overload factor above the average, for example {@code 0.25}.
+     * @throws IllegalArgumentException if epsilon is not positive.
+     */
+    public void enableBoundedLoad(double epsilon) {
+        router.enableBoundedLoad(new ServerLoadView(), epsilon);
+    }
+
+    /**
+     * Disables bounded-load routing so every request goes to its owning server.
+     */
+    public void disableBoundedLoad() {
+        router.disableBoundedLoad();
+    }
+
+    /**
+     * Spreads each key whose request rate reaches a threshold across the first {@code replicas} servers of its
+     * preference list, re-evaluating hot keys every second and demoting them once they cool off.
+     *
+     * @param replicas      The number of servers a hot key is spread over, at least two.
+     * @param strategy      Whether to cycle through the replicas or split each key's requests by replica weight.
+     * @param promotionRate The requests per second at which a key is split.
+     * @throws IllegalArgumentException if fewer than two replicas are asked for or the rate is not positive.
+     */
+    public void enableHotKeySplitting(int replicas, HotKeySplitter.Strategy strategy, double promotionRate) {
+        router.enableHotKeySplitting(new ServerLoadView(), () -> hotKeyDetector, replicas, strategy, promotionRate, HOT_KEY_REFRESH_INTERVAL);
+    }
+
+    /**
+     * Stops hot key splitting so every key goes to its owning server again.
+     */
+    public void disableHotKeySplitting() {
+        router.disableHotKeySplitting();
+    }
+
+    /**
+     * Caches the hash and owner of up to {@code capacity} recently routed keys, so repeated keys skip hashing and the
+     * ring search. Entries are invalidated by the ring epoch on every membership change.
+     *
+     * @param capacity The number of routes to cache.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public void enableRouteCache(int capacity) {
+        router.enableCache(capacity);
+    }
+
+    /**
+     * Removes the route cache.
+     */
+    public void disableRouteCache() {
+        router.disableCache();
+    }
+
+    /**
+     * Replaces the request tracker, for example to change its capacity or sampling strategy.
+     *
+     * @param tracker The new tracker, or {@code null} to stop tracking requests.
+     */
+    public void setRequestTracker(RequestTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    /**
+     * Journals routed requests to disk, in addition to the in-memory tracker. Journaling is best-effort: when the
+     * writer falls behind, or has failed, records are dropped and counted in {@link RequestJournal#dropped()} rather
+     * than failing or stalling the request, unless the journal's append timeout lets routing wait for it. The caller
+     * owns the journal and closes it.
+     *
+     * @param journal The journal, or {@code null} to stop journaling.
+     */
+    public void setRequestJournal(RequestJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Replaces the hot key detector, for example with an exact counter for small key spaces.
+     *
+     * @param hotKeyDetector The new detector.
+     */
+    public void setHotKeyDetector(HotKeyDetector hotKeyDetector) {
+        this.hotKeyDetector = hotKeyDetector;
+    }
+
+    /**
+     * Keeps load, latency and hot keys over a sliding window of the last {@code length} as well as since start, and
+     * replaces the hot key detector with a {@link WindowedHotKeyDetector}. While enabled, bounded-load routing
+     * compares recent load instead of lifetime totals.
+     *
+     * @param length  The length of the window, for example one minute.
+     * @param buckets The number of buckets the window rotates through; more buckets expire old data more smoothly.
+     * @throws IllegalArgumentException if the window is shorter than one nanosecond per bucket or there are no buckets.
+     */
+    public void enableWindowedStats(Duration length, int buckets) {
+        WindowedLoadCounters load = new WindowedLoadCounters(length, buckets);
+        WindowedLatencyTracker latency = new WindowedLatencyTracker(length, buckets);
+        this.hotKeyDetector = new WindowedHotKeyDetector(length, buckets);
+        this.recentLatency = latency;
+        this.recentLoad = load;
+    }
+
+    /**
+     * Stops keeping windowed statistics, going back to a cumulative hot key detector if a windowed one was installed.
+     */
+    public void disableWindowedStats() {
+        this.recentLoad = null;
+        this.recentLatency = null;
+        if (hotKeyDetector instanceof WindowedHotKeyDetector) this.hotKeyDetector = new SketchHotKeyDetector();
     }
 
     /* ================= SERVERS ================= */
 
     /**
-     * Adds a new server to the system.
+     * Adds a new server of unit weight to the system.
+     *
+     * @return The ID of the new server.
+     */
+    public int addServer() {
+        return addServer(1);
+    }
+
+    /**
+     * Adds a new server to the system with virtual nodes in proportion to its weight.
+     *
+     * @param weight The relative capacity of the server, for example its core count.
+     * @return The ID of the new server.
+     * @throws IllegalArgumentException if the weight is not positive.
      */
-    public void addServer() {
+    public int addServer(int weight) {
         int id = serverCounter.getAndIncrement();
-        Server server = new Server(id);
+        Server server = new Server(id, weight);
 
-        servers.put(id, server);
-        serverLoad.put(id, new AtomicInteger());
+        serverLoad.ensureCapacity(id);
+        synchronized (membershipLock) {
+            servers.put(id, server);
+            totalWeight += weight;
+            addVirtualNodes(server);
+        }
+        return id;
+    }
+
+    /**
+     * Adds a server under an ID chosen elsewhere, or changes its weight if it is already present. Used when membership
+     * is agreed between routers, for example by a {@link membership.MembershipNode}, so every router uses the same IDs.
+     *
+     * @param server The server.
+     */
+    public void putServer(Server server) {
+        serverLoad.ensureCapacity(server.id());
+        synchronized (membershipLock) {
+            serverCounter.accumulateAndGet(server.id() + 1, Math::max);
+            Server previous = servers.put(server.id(), server);
+            totalWeight += server.weight() - (previous == null ? 0 : previous.weight());
+            if (previous == null) addVirtualNodes(server);
+            else if (previous.weight() != server.weight()) ring.updateServer(server, virtualNodesFor(server));
+        }
+    }
+
+    /**
+     * Changes a server's weight, adding or dropping only the difference in its virtual nodes.
+     *
+     * @param serverId The ID of the server.
+     * @param weight   The new relative capacity of the server.
+     * @throws IllegalArgumentException if the server is unknown or the weight is not positive.
+     */
+    public void updateWeight(int serverId, int weight) {
+        synchronized (membershipLock) {
+            if (!servers.containsKey(serverId)) throw new IllegalArgumentException("Unknown server: " + serverId);
+            Server server = new Server(serverId, weight);
+            totalWeight += weight - servers.put(serverId, server).weight();
+            ring.updateServer(server, virtualNodesFor(server));
+        }
+    }
 
-        addVirtualNodes(server);
+    /**
+     * Adds or drops virtual nodes of one server without touching the others, keeping its weight. Only the added or
+     * dropped virtual nodes move keys, so small corrections are cheap; the correction is kept across weight changes and
+     * discarded by {@link #setVirtualNodesPerServer(int)}.
+     *
+     * @param serverId The ID of the server.
+     * @param delta    The number of virtual nodes to add, or to drop if negative. A server keeps at least one.
+     * @return The server's new number of virtual nodes.
+     * @throws IllegalArgumentException if the server is unknown.
+     */
+    public int adjustVirtualNodes(int serverId, int delta) {
+        synchronized (membershipLock) {
+            Server server = servers.get(serverId);
+            if (server == null) throw new IllegalArgumentException("Unknown server: " + serverId);
+            int nominal = Math.multiplyExact(virtualNodesPerServer, server.weight());
+            int count = Math.max(1, virtualNodesFor(server) + delta);
+            if (count == nominal) virtualNodeOffsets.remove(serverId);
+            else virtualNodeOffsets.put(serverId, count - nominal);
+            ring.updateServer(server, count);
+            return count;
+        }
     }
 
     /**
@@ -112,9 +450,212 @@ public class ConsistentHashingSystem {
      * @param serverId The ID of the server to remove.
      */
     public void removeServer(int serverId) {
-        servers.remove(serverId);
-        serverLoad.remove(serverId);
-        ring.removeServer(serverId);
+        synchronized (membershipLock) {
+            Server removed = servers.remove(serverId);
+            if (removed != null) totalWeight -= removed.weight();
+            virtualNodeOffsets.remove(serverId);
+            ring.removeServer(serverId);
+        }
+        serverLoad.reset(serverId);
+        WindowedLoadCounters recent = recentLoad;
+        if (recent != null) recent.reset(serverId);
+    }
+
+    /**
+     * Returns the current servers ordered by ID.
+     *
+     * @return An immutable list of the servers.
+     */
+    public List<Server> servers() {
+        return servers.values().stream().sorted(Comparator.comparingInt(Server::id)).toList();
+    }
+
+    /**
+     * Returns the number of virtual nodes per unit of server weight.
+     *
+     * @return The count before any per-server adjustment.
+     */
+    public int virtualNodesPerServer() {
+        return virtualNodesPerServer;
+    }
+
+    /**
+     * Returns the number of virtual nodes a server has, including any adjustment.
+     *
+     * @param serverId The ID of the server.
+     * @return The number of virtual nodes, or zero for an unknown server.
+     */
+    public int virtualNodes(int serverId) {
+        Server server = servers.get(serverId);
+        return server == null ? 0 : virtualNodesFor(server);
+    }
+
+    /**
+     * Returns the number of requests routed to a server since it joined.
+     *
+     * @param serverId The ID of the server.
+     * @return The server's load, or zero for an unknown server.
+     */
+    public long load(int serverId) {
+        return serverLoad.get(serverId);
+    }
+
+    /**
+     * Returns the number of requests routed since the system was created, including those routed to servers that
+     * have since been removed.
+     *
+     * @return The request count, which never decreases.
+     */
+    public long requestsRouted() {
+        return serverLoad.cumulativeTotal();
+    }
+
+    /**
+     * Returns the per-server load over the recent window.
+     *
+     * @return The windowed counters, or {@code null} if windowed statistics are disabled.
+     */
+    public WindowedLoadCounters recentLoad() {
+        return recentLoad;
+    }
+
+    /**
+     * Returns the tracker of routing latencies over the recent window.
+     *
+     * @return The windowed tracker, or {@code null} if windowed statistics are disabled.
+     */
+    public WindowedLatencyTracker recentLatency() {
+        return recentLatency;
+    }
+
+    /**
+     * Returns the tracker of routing latencies, overall and per server.
+     *
+     * @return The latency tracker.
+     */
+    public LatencyTracker latencyTracker() {
+        return latencyTracker;
+    }
+
+    /**
+     * Returns the current hot key detector.
+     *
+     * @return The detector.
+     */
+    public HotKeyDetector hotKeyDetector() {
+        return hotKeyDetector;
+    }
+
+    /**
+     * Returns the request journal.
+     *
+     * @return The journal, or {@code null} when requests are not journaled.
+     */
+    public RequestJournal requestJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns the route cache in front of the ring.
+     *
+     * @return The cache, or {@code null} if it is disabled.
+     */
+    public RouteCache routeCache() {
+        return router.cache();
+    }
+
+    /**
+     * Measures the balance of the current ring analytically, from the fraction of the hash space each server owns.
+     *
+     * @return The balance.
+     */
+    public RingBalance ringBalance() {
+        return RingBalance.of(placement(), servers());
+    }
+
+    /**
+     * Returns the hot key splitter.
+     *
+     * @return The splitter, or {@code null} if hot key splitting is disabled.
+     */
+    public HotKeySplitter hotKeySplitter() {
+        return router.hotKeySplitter();
+    }
+
+    /**
+     * Returns the ring's epoch, which changes after every membership change.
+     *
+     * @return The epoch.
+     */
+    public long ringEpoch() {
+        return ring.epoch();
+    }
+
+    /**
+     * Returns the number of positions on the ring.
+     *
+     * @return The ring size.
+     */
+    public int ringSize() {
+        return ring.size();
+    }
+
+    /**
+     * Saves the ring so a restart can {@link #restore(Path, HashFunction, HashRing.Mode) restore} it without rehashing.
+     *
+     * @param path The file to write.
+     * @throws IOException                   if the file cannot be written.
+     * @throws UnsupportedOperationException if the ring is not a {@link HashRing}.
+     */
+    public void saveRing(Path path) throws IOException {
+        if (!(ring instanceof HashRing hashRing)) {
+            throw new UnsupportedOperationException("Only hash rings can be saved, not " + ring.getClass().getSimpleName());
+        }
+        synchronized (membershipLock) {
+            hashRing.save(path, virtualNodesPerServer);
+        }
+    }
+
+    /* ================= MIGRATION ================= */
+
+    /**
+     * Returns the current placement, to be captured before a membership change and diffed afterward.
+     *
+     * @return The current placement.
+     */
+    public Placement placement() {
+        return router.placement();
+    }
+
+    /**
+     * Diffs a placement captured before a membership change against the current one.
+     * <pre>{@code
+     * Placement before = system.placement();
+     * system.addServer();
+     * MigrationPlan plan = system.migrationPlanSince(before);
+     * }</pre>
+     *
+     * @param before The placement captured before the change.
+     * @return The hash ranges that changed owner.
+     * @throws UnsupportedOperationException if the ring does not place keys by token ranges.
+     */
+    public MigrationPlan migrationPlanSince(Placement before) {
+        Placement after = router.placement();
+        if (!(before instanceof RingSnapshot from) || !(after instanceof RingSnapshot to)) {
+            throw new UnsupportedOperationException("Migration plans need a token ring, not " + ring.getClass().getSimpleName());
+        }
+        return MigrationPlan.between(from, to);
+    }
+
+    /**
+     * Streams out only the stored keys that a migration plan moves, hashing them with this system's ring.
+     *
+     * @param plan The migration plan.
+     * @param keys The keys currently stored.
+     * @return A parallel stream of the keys that change owner.
+     */
+    public Stream<MigrationPlan.KeyMove> keysToMove(MigrationPlan plan, Iterator<String> keys) {
+        return plan.movedKeys(keys, router::hash);
     }
 
     /* ================= ROUTING ================= */
@@ -128,18 +669,113 @@ public class ConsistentHashingSystem {
     public int locate(String requestKey) {
         long start = System.nanoTime();
 
-        VirtualNode node = router.route(requestKey);
-        int serverId = node.server().id();
+        long keyHash;
+        int serverId;
+        RouteCache cache = router.cache();
+        if (cache == null) {
+            keyHash = router.hash(requestKey);
+            serverId = router.routeToServer(keyHash);
+        } else {
+            RouteCache.Route route = router.resolve(requestKey, cache);
+            keyHash = route.keyHash();
+            serverId = router.routeToServer(route);
+        }
+        return account(requestKey, keyHash, router.split(requestKey, serverId), start);
+    }
 
-        serverLoad.get(serverId).incrementAndGet();
-        hotKeyDetector.track(requestKey);
+    /**
+     * Locates the server for a request key that the caller has already hashed with {@link #hash(String)}, so a caller
+     * that needs the hash itself, for example to index a store, computes it only once.
+     *
+     * @param requestKey The key of the request.
+     * @param keyHash    The hash of the key.
+     * @return The ID of the server that should handle the request.
+     */
+    public int locate(String requestKey, long keyHash) {
+        long start = System.nanoTime();
+        return account(requestKey, keyHash, router.split(requestKey, router.routeToServer(keyHash)), start);
+    }
 
-        long latency = System.nanoTime() - start;
-        latencyTracker.record(latency);
+    /**
+     * Locates the owner of a key the caller has already hashed and records the request against it, bypassing bounded
+     * loads and hot key splitting. For callers that keep the key's data at its owner, such as a cache, so the
+     * statistics charge the server that holds the data and the owner comes from a single placement.
+     *
+     * @param requestKey The key of the request.
+     * @param keyHash    The hash of the key, from {@link #hash(String)}.
+     * @return The ID of the server that owns the key.
+     * @throws IllegalStateException if there are no servers.
+     */
+    public int locateOwner(String requestKey, long keyHash) {
+        long start = System.nanoTime();
+        return account(requestKey, keyHash, router.placement().serverFor(keyHash), start);
+    }
 
-        tracker.record(new RequestRecord(requestKey, serverId, latency, System.currentTimeMillis()));
+    /**
+     * Hashes a request key onto the ring's key space, reusing the route cache's hash when the key is cached.
+     *
+     * @param requestKey The key of the request.
+     * @return The hash used for routing.
+     */
+    public long hash(String requestKey) {
+        RouteCache cache = router.cache();
+        return cache == null ? router.hash(requestKey) : router.resolve(requestKey, cache).keyHash();
+    }
 
-        return serverId;
+    /**
+     * Locates the replica set of a key: its owner followed by the next {@code n - 1} distinct servers clockwise.
+     * This is a pure lookup that does not allocate and is not counted in load or latency statistics.
+     *
+     * @param requestKey The key of the request.
+     * @param n          The number of distinct servers wanted, for example the replication factor.
+     * @param out        Receives the server IDs, owner first.
+     * @return The number of servers written, which is less than {@code n} only if the system has fewer servers.
+     * @throws IllegalArgumentException if {@code n} is negative or {@code out} is shorter than {@code n}.
+     */
+    public int locateN(String requestKey, int n, int[] out) {
+        return router.routeToServers(requestKey, n, out);
+    }
+
+    /**
+     * Locates the servers for many keys at once.
+     * All keys are routed against a single ring placement, load and latency are accounted once per batch, and inputs
+     * of at least {@value #PARALLEL_THRESHOLD} keys are split across the common fork-join pool.
+     *
+     * @param requestKeys The keys of the requests.
+     * @param out         Receives the server ID for each key at the same index.
+     * @throws IllegalArgumentException if {@code out} is shorter than {@code requestKeys}.
+     */
+    public void locateAll(String[] requestKeys, int[] out) {
+        if (requestKeys.length >= PARALLEL_THRESHOLD) {
+            locateAll(requestKeys, out, ForkJoinPool.commonPool());
+        } else {
+            if (out.length < requestKeys.length) throw new IllegalArgumentException("out is shorter than requestKeys");
+            routeBatch(router.placement(), requestKeys, out, 0, requestKeys.length);
+        }
+    }
+
+    /**
+     * Locates the servers for many keys at once, splitting the work across a fork-join pool.
+     *
+     * @param requestKeys The keys of the requests.
+     * @param out         Receives the server ID for each key at the same index.
+     * @param pool        The pool to run on.
+     * @throws IllegalArgumentException if {@code out} is shorter than {@code requestKeys}.
+     */
+    public void locateAll(String[] requestKeys, int[] out, ForkJoinPool pool) {
+        if (out.length < requestKeys.length) throw new IllegalArgumentException("out is shorter than requestKeys");
+        pool.invoke(new BatchTask(router.placement(), requestKeys, out, 0, requestKeys.length));
+    }
+
+    /**
+     * Locates the servers for a stream of keys, hashing and routing them in batches against a single ring placement.
+     * The result keeps the encounter order of the input and is parallel if the input is.
+     *
+     * @param requestKeys The keys of the requests.
+     * @return The server ID of each key.
+     */
+    public IntStream locateAll(Stream<String> requestKeys) {
+        return StreamSupport.intStream(new BatchSpliterator(requestKeys.spliterator(), router.placement()), requestKeys.isParallel());
     }
 
     /* ================= STATS ================= */
@@ -149,13 +785,78 @@ public class ConsistentHashingSystem {
      */
     public void displayStats() {
         System.out.println("\n--- SYSTEM STATS ---");
+        System.out.println("Ring: " + ring.getClass().getSimpleName() + " (" + ring.size() + " positions)");
 
-        serverLoad.forEach((k, v) -> System.out.println("Server " + k + " -> " + v.get()));
+        BoundedLoadFilter boundedLoad = router.boundedLoad();
+        if (boundedLoad != null) {
+            System.out.println("Bounded Load: epsilon=" + boundedLoad.epsilon() + ", capacity per unit of weight=" + boundedLoad.capacity());
+        }
+        HotKeySplitter splitter = router.hotKeySplitter();
+        if (splitter != null) {
+            System.out.println("Hot Key Splitting: " + splitter);
+        }
+        RouteCache cache = router.cache();
+        if (cache != null) {
+            System.out.println("Route Cache: " + cache + ", ring epoch " + ring.epoch());
+        }
+
+        long[] snapshot = serverLoad.snapshot();
+        Server[] members = servers.values().stream().sorted(Comparator.comparingInt(Server::id)).toArray(Server[]::new);
+        RingBalance balance = RingBalance.of(placement(), Arrays.asList(members));
+        long[] loads = new long[members.length];
+        long totalLoad = 0;
+        long totalWeight = 0;
+        for (int i = 0; i < members.length; i++) {
+            int id = members[i].id();
+            loads[i] = id < snapshot.length ? snapshot[id] : 0;
+            totalLoad += loads[i];
+            totalWeight += members[i].weight();
+        }
+        // 1.0 means a server carries exactly its capacity-proportional share of the load.
+        double[] normalized = new double[members.length];
+        for (int i = 0; i < members.length; i++) {
+            int id = members[i].id();
+            normalized[i] = totalLoad == 0 ? 0 : ((double) loads[i] / members[i].weight()) / ((double) totalLoad / totalWeight);
+            System.out.printf("Server %d (weight %d) -> %d | %.2fx fair share | owns %.2f%% | %s%n", id, members[i].weight(), loads[i], normalized[i], balance.ownership(id) * 100, latencyTracker.snapshot(id));
+        }
 
-        System.out.println("Std Deviation: " + StatisticsCalculator.stdDeviation(serverLoad.values().stream().map(AtomicInteger::get).toList()));
+        System.out.println("Std Deviation: " + StatisticsCalculator.stdDeviation(loads));
+        System.out.printf("Std Deviation (load per capacity): %.4f%n", StatisticsCalculator.stdDeviation(normalized));
+        System.out.println("Ring Balance: " + balance);
 
         System.out.println("Avg Latency(ms): " + latencyTracker.averageLatencyMs());
-        System.out.println("Hot Keys: " + hotKeyDetector.topHotKeys(3));
+        System.out.println("Latency: " + latencyTracker.snapshot());
+
+        RequestTracker requestTracker = tracker;
+        if (requestTracker != null) {
+            System.out.println("Tracked Requests: " + requestTracker.size() + " of " + requestTracker.seen() + " (capacity " + requestTracker.capacity() + ")");
+        }
+        RequestJournal requestJournal = journal;
+        if (requestJournal != null) {
+            System.out.println("Request Journal: " + requestJournal);
+        }
+        WindowedLoadCounters windowLoad = recentLoad;
+        WindowedLatencyTracker windowLatency = recentLatency;
+        if (windowLoad != null && windowLatency != null) {
+            double seconds = windowLoad.span().toNanos() / 1e9;
+            long recentTotal = windowLoad.total();
+            System.out.printf("Last %.1fs: %d requests (%.0f/s) | %s%n", seconds, recentTotal, recentTotal / seconds, windowLatency.snapshot());
+            for (Server member : members) {
+                long recent = windowLoad.get(member.id());
+                System.out.printf("  Server %d -> %d (%.0f/s) | %s%n", member.id(), recent, recent / seconds, windowLatency.snapshot(member.id()));
+            }
+        }
+
+        HotKeyDetector detector = hotKeyDetector;
+        if (detector instanceof WindowedHotKeyDetector windowed) {
+            System.out.println("Hot Keys (last " + windowed.length().toSeconds() + "s): " + windowed.heavyHitters(3));
+            System.out.printf("Hot Key Error Bound: +%d (confidence %.1f%%)%n", windowed.errorBound(), windowed.confidence() * 100);
+        } else if (detector instanceof SketchHotKeyDetector sketch) {
+            System.out.println("Hot Keys: " + sketch.heavyHitters(3));
+            System.out.printf("Hot Key Error Bound: +%d (confidence %.1f%%)%n", sketch.sketch().errorBound(), sketch.sketch().confidence() * 100);
+        } else {
+            System.out.println("Hot Keys: " + detector.topHotKeys(3));
+        }
     }
 
     /**
@@ -166,10 +867,51 @@ public class ConsistentHashingSystem {
     }
 
     /**
-     * Replays all the recorded requests.
+     * Prints the recorded requests, streaming them from the tracker's buffer.
      */
     public void replayRequests() {
-        tracker.replay().forEach(System.out::println);
+        replayRequests((keyHash, serverId, latencyNs, timestamp) -> System.out.printf("%d | key#%016x -> Server %d | latency=%d ns%n", timestamp, keyHash, serverId, latencyNs));
+    }
+
+    /**
+     * Streams the recorded requests to a visitor.
+     *
+     * @param visitor The visitor that receives each record.
+     */
+    public void replayRequests(RequestTracker.Visitor visitor) {
+        RequestTracker requestTracker = tracker;
+        if (requestTracker != null) requestTracker.replay(visitor);
+    }
+
+    /**
+     * Re-drives {@link #locate(String)} with the requests of a journal, streaming them one segment at a time.
+     * Requests are paced to their recorded spacing divided by {@code speed}; an infinite speed replays as fast as
+     * possible. Replay into a system that journals to the same directory would read its own output, so use a system
+     * without a journal or a different directory.
+     *
+     * @param directory The journal directory.
+     * @param speed     The speed-up over recorded time, for example {@code 1} for real time or {@code 10} for 10x.
+     * @return The number of requests replayed.
+     * @throws IOException              if the journal cannot be read.
+     * @throws IllegalArgumentException if the speed is not positive.
+     */
+    public long replayJournal(Path directory, double speed) throws IOException {
+        if (!(speed > 0)) throw new IllegalArgumentException("speed must be positive: " + speed);
+        Iterator<RequestRecord> records = RequestJournal.read(directory);
+        long replayed = 0;
+        long firstTimestamp = 0;
+        long begin = System.nanoTime();
+        while (records.hasNext()) {
+            RequestRecord record = records.next();
+            if (replayed == 0) firstTimestamp = record.timestamp();
+            if (speed != Double.POSITIVE_INFINITY) {
+                long due = begin + (long) ((record.timestamp() - firstTimestamp) * 1_000_000 / speed);
+                for (long wait; (wait = due - System.nanoTime()) > 0; ) LockSupport.parkNanos(wait);
+            }
+            locate(record.requestKey());
+            replayed++;
+        }
+        return replayed;
     }
 
     /* ================= INTERNAL ================= */
@@ -180,16 +922,253 @@ public class ConsistentHashingSystem {
      * @param server The server for which to add virtual nodes.
      */
     private void addVirtualNodes(Server server) {
-        for (int i = 0; i < virtualNodesPerServer; i++) {
-            ring.addVirtualNode(new VirtualNode(server, server.id() + "_" + i));
+        ring.addServer(server, virtualNodesFor(server));
+    }
+
+    /**
+     * Records a routed request in the load, hot key, latency, tracker and journal statistics.
+     */
+    private int account(String requestKey, long keyHash, int serverId, long start) {
+        serverLoad.increment(serverId);
+        hotKeyDetector.track(requestKey, keyHash);
+
+        long latency = System.nanoTime() - start;
+        latencyTracker.record(serverId, latency);
+        WindowedLoadCounters windowLoad = recentLoad;
+        if (windowLoad != null) windowLoad.increment(serverId);
+        WindowedLatencyTracker windowLatency = recentLatency;
+        if (windowLatency != null) windowLatency.record(serverId, latency);
+
+        RequestTracker requestTracker = tracker;
+        if (requestTracker != null) requestTracker.record(keyHash, serverId, latency);
+        RequestJournal requestJournal = journal;
+        if (requestJournal != null) requestJournal.append(requestKey, serverId, latency, System.currentTimeMillis());
+
+        return serverId;
+    }
+
+    /**
+     * Routes a range of keys against one placement in batches of {@value #BATCH_SIZE}, updating load, latency and
+     * request tracking once per batch with the batch's amortized per-key latency.
+     */
+    private void routeBatch(Placement placement, String[] requestKeys, int[] out, int from, int to) {
+        long[] hashes = new long[Math.min(BATCH_SIZE, to - from)];
+        int[] routed = new int[hashes.length];
+        long[] batchLoad = new long[serverCounter.get()];
+        HotKeyDetector detector = hotKeyDetector;
+        RequestTracker requestTracker = tracker;
+        RequestJournal requestJournal = journal;
+        WindowedLoadCounters windowLoad = recentLoad;
+        WindowedLatencyTracker windowLatency = recentLatency;
+
+        for (int start = from; start < to; start += BATCH_SIZE) {
+            int count = Math.min(BATCH_SIZE, to - start);
+            long begin = System.nanoTime();
+
+            for (int i = 0; i < count; i++) hashes[i] = router.hash(requestKeys[start + i]);
+            router.routeAll(placement, hashes, routed, 0, count);
+            if (router.hotKeySplitter() != null) {
+                for (int i = 0; i < count; i++) routed[i] = router.split(requestKeys[start + i], routed[i]);
+            }
+            System.arraycopy(routed, 0, out, start, count);
+
+            long perKey = (System.nanoTime() - begin) / count;
+            long timestamp = requestJournal == null ? 0 : System.currentTimeMillis();
+            for (int i = 0; i < count; i++) {
+                int serverId = routed[i];
+                if (serverId >= batchLoad.length) batchLoad = Arrays.copyOf(batchLoad, serverId + 1);
+                batchLoad[serverId]++;
+                detector.track(requestKeys[start + i], hashes[i]);
+                if (requestTracker != null) requestTracker.record(hashes[i], serverId, perKey);
+                if (requestJournal != null) requestJournal.append(requestKeys[start + i], serverId, perKey, timestamp);
+            }
+            for (int serverId = 0; serverId < batchLoad.length; serverId++) {
+                if (batchLoad[serverId] == 0) continue;
+                serverLoad.add(serverId, batchLoad[serverId]);
+                latencyTracker.record(serverId, perKey, batchLoad[serverId]);
+                if (windowLoad != null) windowLoad.add(serverId, batchLoad[serverId]);
+                if (windowLatency != null) windowLatency.record(serverId, perKey, batchLoad[serverId]);
+                batchLoad[serverId] = 0;
+            }
         }
     }
 
     /**
-     * Rebuilds the hash ring.
+     * Returns the number of virtual nodes a server gets for its weight, with its adjustment applied.
+     */
+    private int virtualNodesFor(Server server) {
+        int nominal = Math.multiplyExact(virtualNodesPerServer, server.weight());
+        return Math.max(1, nominal + virtualNodeOffsets.getOrDefault(server.id(), 0));
+    }
+
+    /**
+     * Rebuilds the ring atomically, placing servers in ID order so order-sensitive strategies stay deterministic.
+     * Lookups keep using the old placement until the new one is published.
      */
     private void rebuildRing() {
-        ring.clear();
-        servers.values().forEach(this::addVirtualNodes);
+        ring.rebuild(servers.values().stream().sorted(Comparator.comparingInt(Server::id)).toList(), this::virtualNodesFor);
+    }
+
+    /**
+     * A lock-free view of the per-server load counters used by bounded-load routing, reading the recent window when
+     * windowed statistics are enabled.
+     */
+    private final class ServerLoadView implements LoadView {
+
+        @Override
+        public long load(int serverId) {
+            WindowedLoadCounters recent = recentLoad;
+            return recent != null ? recent.get(serverId) : serverLoad.get(serverId);
+        }
+
+        @Override
+        public long totalLoad() {
+            WindowedLoadCounters recent = recentLoad;
+            return recent != null ? recent.total() : serverLoad.total();
+        }
+
+        @Override
+        public int serverCount() {
+            return servers.size();
+        }
+
+        @Override
+        public int weight(int serverId) {
+            Server server = servers.get(serverId);
+            return server == null ? 0 : server.weight();
+        }
+
+        @Override
+        public long totalWeight() {
+            return totalWeight;
+        }
+    }
+
+    /**
+     * Splits a batch across a fork-join pool, routing every leaf against the same placement. Tasks are never
+     * serialized; RecursiveAction is Serializable only because ForkJoinTask is.
+     */
+    private final class BatchTask extends RecursiveAction {
+        /**
+         * The serialization version, declared because the superclass is Serializable.
+         */
+        @Serial
+        private static final long serialVersionUID = 1L;
+        /**
+         * The placement every leaf routes against.
+         */
+        private final transient Placement placement;
+        /**
+         * The keys being routed.
+         */
+        private final String[] requestKeys;
+        /**
+         * Receives the server ID for each key.
+         */
+        private final int[] out;
+        /**
+         * The first index of this task's range, inclusive.
+         */
+        private final int from;
+        /**
+         * The last index of this task's range, exclusive.
+         */
+        private final int to;
+
+        private BatchTask(Placement placement, String[] requestKeys, int[] out, int from, int to) {
+            this.placement = placement;
+            this.requestKeys = requestKeys;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 16 * BATCH_SIZE) {
+                routeBatch(placement, requestKeys, out, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchTask(placement, requestKeys, out, from, mid), new BatchTask(placement, requestKeys, out, mid, to));
+        }
+    }
+
+    /**
+     * Pulls keys from a source spliterator a batch at a time, routes the batch, then hands out the server IDs.
+     */
+    private final class BatchSpliterator implements Spliterator.OfInt {
+        /**
+         * The spliterator supplying the keys.
+         */
+        private final Spliterator<String> source;
+        /**
+         * The placement every batch routes against.
+         */
+        private final Placement placement;
+        /**
+         * The keys of the current batch.
+         */
+        private final String[] keys = new String[BATCH_SIZE];
+        /**
+         * The server IDs of the current batch.
+         */
+        private final int[] routed = new int[BATCH_SIZE];
+        /**
+         * The index of the next server ID to hand out.
+         */
+        private int position;
+        /**
+         * The number of keys in the current batch.
+         */
+        private int limit;
+        /**
+         * Appends a key from the source to the current batch.
+         */
+        private final Consumer<String> collector = key -> keys[limit++] = key;
+
+        private BatchSpliterator(Spliterator<String> source, Placement placement) {
+            this.source = source;
+            this.placement = placement;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (position == limit && !fill()) return false;
+            action.accept(routed[position++]);
+            return true;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            if (position < limit) return null;
+            Spliterator<String> prefix = source.trySplit();
+            return prefix == null ? null : new BatchSpliterator(prefix, placement);
+        }
+
+        @Override
+        public long estimateSize() {
+            long remaining = source.estimateSize();
+            return remaining == Long.MAX_VALUE ? remaining : remaining + (limit - position);
+        }
+
+        @Override
+        public int characteristics() {
+            return (source.characteristics() & ORDERED) | NONNULL;
+        }
+
+        /**
+         * Reads the next batch of keys and routes it.
+         */
+        private boolean fill() {
+            limit = 0;
+            position = 0;
+            boolean more = true;
+            while (more && limit < BATCH_SIZE) more = source.tryAdvance(collector);
+            if (limit == 0) return false;
+            routeBatch(placement, keys, routed, 0, limit);
+            Arrays.fill(keys, 0, limit, null);
+            return true;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,351 @@
+package system;
+
+import analytics.RunningStatistics;
+import analytics.WindowedLoadCounters;
+import domain.Server;
+import ring.Placement;
+import ring.RingSnapshot;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evens out the load on a ring by giving busy servers fewer virtual nodes and idle servers more, a few at a time.
+ * <p>
+ * Each step reads the recent load per unit of weight from {@link ConsistentHashingSystem#recentLoad()} and judges the
+ * imbalance by its coefficient of variation, the same spread {@code displayStats} prints as a standard deviation
+ * relative to the mean. A server whose load is off the mean by more than the target is proposed a new count of
+ * {@code current * (mean / load)^0.5}: the square root damps the correction, since the load moved by a virtual node
+ * depends on where its token lands. Proposals are applied worst server first through
+ * {@link ConsistentHashingSystem#adjustVirtualNodes(int, int)} until the step's disruption budget, a fraction of the
+ * ring's tokens, is spent, so a step never moves much more than that fraction of the key space and the ring is never
+ * rebuilt.
+ * <p>
+ * Two kinds of hysteresis keep it from chasing noise. Adjusting starts only once the imbalance exceeds the target by
+ * half again and then continues until it is back within the target, and within a step, servers already within the
+ * target of the mean are left alone. Steps are skipped until the window holds enough requests per server to be
+ * meaningful, and a server's count stays within a factor of {@value #MAX_SKEW} of what its weight implies. The window
+ * should be no longer than the interval between steps, so each step sees the effect of the last one.
+ * <p>
+ * Virtual nodes only split the hash space; load that comes from a single hot key is better handled by hot key
+ * splitting. Strategies without virtual nodes are rejected.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class VirtualNodeRebalancer implements Closeable {
+
+    /**
+     * How far above the target the imbalance must rise before adjusting starts, relative to the target.
+     */
+    private static final double HYSTERESIS = 0.5;
+    /**
+     * The exponent damping each proposed correction.
+     */
+    private static final double GAIN = 0.5;
+    /**
+     * The furthest a server's count may drift from what its weight implies, as a factor either way.
+     */
+    private static final int MAX_SKEW = 4;
+    /**
+     * The fewest requests per server the window must hold for a step to act.
+     */
+    private static final long MIN_REQUESTS_PER_SERVER = 1000;
+
+    /**
+     * The result of one step.
+     */
+    public enum Outcome {
+        /**
+         * Windowed statistics are off or the window holds too few requests.
+         */
+        NOT_ENOUGH_DATA,
+        /**
+         * The imbalance is within bounds; nothing was changed.
+         */
+        BALANCED,
+        /**
+         * Virtual nodes were added or dropped.
+         */
+        ADJUSTED
+    }
+
+    /**
+     * What one step saw and did.
+     *
+     * @param outcome         Whether the step changed anything.
+     * @param imbalance       The coefficient of variation of the load per unit of weight before the step.
+     * @param serversAdjusted The number of servers whose virtual node count changed.
+     * @param tokensAdded     The virtual nodes added.
+     * @param tokensRemoved   The virtual nodes dropped.
+     * @param movedFraction   The fraction of the key space that changed owner, or zero if nothing was changed.
+     */
+    public record Step(Outcome outcome, double imbalance, int serversAdjusted, int tokensAdded, int tokensRemoved,
+                       double movedFraction) {
+
+        @Override
+        public String toString() {
+            return String.format("%s: imbalance %.4f, %d servers adjusted, +%d/-%d tokens, %.2f%% of keys moved",
+                    outcome, imbalance, serversAdjusted, tokensAdded, tokensRemoved, movedFraction * 100);
+        }
+    }
+
+    /**
+     * The system whose ring is rebalanced.
+     */
+    private final ConsistentHashingSystem system;
+    /**
+     * The coefficient of variation to converge on.
+     */
+    private volatile double targetImbalance = 0.05;
+    /**
+     * The most tokens one step may add or drop, as a fraction of the ring's tokens.
+     */
+    private volatile double disruptionBudget = 0.01;
+    /**
+     * Runs the periodic steps, or {@code null} if steps are only taken through {@link #step()}.
+     */
+    private final ScheduledExecutorService stepper;
+    /**
+     * Whether the previous step left the imbalance above the target, so adjusting continues below the start threshold.
+     */
+    private boolean active;
+    /**
+     * The steps that changed the ring.
+     */
+    private long adjustments;
+    /**
+     * The tokens added or dropped over all steps.
+     */
+    private long tokensChanged;
+    /**
+     * The most recent step, or {@code null} before the first.
+     */
+    private volatile Step lastStep;
+    /**
+     * The exception thrown by the most recent scheduled step that failed, or {@code null} if none has.
+     */
+    private volatile RuntimeException lastFailure;
+    /**
+     * The scheduled steps that threw.
+     */
+    private volatile long failures;
+
+    /**
+     * Constructs a new VirtualNodeRebalancer.
+     *
+     * @param system   The system to rebalance. Windowed statistics must be enabled for steps to act.
+     * @param interval How often to step, or {@code null} to step only through {@link #step()}.
+     * @throws IllegalArgumentException if the system's ring has no virtual nodes to adjust.
+     */
+    public VirtualNodeRebalancer(ConsistentHashingSystem system, Duration interval) {
+        if (!(system.placement() instanceof RingSnapshot)) {
+            throw new IllegalArgumentException("Rebalancing needs a ring with virtual nodes");
+        }
+        this.system = system;
+        if (interval == null) {
+            this.stepper = null;
+        } else {
+            this.stepper = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon(true).name("vnode-rebalancer").factory());
+            long nanos = interval.toNanos();
+            stepper.scheduleAtFixedRate(this::scheduledStep, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Sets the imbalance to converge on.
+     *
+     * @param targetImbalance The coefficient of variation of the load per unit of weight, for example 0.05.
+     * @throws IllegalArgumentException if the target is not positive.
+     */
+    public void setTargetImbalance(double targetImbalance) {
+        if (!(targetImbalance > 0)) throw new IllegalArgumentException("Target imbalance must be positive: " + targetImbalance);
+        this.targetImbalance = targetImbalance;
+    }
+
+    /**
+     * Sets how much one step may change the ring.
+     *
+     * @param fraction The most tokens one step may add or drop, as a fraction of the ring's tokens; at least one
+     *                 token is always allowed.
+     * @throws IllegalArgumentException if the fraction is not in (0, 1].
+     */
+    public void setDisruptionBudget(double fraction) {
+        if (!(fraction > 0 && fraction <= 1)) throw new IllegalArgumentException("Disruption budget must be in (0, 1]: " + fraction);
+        this.disruptionBudget = fraction;
+    }
+
+    /**
+     * Reads the recent load and, if it is too uneven, adjusts the virtual nodes of the servers furthest from the mean.
+     *
+     * @return What the step saw and did.
+     */
+    public synchronized Step step() {
+        Step step = takeStep();
+        lastStep = step;
+        return step;
+    }
+
+    /**
+     * Takes a step for the scheduler. An exception that escaped would cancel every later step, so it is recorded
+     * instead and the next step runs as usual.
+     */
+    private void scheduledStep() {
+        try {
+            step();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                failures++;
+                lastFailure = e;
+            }
+        }
+    }
+
+    /**
+     * Returns the most recent step.
+     *
+     * @return The step, or {@code null} before the first.
+     */
+    public Step lastStep() {
+        return lastStep;
+    }
+
+    /**
+     * Returns the exception thrown by the most recent scheduled step that failed. Scheduled steps keep running after
+     * a failure.
+     *
+     * @return The exception, or {@code null} if no scheduled step has failed.
+     */
+    public RuntimeException lastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Returns the number of scheduled steps that threw.
+     *
+     * @return The failure count.
+     */
+    public long failures() {
+        return failures;
+    }
+
+    /**
+     * Returns the number of steps that changed the ring.
+     *
+     * @return The adjustment count.
+     */
+    public synchronized long adjustments() {
+        return adjustments;
+    }
+
+    /**
+     * Returns the tokens added or dropped over all steps.
+     *
+     * @return The token count.
+     */
+    public synchronized long tokensChanged() {
+        return tokensChanged;
+    }
+
+    /**
+     * Stops the periodic steps. Adjustments made so far stay in place.
+     */
+    @Override
+    public void close() {
+        if (stepper != null) stepper.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("target imbalance=%.3f, budget=%.2f%% of tokens per step, adjustments=%d, tokens changed=%d, last step=%s, failures=%d, last failure=%s",
+                targetImbalance, disruptionBudget * 100, adjustments(), tokensChanged(), lastStep, failures(), lastFailure);
+    }
+
+    /**
+     * Measures the imbalance and applies the proposals that fit the budget. Must be called holding this object's lock.
+     */
+    private Step takeStep() {
+        WindowedLoadCounters recent = system.recentLoad();
+        List<Server> servers = system.servers();
+        if (recent == null || servers.size() < 2) return new Step(Outcome.NOT_ENOUGH_DATA, 0, 0, 0, 0, 0);
+
+        double[] loadPerWeight = new double[servers.size()];
+        long total = 0;
+        for (int i = 0; i < loadPerWeight.length; i++) {
+            long load = recent.get(servers.get(i).id());
+            loadPerWeight[i] = (double) load / servers.get(i).weight();
+            total += load;
+        }
+        if (total < MIN_REQUESTS_PER_SERVER * servers.size()) return new Step(Outcome.NOT_ENOUGH_DATA, 0, 0, 0, 0, 0);
+
+        RunningStatistics statistics = RunningStatistics.of(loadPerWeight);
+        double imbalance = statistics.coefficientOfVariation();
+        double target = targetImbalance;
+        if (imbalance <= target || (!active && imbalance <= target * (1 + HYSTERESIS))) {
+            active = false;
+            return new Step(Outcome.BALANCED, imbalance, 0, 0, 0, 0);
+        }
+        active = true;
+
+        List<Proposal> proposals = propose(servers, loadPerWeight, statistics.mean(), target);
+        int budget = Math.max(1, (int) (system.ringSize() * disruptionBudget));
+        int added = 0;
+        int removed = 0;
+        int adjusted = 0;
+        Placement before = system.placement();
+        for (Proposal proposal : proposals) {
+            if (budget == 0) break;
+            int delta = Integer.signum(proposal.delta) * Math.min(Math.abs(proposal.delta), budget);
+            try {
+                system.adjustVirtualNodes(proposal.serverId, delta);
+            } catch (IllegalArgumentException e) {
+                continue; // The server was removed since the load was read.
+            }
+            budget -= Math.abs(delta);
+            if (delta > 0) added += delta;
+            else removed -= delta;
+            adjusted++;
+        }
+        if (adjusted == 0) return new Step(Outcome.BALANCED, imbalance, 0, 0, 0, 0);
+        adjustments++;
+        tokensChanged += added + removed;
+        return new Step(Outcome.ADJUSTED, imbalance, adjusted, added, removed, system.migrationPlanSince(before).movedFraction());
+    }
+
+    /**
+     * Proposes a correction for every server off the mean by more than the target, worst first.
+     */
+    private List<Proposal> propose(List<Server> servers, double[] loadPerWeight, double mean, double target) {
+        int perWeight = system.virtualNodesPerServer();
+        List<Proposal> proposals = new ArrayList<>();
+        for (int i = 0; i < loadPerWeight.length; i++) {
+            double deviation = loadPerWeight[i] / mean - 1;
+            if (Math.abs(deviation) <= target) continue;
+            Server server = servers.get(i);
+            int current = system.virtualNodes(server.id());
+            int nominal = perWeight * server.weight();
+            double desired = loadPerWeight[i] == 0 ? Double.MAX_VALUE : current * Math.pow(mean / loadPerWeight[i], GAIN);
+            long bounded = Math.round(Math.clamp(desired, Math.max(1, nominal / MAX_SKEW), (double) nominal * MAX_SKEW));
+            int delta = (int) (bounded - current);
+            if (delta != 0) proposals.add(new Proposal(server.id(), delta, Math.abs(deviation)));
+        }
+        proposals.sort(Comparator.comparingDouble(Proposal::deviation).reversed());
+        return proposals;
+    }
+
+    /**
+     * A proposed correction to one server's virtual nodes.
+     *
+     * @param serverId  The ID of the server.
+     * @param delta     The virtual nodes to add, or to drop if negative.
+     * @param deviation How far the server's load is from the mean, relative to the mean.
+     */
+    private record Proposal(int serverId, int delta, double deviation) {
+    }
+}
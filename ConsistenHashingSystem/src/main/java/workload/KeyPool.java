@@ -0,0 +1,218 @@
+package workload;
+
+import java.util.ArrayDeque;
+import java.util.random.RandomGenerator;
+
+/**
+ * A fixed set of pre-generated request keys and a distribution to draw them from.
+ * <p>
+ * Keys are built once up front so a load driver measures routing rather than string concatenation, and drawing a key
+ * is allocation-free: a uniform draw is one bounded random int, a Zipf draw is one Walker alias-table lookup, and a
+ * hot-spot draw is a biased coin followed by a uniform draw within the hot or the cold keys.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public final class KeyPool {
+
+    /**
+     * The shapes a key pool can draw from.
+     */
+    public enum Distribution {
+        /**
+         * Every key is equally likely.
+         */
+        UNIFORM,
+        /**
+         * The key of rank {@code k} is drawn with probability proportional to {@code 1 / k^s}.
+         */
+        ZIPF,
+        /**
+         * A fixed fraction of the traffic goes to a fixed fraction of the keys.
+         */
+        HOT_SPOT
+    }
+
+    /**
+     * The keys, hottest first for the skewed distributions.
+     */
+    private final String[] keys;
+    /**
+     * The distribution keys are drawn from.
+     */
+    private final Distribution distribution;
+    /**
+     * A human-readable description of the distribution's parameters.
+     */
+    private final String description;
+    /**
+     * The alias table's acceptance probability per column, for {@link Distribution#ZIPF}.
+     */
+    private final double[] probability;
+    /**
+     * The alias table's fallback key per column, for {@link Distribution#ZIPF}.
+     */
+    private final int[] alias;
+    /**
+     * The number of hot keys, for {@link Distribution#HOT_SPOT}.
+     */
+    private final int hotKeys;
+    /**
+     * The fraction of draws that go to the hot keys, for {@link Distribution#HOT_SPOT}.
+     */
+    private final double hotTraffic;
+
+    /**
+     * Constructs a new KeyPool.
+     */
+    private KeyPool(int size, Distribution distribution, String description, double[] probability, int[] alias, int hotKeys, double hotTraffic) {
+        if (size <= 0) throw new IllegalArgumentException("Key pool size must be positive: " + size);
+        this.keys = new String[size];
+        for (int i = 0; i < size; i++) keys[i] = "user-" + i;
+        this.distribution = distribution;
+        this.description = description;
+        this.probability = probability;
+        this.alias = alias;
+        this.hotKeys = hotKeys;
+        this.hotTraffic = hotTraffic;
+    }
+
+    /**
+     * Creates a pool whose keys are all equally likely.
+     *
+     * @param size The number of keys.
+     * @return The pool.
+     */
+    public static KeyPool uniform(int size) {
+        return new KeyPool(size, Distribution.UNIFORM, "uniform", null, null, 0, 0);
+    }
+
+    /**
+     * Creates a pool whose keys follow a Zipf distribution, with {@code user-0} the most popular.
+     *
+     * @param size     The number of keys.
+     * @param exponent The skew {@code s}; zero is uniform and values around one match typical web traffic.
+     * @return The pool.
+     * @throws IllegalArgumentException if the exponent is negative.
+     */
+    public static KeyPool zipf(int size, double exponent) {
+        if (exponent < 0) throw new IllegalArgumentException("Zipf exponent must not be negative: " + exponent);
+        if (size <= 0) throw new IllegalArgumentException("Key pool size must be positive: " + size);
+        double[] weights = new double[size];
+        for (int i = 0; i < size; i++) weights[i] = 1.0 / Math.pow(i + 1, exponent);
+        double[] probability = new double[size];
+        int[] alias = new int[size];
+        buildAliasTable(weights, probability, alias);
+        return new KeyPool(size, Distribution.ZIPF, "zipf(s=" + exponent + ")", probability, alias, 0, 0);
+    }
+
+    /**
+     * Creates a pool in which a fraction of the keys receives a fraction of the traffic, uniformly within each part.
+     *
+     * @param size            The number of keys, at least two so there is a hot and a cold part.
+     * @param hotKeyFraction  The fraction of keys that are hot, in {@code (0, 1)}.
+     * @param trafficFraction The fraction of draws that go to the hot keys, in {@code [0, 1]}.
+     * @return The pool.
+     * @throws IllegalArgumentException if there are fewer than two keys or a fraction is out of range.
+     */
+    public static KeyPool hotSpot(int size, double hotKeyFraction, double trafficFraction) {
+        if (size < 2) throw new IllegalArgumentException("A hot-spot pool needs at least two keys: " + size);
+        if (!(hotKeyFraction > 0 && hotKeyFraction < 1)) throw new IllegalArgumentException("Hot key fraction must be in (0, 1): " + hotKeyFraction);
+        if (!(trafficFraction >= 0 && trafficFraction <= 1)) throw new IllegalArgumentException("Traffic fraction must be in [0, 1]: " + trafficFraction);
+        int hot = (int) Math.max(1, Math.min(size - 1, Math.round(size * hotKeyFraction)));
+        return new KeyPool(size, Distribution.HOT_SPOT, String.format("hot-spot(%.0f%% of traffic to %d keys)", trafficFraction * 100, hot), null, null, hot, trafficFraction);
+    }
+
+    /**
+     * Fills a Walker alias table using Vose's method, so that each draw costs one random column and one coin flip.
+     *
+     * @param weights     The unnormalized weight of each key.
+     * @param probability The acceptance probability per column, filled in.
+     * @param alias       The fallback key per column, filled in.
+     */
+    private static void buildAliasTable(double[] weights, double[] probability, int[] alias) {
+        int n = weights.length;
+        double total = 0;
+        for (double w : weights) total += w;
+        double[] scaled = new double[n];
+        ArrayDeque<Integer> small = new ArrayDeque<>();
+        ArrayDeque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            (scaled[more] < 1.0 ? small : large).push(more);
+        }
+        // Whatever is left is 1.0 up to rounding error.
+        while (!large.isEmpty()) probability[large.pop()] = 1.0;
+        while (!small.isEmpty()) probability[small.pop()] = 1.0;
+    }
+
+    /**
+     * Draws the index of a key.
+     *
+     * @param random The caller's random source; each thread should use its own.
+     * @return The index, in {@code [0, size())}.
+     */
+    public int nextIndex(RandomGenerator random) {
+        return switch (distribution) {
+            case UNIFORM -> random.nextInt(keys.length);
+            case ZIPF -> {
+                int column = random.nextInt(keys.length);
+                yield random.nextDouble() < probability[column] ? column : alias[column];
+            }
+            case HOT_SPOT -> random.nextDouble() < hotTraffic
+                    ? random.nextInt(hotKeys)
+                    : hotKeys + random.nextInt(keys.length - hotKeys);
+        };
+    }
+
+    /**
+     * Draws a key.
+     *
+     * @param random The caller's random source; each thread should use its own.
+     * @return The key.
+     */
+    public String next(RandomGenerator random) {
+        return keys[nextIndex(random)];
+    }
+
+    /**
+     * Returns the key at an index.
+     *
+     * @param index The index, in {@code [0, size())}.
+     * @return The key.
+     */
+    public String key(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Returns the number of keys.
+     *
+     * @return The size of the pool.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the distribution keys are drawn from.
+     *
+     * @return The distribution.
+     */
+    public Distribution distribution() {
+        return distribution;
+    }
+
+    @Override
+    public String toString() {
+        return keys.length + " keys, " + description;
+    }
+}
@@ -0,0 +1,427 @@
+package workload;
+
+import analytics.LatencyHistogram;
+import analytics.StatisticsCalculator;
+import domain.Server;
+import system.ConsistentHashingSystem;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Drives a {@link ConsistentHashingSystem} from many worker threads and reports how it holds up over time.
+ * <p>
+ * Each worker draws keys from a shared {@link KeyPool} with its own random source and routes them with
+ * {@link ConsistentHashingSystem#locate(String)}. Without a target rate the driver runs closed-loop: every worker
+ * sends its next request as soon as the previous one returns. With a target rate it runs open-loop: each worker
+ * follows a fixed schedule of intended send times, and response time is measured from the intended time rather than
+ * the actual one. A worker that falls behind therefore charges the wait to the requests it delayed instead of quietly
+ * sending fewer of them, which corrects for coordinated omission; the time spent inside {@code locate} alone is
+ * recorded separately as the service time.
+ * <p>
+ * While the workers run, the calling thread applies the scheduled membership changes and prints a line per report
+ * interval with the throughput, response-time percentiles and load imbalance of that interval.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class LoadDriver {
+
+    /**
+     * How far ahead of its intended send time a worker spins instead of parking, since a park can oversleep by tens
+     * of microseconds and that delay would be charged to the request.
+     */
+    private static final long SPIN_THRESHOLD_NS = 20_000;
+
+    /**
+     * The system under load.
+     */
+    private final ConsistentHashingSystem system;
+    /**
+     * The keys to route.
+     */
+    private final KeyPool keys;
+    /**
+     * The membership changes to apply, in the order they were added.
+     */
+    private final List<MembershipChange> changes = new ArrayList<>();
+    /**
+     * The number of worker threads.
+     */
+    private int workers = Runtime.getRuntime().availableProcessors();
+    /**
+     * Whether workers are virtual threads rather than platform threads.
+     */
+    private boolean virtualThreads = true;
+    /**
+     * The target number of requests per second across all workers, or zero to run closed-loop.
+     */
+    private double targetRate;
+    /**
+     * How long to run.
+     */
+    private Duration duration = Duration.ofSeconds(5);
+    /**
+     * The most requests to send across all workers.
+     */
+    private long requestLimit = Long.MAX_VALUE;
+    /**
+     * How often to print a report line.
+     */
+    private Duration reportInterval = Duration.ofSeconds(1);
+    /**
+     * Where report lines go, or {@code null} to stay quiet.
+     */
+    private PrintStream output = System.out;
+    /**
+     * The seed from which each worker's random source is derived.
+     */
+    private long seed = System.nanoTime();
+
+    /**
+     * Set when the run ends or a worker fails, so the remaining workers stop early.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Constructs a new LoadDriver.
+     *
+     * @param system The system to drive.
+     * @param keys   The keys to route.
+     */
+    public LoadDriver(ConsistentHashingSystem system, KeyPool keys) {
+        this.system = system;
+        this.keys = keys;
+    }
+
+    /**
+     * Sets the number of worker threads.
+     *
+     * @param workers The number of workers.
+     * @throws IllegalArgumentException if the number is not positive.
+     */
+    public void setWorkers(int workers) {
+        if (workers <= 0) throw new IllegalArgumentException("Workers must be positive: " + workers);
+        this.workers = workers;
+    }
+
+    /**
+     * Chooses between virtual and platform worker threads.
+     *
+     * @param virtualThreads Whether workers are virtual threads.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Sets the open-loop arrival rate.
+     *
+     * @param requestsPerSecond The target rate across all workers, or zero to run closed-loop.
+     * @throws IllegalArgumentException if the rate is negative.
+     */
+    public void setTargetRate(double requestsPerSecond) {
+        if (!(requestsPerSecond >= 0)) throw new IllegalArgumentException("Target rate must not be negative: " + requestsPerSecond);
+        this.targetRate = requestsPerSecond;
+    }
+
+    /**
+     * Sets how long to run; the run also ends early once the request limit is reached.
+     *
+     * @param duration The run time.
+     */
+    public void setDuration(Duration duration) {
+        if (duration.isNegative() || duration.isZero()) throw new IllegalArgumentException("Duration must be positive: " + duration);
+        this.duration = duration;
+    }
+
+    /**
+     * Sets the most requests to send; the run also ends once its duration is up.
+     *
+     * @param requestLimit The request limit across all workers.
+     */
+    public void setRequestLimit(long requestLimit) {
+        if (requestLimit <= 0) throw new IllegalArgumentException("Request limit must be positive: " + requestLimit);
+        this.requestLimit = requestLimit;
+    }
+
+    /**
+     * Sets how often to print a report line.
+     *
+     * @param reportInterval The report interval.
+     */
+    public void setReportInterval(Duration reportInterval) {
+        if (reportInterval.isNegative() || reportInterval.isZero()) throw new IllegalArgumentException("Report interval must be positive: " + reportInterval);
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * Sets where report lines are printed.
+     *
+     * @param output The stream, or {@code null} to print nothing.
+     */
+    public void setOutput(PrintStream output) {
+        this.output = output;
+    }
+
+    /**
+     * Sets the seed so that runs draw the same keys in the same order per worker.
+     *
+     * @param seed The seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Schedules a membership change, such as adding or removing a server, while the workers keep routing.
+     *
+     * @param at     The time since the start of the run at which to apply the change.
+     * @param label  A short description for the report.
+     * @param change The change to apply to the system.
+     */
+    public void addMembershipChange(Duration at, String label, Consumer<ConsistentHashingSystem> change) {
+        changes.add(new MembershipChange(at, label, change));
+    }
+
+    /**
+     * Runs the workload, applying membership changes and printing reports from the calling thread, and blocks until
+     * every worker has finished. An exception thrown by a membership change stops the workers and is rethrown.
+     *
+     * @return The totals of the run and its report intervals.
+     * @throws InterruptedException  if the calling thread is interrupted while waiting.
+     * @throws IllegalStateException if a worker failed.
+     */
+    public Result run() throws InterruptedException {
+        LatencyHistogram responseTime = new LatencyHistogram();
+        LatencyHistogram serviceTime = new LatencyHistogram();
+        LongAdder completed = new LongAdder();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        stopped = false;
+
+        List<MembershipChange> pending = new ArrayList<>(changes);
+        pending.sort(Comparator.comparing(MembershipChange::at));
+        List<Interval> intervals = new ArrayList<>();
+
+        long start = System.nanoTime();
+        long deadline = start + Math.min(duration.toNanos(), Long.MAX_VALUE / 2);
+        // Each worker sends every workers / rate seconds, staggered so that arrivals interleave evenly.
+        double period = targetRate > 0 ? 1e9 * workers / targetRate : 0;
+
+        Thread.Builder builder = virtualThreads
+                ? Thread.ofVirtual().name("load-worker-", 0)
+                : Thread.ofPlatform().daemon(true).name("load-worker-", 0);
+        List<Thread> threads = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            long quota = requestLimit / workers + (w < requestLimit % workers ? 1 : 0);
+            long first = start + (long) (period * w / workers);
+            SplittableRandom random = new SplittableRandom(seed + w);
+            threads.add(builder.start(() -> {
+                try {
+                    work(random, quota, first, period, deadline, responseTime, serviceTime, completed);
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                    stopped = true;
+                }
+            }));
+        }
+
+        long reportNs = reportInterval.toNanos();
+        long nextReport = start + reportNs;
+        long lastReport = start;
+        long lastCount = 0;
+        LatencyHistogram.Snapshot lastResponse = LatencyHistogram.Snapshot.EMPTY;
+        Map<Integer, Long> lastLoads = loads();
+        try {
+            for (Thread thread : threads) {
+                while (thread.isAlive()) {
+                    long now = System.nanoTime();
+                    if (!pending.isEmpty() && now - start >= pending.getFirst().at().toNanos()) {
+                        MembershipChange change = pending.removeFirst();
+                        change.change().accept(system);
+                        print(String.format("[%6.2fs] membership: %s", (now - start) / 1e9, change.label()));
+                        continue;
+                    }
+                    if (now >= nextReport) {
+                        LatencyHistogram.Snapshot response = responseTime.snapshot();
+                        Map<Integer, Long> loads = loads();
+                        long count = completed.sum();
+                        intervals.add(interval(now - start, count - lastCount, now - lastReport, response.minus(lastResponse), lastLoads, loads));
+                        print(intervals.getLast().toString());
+                        lastReport = now;
+                        lastCount = count;
+                        lastResponse = response;
+                        lastLoads = loads;
+                        nextReport += reportNs;
+                        continue;
+                    }
+                    long wake = pending.isEmpty() ? nextReport : Math.min(nextReport, start + pending.getFirst().at().toNanos());
+                    thread.join(Duration.ofNanos(Math.max(1, wake - now)));
+                }
+            }
+        } finally {
+            stopped = true;
+            for (Thread thread : threads) thread.join();
+        }
+
+        long end = System.nanoTime();
+        long count = completed.sum();
+        LatencyHistogram.Snapshot response = responseTime.snapshot();
+        if (count > lastCount) {
+            intervals.add(interval(end - start, count - lastCount, end - lastReport, response.minus(lastResponse), lastLoads, loads()));
+            print(intervals.getLast().toString());
+        }
+        Throwable cause = failure.get();
+        if (cause != null) throw new IllegalStateException("Load worker failed", cause);
+        return new Result(count, Duration.ofNanos(end - start), count / ((end - start) / 1e9), response, serviceTime.snapshot(), List.copyOf(intervals));
+    }
+
+    /**
+     * Sends one worker's share of the requests, closed-loop when the period is zero and open-loop otherwise.
+     *
+     * @param random       The worker's random source.
+     * @param quota        The most requests this worker sends.
+     * @param first        The intended send time of the first request.
+     * @param period       The time between intended send times in nanoseconds, or zero for closed-loop.
+     * @param deadline     The time after which no more requests are sent.
+     * @param responseTime The histogram of times from intended send to completion.
+     * @param serviceTime  The histogram of times from actual send to completion.
+     * @param completed    The count of completed requests.
+     */
+    private void work(SplittableRandom random, long quota, long first, double period, long deadline,
+                      LatencyHistogram responseTime, LatencyHistogram serviceTime, LongAdder completed) {
+        for (long k = 0; k < quota && !stopped; k++) {
+            String key = keys.next(random);
+            long intended;
+            if (period > 0) {
+                intended = first + (long) (period * k);
+                // An overloaded run stops on time too, leaving its backlog unsent rather than draining it.
+                if (intended - deadline >= 0 || System.nanoTime() - deadline >= 0) return;
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    if (wait > SPIN_THRESHOLD_NS) LockSupport.parkNanos(wait - SPIN_THRESHOLD_NS);
+                    else Thread.onSpinWait();
+                }
+            } else {
+                intended = System.nanoTime();
+                if (intended - deadline >= 0) return;
+            }
+
+            long begin = System.nanoTime();
+            system.locate(key);
+            long end = System.nanoTime();
+
+            responseTime.record(end - intended);
+            serviceTime.record(end - begin);
+            completed.increment();
+        }
+    }
+
+    /**
+     * Returns the load of every current server, keyed by ID.
+     */
+    private Map<Integer, Long> loads() {
+        Map<Integer, Long> loads = new HashMap<>();
+        for (Server server : system.servers()) loads.put(server.id(), system.load(server.id()));
+        return loads;
+    }
+
+    /**
+     * Summarizes one report interval, judging imbalance by each current server's share of the interval's requests
+     * relative to its weight.
+     *
+     * @param elapsedNs    The time since the start of the run.
+     * @param requests     The requests completed in the interval.
+     * @param lengthNs     The length of the interval.
+     * @param responseTime The response times recorded in the interval.
+     * @param before       The server loads at the start of the interval.
+     * @param after        The server loads at the end of the interval.
+     * @return The interval.
+     */
+    private Interval interval(long elapsedNs, long requests, long lengthNs, LatencyHistogram.Snapshot responseTime,
+                              Map<Integer, Long> before, Map<Integer, Long> after) {
+        List<Server> members = system.servers();
+        double[] perWeight = new double[members.size()];
+        double total = 0;
+        long totalWeight = 0;
+        for (int i = 0; i < perWeight.length; i++) {
+            Server server = members.get(i);
+            long load = after.getOrDefault(server.id(), 0L) - before.getOrDefault(server.id(), 0L);
+            perWeight[i] = (double) load / server.weight();
+            total += load;
+            totalWeight += server.weight();
+        }
+        // 1.0 means a server carried exactly its capacity-proportional share of the interval.
+        double fairShare = total / Math.max(1, totalWeight);
+        double peak = 0;
+        for (int i = 0; i < perWeight.length; i++) {
+            perWeight[i] = fairShare == 0 ? 0 : perWeight[i] / fairShare;
+            peak = Math.max(peak, perWeight[i]);
+        }
+        return new Interval(Duration.ofNanos(elapsedNs), requests, requests / (lengthNs / 1e9), responseTime, members.size(),
+                peak, StatisticsCalculator.stdDeviation(perWeight));
+    }
+
+    /**
+     * Prints a report line unless output is turned off.
+     */
+    private void print(String line) {
+        PrintStream out = output;
+        if (out != null) out.println(line);
+    }
+
+    /**
+     * A membership change applied at a fixed time into the run.
+     *
+     * @param at     The time since the start of the run.
+     * @param label  A short description for the report.
+     * @param change The change to apply.
+     */
+    public record MembershipChange(Duration at, String label, Consumer<ConsistentHashingSystem> change) {
+    }
+
+    /**
+     * The measurements of one report interval.
+     *
+     * @param elapsed       The time from the start of the run to the end of the interval.
+     * @param requests      The requests completed in the interval.
+     * @param throughput    The requests completed per second.
+     * @param responseTime  The response times, corrected for coordinated omission when running open-loop.
+     * @param servers       The number of servers at the end of the interval.
+     * @param peakToAverage The busiest server's load relative to its fair share.
+     * @param deviation     The standard deviation of every server's load relative to its fair share.
+     */
+    public record Interval(Duration elapsed, long requests, double throughput, LatencyHistogram.Snapshot responseTime,
+                           int servers, double peakToAverage, double deviation) {
+
+        @Override
+        public String toString() {
+            return String.format("[%6.2fs] %10.0f req/s | %s | %d servers, peak %.2fx fair share, std dev %.3f",
+                    elapsed.toNanos() / 1e9, throughput, responseTime, servers, peakToAverage, deviation);
+        }
+    }
+
+    /**
+     * The totals of a run.
+     *
+     * @param requests     The requests completed.
+     * @param elapsed      The length of the run.
+     * @param throughput   The requests completed per second.
+     * @param responseTime The response times, corrected for coordinated omission when running open-loop.
+     * @param serviceTime  The time spent routing each request, excluding any wait behind earlier requests.
+     * @param intervals    The report intervals in order.
+     */
+    public record Result(long requests, Duration elapsed, double throughput, LatencyHistogram.Snapshot responseTime,
+                         LatencyHistogram.Snapshot serviceTime, List<Interval> intervals) {
+    }
+}
@@ -0,0 +1,175 @@
+package analytics;
+
+import domain.RequestRecord;
+import junit.framework.TestCase;
+import system.ConsistentHashingSystem;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks that the request journal replays what it wrote across segment rollovers and reopens, stops cleanly at a torn
+ * record, deletes old segments by its retention policy, loses nothing under overload when appends may wait, and drops
+ * records, rather than failing routing, once its writer has failed.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class RequestJournalTest extends TestCase {
+
+    /**
+     * The journal directory of the current test.
+     */
+    private Path directory;
+
+    @Override
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("request-journal");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        if (!Files.exists(directory)) return;
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+        }
+    }
+
+    public void testReplaysEveryRecordAcrossSegments() throws IOException {
+        try (RequestJournal journal = new RequestJournal(directory, 4096, RequestJournal.Retention.keepAll(), 1 << 16)) {
+            append(journal, 0, 1000);
+            journal.sync();
+            assertEquals(1000, journal.written());
+        }
+        assertTrue(segments().size() > 1);
+
+        try (RequestJournal journal = new RequestJournal(directory, 4096, RequestJournal.Retention.keepAll(), 1 << 16)) {
+            append(journal, 1000, 200);
+        }
+        List<RequestRecord> records = readAll();
+        assertEquals(1200, records.size());
+        for (int i = 0; i < records.size(); i++) assertEquals(record(i), records.get(i));
+    }
+
+    public void testTornTailEndsReplayOfItsSegment() throws IOException {
+        try (RequestJournal journal = new RequestJournal(directory)) {
+            append(journal, 0, 10);
+        }
+        Path segment = segments().getLast();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        List<RequestRecord> records = readAll();
+        assertEquals(9, records.size());
+        for (int i = 0; i < records.size(); i++) assertEquals(record(i), records.get(i));
+    }
+
+    public void testRetentionDeletesOldestSegments() throws IOException {
+        try (RequestJournal journal = new RequestJournal(directory, 4096, RequestJournal.Retention.maxBytes(16 * 1024), 1 << 16)) {
+            for (int i = 0; i < 20; i++) {
+                append(journal, i * 100, 100);
+                journal.sync();
+            }
+        }
+        long total = 0;
+        for (Path segment : segments()) total += Files.size(segment);
+        // The limit is checked when a segment rolls over, so the active segment may add up to one more segment.
+        assertTrue(total + " bytes kept", total <= 16 * 1024 + 4096 + 512);
+        List<RequestRecord> records = readAll();
+        assertFalse(records.isEmpty());
+        assertEquals(record(1999), records.getLast());
+    }
+
+    public void testAppendTimeoutAppliesBackpressureInsteadOfDropping() throws IOException, InterruptedException {
+        try (RequestJournal journal = new RequestJournal(directory, 1 << 20, RequestJournal.Retention.keepAll(), 16)) {
+            journal.setAppendTimeout(Duration.ofSeconds(30));
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                threads.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < 20_000; i++) journal.append("key-" + i, i % 7, i, i);
+                }));
+            }
+            for (Thread thread : threads) thread.join();
+            journal.sync();
+            assertEquals(0, journal.dropped());
+            assertEquals(4 * 20_000, journal.written());
+        }
+        assertEquals(4 * 20_000, readAll().size());
+    }
+
+    public void testWriterFailureDropsRecordsWithoutFailingRouting() throws IOException {
+        ConsistentHashingSystem system = new ConsistentHashingSystem();
+        for (int i = 0; i < 3; i++) system.addServer();
+        RequestJournal journal = new RequestJournal(directory, 256, RequestJournal.Retention.keepAll(), 1 << 16);
+        system.setRequestJournal(journal);
+        // With the directory gone the next rollover cannot create a segment, which stops the writer.
+        for (Path segment : segments()) Files.delete(segment);
+        Files.delete(directory);
+
+        for (int i = 0; i < 1000 && journal.failure() == null; i++) {
+            system.locate("key-" + i);
+            try {
+                journal.sync();
+            } catch (IOException expected) {
+                // The writer failed; routing must carry on regardless.
+            }
+        }
+        assertNotNull(journal.failure());
+        long dropped = journal.dropped();
+        String[] keys = new String[100];
+        for (int i = 0; i < keys.length; i++) keys[i] = "key-" + system.locate("key-" + i) + "-" + i;
+        system.locateAll(keys, new int[keys.length]);
+        assertEquals(dropped + 200, journal.dropped());
+        assertFalse(journal.append("key", 0, 0, 0));
+        try {
+            journal.close();
+            fail("close should report the writer's failure");
+        } catch (IOException expected) {
+            assertSame(journal.failure(), expected);
+        }
+    }
+
+    /**
+     * Appends the records numbered {@code from} to {@code from + count - 1}.
+     */
+    private static void append(RequestJournal journal, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            RequestRecord record = record(i);
+            assertTrue(journal.append(record.requestKey(), record.serverId(), record.latencyNs(), record.timestamp()));
+        }
+    }
+
+    /**
+     * Returns the i-th test record.
+     */
+    private static RequestRecord record(int i) {
+        return new RequestRecord("key-" + i, i % 7, 1000L + i, 1_700_000_000_000L + i);
+    }
+
+    /**
+     * Reads back every record in the journal directory.
+     */
+    private List<RequestRecord> readAll() throws IOException {
+        List<RequestRecord> records = new ArrayList<>();
+        for (Iterator<RequestRecord> it = RequestJournal.read(directory); it.hasNext(); ) records.add(it.next());
+        return records;
+    }
+
+    /**
+     * Lists the segment files in the journal directory, oldest first.
+     */
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package analytics;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that the request tracker samples concurrent routing threads without losing count, keeps the most recent
+ * every-Nth samples and keeps a uniform reservoir.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class RequestTrackerTest extends TestCase {
+
+    public void testEveryNthKeepsTheMostRecentSamples() throws InterruptedException {
+        RequestTracker tracker = new RequestTracker(1024, RequestTracker.Sampling.EVERY_NTH, 10);
+        record(tracker, 4, 100_000);
+        assertEquals(400_000, tracker.seen());
+
+        // Each thread may leave part of its last block of sequence numbers unused.
+        int[] replayed = new int[1];
+        tracker.replay((keyHash, serverId, latencyNs, timestamp) -> {
+            assertEquals(0, latencyNs % 10);
+            assertTrue(latencyNs >= 100_000 - 10 * 1024);
+            replayed[0]++;
+        });
+        assertTrue(replayed[0] + " replayed", replayed[0] >= 1024 - 4 * 16);
+    }
+
+    public void testEveryNthReplaysOneThreadInOrder() {
+        RequestTracker tracker = new RequestTracker(1024, RequestTracker.Sampling.EVERY_NTH, 1);
+        for (int i = 0; i < 100; i++) tracker.record(i, 0, i);
+        long[] expected = {0};
+        tracker.replay((keyHash, serverId, latencyNs, timestamp) -> assertEquals(expected[0]++, latencyNs));
+        assertEquals(100, expected[0]);
+    }
+
+    public void testReservoirIsUniform() throws InterruptedException {
+        RequestTracker tracker = new RequestTracker(4096, RequestTracker.Sampling.RESERVOIR, 1);
+        record(tracker, 4, 250_000);
+        assertEquals(1_000_000, tracker.seen());
+        assertEquals(4096, tracker.size());
+
+        // Each thread records latencies 0 to 249,999, so a uniform sample has a mean near the middle in every quarter.
+        int[] quarters = new int[4];
+        tracker.replay((keyHash, serverId, latencyNs, timestamp) -> quarters[(int) (latencyNs * 4 / 250_000)]++);
+        for (int quarter : quarters) assertEquals(1024.0, quarter, 150.0);
+    }
+
+    /**
+     * Records {@code perThread} requests from each of {@code threads} threads, latencies counting up from zero.
+     */
+    private static void record(RequestTracker tracker, int threads, int perThread) throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int serverId = t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) tracker.record(i * 31L + serverId, serverId, i);
+            }));
+        }
+        for (Thread worker : workers) worker.join();
+    }
+}
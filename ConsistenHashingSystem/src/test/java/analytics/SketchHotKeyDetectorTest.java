@@ -0,0 +1,77 @@
+package analytics;
+
+import hashing.HashFunction;
+import hashing.XxHash64;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks the error guarantees of {@link CountMinSketch} and that {@link SketchHotKeyDetector} finds the heavy hitters,
+ * including under concurrent updates.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class SketchHotKeyDetectorTest extends TestCase {
+
+    /**
+     * The hash keys are counted by.
+     */
+    private static final HashFunction HASH = new XxHash64();
+
+    public void testSketchNeverUndercountsAndStaysWithinBound() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        int keys = 5000;
+        for (int k = 0; k < keys; k++) {
+            for (int i = 0; i <= k % 7; i++) sketch.add(HASH.hash("key-" + k));
+        }
+        long bound = sketch.errorBound();
+        int outside = 0;
+        for (int k = 0; k < keys; k++) {
+            long error = sketch.estimate(HASH.hash("key-" + k)) - (k % 7 + 1);
+            assertTrue("undercount of key-" + k, error >= 0);
+            if (error > bound) outside++;
+        }
+        // The bound holds for each key with the sketch's confidence, about 98% at depth four.
+        assertTrue(outside + " estimates beyond the bound", outside <= keys * (1 - sketch.confidence()) * 2);
+    }
+
+    public void testFindsTheHeavyHitters() {
+        SketchHotKeyDetector detector = new SketchHotKeyDetector(64, 4096, 4);
+        Set<String> hot = Set.of("hot-0", "hot-1", "hot-2", "hot-3", "hot-4");
+        for (int round = 0; round < 2000; round++) {
+            for (String key : hot) detector.track(key, HASH.hash(key));
+            for (int i = 0; i < 5; i++) {
+                String key = "cold-" + (round * 5 + i);
+                detector.track(key, HASH.hash(key));
+            }
+        }
+        assertEquals(hot, new HashSet<>(detector.topHotKeys(5)));
+        for (SketchHotKeyDetector.HotKey key : detector.heavyHitters(5)) {
+            assertTrue(key.count() >= 2000);
+            assertTrue(key.count() <= 2000 + key.maxError());
+        }
+    }
+
+    public void testConcurrentUpdatesAreNotLost() throws InterruptedException {
+        SketchHotKeyDetector detector = new SketchHotKeyDetector(16, 1024, 4);
+        String key = "shared";
+        long keyHash = HASH.hash(key);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 50_000; i++) detector.track(key, keyHash);
+            }));
+        }
+        for (Thread thread : threads) thread.join();
+        // Once hot, each thread may still hold up to fifteen accesses in its batch.
+        long total = detector.sketch().total();
+        assertTrue(total + " counted", total <= 8 * 50_000 && total >= 8 * 50_000 - 8 * 15);
+        assertEquals(total, detector.estimate(keyHash));
+        assertEquals(List.of(key), detector.topHotKeys(1));
+    }
+}
@@ -0,0 +1,58 @@
+package analytics;
+
+import junit.framework.TestCase;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that windowed counters expire old periods and that reusing a bucket loses nothing.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class WindowedLoadCountersTest extends TestCase {
+
+    public void testCountsExpireAndBucketsAreReused() throws InterruptedException {
+        WindowedLoadCounters counters = new WindowedLoadCounters(Duration.ofMillis(50), 5);
+        for (int i = 0; i < 100; i++) counters.increment(3);
+        counters.add(1, 20);
+        assertEquals(100, counters.get(3));
+        assertEquals(120, counters.total());
+
+        Thread.sleep(150);
+        assertEquals(0, counters.get(3));
+        assertEquals(0, counters.total());
+
+        // The buckets written above come round again and must start from zero.
+        for (int i = 0; i < 7; i++) counters.increment(3);
+        assertEquals(7, counters.get(3));
+        assertEquals(7, counters.total());
+    }
+
+    public void testResetClearsOneServer() {
+        WindowedLoadCounters counters = new WindowedLoadCounters(Duration.ofSeconds(10), 4);
+        counters.add(0, 5);
+        counters.add(70, 9);
+        counters.reset(70);
+        assertEquals(0, counters.get(70));
+        assertEquals(5, counters.total());
+        assertEquals(5, counters.snapshot()[0]);
+    }
+
+    public void testConcurrentIncrementsAcrossRotations() throws InterruptedException {
+        // Ten-millisecond periods, so the writers rotate buckets many times without any leaving the window.
+        WindowedLoadCounters counters = new WindowedLoadCounters(Duration.ofSeconds(10), 1000);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int serverId = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 200_000; i++) counters.increment(serverId);
+            }));
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(8 * 200_000, counters.total());
+        for (int t = 0; t < 8; t++) assertEquals(200_000, counters.get(t));
+    }
+}
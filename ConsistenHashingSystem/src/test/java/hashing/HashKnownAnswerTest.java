@@ -0,0 +1,69 @@
+package hashing;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks {@link XxHash64} and {@link Murmur3Hash} against published and reference outputs.
+ * <p>
+ * Both hash a key as its UTF-16LE bytes, so each expected value is the reference algorithm's output over
+ * {@code key.getBytes(UTF_16LE)}, masked to the non-negative range the hash functions return. The empty key gives the
+ * published vectors, xxHash64 {@code EF46DB3751D8E999} and MurmurHash3 x64 128 zero; the others were produced with the
+ * reference implementations and cover every tail length and inputs past one 32-byte stripe.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class HashKnownAnswerTest extends TestCase {
+
+    /**
+     * The keys hashed, chosen so their UTF-16LE lengths cover 0 to 18 bytes, a non-ASCII key and two keys longer than
+     * 32 bytes.
+     */
+    private static final String[] KEYS = {
+            "",
+            "a",
+            "ab",
+            "abc",
+            "abcd",
+            "abcde",
+            "abcdefg",
+            "server-42",
+            "key-é中文",
+            "The quick brown fox jumps over the lazy dog",
+            "0123456789abcdefghijklmnopqrstuv"
+    };
+
+    public void testXxHash64() {
+        assertVectors(new XxHash64(), 0xEF46DB3751D8E999L, 0xE513E02C99167F96L, 0x2B4D0FC9E4BF29E2L,
+                0xAFF0F2A2F8B32731L, 0xAD9338B32CDA24C1L, 0x3DE8F0B461C88A5DL, 0xB9E5459C8F6DDF61L,
+                0x22BA35AFCA8E2774L, 0xB43C4BC8095FB1EBL, 0xB50690F4310E490EL, 0xEFAB192FC10F10D2L);
+    }
+
+    public void testXxHash64WithSeed() {
+        assertVectors(new XxHash64(7), 0x95F0626F6F0A4409L, 0x45A0E4AA322A0D1AL, 0x9215C2350E8E5A7CL,
+                0xCD96AAEECAAA4813L, 0x5F5097648868485DL, 0x2134A5DA468DC10FL, 0x2E845CAED34A509CL,
+                0xC5ECF04D238352C6L, 0x7BEE36C3863B8D17L, 0x75F6849FD6A556D7L, 0x2FFD1803EF4EFA91L);
+    }
+
+    public void testMurmur3() {
+        assertVectors(new Murmur3Hash(), 0x0000000000000000L, 0x96A698500B4E98BDL, 0x1F5B190C434A0E61L,
+                0x0C25A174B09E4DE3L, 0x548CFC581A584F48L, 0xEF8464C206CB30ECL, 0xA0C7451959A72BE9L,
+                0x188D2FA883CFEFF5L, 0xBA8DBCB6A4E7DD1CL, 0xC0026631B551AE4CL, 0xC2932218E11039B0L);
+    }
+
+    public void testMurmur3WithSeed() {
+        assertVectors(new Murmur3Hash(7), 0xF402C55AC5DEC98FL, 0x110C12D35E1112D3L, 0x2DEF92D2C1E6B5DBL,
+                0xFB3C16B2E2B2FDD3L, 0xB75DE3256D69BD2EL, 0xAF660AFB2C11E4BDL, 0x40330B7D05E05C1CL,
+                0x8A092ACBDCF2FFDAL, 0xD6C1F317EA7903F5L, 0x81CBB6194A229003L, 0x2FFE0F709741C8D1L);
+    }
+
+    /**
+     * Checks that a hash function gives the expected value for every key, after masking off the sign bit.
+     */
+    private static void assertVectors(HashFunction function, long... expected) {
+        assertEquals(KEYS.length, expected.length);
+        for (int i = 0; i < KEYS.length; i++) {
+            assertEquals(function.id() + " of \"" + KEYS[i] + "\"", expected[i] & Long.MAX_VALUE, function.hash(KEYS[i]));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package membership;
+
+import domain.Server;
+import junit.framework.TestCase;
+import system.ConsistentHashingSystem;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs several membership nodes on localhost and checks that they converge on the same membership.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class MembershipConvergenceTest extends TestCase {
+
+    /**
+     * A short gossip interval so anti-entropy rounds happen quickly.
+     */
+    private static final Duration GOSSIP_INTERVAL = Duration.ofMillis(20);
+    /**
+     * How long the nodes get to converge.
+     */
+    private static final long TIMEOUT_MS = 10_000;
+
+    /**
+     * The running nodes, closed after each test.
+     */
+    private final List<MembershipNode> nodes = new ArrayList<>();
+    /**
+     * The system behind each node, at the same index.
+     */
+    private final List<ConsistentHashingSystem> systems = new ArrayList<>();
+    /**
+     * The nodes that were started without peers of their own.
+     */
+    private final List<MembershipNode> silent = new ArrayList<>();
+
+    @Override
+    protected void tearDown() throws IOException {
+        for (MembershipNode node : nodes) node.close();
+    }
+
+    public void testConcurrentChurnConverges() throws Exception {
+        for (int i = 0; i < 3; i++) join(true);
+
+        // Each node adds, reweights and removes its own servers, all at once.
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            MembershipNode node = nodes.get(i);
+            int base = i * 1000;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    for (int k = 0; k < 50; k++) node.addServer(base + k, 1);
+                    for (int k = 0; k < 20; k++) node.updateWeight(base + k, 2 + k % 3);
+                    for (int k = 40; k < 50; k++) node.removeServer(base + k);
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        assertNull(failure.get());
+
+        awaitConvergence();
+        assertEquals(3 * 40, systems.getFirst().servers().size());
+        assertEquals(2, weightOf(systems.getLast(), 1000));
+        assertEquals(3, weightOf(systems.get(1), 2019));
+    }
+
+    public void testConflictingWeightsResolveTheSameEverywhere() throws Exception {
+        for (int i = 0; i < 3; i++) join(true);
+        nodes.getFirst().addServer(7, 1);
+        awaitConvergence();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            MembershipNode node = nodes.get(i);
+            int weight = 2 + i;
+            threads.add(Thread.ofPlatform().start(() -> node.updateWeight(7, weight)));
+        }
+        for (Thread thread : threads) thread.join();
+
+        awaitConvergence();
+        int weight = weightOf(systems.getFirst(), 7);
+        assertTrue("weight " + weight, weight >= 2 && weight <= 4);
+    }
+
+    public void testTrimmedLogForcesFullSync() throws Exception {
+        // The first node has no peers of its own, so every change it pushes is dropped, and its log keeps only the
+        // last change, so the others can only be caught up with its full state.
+        MembershipNode isolated = join(false);
+        isolated.setLogCapacity(1);
+        for (int i = 0; i < 2; i++) join(true).setLogCapacity(1);
+        for (int k = 0; k < 20; k++) isolated.addServer(k, 1);
+        isolated.removeServer(3);
+
+        awaitConvergence();
+        assertTrue(isolated.fullSyncsSent() > 0);
+        assertEquals(19, systems.getLast().servers().size());
+    }
+
+    public void testLateJoinerCatchesUp() throws Exception {
+        for (int i = 0; i < 3; i++) join(true);
+        for (int k = 0; k < 30; k++) nodes.get(k % 3).addServer(k, 1 + k % 4);
+        for (int k = 0; k < 5; k++) nodes.get(k % 3).removeServer(k);
+        awaitConvergence();
+
+        join(true);
+        awaitConvergence();
+        assertEquals(25, systems.getLast().servers().size());
+        int[] expected = new int[1];
+        int[] actual = new int[1];
+        for (int k = 0; k < 1000; k++) {
+            systems.getFirst().locateN("key-" + k, 1, expected);
+            systems.getLast().locateN("key-" + k, 1, actual);
+            assertEquals(expected[0], actual[0]);
+        }
+    }
+
+    /**
+     * Starts a node and makes it a peer of every running node. Unless it pushes, it gets no peers of its own and can
+     * only be caught up with through the digests its peers send it.
+     */
+    private MembershipNode join(boolean pushes) throws IOException {
+        ConsistentHashingSystem system = new ConsistentHashingSystem();
+        system.setVirtualNodesPerServer(10);
+        system.setRequestTracker(null);
+        MembershipNode node = new MembershipNode(system, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        node.setGossipInterval(GOSSIP_INTERVAL);
+        for (MembershipNode peer : nodes) {
+            if (pushes) node.addPeer(peer.address());
+            if (!silent.contains(peer)) peer.addPeer(node.address());
+        }
+        if (!pushes) silent.add(node);
+        nodes.add(node);
+        systems.add(system);
+        return node;
+    }
+
+    /**
+     * Waits until every node has the same epoch vector, checksum and servers, failing after the timeout.
+     */
+    private void awaitConvergence() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!converged()) {
+            if (System.currentTimeMillis() > deadline) fail("Nodes did not converge: " + nodes);
+            Thread.sleep(10);
+        }
+        for (int i = 1; i < nodes.size(); i++) {
+            assertEquals(nodes.getFirst().epochVector(), nodes.get(i).epochVector());
+            assertEquals(nodes.getFirst().checksum(), nodes.get(i).checksum());
+        }
+    }
+
+    /**
+     * Tells whether every node agrees with the first.
+     */
+    private boolean converged() {
+        for (int i = 1; i < nodes.size(); i++) {
+            if (!nodes.get(i).epochVector().equals(nodes.getFirst().epochVector())) return false;
+            if (nodes.get(i).checksum() != nodes.getFirst().checksum()) return false;
+            if (!systems.get(i).servers().equals(systems.getFirst().servers())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a server's weight in a system, or zero if it is not a member.
+     */
+    private static int weightOf(ConsistentHashingSystem system, int serverId) {
+        return system.servers().stream().filter(server -> server.id() == serverId).mapToInt(Server::weight).findFirst().orElse(0);
+    }
+}
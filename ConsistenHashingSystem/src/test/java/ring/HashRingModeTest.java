@@ -0,0 +1,87 @@
+package ring;
+
+import domain.Server;
+import hashing.XxHash64;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Checks that the copy-on-write snapshot routes exactly like the skip-list and that lookups racing membership changes
+ * always see a complete ring.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class HashRingModeTest extends TestCase {
+
+    public void testModesAgreeAfterEveryChange() {
+        HashRing skipList = new HashRing(new XxHash64(), HashRing.Mode.SKIP_LIST);
+        HashRing copyOnWrite = new HashRing(new XxHash64(), HashRing.Mode.COPY_ON_WRITE);
+        for (int id = 0; id < 6; id++) {
+            skipList.addServer(new Server(id), 50);
+            copyOnWrite.addServer(new Server(id), 50);
+        }
+        assertSameRoutes(skipList, copyOnWrite);
+
+        skipList.removeServer(2);
+        copyOnWrite.removeServer(2);
+        assertSameRoutes(skipList, copyOnWrite);
+
+        skipList.updateServer(new Server(4, 3), 150);
+        copyOnWrite.updateServer(new Server(4, 3), 150);
+        assertSameRoutes(skipList, copyOnWrite);
+        assertEquals(skipList.epoch(), copyOnWrite.epoch());
+    }
+
+    public void testLookupsDuringChurnSeeACompleteRing() throws InterruptedException {
+        HashRing ring = new HashRing(new XxHash64(), HashRing.Mode.COPY_ON_WRITE);
+        for (int id = 0; id < 4; id++) ring.addServer(new Server(id), 100);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                int[] replicas = new int[3];
+                long lastEpoch = 0;
+                for (int i = 0; running.get() && failure.get() == null; i++) {
+                    long epoch = ring.epoch();
+                    long hash = ring.hash("key-" + i);
+                    int owner = ring.locateServer(hash);
+                    int count = ring.locateN(hash, replicas.length, replicas);
+                    if (epoch < lastEpoch) failure.set("epoch went back from " + lastEpoch + " to " + epoch);
+                    if (owner < 0 || owner > 4) failure.set("unknown owner " + owner);
+                    if (count != replicas.length) failure.set("only " + count + " replicas");
+                    if (replicas[0] == replicas[1] || replicas[1] == replicas[2] || replicas[0] == replicas[2]) {
+                        failure.set("repeated replica in " + replicas[0] + ", " + replicas[1] + ", " + replicas[2]);
+                    }
+                    lastEpoch = epoch;
+                }
+            }));
+        }
+        for (int round = 0; round < 500; round++) {
+            ring.addServer(new Server(4), 100);
+            ring.removeServer(4);
+        }
+        running.set(false);
+        for (Thread reader : readers) reader.join();
+        assertNull(failure.get(), failure.get());
+        assertEquals(400, ring.size());
+    }
+
+    /**
+     * Checks that two rings send every one of a set of keys to the same virtual node.
+     */
+    private static void assertSameRoutes(HashRing expected, HashRing actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < 10_000; i++) {
+            String key = "key-" + i;
+            assertEquals(key, expected.locate(key).name(), actual.locate(key).name());
+            assertEquals(key, expected.locateServer(expected.hash(key)), actual.locateServer(actual.hash(key)));
+        }
+    }
+}
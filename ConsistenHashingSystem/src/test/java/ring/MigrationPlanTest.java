@@ -0,0 +1,123 @@
+package ring;
+
+import junit.framework.TestCase;
+import system.ConsistentHashingSystem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the migration plan of an add, a remove and a reweight against rehashing every key under both placements: the
+ * moved ranges must cover exactly the hashes that change owner, and the streamed keys must be exactly the keys that do.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class MigrationPlanTest extends TestCase {
+
+    /**
+     * The number of keys rehashed for each change.
+     */
+    private static final int KEYS = 20_000;
+
+    /**
+     * The system whose membership changes.
+     */
+    private ConsistentHashingSystem system;
+
+    @Override
+    protected void setUp() {
+        system = new ConsistentHashingSystem();
+        for (int i = 0; i < 5; i++) system.addServer(i == 3 ? 2 : 1);
+    }
+
+    public void testAddMovesKeysOnlyToTheNewServer() {
+        int[] added = new int[1];
+        MigrationPlan plan = checkPlan(s -> added[0] = s.addServer());
+        for (MigrationPlan.RangeMove move : plan.moves()) assertEquals(added[0], move.toServer());
+    }
+
+    public void testRemoveMovesKeysOnlyFromTheRemovedServer() {
+        MigrationPlan plan = checkPlan(s -> s.removeServer(3));
+        for (MigrationPlan.RangeMove move : plan.moves()) assertEquals(3, move.fromServer());
+    }
+
+    public void testReweightMovesKeysOnlyToTheHeavierServer() {
+        MigrationPlan plan = checkPlan(s -> s.updateWeight(1, 3));
+        for (MigrationPlan.RangeMove move : plan.moves()) assertEquals(1, move.toServer());
+    }
+
+    public void testNoChangeMovesNothing() {
+        MigrationPlan plan = checkPlan(s -> { });
+        assertEquals(0, plan.size());
+        assertEquals(0.0, plan.movedFraction());
+    }
+
+    /**
+     * Applies a membership change and checks its plan against both placements, returning the plan.
+     */
+    private MigrationPlan checkPlan(Consumer<ConsistentHashingSystem> change) {
+        RingSnapshot before = (RingSnapshot) system.placement();
+        change.accept(system);
+        RingSnapshot after = (RingSnapshot) system.placement();
+        MigrationPlan plan = system.migrationPlanSince(before);
+
+        assertRangesMatch(plan, before, after);
+
+        // Rehash every key under both placements; the plan must classify each the same way.
+        List<String> keys = new ArrayList<>();
+        Map<String, MigrationPlan.KeyMove> expected = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            String key = "key-" + i;
+            keys.add(key);
+            long hash = system.hash(key);
+            int from = before.serverFor(hash);
+            int to = after.serverFor(hash);
+            assertEquals(key, from == to ? -1 : from, plan.source(hash));
+            assertEquals(key, from == to ? -1 : to, plan.destination(hash));
+            if (from != to) expected.put(key, new MigrationPlan.KeyMove(key, from, to));
+        }
+        Map<String, MigrationPlan.KeyMove> streamed = system.keysToMove(plan, keys.iterator())
+                .collect(Collectors.toMap(MigrationPlan.KeyMove::key, move -> move));
+        assertEquals(expected, streamed);
+        assertEquals((double) expected.size() / KEYS, plan.movedFraction(), 0.02);
+        return plan;
+    }
+
+    /**
+     * Checks that the moved ranges are sorted, disjoint and coalesced, that each range moves between the owners both
+     * placements give its ends and some hashes inside it, and that the hashes just outside each range do not move.
+     */
+    private static void assertRangesMatch(MigrationPlan plan, RingSnapshot before, RingSnapshot after) {
+        Random random = new Random(7);
+        MigrationPlan.RangeMove previous = null;
+        for (MigrationPlan.RangeMove move : plan.moves()) {
+            assertTrue(move.toString(), move.rangeStart() >= 0 && move.rangeStart() <= move.rangeEnd());
+            assertTrue(move.toString(), move.fromServer() != move.toServer());
+            if (previous != null) {
+                assertTrue(move.toString(), previous.rangeEnd() < move.rangeStart());
+                boolean adjacent = previous.rangeEnd() + 1 == move.rangeStart();
+                assertFalse(move + " not coalesced", adjacent && previous.fromServer() == move.fromServer()
+                        && previous.toServer() == move.toServer());
+            }
+            long span = move.rangeEnd() - move.rangeStart();
+            long[] probes = {move.rangeStart(), move.rangeEnd(), move.rangeStart() + (long) (random.nextDouble() * span)};
+            for (long hash : probes) {
+                assertEquals(move.toString(), move.fromServer(), before.serverFor(hash));
+                assertEquals(move.toString(), move.toServer(), after.serverFor(hash));
+            }
+            if (move.rangeStart() > 0 && plan.source(move.rangeStart() - 1) < 0) {
+                assertEquals(before.serverFor(move.rangeStart() - 1), after.serverFor(move.rangeStart() - 1));
+            }
+            if (move.rangeEnd() < Long.MAX_VALUE && plan.source(move.rangeEnd() + 1) < 0) {
+                assertEquals(before.serverFor(move.rangeEnd() + 1), after.serverFor(move.rangeEnd() + 1));
+            }
+            previous = move;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ring;
+
+import domain.Server;
+import hashing.Murmur3Hash;
+import hashing.XxHash64;
+import junit.framework.TestCase;
+import system.ConsistentHashingSystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Checks that a saved ring restores with the same servers, virtual node counts and routes, and that a corrupted file
+ * or a different hash function is rejected instead of routing keys to the wrong servers.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class RingSnapshotFileTest extends TestCase {
+
+    /**
+     * The snapshot file of the current test.
+     */
+    private Path file;
+
+    @Override
+    protected void setUp() throws IOException {
+        file = Files.createTempFile("ring", ".snapshot");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    public void testHashRingRoundTripKeepsCountsAndRoutes() throws IOException {
+        HashRing ring = new HashRing(new XxHash64());
+        ring.addServer(new Server(0, 1), 37);
+        ring.addServer(new Server(1, 2), 80);
+        ring.addServer(new Server(5, 3), 120);
+        ring.save(file, 40);
+
+        for (HashRing.Mode mode : HashRing.Mode.values()) {
+            HashRing loaded = HashRing.load(file, new XxHash64(), mode);
+            assertEquals(40, loaded.savedVirtualNodesPerWeight());
+            assertEquals(ring.epoch(), loaded.epoch());
+            assertEquals(ring.servers(), loaded.servers());
+            for (Server server : ring.servers()) {
+                assertEquals(ring.virtualNodes(server.id()), loaded.virtualNodes(server.id()));
+            }
+            assertEquals(ring.size(), loaded.size());
+            for (int i = 0; i < 10_000; i++) {
+                long hash = ring.hash("key-" + i);
+                assertEquals(ring.locateServer(hash), loaded.locateServer(hash));
+            }
+        }
+    }
+
+    public void testSystemRestoreKeepsPerWeightCountAndAdjustments() throws IOException {
+        ConsistentHashingSystem system = new ConsistentHashingSystem(new XxHash64());
+        system.setVirtualNodesPerServer(50);
+        int light = system.addServer(1);
+        int heavy = system.addServer(3);
+        system.addServer(2);
+        system.adjustVirtualNodes(heavy, -9);
+        system.saveRing(file);
+
+        ConsistentHashingSystem restored = ConsistentHashingSystem.restore(file, new XxHash64(), HashRing.Mode.COPY_ON_WRITE);
+        assertEquals(50, restored.virtualNodesPerServer());
+        assertEquals(system.servers(), restored.servers());
+        for (Server server : system.servers()) assertEquals(system.virtualNodes(server.id()), restored.virtualNodes(server.id()));
+        assertEquals(141, restored.virtualNodes(heavy));
+        for (int i = 0; i < 10_000; i++) assertEquals(system.locate("key-" + i), restored.locate("key-" + i));
+
+        // The adjustment survives a later weight change, and a new server gets the next unused ID.
+        restored.updateWeight(heavy, 4);
+        assertEquals(191, restored.virtualNodes(heavy));
+        restored.updateWeight(light, 2);
+        assertEquals(100, restored.virtualNodes(light));
+        assertEquals(3, restored.addServer());
+    }
+
+    public void testFlippedByteFailsTheChecksum() throws IOException {
+        HashRing ring = new HashRing(new XxHash64());
+        for (int id = 0; id < 3; id++) ring.addServer(new Server(id), 50);
+        ring.save(file, 50);
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(file, bytes);
+        try {
+            HashRing.load(file, new XxHash64(), HashRing.Mode.COPY_ON_WRITE);
+            fail("a corrupted snapshot should not load");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("checksum"));
+        }
+    }
+
+    public void testDifferentHashFunctionIsRejected() throws IOException {
+        ConsistentHashingSystem system = new ConsistentHashingSystem(new XxHash64());
+        for (int i = 0; i < 3; i++) system.addServer();
+        system.saveRing(file);
+        try {
+            ConsistentHashingSystem.restore(file, new Murmur3Hash(), HashRing.Mode.COPY_ON_WRITE);
+            fail("a ring saved with " + new XxHash64().id() + " should not load with " + new Murmur3Hash().id());
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains(new XxHash64().id()));
+        }
+    }
+}
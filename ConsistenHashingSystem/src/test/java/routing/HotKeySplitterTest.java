@@ -0,0 +1,162 @@
+package routing;
+
+import analytics.ExactHotKeyDetector;
+import domain.Server;
+import hashing.XxHash64;
+import junit.framework.TestCase;
+import ring.HashRing;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks that a promoted key's requests are spread over all its replicas by weight, before and after a membership
+ * change, and that the key is demoted once it cools off.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class HotKeySplitterTest extends TestCase {
+
+    /**
+     * The number of replicas a promoted key is spread over.
+     */
+    private static final int REPLICAS = 3;
+
+    /**
+     * The ring the splitter routes over.
+     */
+    private HashRing ring;
+    /**
+     * The router over {@link #ring}.
+     */
+    private RequestRouter router;
+    /**
+     * The detector the splitter samples.
+     */
+    private ExactHotKeyDetector detector;
+    /**
+     * The lifetime load the load view reports, skewed so a load-driven choice would send every request to one server.
+     */
+    private final Map<Integer, Long> lifetimeLoad = new HashMap<>();
+
+    @Override
+    protected void setUp() {
+        ring = new HashRing(new XxHash64());
+        for (int id = 0; id < 6; id++) {
+            ring.addServer(new Server(id, id == 1 ? 2 : 1), 100);
+            lifetimeLoad.put(id, id == 0 ? 0L : 1_000_000L);
+        }
+        router = new RequestRouter(ring);
+        detector = new ExactHotKeyDetector();
+    }
+
+    public void testLeastLoadedSplitsByWeightAcrossMembershipChanges() throws InterruptedException {
+        HotKeySplitter splitter = promote("hot", HotKeySplitter.Strategy.LEAST_LOADED);
+        int[] replicas = replicas("hot");
+        assertSplit(splitter, "hot", replicas, 3000);
+
+        ring.removeServer(replicas[1]);
+        int[] moved = replicas("hot");
+        assertFalse(Arrays.equals(replicas, moved));
+        assertSplit(splitter, "hot", moved, 3000);
+    }
+
+    public void testRoundRobinUsesEveryReplica() throws InterruptedException {
+        HotKeySplitter splitter = promote("hot", HotKeySplitter.Strategy.ROUND_ROBIN);
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 300; i++) counts.merge(splitter.route("hot", -1), 1, Integer::sum);
+        for (int server : replicas("hot")) assertEquals(100, (int) counts.get(server));
+    }
+
+    public void testCooledKeyIsDemoted() throws InterruptedException {
+        HotKeySplitter splitter = promote("hot", HotKeySplitter.Strategy.LEAST_LOADED);
+        assertEquals(1, splitter.promotions());
+
+        Thread.sleep(20);
+        splitter.refresh();
+        assertTrue(splitter.promotedKeys().isEmpty());
+        assertEquals(1, splitter.demotions());
+        assertEquals(42, splitter.route("hot", 42));
+    }
+
+    /**
+     * Builds a splitter and drives a burst of requests for a key through it until the key is promoted.
+     */
+    private HotKeySplitter promote(String key, HotKeySplitter.Strategy strategy) throws InterruptedException {
+        HotKeySplitter splitter = new HotKeySplitter(router, new SkewedLoad(), () -> detector, REPLICAS, strategy, 1000, null);
+        // The first refresh records the key's count, so the second can measure its rate.
+        detector.track(key, router.hash(key));
+        splitter.refresh();
+        for (int i = 0; i < 100_000; i++) detector.track(key, router.hash(key));
+        Thread.sleep(20);
+        splitter.refresh();
+        assertEquals(Set.of(key), splitter.promotedKeys());
+        return splitter;
+    }
+
+    /**
+     * Returns the current preference list of a key.
+     */
+    private int[] replicas(String key) {
+        int[] servers = new int[REPLICAS];
+        assertEquals(REPLICAS, router.routeToServers(key, REPLICAS, servers));
+        return servers;
+    }
+
+    /**
+     * Routes a key's requests and checks every replica took its weight's share, to within one request.
+     */
+    private void assertSplit(HotKeySplitter splitter, String key, int[] replicas, int requests) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < requests; i++) counts.merge(splitter.route(key, replicas[0]), 1, Integer::sum);
+        assertEquals(counts.toString(), REPLICAS, counts.size());
+        long totalWeight = 0;
+        for (int server : replicas) totalWeight += weight(server);
+        for (int server : replicas) {
+            double expected = (double) requests * weight(server) / totalWeight;
+            assertEquals(counts.toString(), expected, counts.getOrDefault(server, 0), 1.0);
+        }
+    }
+
+    /**
+     * Returns the weight of a server on the ring.
+     */
+    private int weight(int serverId) {
+        for (Server server : ring.servers()) if (server.id() == serverId) return server.weight();
+        return 0;
+    }
+
+    /**
+     * Reports the ring's weights and a lifetime load that favours server 0 by a million requests.
+     */
+    private final class SkewedLoad implements LoadView {
+
+        @Override
+        public long load(int serverId) {
+            return lifetimeLoad.getOrDefault(serverId, 0L);
+        }
+
+        @Override
+        public long totalLoad() {
+            return lifetimeLoad.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        @Override
+        public int serverCount() {
+            return ring.servers().size();
+        }
+
+        @Override
+        public int weight(int serverId) {
+            return HotKeySplitterTest.this.weight(serverId);
+        }
+
+        @Override
+        public long totalWeight() {
+            return ring.servers().stream().mapToLong(Server::weight).sum();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package routing;
+
+import junit.framework.TestCase;
+import system.ConsistentHashingSystem;
+
+/**
+ * Checks that the route cache serves routes only at the epoch they were computed under, evicts with CLOCK and never
+ * sends a request to a server that has left the ring.
+ *
+ * @author Aadarsh Pandey
+ * @since 17th Oct 2026
+ */
+public class RouteCacheTest extends TestCase {
+
+    public void testServesRoutesOnlyAtTheirEpoch() {
+        RouteCache cache = new RouteCache(64);
+        assertNull(cache.get("a", 1));
+        cache.put("a", 42, 3, 1);
+        RouteCache.Route route = cache.get("a", 1);
+        assertNotNull(route);
+        assertEquals(3, route.serverId());
+        assertEquals(42, route.keyHash());
+        assertNull(cache.get("a", 2));
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    public void testCapacityRoundsUpToWholeSets() {
+        assertEquals(4, new RouteCache(1).capacity());
+        assertEquals(16, new RouteCache(10).capacity());
+        assertEquals(1024, new RouteCache(1024).capacity());
+    }
+
+    public void testClockEvictsTheUnreferencedEntry() {
+        RouteCache cache = new RouteCache(4);
+        for (int i = 0; i < 4; i++) cache.put("key-" + i, i, i, 1);
+        for (int i = 0; i < 3; i++) assertNotNull(cache.get("key-" + i, 1));
+        cache.put("key-4", 4, 4, 1);
+        assertNull(cache.get("key-3", 1));
+        for (int i = 0; i < 3; i++) assertNotNull(cache.get("key-" + i, 1));
+        assertNotNull(cache.get("key-4", 1));
+    }
+
+    public void testMembershipChangeInvalidatesCachedRoutes() {
+        ConsistentHashingSystem system = new ConsistentHashingSystem();
+        for (int i = 0; i < 5; i++) system.addServer();
+        system.enableRouteCache(4096);
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 2000; i++) assertOwner(system, "key-" + i);
+        }
+        // A key whose set received more than four keys may have been evicted before the second round.
+        assertTrue(system.routeCache().hits() > 1900);
+
+        system.removeServer(2);
+        for (int i = 0; i < 2000; i++) {
+            assertTrue(system.locate("key-" + i) != 2);
+            assertOwner(system, "key-" + i);
+        }
+    }
+
+    /**
+     * Checks that a key is routed to the server the current placement assigns it.
+     */
+    private static void assertOwner(ConsistentHashingSystem system, String key) {
+        assertEquals(key, system.placement().serverFor(system.hash(key)), system.locate(key));
+    }
+}